@@ -1,14 +1,19 @@
 package com.example.posqr.controller;
 
+import com.example.posqr.service.QrBatchService;
 import com.example.posqr.service.QrCodeService;
+import com.example.posqr.service.QrImage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -18,30 +23,44 @@ import java.util.Map;
 public class QrCodeController {
 
     private final QrCodeService qrCodeService;
+    private final QrBatchService qrBatchService;
 
     @Autowired
-    public QrCodeController(QrCodeService qrCodeService) {
+    public QrCodeController(QrCodeService qrCodeService, QrBatchService qrBatchService) {
         this.qrCodeService = qrCodeService;
+        this.qrBatchService = qrBatchService;
     }
 
     @GetMapping("/generate/{productId}")
-    public ResponseEntity<Resource> generateQrCode(@PathVariable Long productId) {
-        byte[] qrImage = qrCodeService.generateQrCodeForProduct(productId);
-        ByteArrayResource resource = new ByteArrayResource(qrImage);
+    public ResponseEntity<Resource> generateQrCode(@PathVariable Long productId,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        QrImage qrImage = qrCodeService.getQrCodeImageForProduct(productId);
+        if (qrImage.matches(ifNoneMatch)) {
+            return notModified(qrImage);
+        }
+        ByteArrayResource resource = new ByteArrayResource(qrImage.getBytes());
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=product-" + productId + "-qrcode.png")
+                .eTag(qrImage.getETag())
+                .cacheControl(CacheControl.noCache())
                 .contentType(MediaType.IMAGE_PNG)
-                .contentLength(qrImage.length)
+                .contentLength(qrImage.size())
                 .body(resource);
     }
 
     @GetMapping("/preview/{productId}")
-    public ResponseEntity<Resource> previewQrCode(@PathVariable Long productId) {
-        byte[] qrImage = qrCodeService.generateQrCodeForProduct(productId);
+    public ResponseEntity<Resource> previewQrCode(@PathVariable Long productId,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        QrImage qrImage = qrCodeService.getQrCodeImageForProduct(productId);
+        if (qrImage.matches(ifNoneMatch)) {
+            return notModified(qrImage);
+        }
         return ResponseEntity.ok()
+                .eTag(qrImage.getETag())
+                .cacheControl(CacheControl.noCache())
                 .contentType(MediaType.IMAGE_PNG)
-                .body(new ByteArrayResource(qrImage));
+                .body(new ByteArrayResource(qrImage.getBytes()));
     }
 
     @PostMapping("/decode")
@@ -61,6 +80,20 @@ public class QrCodeController {
         return ResponseEntity.ok(qrCodes);
     }
 
+    /**
+     * Streams the products' QR codes as a ZIP archive while they are rendered in
+     * parallel. Missing products are listed in errors.txt inside the archive.
+     */
+    @PostMapping("/batch/zip")
+    public ResponseEntity<StreamingResponseBody> generateQrCodesZip(@RequestBody List<Long> productIds) {
+        List<QrBatchService.Label> labels = qrBatchService.resolveLabels(productIds);
+        StreamingResponseBody body = out -> qrBatchService.writeZip(labels, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=qrcodes.zip")
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(body);
+    }
+
     @GetMapping("/text/{productId}")
     public ResponseEntity<String> getQrCodeText(@PathVariable Long productId) {
         String qrContent = qrCodeService.getQrCodeTextForProduct(productId);
@@ -69,8 +102,8 @@ public class QrCodeController {
 
     @DeleteMapping("/clear-cache")
     public ResponseEntity<String> clearQrCodeCache() {
-        qrCodeService.clearQrCodeCache();
-        return ResponseEntity.ok("QR code cache cleared successfully.");
+        int evicted = qrCodeService.clearQrCodeCache();
+        return ResponseEntity.ok("QR code cache cleared successfully. Evicted " + evicted + " image(s).");
     }
 
     @PostMapping("/save-to-disk/{productId}")
@@ -129,4 +162,12 @@ public class QrCodeController {
         List<Map<String, Object>> metadataList = qrCodeService.getAllQrCodesMetadata();
         return ResponseEntity.ok(metadataList);
     }
+
+    // Clients revalidate with the ETag; 304 responses repeat it and carry no body
+    private ResponseEntity<Resource> notModified(QrImage qrImage) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(qrImage.getETag())
+                .cacheControl(CacheControl.noCache())
+                .build();
+    }
 }
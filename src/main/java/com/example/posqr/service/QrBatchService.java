@@ -0,0 +1,199 @@
+package com.example.posqr.service;
+
+import com.example.posqr.model.Product;
+import com.example.posqr.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Renders QR codes for many products in parallel and streams them as a ZIP archive.
+ *
+ * Rendering runs on a fork-join pool sized to the available cores. Each image is
+ * written to the archive as soon as it is ready, in completion order, and at most
+ * twice the pool size are rendered ahead of the writer, so memory stays bounded no
+ * matter how large the batch is.
+ *
+ * PNGs are already compressed, so entries are stored rather than deflated; workers
+ * compute the CRC alongside the image. Products that are missing or fail to render
+ * are listed in an {@value #ERRORS_ENTRY} entry at the end of the archive.
+ */
+@Service
+public class QrBatchService {
+
+    static final String ERRORS_ENTRY = "errors.txt";
+
+    private final QrCodeService qrCodeService;
+    private final ProductRepository productRepository;
+    private final ForkJoinPool pool;
+    private final int maxInFlight;
+
+    @Autowired
+    public QrBatchService(QrCodeService qrCodeService,
+                          ProductRepository productRepository,
+                          @Value("${qr.batch.parallelism:0}") int parallelism) {
+        this.qrCodeService = qrCodeService;
+        this.productRepository = productRepository;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads);
+        this.maxInFlight = threads * 2;
+    }
+
+    /** A product's QR payload, or a null text when the product does not exist. */
+    public static final class Label {
+        private final Long productId;
+        private final String text;
+
+        public Label(Long productId, String text) {
+            this.productId = productId;
+            this.text = text;
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public String getText() {
+            return text;
+        }
+    }
+
+    /**
+     * Looks up the products in one query and builds their QR payloads, in request
+     * order with duplicates removed. Call this before streaming starts, so lookup
+     * failures still surface as a normal error response.
+     */
+    public List<Label> resolveLabels(Collection<Long> productIds) {
+        LinkedHashSet<Long> ids = new LinkedHashSet<>(productIds);
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            products.put(product.getId(), product);
+        }
+        List<Label> labels = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = products.get(id);
+            labels.add(new Label(id, product == null ? null : qrCodeService.generateQrCodeTextForProduct(
+                    product.getId(), product.getName(),
+                    product.getPrice() == null ? "" : product.getPrice().toPlainString())));
+        }
+        return labels;
+    }
+
+    /**
+     * Streams the labels' QR codes to the output as a ZIP archive. The output is
+     * finished but not closed. If writing fails, for example because the client
+     * went away, renders that have not started are cancelled.
+     */
+    public void writeZip(List<Label> labels, OutputStream out) throws IOException {
+        CompletionService<Rendered> completion = new ExecutorCompletionService<>(pool);
+        Deque<Future<Rendered>> pending = new ArrayDeque<>();
+        List<String> errors = new ArrayList<>();
+        ZipOutputStream zip = new ZipOutputStream(out);
+        int next = 0;
+        try {
+            while (next < labels.size() || !pending.isEmpty()) {
+                while (pending.size() < maxInFlight && next < labels.size()) {
+                    Label label = labels.get(next++);
+                    if (label.text == null) {
+                        errors.add(label.productId + ": product not found");
+                    } else {
+                        pending.add(completion.submit(() -> render(label)));
+                    }
+                }
+                if (pending.isEmpty()) {
+                    continue;
+                }
+                Future<Rendered> done = completion.take();
+                pending.remove(done);
+                Rendered rendered = done.get();
+                if (rendered.error != null) {
+                    errors.add(rendered.productId + ": " + rendered.error);
+                } else {
+                    writeStored(zip, rendered.fileName, rendered.bytes, rendered.crc);
+                }
+            }
+            if (!errors.isEmpty()) {
+                byte[] report = String.join("\n", errors).concat("\n").getBytes(StandardCharsets.UTF_8);
+                CRC32 crc = new CRC32();
+                crc.update(report);
+                writeStored(zip, ERRORS_ENTRY, report, crc.getValue());
+            }
+            zip.finish();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("QR batch was interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("QR batch rendering failed", e.getCause());
+        } finally {
+            for (Future<Rendered> future : pending) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private Rendered render(Label label) {
+        try {
+            byte[] png = qrCodeService.renderQrCode(label.text,
+                    QrCodeService.DEFAULT_QR_WIDTH, QrCodeService.DEFAULT_QR_HEIGHT);
+            CRC32 crc = new CRC32();
+            crc.update(png);
+            return new Rendered(label.productId, qrCodeService.generateQrFileName(label.productId), png, crc.getValue(), null);
+        } catch (Exception e) {
+            return new Rendered(label.productId, null, null, 0, String.valueOf(e.getMessage()));
+        }
+    }
+
+    private static void writeStored(ZipOutputStream zip, String name, byte[] bytes, long crc) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(bytes.length);
+        entry.setCompressedSize(bytes.length);
+        entry.setCrc(crc);
+        zip.putNextEntry(entry);
+        zip.write(bytes);
+        zip.closeEntry();
+    }
+
+    private static final class Rendered {
+        private final Long productId;
+        private final String fileName;
+        private final byte[] bytes;
+        private final long crc;
+        private final String error;
+
+        private Rendered(Long productId, String fileName, byte[] bytes, long crc, String error) {
+            this.productId = productId;
+            this.fileName = fileName;
+            this.bytes = bytes;
+            this.crc = crc;
+            this.error = error;
+        }
+    }
+}
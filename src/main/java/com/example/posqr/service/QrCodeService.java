@@ -1,19 +1,21 @@
 package com.example.posqr.service;
 
+import com.example.posqr.model.Product;
+import com.example.posqr.repository.ProductRepository;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
 import org.apache.commons.io.FileUtils;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.FileSystems;
-import java.nio.file.Files;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.*;
@@ -24,18 +26,67 @@ public class QrCodeService {
 
     private static final String QR_CODE_IMAGE_PATH = "src/main/resources/static/qrcodes/";
 
-    public void generateQrCodeImage(String text, int width, int height, String fileName) throws WriterException, IOException {
-        QRCodeWriter qrCodeWriter = new QRCodeWriter();
-        Map<EncodeHintType, Object> hints = new HashMap<>();
-        hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
+    public static final int DEFAULT_QR_WIDTH = 300;
+    public static final int DEFAULT_QR_HEIGHT = 300;
+
+    // QRCodeWriter keeps no state, so one instance and one hints map serve every request
+    private static final QRCodeWriter QR_CODE_WRITER = new QRCodeWriter();
+    private static final Map<EncodeHintType, Object> ENCODE_HINTS =
+            Collections.unmodifiableMap(new EnumMap<>(Map.of(EncodeHintType.CHARACTER_SET, "UTF-8")));
+
+    private final ProductRepository productRepository;
+    private final QrImageCache imageCache;
+    private final String outputDirectory;
+    private volatile QrCodeStore store;
+
+    public QrCodeService(ProductRepository productRepository, long cacheMaxBytes) {
+        this(productRepository, cacheMaxBytes, QR_CODE_IMAGE_PATH);
+    }
+
+    @Autowired
+    public QrCodeService(ProductRepository productRepository,
+                         @Value("${qr.cache.max-bytes:33554432}") long cacheMaxBytes,
+                         @Value("${qr.output.dir:" + QR_CODE_IMAGE_PATH + "}") String outputDirectory) {
+        this.productRepository = productRepository;
+        this.imageCache = new QrImageCache(cacheMaxBytes);
+        this.outputDirectory = outputDirectory.endsWith("/") ? outputDirectory : outputDirectory + "/";
+    }
+
+    /** Opened on first use, which also imports any flat PNGs left in the output directory. */
+    private QrCodeStore store() {
+        QrCodeStore current = store;
+        if (current == null) {
+            synchronized (this) {
+                current = store;
+                if (current == null) {
+                    try {
+                        current = new QrCodeStore(Path.of(outputDirectory));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Failed to open QR code store at " + outputDirectory, e);
+                    }
+                    store = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @PreDestroy
+    public void closeStore() throws IOException {
+        QrCodeStore current = store;
+        if (current != null) {
+            current.close();
+        }
+    }
 
-        BitMatrix bitMatrix = qrCodeWriter.encode(text, BarcodeFormat.QR_CODE, width, height, hints);
-        Path path = FileSystems.getDefault().getPath(QR_CODE_IMAGE_PATH + fileName);
-        MatrixToImageWriter.writeToPath(bitMatrix, "PNG", path);
+    public void generateQrCodeImage(String text, int width, int height, String fileName) throws WriterException, IOException {
+        BitMatrix bitMatrix = QR_CODE_WRITER.encode(text, BarcodeFormat.QR_CODE, width, height, ENCODE_HINTS);
+        store().put(fileName, QrPngEncoder.encode(bitMatrix));
     }
 
+    /** Location of the stored image's bytes, or null when no image has that name. */
     public String getQrCodeImagePath(String fileName) {
-        return QR_CODE_IMAGE_PATH + fileName;
+        return store().find(fileName).map(entry -> entry.getPath().toString()).orElse(null);
     }
 
     public String generateQrCodeTextForProduct(Long productId, String productName, String price) {
@@ -56,9 +107,8 @@ public class QrCodeService {
     }
 
     public boolean deleteQrCodeImage(String fileName) {
-        Path path = FileSystems.getDefault().getPath(QR_CODE_IMAGE_PATH + fileName);
         try {
-            return Files.deleteIfExists(path);
+            return store().delete(fileName);
         } catch (IOException e) {
             e.printStackTrace();
             return false;
@@ -67,48 +117,81 @@ public class QrCodeService {
 
     public void clearAllQrCodes() {
         try {
-            FileUtils.cleanDirectory(new File(QR_CODE_IMAGE_PATH));
+            store().clear();
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
     public List<String> listAllQrCodeFiles() {
-        File dir = new File(QR_CODE_IMAGE_PATH);
-        String[] files = dir.list((d, name) -> name.endsWith(".png"));
-        return files != null ? Arrays.asList(files) : Collections.emptyList();
+        return store().names().stream()
+                .filter(name -> name.endsWith(".png"))
+                .collect(Collectors.toList());
     }
 
     public boolean doesQrCodeExist(String fileName) {
-        File file = new File(QR_CODE_IMAGE_PATH + fileName);
-        return file.exists();
+        return store().contains(fileName);
     }
 
     public long getQrCodeFileSize(String fileName) {
-        File file = new File(QR_CODE_IMAGE_PATH + fileName);
-        return file.exists() ? file.length() : -1;
+        return store().find(fileName).map(QrCodeStore.Entry::getSize).orElse(-1L);
     }
 
     public Map<String, Object> getQrCodeMetadata(String fileName) {
-        File file = new File(QR_CODE_IMAGE_PATH + fileName);
-        Map<String, Object> metadata = new HashMap<>();
-        if (file.exists()) {
-            metadata.put("name", file.getName());
-            metadata.put("size", file.length());
-            metadata.put("lastModified", new Date(file.lastModified()));
-        }
-        return metadata;
+        return store().find(fileName).map(this::toMetadata).orElseGet(HashMap::new);
     }
 
     public byte[] generateQrCodeToBytes(String text, int width, int height) throws WriterException, IOException {
-        QRCodeWriter qrCodeWriter = new QRCodeWriter();
-        Map<EncodeHintType, Object> hints = new HashMap<>();
-        hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
-        BitMatrix bitMatrix = qrCodeWriter.encode(text, BarcodeFormat.QR_CODE, width, height, hints);
+        BitMatrix bitMatrix = QR_CODE_WRITER.encode(text, BarcodeFormat.QR_CODE, width, height, ENCODE_HINTS);
 
-        ByteArrayOutputStream pngOutputStream = new ByteArrayOutputStream();
-        MatrixToImageWriter.writeToStream(bitMatrix, "PNG", pngOutputStream);
-        return pngOutputStream.toByteArray();
+        return QrPngEncoder.encode(bitMatrix);
+    }
+
+    /**
+     * Returns the QR image for the text, from the image cache when it was rendered
+     * before at the same size. The returned bytes are shared and must not be modified.
+     */
+    public QrImage getQrCodeImage(String text, int width, int height) throws WriterException, IOException {
+        QrImage image = imageCache.get(text, width, height);
+        if (image == null) {
+            image = new QrImage(generateQrCodeToBytes(text, width, height));
+            imageCache.put(text, width, height, image);
+        }
+        return image;
+    }
+
+    /**
+     * Returns the PNG for the text, from the image cache when present. New renders are
+     * not stored, so bulk exports do not push hot shelf labels out of the cache.
+     */
+    public byte[] renderQrCode(String text, int width, int height) throws WriterException, IOException {
+        QrImage cached = imageCache.get(text, width, height);
+        return cached != null ? cached.getBytes() : generateQrCodeToBytes(text, width, height);
+    }
+
+    public QrImage getQrCodeImageForProduct(Long productId) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+        String text = generateQrCodeTextForProduct(product.getId(), product.getName(),
+                product.getPrice() == null ? "" : product.getPrice().toPlainString());
+        try {
+            return getQrCodeImage(text, DEFAULT_QR_WIDTH, DEFAULT_QR_HEIGHT);
+        } catch (WriterException | IOException e) {
+            throw new RuntimeException("Failed to generate QR code for product id: " + productId, e);
+        }
+    }
+
+    public byte[] generateQrCodeForProduct(Long productId) {
+        return getQrCodeImageForProduct(productId).getBytes();
+    }
+
+    /** Evicts every cached QR image and returns how many were removed. */
+    public int clearQrCodeCache() {
+        return imageCache.clear();
+    }
+
+    public QrImageCache getImageCache() {
+        return imageCache;
     }
 
     public String generateQrCodeAsBase64(String text, int width, int height) throws WriterException, IOException {
@@ -117,24 +200,24 @@ public class QrCodeService {
     }
 
     public boolean renameQrCodeFile(String oldName, String newName) {
-        File oldFile = new File(QR_CODE_IMAGE_PATH + oldName);
-        File newFile = new File(QR_CODE_IMAGE_PATH + newName);
-        return oldFile.exists() && oldFile.renameTo(newFile);
+        try {
+            return store().rename(oldName, newName);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
     }
 
     public boolean moveQrCodeFile(String fileName, String newDirectory) {
-        File oldFile = new File(QR_CODE_IMAGE_PATH + fileName);
-        File newDir = new File(newDirectory);
-        if (!newDir.exists()) newDir.mkdirs();
-        File newFile = new File(newDir, fileName);
-        return oldFile.exists() && oldFile.renameTo(newFile);
+        return copyQrCodeFile(fileName, newDirectory) && deleteQrCodeImage(fileName);
     }
 
     public boolean copyQrCodeFile(String fileName, String destinationDirectory) {
-        File srcFile = new File(QR_CODE_IMAGE_PATH + fileName);
+        Optional<QrCodeStore.Entry> entry = store().find(fileName);
+        if (entry.isEmpty()) return false;
         File destFile = new File(destinationDirectory + File.separator + fileName);
         try {
-            FileUtils.copyFile(srcFile, destFile);
+            FileUtils.copyFile(entry.get().getPath().toFile(), destFile);
             return true;
         } catch (IOException e) {
             e.printStackTrace();
@@ -142,21 +225,24 @@ public class QrCodeService {
         }
     }
 
+    /** Answered from the store's index, without listing or reading the image files. */
     public List<Map<String, Object>> getAllQrCodeMetadata() {
-        File folder = new File(QR_CODE_IMAGE_PATH);
-        File[] files = folder.listFiles((dir, name) -> name.toLowerCase().endsWith(".png"));
-        if (files == null) return Collections.emptyList();
+        return store().entries().stream()
+                .filter(entry -> entry.getName().toLowerCase().endsWith(".png"))
+                .map(this::toMetadata)
+                .collect(Collectors.toList());
+    }
 
-        return Arrays.stream(files).map(file -> {
-            Map<String, Object> data = new HashMap<>();
-            data.put("name", file.getName());
-            data.put("size", file.length());
-            data.put("lastModified", new Date(file.lastModified()));
-            return data;
-        }).collect(Collectors.toList());
+    private Map<String, Object> toMetadata(QrCodeStore.Entry entry) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", entry.getName());
+        data.put("size", entry.getSize());
+        data.put("lastModified", new Date(entry.getLastModified()));
+        data.put("hash", entry.getHash());
+        return data;
     }
 
     public String getQrCodeDirectoryPath() {
-        return QR_CODE_IMAGE_PATH;
+        return outputDirectory;
     }
 } 
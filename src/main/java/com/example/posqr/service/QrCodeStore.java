@@ -0,0 +1,520 @@
+package com.example.posqr.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store for QR code images.
+ *
+ * Each distinct image is written once, named by its SHA-256 and sharded two levels
+ * deep ({@code objects/ab/cd/abcd...png}), so no directory grows beyond a few thousand
+ * entries. Names map to images through a compact index file that is memory-mapped:
+ * lookups, listings and metadata (name to {@code (hash, size, mtime)}) are answered from
+ * the mapping and never list or stat the image directories.
+ *
+ * Index layout: a 16-byte header (magic, version, end offset) followed by append-only
+ * records {@code [u16 name length][UTF-8 name][32-byte hash][i64 size][i64 mtime][u8 live]}.
+ * Deleting or replacing a name clears the old record's live flag in place; the file
+ * is compacted once dead records outweigh live ones. Each record is forced to disk
+ * before the end offset that publishes it, and the new record for a name before the
+ * old one is cleared, so a crash leaves either the old or the new entry and a torn
+ * write is ignored on the next open. Image files are forced before they are indexed.
+ *
+ * Flat PNGs left in the root directory by earlier versions are copied into the store
+ * on first open; the originals are left where they are. Instances are thread-safe.
+ */
+public class QrCodeStore implements AutoCloseable {
+
+    private static final int MAGIC = 0x51524958; // "QRIX"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int END_OFFSET = 8;
+    private static final int HASH_BYTES = 32;
+    private static final int FIXED_RECORD_BYTES = 2 + HASH_BYTES + 8 + 8 + 1;
+    private static final int MAX_NAME_BYTES = 0xFFFF;
+    private static final long INITIAL_INDEX_BYTES = 1 << 20;
+    private static final long MIN_COMPACT_DEAD_BYTES = 1 << 20;
+
+    static final String INDEX_FILE = "index.bin";
+    static final String OBJECTS_DIR = "objects";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** Metadata of a stored image, read from the index. */
+    public static final class Entry {
+        private final String name;
+        private final String hash;
+        private final long size;
+        private final long lastModified;
+        private final Path objects;
+
+        private Entry(String name, String hash, long size, long lastModified, Path objects) {
+            this.name = name;
+            this.hash = hash;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.objects = objects;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /** Hex SHA-256 of the image bytes */
+        public String getHash() {
+            return hash;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        /** Location of the image bytes, shared by every name with the same content */
+        public Path getPath() {
+            return blobPath(objects, hash);
+        }
+    }
+
+    private final Path root;
+    private final Path objects;
+    private final Path indexPath;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Name to offset of its live record */
+    private final Map<String, Integer> offsets = new HashMap<>();
+    /** Live names per image, keyed by the hex hash */
+    private final Map<String, Integer> references = new HashMap<>();
+
+    private FileChannel channel;
+    private MappedByteBuffer index;
+    private int end;
+    private long deadBytes;
+
+    public QrCodeStore(Path root) throws IOException {
+        this.root = Objects.requireNonNull(root, "Root must not be null");
+        this.objects = root.resolve(OBJECTS_DIR);
+        this.indexPath = root.resolve(INDEX_FILE);
+        Files.createDirectories(objects);
+        boolean created = !Files.exists(indexPath);
+        openIndex();
+        if (created) {
+            importLegacyFiles();
+        }
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /** Stores the image under the name, replacing any previous image of that name. */
+    public Entry put(String name, byte[] image) throws IOException {
+        return put(name, image, System.currentTimeMillis());
+    }
+
+    public Optional<Entry> find(String name) {
+        lock.readLock().lock();
+        try {
+            Integer offset = offsets.get(name);
+            return offset == null ? Optional.empty() : Optional.of(readEntry(offset));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(String name) {
+        lock.readLock().lock();
+        try {
+            return offsets.containsKey(name);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public byte[] read(String name) throws IOException {
+        Optional<Entry> entry = find(name);
+        return entry.isPresent() ? Files.readAllBytes(entry.get().getPath()) : null;
+    }
+
+    public List<String> names() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(offsets.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Metadata of every stored image, in insertion order. */
+    public List<Entry> entries() {
+        lock.readLock().lock();
+        try {
+            List<Integer> live = new ArrayList<>(offsets.values());
+            live.sort(Comparator.naturalOrder());
+            List<Entry> entries = new ArrayList<>(live.size());
+            for (int offset : live) {
+                entries.add(readEntry(offset));
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return offsets.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Removes the name; the image file goes once no other name refers to it. */
+    public boolean delete(String name) throws IOException {
+        lock.writeLock().lock();
+        try {
+            Integer offset = offsets.remove(name);
+            if (offset == null) {
+                return false;
+            }
+            byte[] hash = kill(offset);
+            release(hash);
+            compactIfWasteful();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Renames an entry without touching the image file. */
+    public boolean rename(String oldName, String newName) throws IOException {
+        checkName(newName);
+        lock.writeLock().lock();
+        try {
+            Integer offset = offsets.get(oldName);
+            if (offset == null || offsets.containsKey(newName)) {
+                return false;
+            }
+            Entry entry = readEntry(offset);
+            byte[] hash = hashAt(offset);
+            offsets.put(newName, append(newName, hash, entry.size, entry.lastModified));
+            offsets.remove(oldName);
+            kill(offset);
+            compactIfWasteful();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Removes every entry and image. */
+    public void clear() throws IOException {
+        lock.writeLock().lock();
+        try {
+            closeIndex();
+            deleteTree(objects);
+            Files.deleteIfExists(indexPath);
+            offsets.clear();
+            references.clear();
+            Files.createDirectories(objects);
+            openIndex();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Rewrites the index without dead records. */
+    public void compact() throws IOException {
+        lock.writeLock().lock();
+        try {
+            Path tmp = root.resolve(INDEX_FILE + ".tmp");
+            List<Integer> live = new ArrayList<>(offsets.values());
+            live.sort(Comparator.naturalOrder());
+            ByteBuffer out = ByteBuffer.allocate(Math.max(HEADER_BYTES, end - (int) deadBytes));
+            out.putInt(MAGIC).putInt(VERSION).putLong(0);
+            for (int offset : live) {
+                int length = recordLength(offset);
+                ByteBuffer record = index.duplicate();
+                record.position(offset).limit(offset + length);
+                out.put(record);
+            }
+            out.putLong(END_OFFSET, out.position());
+            out.flip();
+            try (FileChannel tmpChannel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (out.hasRemaining()) {
+                    tmpChannel.write(out);
+                }
+                tmpChannel.force(true);
+            }
+            closeIndex();
+            Files.move(tmp, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            offsets.clear();
+            references.clear();
+            openIndex();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            closeIndex();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Entry put(String name, byte[] image, long lastModified) throws IOException {
+        checkName(name);
+        Objects.requireNonNull(image, "Image must not be null");
+        byte[] hash = sha256(image);
+        Path blob = blobPath(hash);
+        Files.createDirectories(blob.getParent());
+        Path tmp = Files.createTempFile(blob.getParent(), "put", ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer bytes = ByteBuffer.wrap(image);
+                while (bytes.hasRemaining()) {
+                    out.write(bytes);
+                }
+                out.force(true);
+            }
+            lock.writeLock().lock();
+            try {
+                // Blobs are only created and deleted under the lock, so a concurrent delete cannot remove this one
+                if (!Files.exists(blob)) {
+                    Files.move(tmp, blob, StandardCopyOption.ATOMIC_MOVE);
+                }
+                retain(hash);
+                Integer previous = offsets.put(name, append(name, hash, image.length, lastModified));
+                if (previous != null) {
+                    release(kill(previous));
+                }
+                compactIfWasteful();
+                return new Entry(name, hex(hash), image.length, lastModified, objects);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private void openIndex() throws IOException {
+        channel = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long fileSize = channel.size();
+        index = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(fileSize, INITIAL_INDEX_BYTES));
+        if (fileSize == 0) {
+            index.putInt(0, MAGIC).putInt(4, VERSION).putLong(END_OFFSET, HEADER_BYTES);
+        } else if (index.getInt(0) != MAGIC || index.getInt(4) != VERSION) {
+            throw new IOException("Not a QR code index: " + indexPath);
+        }
+        end = (int) index.getLong(END_OFFSET);
+        deadBytes = 0;
+        int offset = HEADER_BYTES;
+        while (offset < end) {
+            int length = recordLength(offset);
+            if (index.get(offset + length - 1) != 0) {
+                retain(hashAt(offset));
+                // A crash between writing a replacement and clearing the record it replaced
+                // leaves both live; the later one wins
+                Integer replaced = offsets.put(nameAt(offset), offset);
+                if (replaced != null) {
+                    release(kill(replaced));
+                }
+            } else {
+                deadBytes += length;
+            }
+            offset += length;
+        }
+    }
+
+    private void closeIndex() throws IOException {
+        if (channel != null) {
+            index.force();
+            channel.close();
+            channel = null;
+            index = null;
+        }
+    }
+
+    private int append(String name, byte[] hash, long size, long lastModified) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        int length = FIXED_RECORD_BYTES + nameBytes.length;
+        ensureCapacity(length);
+        int offset = end;
+        index.putShort(offset, (short) nameBytes.length);
+        index.put(offset + 2, nameBytes);
+        int pos = offset + 2 + nameBytes.length;
+        index.put(pos, hash);
+        index.putLong(pos + HASH_BYTES, size);
+        index.putLong(pos + HASH_BYTES + 8, lastModified);
+        index.put(pos + HASH_BYTES + 16, (byte) 1);
+        // The record must be durable before the end offset publishes it
+        index.force(offset, length);
+        end = offset + length;
+        index.putLong(END_OFFSET, end);
+        index.force(END_OFFSET, Long.BYTES);
+        return offset;
+    }
+
+    /** Clears the record's live flag and returns its hash. */
+    private byte[] kill(int offset) {
+        int length = recordLength(offset);
+        index.put(offset + length - 1, (byte) 0);
+        index.force(offset + length - 1, 1);
+        deadBytes += length;
+        return hashAt(offset);
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        if ((long) end + length <= index.capacity()) {
+            return;
+        }
+        long capacity = index.capacity();
+        while (capacity < (long) end + length) {
+            capacity *= 2;
+        }
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException("QR code index is full");
+        }
+        index.force();
+        index = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private void compactIfWasteful() throws IOException {
+        if (deadBytes > MIN_COMPACT_DEAD_BYTES && deadBytes > end - deadBytes) {
+            compact();
+        }
+    }
+
+    private void retain(byte[] hash) {
+        references.merge(hex(hash), 1, Integer::sum);
+    }
+
+    private void release(byte[] hash) throws IOException {
+        String key = hex(hash);
+        Integer count = references.get(key);
+        if (count == null || count <= 1) {
+            references.remove(key);
+            Files.deleteIfExists(blobPath(hash));
+        } else {
+            references.put(key, count - 1);
+        }
+    }
+
+    private int recordLength(int offset) {
+        return FIXED_RECORD_BYTES + (index.getShort(offset) & 0xFFFF);
+    }
+
+    private String nameAt(int offset) {
+        byte[] name = new byte[index.getShort(offset) & 0xFFFF];
+        index.get(offset + 2, name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private byte[] hashAt(int offset) {
+        byte[] hash = new byte[HASH_BYTES];
+        index.get(offset + 2 + (index.getShort(offset) & 0xFFFF), hash);
+        return hash;
+    }
+
+    private Entry readEntry(int offset) {
+        int pos = offset + 2 + (index.getShort(offset) & 0xFFFF);
+        return new Entry(nameAt(offset), hex(hashAt(offset)), index.getLong(pos + HASH_BYTES),
+                index.getLong(pos + HASH_BYTES + 8), objects);
+    }
+
+    private Path blobPath(byte[] hash) {
+        return blobPath(objects, hex(hash));
+    }
+
+    private static Path blobPath(Path objects, String hex) {
+        return objects.resolve(hex.substring(0, 2)).resolve(hex.substring(2, 4)).resolve(hex + ".png");
+    }
+
+    /**
+     * Copies flat PNGs from the root directory into the store, keeping their names and
+     * mtimes. The originals stay in place for anything that still reads them directly.
+     */
+    private void importLegacyFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root, "*.png")) {
+            for (Path file : files) {
+                if (Files.isRegularFile(file)) {
+                    FileTime modified = Files.getLastModifiedTime(file);
+                    put(file.getFileName().toString(), Files.readAllBytes(file), modified.toMillis());
+                }
+            }
+        }
+    }
+
+    private static void checkName(String name) {
+        Objects.requireNonNull(name, "Name must not be null");
+        if (name.isEmpty() || name.getBytes(StandardCharsets.UTF_8).length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Invalid QR code name: " + name);
+        }
+    }
+
+    private static void deleteTree(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.posqr.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * A rendered QR code PNG together with its strong ETag, derived from a SHA-256 of the
+ * image bytes. Identical images always get the same ETag, so a client can revalidate
+ * across restarts and cache evictions.
+ *
+ * Instances may be shared between requests through the image cache; the byte array
+ * returned by {@link #getBytes()} must not be modified.
+ */
+public final class QrImage {
+
+    private final byte[] bytes;
+    private final String eTag;
+
+    public QrImage(byte[] bytes) {
+        this.bytes = Objects.requireNonNull(bytes, "Image bytes must not be null");
+        this.eTag = computeETag(bytes);
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /** Quoted strong entity tag, as sent in the ETag header */
+    public String getETag() {
+        return eTag;
+    }
+
+    public int size() {
+        return bytes.length;
+    }
+
+    /**
+     * Whether an If-None-Match header value matches this image. Entity tags are
+     * compared weakly, as HTTP requires for If-None-Match.
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*")) {
+                return true;
+            }
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String computeETag(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return '"' + new String(Base64.getUrlEncoder().withoutPadding().encode(digest), StandardCharsets.US_ASCII) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.posqr.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * In-memory LRU cache of rendered QR images keyed by (payload, width, height) and
+ * bounded by total bytes rather than entry count, so a few large labels cannot push
+ * the heap past the configured budget.
+ *
+ * Each entry is weighed as its PNG size plus its payload and a fixed bookkeeping
+ * overhead. Images larger than the whole budget are never cached.
+ *
+ * Instances are thread-safe. Generation happens outside the cache; two threads that
+ * miss on the same key at once may both render it, and the last one stored wins.
+ */
+public class QrImageCache {
+
+    /** Approximate heap cost of a map entry, its key and the image wrapper */
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, QrImage> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long currentBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public QrImageCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /** Returns the cached image and marks it most recently used, or null on a miss. */
+    public synchronized QrImage get(String payload, int width, int height) {
+        QrImage image = entries.get(new Key(payload, width, height));
+        if (image == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return image;
+    }
+
+    /** Stores an image, evicting least recently used entries until it fits. */
+    public synchronized void put(String payload, int width, int height, QrImage image) {
+        Objects.requireNonNull(image, "Image must not be null");
+        Key key = new Key(payload, width, height);
+        long weight = weigh(key, image);
+        if (weight > maxBytes) {
+            return;
+        }
+        QrImage previous = entries.put(key, image);
+        if (previous != null) {
+            currentBytes -= weigh(key, previous);
+        }
+        currentBytes += weight;
+
+        Iterator<Map.Entry<Key, QrImage>> eldest = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Key, QrImage> entry = eldest.next();
+            currentBytes -= weigh(entry.getKey(), entry.getValue());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /** Evicts every image for the payload, at any size. */
+    public synchronized int invalidate(String payload) {
+        int removed = 0;
+        Iterator<Map.Entry<Key, QrImage>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, QrImage> entry = it.next();
+            if (entry.getKey().payload.equals(payload)) {
+                currentBytes -= weigh(entry.getKey(), entry.getValue());
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /** Evicts everything and returns the number of images removed. */
+    public synchronized int clear() {
+        int removed = entries.size();
+        entries.clear();
+        currentBytes = 0;
+        return removed;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getWeightBytes() {
+        return currentBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    private static long weigh(Key key, QrImage image) {
+        return image.size() + 2L * key.payload.length() + ENTRY_OVERHEAD_BYTES;
+    }
+
+    private static final class Key {
+        private final String payload;
+        private final int width;
+        private final int height;
+        private final int hash;
+
+        private Key(String payload, int width, int height) {
+            this.payload = Objects.requireNonNull(payload, "Payload must not be null");
+            this.width = width;
+            this.height = height;
+            this.hash = (payload.hashCode() * 31 + width) * 31 + height;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key that = (Key) o;
+            return width == that.width && height == that.height && payload.equals(that.payload);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.posqr.service;
+
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a ZXing {@link BitMatrix} as a 1-bit grayscale PNG, straight from the
+ * matrix's packed row words. Set modules are black.
+ *
+ * This replaces rasterizing a {@code BufferedImage} and running it through ImageIO:
+ * no AWT is involved, so it is headless-safe, and each thread reuses its
+ * {@link Deflater}, scanline buffer and output buffer, so an encode allocates little
+ * more than the returned array.
+ */
+public final class QrPngEncoder {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] IHDR = {'I', 'H', 'D', 'R'};
+    private static final byte[] IDAT = {'I', 'D', 'A', 'T'};
+    private static final byte[] IEND = {'I', 'E', 'N', 'D'};
+
+    /** Chunk length, type and CRC around each chunk's data */
+    private static final int CHUNK_OVERHEAD = 12;
+    private static final int IHDR_LENGTH = 13;
+
+    /** Bits of each byte reversed and inverted: ZXing packs the leftmost pixel in the lowest bit, PNG in the highest, and 0 is black */
+    private static final byte[] PNG_BYTE = new byte[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            PNG_BYTE[i] = (byte) ~(Integer.reverse(i) >>> 24);
+        }
+    }
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private QrPngEncoder() {
+    }
+
+    public static byte[] encode(BitMatrix matrix) {
+        Buffers buffers = BUFFERS.get();
+        int compressedLength = compress(matrix, buffers);
+
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        byte[] png = new byte[SIGNATURE.length + CHUNK_OVERHEAD + IHDR_LENGTH
+                + CHUNK_OVERHEAD + compressedLength + CHUNK_OVERHEAD];
+        System.arraycopy(SIGNATURE, 0, png, 0, SIGNATURE.length);
+        int pos = SIGNATURE.length;
+
+        byte[] header = buffers.header;
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        header[8] = 1;   // bit depth
+        header[9] = 0;   // grayscale
+        header[10] = 0;  // deflate
+        header[11] = 0;  // adaptive filtering
+        header[12] = 0;  // no interlace
+        pos = putChunk(png, pos, IHDR, header, IHDR_LENGTH, buffers.crc);
+        pos = putChunk(png, pos, IDAT, buffers.compressed, compressedLength, buffers.crc);
+        putChunk(png, pos, IEND, header, 0, buffers.crc);
+        return png;
+    }
+
+    public static void write(BitMatrix matrix, OutputStream out) throws IOException {
+        out.write(encode(matrix));
+    }
+
+    /** Packs the scanlines, each led by filter type 0, and deflates them into the compressed buffer. */
+    private static int compress(BitMatrix matrix, Buffers buffers) {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        int rowBytes = (width + 7) >>> 3;
+        int rawLength = (rowBytes + 1) * height;
+        byte[] raw = buffers.raw(rawLength);
+
+        BitArray row = buffers.row;
+        int pos = 0;
+        for (int y = 0; y < height; y++) {
+            row = matrix.getRow(y, row);
+            int[] words = row.getBitArray();
+            raw[pos++] = 0;
+            for (int i = 0; i < rowBytes; i++) {
+                raw[pos++] = PNG_BYTE[(words[i >>> 2] >>> ((i & 3) << 3)) & 0xFF];
+            }
+        }
+        buffers.row = row;
+
+        Deflater deflater = buffers.deflater;
+        deflater.reset();
+        deflater.setInput(raw, 0, rawLength);
+        deflater.finish();
+        byte[] compressed = buffers.compressed(rawLength / 4 + 64);
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = buffers.growCompressed();
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        return length;
+    }
+
+    private static int putChunk(byte[] png, int pos, byte[] type, byte[] data, int length, CRC32 crc) {
+        putInt(png, pos, length);
+        System.arraycopy(type, 0, png, pos + 4, 4);
+        System.arraycopy(data, 0, png, pos + 8, length);
+        crc.reset();
+        crc.update(png, pos + 4, length + 4);
+        putInt(png, pos + 8 + length, (int) crc.getValue());
+        return pos + CHUNK_OVERHEAD + length;
+    }
+
+    private static void putInt(byte[] bytes, int pos, int value) {
+        bytes[pos] = (byte) (value >>> 24);
+        bytes[pos + 1] = (byte) (value >>> 16);
+        bytes[pos + 2] = (byte) (value >>> 8);
+        bytes[pos + 3] = (byte) value;
+    }
+
+    private static final class Buffers {
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        private final CRC32 crc = new CRC32();
+        private final byte[] header = new byte[IHDR_LENGTH];
+        private BitArray row;
+        private byte[] raw = new byte[0];
+        private byte[] compressed = new byte[0];
+
+        private byte[] raw(int length) {
+            if (raw.length < length) {
+                raw = new byte[length];
+            }
+            return raw;
+        }
+
+        private byte[] compressed(int length) {
+            if (compressed.length < length) {
+                compressed = new byte[length];
+            }
+            return compressed;
+        }
+
+        private byte[] growCompressed() {
+            compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            return compressed;
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package com.pos;
 
+import com.pos.config.PersistenceConfig;
 import com.pos.controller.InventoryController;
 import com.pos.controller.OrderController;
 import com.pos.controller.CustomerController;
 import com.pos.controller.POSController;
 import com.pos.model.Product;
 import com.pos.model.Customer;
+import com.pos.repository.CustomerRepository;
+import com.pos.repository.InventoryRepository;
+import com.pos.repository.persistence.WriteAheadLog;
+import com.pos.service.CustomerService;
+import com.pos.service.InventoryService;
 
 import java.util.Scanner;
 
@@ -18,9 +24,19 @@ public class App {
     private static final Scanner scanner = new Scanner(System.in);
 
     public static void main(String[] args) {
-        InventoryController inventoryController = new InventoryController();
+        // Inventory and customers survive restarts through their write-ahead logs
+        WriteAheadLog<Product> inventoryLog = WriteAheadLog.open(PersistenceConfig.INVENTORY_SUBDIRECTORY, Product.class);
+        WriteAheadLog<Customer> customerLog = WriteAheadLog.open(PersistenceConfig.CUSTOMERS_SUBDIRECTORY, Customer.class);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            inventoryLog.close();
+            customerLog.close();
+        }, "wal-shutdown"));
+
+        InventoryController inventoryController =
+                new InventoryController(new InventoryService(new InventoryRepository(inventoryLog)));
         OrderController orderController = new OrderController();
-        CustomerController customerController = new CustomerController();
+        CustomerController customerController =
+                new CustomerController(new CustomerService(new CustomerRepository(customerLog)));
         POSController posController = new POSController();
 
         boolean isRunning = true;
@@ -25,6 +25,9 @@ public class AppConfig {
     public static final int RECEIPT_WIDTH = 40;
     public static final boolean PRINT_RECEIPT_ON_PAYMENT = true;
     public static final String RECEIPT_FOOTER = "Thank you for your purchase!";
+    public static final String RECEIPT_TITLE = "OFFICIAL RECEIPT";
+    public static final String RECEIPT_CLOSING = "THANK YOU FOR YOUR BUSINESS";
+    public static final int RECEIPT_BANNER_WIDTH = 30;
     public static final boolean SHOW_ITEMIZED_DISCOUNT = true;
     public static final boolean SHOW_TAX_BREAKDOWN = true;
 
@@ -44,6 +47,10 @@ public class AppConfig {
     public static final double DEFAULT_TAX_RATE = 0.08;
     public static final double SERVICE_CHARGE_RATE = 0.05;
 
+    // === Reports ===
+    public static final boolean APPROXIMATE_PRODUCT_RANKING = false;
+    public static final int PRODUCT_RANKING_CAPACITY = 10_000;
+
     // === HTTP ===
     public static final int HTTP_TIMEOUT_MS = 5000;
 
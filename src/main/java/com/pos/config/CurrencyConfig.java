@@ -2,21 +2,25 @@ package config;
 
 import model.CurrencyInfo;
 import model.LocaleType;
+import util.FormatterCache;
 
 import java.math.BigDecimal;
-import java.text.NumberFormat;
+import java.util.Collections;
 import java.util.Currency;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Locale;
 import java.util.Map;
 
 /**
  * CurrencyConfig centralizes configuration for supported currencies
  * and provides easy retrieval, formatting, parsing, and validation utilities.
+ *
+ * The registry is an immutable snapshot replaced on every change, so lookups never
+ * lock and each operation sees one consistent view. Changes are rare and serialized.
  */
 public class CurrencyConfig {
 
-    private static final Map<LocaleType, CurrencyInfo> currencyRegistry = new HashMap<>();
+    private static volatile Map<LocaleType, CurrencyInfo> currencyRegistry = Collections.emptyMap();
 
     static {
         registerCurrency(LocaleType.US, Locale.US);
@@ -30,56 +34,72 @@ public class CurrencyConfig {
         // Utility class, no instantiation
     }
 
-    public static void registerCurrency(LocaleType localeType, Locale locale) {
+    public static synchronized void registerCurrency(LocaleType localeType, Locale locale) {
         Currency currency = Currency.getInstance(locale);
-        currencyRegistry.put(localeType, new CurrencyInfo(
+        Map<LocaleType, CurrencyInfo> next = copyRegistry();
+        next.put(localeType, new CurrencyInfo(
                 currency.getCurrencyCode(),
                 currency.getSymbol(locale),
                 currency.getDefaultFractionDigits(),
                 locale
         ));
+        currencyRegistry = Collections.unmodifiableMap(next);
     }
 
     public static CurrencyInfo getCurrencyInfo(LocaleType localeType) {
         return currencyRegistry.get(localeType);
     }
 
+    /** Returns the current registry snapshot; it does not change if currencies are registered later. */
+    public static Map<LocaleType, CurrencyInfo> getRegisteredCurrencies() {
+        return currencyRegistry;
+    }
+
     public static boolean isCurrencySupported(LocaleType localeType) {
         return currencyRegistry.containsKey(localeType);
     }
 
     public static String formatAmount(BigDecimal amount, LocaleType localeType) {
-        validateCurrencySupport(localeType);
-        CurrencyInfo info = currencyRegistry.get(localeType);
-        NumberFormat format = NumberFormat.getCurrencyInstance(info.getLocale());
-        format.setCurrency(Currency.getInstance(info.getCode()));
-        format.setMinimumFractionDigits(info.getFractionDigits());
-        format.setMaximumFractionDigits(info.getFractionDigits());
-        return format.format(amount);
+        CurrencyInfo info = requireCurrencyInfo(localeType);
+        return FormatterCache.currency(info.getLocale(), info.getCode(), info.getFractionDigits()).format(amount);
     }
 
     public static BigDecimal parseAmount(String formattedAmount, LocaleType localeType) {
-        validateCurrencySupport(localeType);
+        CurrencyInfo info = requireCurrencyInfo(localeType);
         try {
-            CurrencyInfo info = currencyRegistry.get(localeType);
-            NumberFormat format = NumberFormat.getCurrencyInstance(info.getLocale());
-            return BigDecimal.valueOf(format.parse(formattedAmount).doubleValue());
+            return BigDecimal.valueOf(FormatterCache.currency(info.getLocale(), null, FormatterCache.DEFAULT_DIGITS)
+                    .parse(formattedAmount).doubleValue());
         } catch (Exception e) {
             throw new IllegalArgumentException("Unable to parse amount: " + formattedAmount, e);
         }
     }
 
     public static void validateCurrencySupport(LocaleType localeType) {
-        if (!isCurrencySupported(localeType)) {
-            throw new IllegalArgumentException("Unsupported locale type: " + localeType);
-        }
+        requireCurrencyInfo(localeType);
+    }
+
+    public static synchronized void removeCurrency(LocaleType localeType) {
+        Map<LocaleType, CurrencyInfo> next = copyRegistry();
+        next.remove(localeType);
+        currencyRegistry = Collections.unmodifiableMap(next);
+    }
+
+    public static synchronized void clearCurrencies() {
+        currencyRegistry = Collections.emptyMap();
     }
 
-    public static void removeCurrency(LocaleType localeType) {
-        currencyRegistry.remove(localeType);
+    /** Looks the currency up in a single snapshot, so it cannot be removed between check and use. */
+    private static CurrencyInfo requireCurrencyInfo(LocaleType localeType) {
+        CurrencyInfo info = currencyRegistry.get(localeType);
+        if (info == null) {
+            throw new IllegalArgumentException("Unsupported locale type: " + localeType);
+        }
+        return info;
     }
 
-    public static void clearCurrencies() {
-        currencyRegistry.clear();
+    private static Map<LocaleType, CurrencyInfo> copyRegistry() {
+        Map<LocaleType, CurrencyInfo> copy = new EnumMap<>(LocaleType.class);
+        copy.putAll(currencyRegistry);
+        return copy;
     }
 }
@@ -25,10 +25,37 @@ public final class PaymentConfig {
     public static final String CONTENT_TYPE_JSON = "application/json";
     public static final String ACCEPT_LANGUAGE = "en-US";
 
+    /** Per-provider HTTP timeouts used by the pooled transport */
+    public static final int SADAD_CONNECT_TIMEOUT_MS = TIMEOUT_CONNECT_MS;
+    public static final int SADAD_REQUEST_TIMEOUT_MS = TIMEOUT_TOTAL_MS;
+    public static final int SEP_CONNECT_TIMEOUT_MS = TIMEOUT_CONNECT_MS;
+    public static final int SEP_REQUEST_TIMEOUT_MS = TIMEOUT_TOTAL_MS;
+
+    /** Threads per provider for running blocking gateway clients off the request thread */
+    public static final int BLOCKING_GATEWAY_THREADS = 16;
+
     /** Retry Policy Settings */
     public static final int MAX_RETRY_ATTEMPTS = 3;
     public static final int RETRY_DELAY_MS = 2000;
 
+    /** Backoff starts here and doubles per attempt, capped at RETRY_DELAY_MS, with full jitter */
+    public static final int RETRY_BASE_DELAY_MS = 250;
+
+    /** Retries allowed per first attempt, plus a floor so a quiet provider can still retry */
+    public static final double RETRY_BUDGET_RATIO = 0.1;
+    public static final int RETRY_BUDGET_MIN_PER_SECOND = 5;
+
+    /** Circuit Breaker Settings (per provider) */
+    public static final int BREAKER_WINDOW_MS = 10_000;
+    public static final int BREAKER_WINDOW_BUCKETS = 10;
+    public static final int BREAKER_MINIMUM_CALLS = 20;
+    public static final double BREAKER_FAILURE_RATE = 0.5;
+    public static final int BREAKER_OPEN_MS = 30_000;
+    public static final int BREAKER_HALF_OPEN_CALLS = 3;
+
+    /** Maximum gateway calls in flight per provider */
+    public static final int BULKHEAD_MAX_CONCURRENT_CALLS = BLOCKING_GATEWAY_THREADS;
+
     /** Logging & Debugging */
     public static final boolean ENABLE_HTTP_LOGGING = true;
     public static final boolean ENABLE_DEBUG_MODE = false;
@@ -65,6 +92,20 @@ public final class PaymentConfig {
             };
         }
 
+        public int getConnectTimeoutMs() {
+            return switch (this) {
+                case SADAD -> SADAD_CONNECT_TIMEOUT_MS;
+                case SEP -> SEP_CONNECT_TIMEOUT_MS;
+            };
+        }
+
+        public int getRequestTimeoutMs() {
+            return switch (this) {
+                case SADAD -> SADAD_REQUEST_TIMEOUT_MS;
+                case SEP -> SEP_REQUEST_TIMEOUT_MS;
+            };
+        }
+
         public boolean isEnabled() {
             return getApiKey() != null && !getApiKey().trim().isEmpty();
         }
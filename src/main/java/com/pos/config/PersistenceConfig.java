@@ -0,0 +1,23 @@
+package com.pos.config;
+
+/**
+ * Configuration constants for the write-ahead log and snapshot persistence
+ * used by the in-memory repositories.
+ */
+public final class PersistenceConfig {
+
+    /** Root directory; each repository keeps its log in its own subdirectory */
+    public static final String DATA_DIRECTORY = "data/wal";
+    public static final String ORDERS_SUBDIRECTORY = "orders";
+    public static final String CUSTOMERS_SUBDIRECTORY = "customers";
+    public static final String INVENTORY_SUBDIRECTORY = "inventory";
+
+    /** Group commit: concurrent writers share a single fsync per batch */
+    public static final boolean GROUP_COMMIT_ENABLED = true;
+
+    /** A compacted snapshot is written after this many log records (0 disables it) */
+    public static final int SNAPSHOT_EVERY_RECORDS = 100_000;
+
+    /** Prevent instantiation */
+    private PersistenceConfig() {}
+}
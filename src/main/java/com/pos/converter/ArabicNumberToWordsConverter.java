@@ -0,0 +1,128 @@
+package converter;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Arabic number-to-words converter in the masculine form used for amounts
+ * ("ألف ومائتان وأربعة وثلاثون"). Units come before tens, parts are joined with "و",
+ * and decimals are read with "فاصلة".
+ *
+ * Scale words agree with their count: one and two take the singular and dual alone
+ * ("ألف", "ألفان"), three to ten take the plural ("ثلاثة آلاف"), eleven to
+ * ninety-nine take the accusative singular ("أحد عشر ألفًا"), and round hundreds
+ * take the singular ("مائة ألف"). Two hundred directly before a scale word takes the
+ * construct form ("مائتا ألف", not "مائتان ألف").
+ */
+public class ArabicNumberToWordsConverter extends TableNumberToWordsConverter {
+
+    private static final String AND = " و";
+
+    private static final String[] ONES = {
+        "صفر", "واحد", "اثنان", "ثلاثة", "أربعة", "خمسة", "ستة", "سبعة", "ثمانية", "تسعة",
+        "عشرة", "أحد عشر", "اثنا عشر", "ثلاثة عشر", "أربعة عشر", "خمسة عشر", "ستة عشر", "سبعة عشر", "ثمانية عشر", "تسعة عشر"
+    };
+
+    private static final String[] TENS = {
+        "", "", "عشرون", "ثلاثون", "أربعون", "خمسون", "ستون", "سبعون", "ثمانون", "تسعون"
+    };
+
+    private static final String[] HUNDREDS = {
+        "", "مائة", "مائتان", "ثلاثمائة", "أربعمائة", "خمسمائة", "ستمائة", "سبعمائة", "ثمانمائة", "تسعمائة"
+    };
+
+    /** Construct form of "مائتان", used when it is followed directly by a scale word */
+    private static final String TWO_HUNDRED_CONSTRUCT = "مائتا";
+
+    private static final String[] SCALES = {
+        "", "ألف", "مليون", "مليار", "تريليون", "كوادريليون", "كوينتليون"
+    };
+
+    private static final String[] DUAL_SCALES = {
+        "", "ألفان", "مليونان", "ملياران", "تريليونان", "كوادريليونان", "كوينتليونان"
+    };
+
+    private static final String[] PLURAL_SCALES = {
+        "", "آلاف", "ملايين", "مليارات", "تريليونات", "كوادريليونات", "كوينتليونات"
+    };
+
+    private static final String[] ACCUSATIVE_SCALES = {
+        "", "ألفًا", "مليونًا", "مليارًا", "تريليونًا", "كوادريليونًا", "كوينتليونًا"
+    };
+
+    private static final String[] ORDINALS = {
+        "", "الأول", "الثاني", "الثالث", "الرابع", "الخامس", "السادس", "السابع", "الثامن", "التاسع", "العاشر"
+    };
+
+    public static final ArabicNumberToWordsConverter INSTANCE = new ArabicNumberToWordsConverter();
+
+    public ArabicNumberToWordsConverter() {
+        super(new ArabicNumberWords(), List.of(new Locale("ar"), new Locale("ar", "SA")));
+    }
+
+    /**
+     * Returns the ordinal for one to ten ("الأول" to "العاشر"). Larger numbers are
+     * written as the definite cardinal ("الخمسة والعشرون"), which is the common
+     * form on printed documents.
+     */
+    @Override
+    public String convertToOrdinal(long number, Locale locale) {
+        requireSupported(locale);
+        if (number >= 1 && number < ORDINALS.length) {
+            return ORDINALS[(int) number];
+        }
+        return "ال" + convert(number, locale);
+    }
+
+    private static String[] buildChunks() {
+        String[] chunks = new String[1000];
+        for (int i = 0; i < chunks.length; i++) {
+            StringBuilder words = new StringBuilder();
+            int rest = i % 100;
+            if (i >= 100) {
+                words.append(HUNDREDS[i / 100]);
+            }
+            if (rest > 0 || i == 0) {
+                if (words.length() > 0) words.append(AND);
+                if (rest < 20) {
+                    words.append(ONES[rest]);
+                } else if (rest % 10 == 0) {
+                    words.append(TENS[rest / 10]);
+                } else {
+                    words.append(ONES[rest % 10]).append(AND).append(TENS[rest / 10]);
+                }
+            }
+            chunks[i] = words.toString();
+        }
+        return chunks;
+    }
+
+    private static final class ArabicNumberWords extends NumberWords {
+
+        private ArabicNumberWords() {
+            super(buildChunks(), SCALES, AND, "سالب", "فاصلة");
+        }
+
+        @Override
+        void appendGroup(int chunk, int group, StringBuilder out) {
+            if (group == 0) {
+                out.append(chunk(chunk));
+                return;
+            }
+            int rest = chunk % 100;
+            if (chunk == 1) {
+                out.append(SCALES[group]);
+            } else if (chunk == 2) {
+                out.append(DUAL_SCALES[group]);
+            } else if (rest >= 3 && rest <= 10) {
+                out.append(chunk(chunk)).append(' ').append(PLURAL_SCALES[group]);
+            } else if (rest >= 11) {
+                out.append(chunk(chunk)).append(' ').append(ACCUSATIVE_SCALES[group]);
+            } else if (chunk == 200) {
+                out.append(TWO_HUNDRED_CONSTRUCT).append(' ').append(SCALES[group]);
+            } else {
+                out.append(chunk(chunk)).append(' ').append(SCALES[group]);
+            }
+        }
+    }
+}
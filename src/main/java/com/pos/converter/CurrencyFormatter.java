@@ -1,7 +1,8 @@
 package converter;
 
+import util.FormatterCache;
+
 import java.math.BigDecimal;
-import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.Currency;
 import java.util.Locale;
@@ -9,6 +10,7 @@ import java.util.Locale;
 /**
  * Utility class for formatting, parsing, and validating monetary amounts.
  * Supports multiple locales, custom currencies, and flexible precision levels.
+ * Formats come from {@link FormatterCache}, so repeated calls do not rebuild them.
  */
 public class CurrencyFormatter {
 
@@ -17,7 +19,7 @@ public class CurrencyFormatter {
      */
     public static String format(BigDecimal amount, Locale locale) {
         validateAmount(amount);
-        return NumberFormat.getCurrencyInstance(locale).format(amount);
+        return FormatterCache.currency(locale, null, FormatterCache.DEFAULT_DIGITS).format(amount);
     }
 
     /**
@@ -25,9 +27,8 @@ public class CurrencyFormatter {
      */
     public static String format(BigDecimal amount, String currencyCode, Locale locale) {
         validateAmount(amount);
-        NumberFormat format = NumberFormat.getCurrencyInstance(locale);
-        format.setCurrency(getValidCurrency(currencyCode));
-        return format.format(amount);
+        return FormatterCache.currency(locale, getValidCurrency(currencyCode).getCurrencyCode(), FormatterCache.DEFAULT_DIGITS)
+                .format(amount);
     }
 
     /**
@@ -35,11 +36,8 @@ public class CurrencyFormatter {
      */
     public static String format(BigDecimal amount, String currencyCode, Locale locale, int fractionDigits) {
         validateAmount(amount);
-        NumberFormat format = NumberFormat.getCurrencyInstance(locale);
-        format.setCurrency(getValidCurrency(currencyCode));
-        format.setMinimumFractionDigits(fractionDigits);
-        format.setMaximumFractionDigits(fractionDigits);
-        return format.format(amount);
+        return FormatterCache.currency(locale, getValidCurrency(currencyCode).getCurrencyCode(), fractionDigits)
+                .format(amount);
     }
 
     /**
@@ -47,10 +45,7 @@ public class CurrencyFormatter {
      */
     public static String formatPlain(BigDecimal amount, Locale locale, int fractionDigits) {
         validateAmount(amount);
-        NumberFormat format = NumberFormat.getNumberInstance(locale);
-        format.setMinimumFractionDigits(fractionDigits);
-        format.setMaximumFractionDigits(fractionDigits);
-        return format.format(amount);
+        return FormatterCache.number(locale, fractionDigits).format(amount);
     }
 
     /**
@@ -60,8 +55,7 @@ public class CurrencyFormatter {
         if (currencyString == null || currencyString.trim().isEmpty()) {
             throw new IllegalArgumentException("Currency string cannot be null or empty");
         }
-        NumberFormat format = NumberFormat.getCurrencyInstance(locale);
-        Number number = format.parse(currencyString.trim());
+        Number number = FormatterCache.currency(locale, null, FormatterCache.DEFAULT_DIGITS).parse(currencyString.trim());
         return BigDecimal.valueOf(number.doubleValue());
     }
 
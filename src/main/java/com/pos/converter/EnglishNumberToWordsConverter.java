@@ -1,95 +1,79 @@
 package converter;
 
-import java.math.BigDecimal;
+import java.util.List;
 import java.util.Locale;
 
 /**
- * Interface for converting numeric amounts into their corresponding
- * word representations, supporting localization and extended utilities.
- * Includes features for handling ordinals, negatives, and sample outputs.
+ * English number-to-words converter using American short scales and no "and"
+ * ("one thousand two hundred thirty-four"). Decimals are read with "point".
+ *
+ * The words for 0 to 999 are precomputed, so conversions append table entries
+ * instead of concatenating strings. The converter is stateless and thread-safe;
+ * use {@link NumberToWordsConverter#getInstance(Locale)} or {@link #INSTANCE}.
  */
-public interface NumberToWordsConverter {
+public class EnglishNumberToWordsConverter extends TableNumberToWordsConverter {
 
-    /**
-     * Converts the given whole number to words in the specified locale.
-     *
-     * @param number the number to convert (non-negative)
-     * @param locale the desired locale for the words output
-     * @return the number in words
-     * @throws IllegalArgumentException if number is negative or locale is unsupported
-     */
-    String convert(long number, Locale locale);
+    private static final String[] ONES = {
+        "zero", "one", "two", "three", "four", "five", "six", "seven", "eight", "nine",
+        "ten", "eleven", "twelve", "thirteen", "fourteen", "fifteen", "sixteen", "seventeen", "eighteen", "nineteen"
+    };
 
-    /**
-     * Converts the given decimal amount to words in the specified locale.
-     * Useful for currency and fractional values.
-     *
-     * @param amount the amount to convert (non-negative)
-     * @param locale the desired locale for the words output
-     * @return the amount in words, including fractional part if applicable
-     * @throws IllegalArgumentException if amount is negative or locale is unsupported
-     */
-    String convert(BigDecimal amount, Locale locale);
+    private static final String[] TENS = {
+        "", "", "twenty", "thirty", "forty", "fifty", "sixty", "seventy", "eighty", "ninety"
+    };
 
-    /**
-     * Converts a numeric string to words in the specified locale.
-     *
-     * @param numericString the numeric value as a string
-     * @param locale the desired locale for the words output
-     * @return the number in words
-     * @throws NumberFormatException if the string is not a valid number
-     */
-    String convert(String numericString, Locale locale);
+    private static final String[] SCALES = {
+        "", "thousand", "million", "billion", "trillion", "quadrillion", "quintillion"
+    };
 
-    /**
-     * Converts a number to its ordinal word representation (e.g., "first", "second").
-     *
-     * @param number the number to convert
-     * @param locale the desired locale for the words output
-     * @return the ordinal form of the number in words
-     */
-    String convertToOrdinal(long number, Locale locale);
+    public static final EnglishNumberToWordsConverter INSTANCE = new EnglishNumberToWordsConverter();
 
-    /**
-     * Converts a negative number to its absolute value in words, optionally adding a minus prefix.
-     *
-     * @param number the negative number to convert
-     * @param locale the desired locale for the words output
-     * @param includeMinusPrefix whether to prefix with "minus" (localized)
-     * @return the absolute value in words, optionally prefixed with minus
-     */
-    String convertNegative(long number, Locale locale, boolean includeMinusPrefix);
+    public EnglishNumberToWordsConverter() {
+        super(new NumberWords(buildChunks(), SCALES, " ", "minus", "point"),
+                List.of(Locale.ENGLISH, Locale.US, Locale.UK));
+    }
 
-    /**
-     * Converts a range of numbers to a single string representation (e.g., "ten to twenty").
-     *
-     * @param start the starting number in the range
-     * @param end the ending number in the range
-     * @param locale the desired locale for the words output
-     * @return the range in words
-     */
-    String convertRange(long start, long end, Locale locale);
+    @Override
+    public String convertToOrdinal(long number, Locale locale) {
+        String cardinal = convert(number, locale);
+        int lastWordStart = Math.max(cardinal.lastIndexOf(' '), cardinal.lastIndexOf('-')) + 1;
+        String lastWord = cardinal.substring(lastWordStart);
+        String stem = cardinal.substring(0, lastWordStart);
+        switch (lastWord) {
+            case "one": return stem + "first";
+            case "two": return stem + "second";
+            case "three": return stem + "third";
+            case "five": return stem + "fifth";
+            case "eight": return stem + "eighth";
+            case "nine": return stem + "ninth";
+            case "twelve": return stem + "twelfth";
+            default:
+                return lastWord.endsWith("y")
+                        ? stem + lastWord.substring(0, lastWord.length() - 1) + "ieth"
+                        : cardinal + "th";
+        }
+    }
 
-    /**
-     * Checks if the given locale is supported by the converter.
-     *
-     * @param locale the locale to check
-     * @return true if supported, false otherwise
-     */
-    boolean isLocaleSupported(Locale locale);
-
-    /**
-     * Returns a sample conversion output for demonstration purposes.
-     *
-     * @param locale the locale to use
-     * @return a sample string showing how numbers are expressed in words
-     */
-    String sampleConversion(Locale locale);
-
-    /**
-     * Lists all supported locales for number-to-words conversion.
-     *
-     * @return an array of supported locales
-     */
-    Locale[] getSupportedLocales();
+    private static String[] buildChunks() {
+        String[] chunks = new String[1000];
+        for (int i = 0; i < chunks.length; i++) {
+            StringBuilder words = new StringBuilder();
+            int hundreds = i / 100;
+            int rest = i % 100;
+            if (hundreds > 0) {
+                words.append(ONES[hundreds]).append(" hundred");
+            }
+            if (rest > 0 || i == 0) {
+                if (words.length() > 0) words.append(' ');
+                if (rest < 20) {
+                    words.append(ONES[rest]);
+                } else {
+                    words.append(TENS[rest / 10]);
+                    if (rest % 10 > 0) words.append('-').append(ONES[rest % 10]);
+                }
+            }
+            chunks[i] = words.toString();
+        }
+        return chunks;
+    }
 }
@@ -54,6 +54,22 @@ public class EnglishNumberToWordsConverterTest {
         assertEquals("minus two point five", converter.convert(new BigDecimal("-2.5")));
     }
 
+    @Test
+    @DisplayName("Should read leading fraction zeros and drop trailing ones")
+    void testFractionZeros() {
+        assertEquals("one point zero five", converter.convert(new BigDecimal("1.05")));
+        assertEquals("one point five", converter.convert(new BigDecimal("1.50")));
+        assertEquals("one thousand", converter.convert(new BigDecimal("1E+3")));
+    }
+
+    @Test
+    @DisplayName("Should append the same words into a caller-supplied buffer")
+    void testAppendWords() {
+        StringBuilder out = new StringBuilder("In Words: ");
+        converter.appendWords(new BigDecimal("1234.56"), Locale.ENGLISH, out);
+        assertEquals("In Words: " + converter.convert(new BigDecimal("1234.56")), out.toString());
+    }
+
     @Test
     @DisplayName("Should return null for null input")
     void testNullInput() {
@@ -1,5 +1,6 @@
 package converter;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Locale;
@@ -10,6 +11,21 @@ import java.util.Locale;
  */
 public interface NumberToWordsConverter {
 
+    /**
+     * Returns the shared converter for the given locale.
+     *
+     * @throws IllegalArgumentException if no converter supports the locale
+     */
+    static NumberToWordsConverter getInstance(Locale locale) {
+        String language = locale != null ? locale.getLanguage() : "";
+        switch (language) {
+            case "en": return EnglishNumberToWordsConverter.INSTANCE;
+            case "fa": return PersianNumberToWordsConverter.INSTANCE;
+            case "ar": return ArabicNumberToWordsConverter.INSTANCE;
+            default: throw new IllegalArgumentException("Unsupported locale: " + locale);
+        }
+    }
+
     /**
      * Converts the given whole number to words in the specified locale.
      *
@@ -31,6 +47,45 @@ public interface NumberToWordsConverter {
      */
     String convert(BigDecimal amount, Locale locale);
 
+    /**
+     * Converts the given amount in the converter's primary locale, the first of
+     * {@link #getSupportedLocales()}.
+     *
+     * @param amount the amount to convert
+     * @return the amount in words, or null if the amount is null
+     */
+    default String convert(BigDecimal amount) {
+        return amount == null ? null : convert(amount, getSupportedLocales().get(0));
+    }
+
+    /**
+     * Appends the words for the given amount to {@code out}, exactly as
+     * {@link #convert(BigDecimal, Locale)} would return them, without building an
+     * intermediate string. Negative amounts are prefixed with the localized minus word.
+     *
+     * @param amount the amount to convert
+     * @param locale the desired locale for the words output
+     * @param out    the buffer to append to
+     * @throws IllegalArgumentException if the locale is unsupported
+     */
+    void appendWords(BigDecimal amount, Locale locale, StringBuilder out);
+
+    /**
+     * Appends the words for the given amount to any {@link Appendable}, such as a
+     * writer or print stream.
+     *
+     * @throws IOException if the target fails to accept the text
+     * @see #appendWords(BigDecimal, Locale, StringBuilder)
+     */
+    void appendWords(BigDecimal amount, Locale locale, Appendable out) throws IOException;
+
+    /**
+     * Appends the words for the given non-negative whole number to {@code out}.
+     *
+     * @throws IllegalArgumentException if number is negative or locale is unsupported
+     */
+    void appendWords(long number, Locale locale, StringBuilder out);
+
     /**
      * Checks if the given locale is supported by the converter.
      *
@@ -0,0 +1,170 @@
+package converter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * NumberWords
+ *
+ * Table-driven engine behind the number-to-words converters. The words for every
+ * value from 0 to 999 are built once per language, so converting a number is a
+ * handful of table lookups per group of three digits, appended straight into the
+ * caller's buffer. Apart from growing that buffer, nothing is allocated per call.
+ *
+ * Amounts are read as "whole point fraction", with the fraction spoken as a number
+ * after dropping trailing zeros and reading leading zeros one by one, so 1.05 reads
+ * "one point zero five" and 1.50 reads "one point five".
+ *
+ * Languages whose scale words agree with the count override {@link #appendGroup}.
+ * Instances are immutable and thread-safe.
+ */
+class NumberWords {
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+    private static final double[] DOUBLE_POWERS_OF_TEN = new double[19];
+
+    /**
+     * Unscaled values below 10^15 (and so below 2^50) survive a round trip through a
+     * double divided and multiplied by a power of ten, which lets compact amounts be
+     * read through {@link BigDecimal#doubleValue()} without allocating.
+     */
+    private static final int MAX_EXACT_PRECISION = 15;
+
+    static {
+        long power = 1;
+        for (int i = 0; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = power;
+            DOUBLE_POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+    }
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(128));
+
+    private final String[] chunks;
+    private final String[] scales;
+    private final String groupSeparator;
+    private final String minus;
+    private final String point;
+
+    /**
+     * @param chunks         words for 0 to 999; index 0 is used for zero itself
+     * @param scales         scale words by group, index 1 being thousands; index 0 is unused
+     * @param groupSeparator inserted between non-zero groups
+     * @param minus          prefix word for negative amounts
+     * @param point          word between the whole and fractional parts
+     */
+    NumberWords(String[] chunks, String[] scales, String groupSeparator, String minus, String point) {
+        if (chunks.length != 1000) throw new IllegalArgumentException("Chunk table must cover 0 to 999");
+        if (scales.length < 7) throw new IllegalArgumentException("Scale table must reach 10^18");
+        this.chunks = chunks.clone();
+        this.scales = scales.clone();
+        this.groupSeparator = groupSeparator;
+        this.minus = minus;
+        this.point = point;
+    }
+
+    /** Appends the words for a non-negative whole number. */
+    void appendWhole(long number, StringBuilder out) {
+        if (number < 0) throw new IllegalArgumentException("Number must not be negative");
+        if (number < 1000) {
+            out.append(chunks[(int) number]);
+            return;
+        }
+
+        int group = 0;
+        while (group < 6 && number >= POWERS_OF_TEN[(group + 1) * 3]) group++;
+
+        boolean first = true;
+        for (; group >= 0; group--) {
+            int chunk = (int) (number / POWERS_OF_TEN[group * 3] % 1000);
+            if (chunk == 0) continue;
+            if (!first) out.append(groupSeparator);
+            appendGroup(chunk, group, out);
+            first = false;
+        }
+    }
+
+    /**
+     * Appends one non-zero group of three digits with its scale word, such as
+     * "two hundred thousand" for chunk 200 in group 1.
+     */
+    void appendGroup(int chunk, int group, StringBuilder out) {
+        out.append(chunks[chunk]);
+        if (group > 0) out.append(' ').append(scales[group]);
+    }
+
+    /** Words for a value from 0 to 999. */
+    final String chunk(int value) {
+        return chunks[value];
+    }
+
+    /** Appends the words for an amount, prefixed with the minus word when negative. */
+    void appendAmount(BigDecimal amount, StringBuilder out) {
+        appendAmount(amount, 0, out);
+    }
+
+    /**
+     * Appends the words for {@code amount / 10^pointShift}, so a Rial amount can be read
+     * in Toman (shift 1) without creating a scaled copy of it first.
+     */
+    void appendAmount(BigDecimal amount, int pointShift, StringBuilder out) {
+        if (pointShift < 0) throw new IllegalArgumentException("Point shift must not be negative");
+        if (amount.signum() < 0) out.append(minus).append(' ');
+
+        int scale = amount.scale();
+        if (scale >= 0 && scale + pointShift < POWERS_OF_TEN.length && amount.precision() <= MAX_EXACT_PRECISION) {
+            long unscaled = Math.abs(Math.round(amount.doubleValue() * DOUBLE_POWERS_OF_TEN[scale]));
+            long unit = POWERS_OF_TEN[scale + pointShift];
+            appendWhole(unscaled / unit, out);
+            appendFraction(unscaled % unit, scale + pointShift, out);
+            return;
+        }
+
+        // Very long or negative-scale amounts take the slower BigDecimal route
+        BigDecimal abs = amount.abs().movePointLeft(pointShift).stripTrailingZeros();
+        BigInteger whole = abs.toBigInteger();
+        if (whole.bitLength() > 63) throw new IllegalArgumentException("Amount is too large to convert to words");
+        appendWhole(whole.longValue(), out);
+        if (abs.scale() > 0) {
+            if (abs.scale() >= POWERS_OF_TEN.length) throw new IllegalArgumentException("Amount has too many fraction digits");
+            appendFraction(abs.subtract(new BigDecimal(whole)).movePointRight(abs.scale()).longValueExact(), abs.scale(), out);
+        }
+    }
+
+    /**
+     * Appends to any {@link Appendable}, going through a reused per-thread buffer when
+     * the target is not a StringBuilder.
+     */
+    void appendAmount(BigDecimal amount, Appendable out) throws IOException {
+        if (out instanceof StringBuilder) {
+            appendAmount(amount, 0, (StringBuilder) out);
+            return;
+        }
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        appendAmount(amount, 0, buffer);
+        out.append(buffer);
+    }
+
+    private void appendFraction(long fraction, int scale, StringBuilder out) {
+        if (fraction == 0) return;
+        while (fraction % 10 == 0) {
+            fraction /= 10;
+            scale--;
+        }
+        out.append(' ').append(point);
+        for (int digits = digitCount(fraction); digits < scale; digits++) {
+            out.append(' ').append(chunks[0]);
+        }
+        out.append(' ');
+        appendWhole(fraction, out);
+    }
+
+    private static int digitCount(long value) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits]) digits++;
+        return digits;
+    }
+}
@@ -0,0 +1,116 @@
+package converter;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Persian (Farsi) number-to-words converter, as written on Iranian cheques and
+ * receipts: groups and parts are joined with "و" ("یک هزار و دویست و سی و چهار")
+ * and decimals are read with "ممیز".
+ *
+ * Amounts stored in Rial can be written in Rial or Toman with
+ * {@link #appendCurrencyWords}; the Toman conversion shifts the decimal point
+ * instead of dividing, so it costs the same as a plain conversion.
+ */
+public class PersianNumberToWordsConverter extends TableNumberToWordsConverter {
+
+    /** Currency units for amounts held in Rial. */
+    public enum IranianCurrency {
+        RIAL(0, "ریال"),
+        TOMAN(1, "تومان");
+
+        private final int pointShift;
+        private final String unitName;
+
+        IranianCurrency(int pointShift, String unitName) {
+            this.pointShift = pointShift;
+            this.unitName = unitName;
+        }
+
+        /** Number of decimal places the Rial amount is shifted by; one Toman is ten Rial. */
+        public int getPointShift() {
+            return pointShift;
+        }
+
+        public String getUnitName() {
+            return unitName;
+        }
+    }
+
+    private static final String AND = " و ";
+
+    private static final String[] ONES = {
+        "صفر", "یک", "دو", "سه", "چهار", "پنج", "شش", "هفت", "هشت", "نه",
+        "ده", "یازده", "دوازده", "سیزده", "چهارده", "پانزده", "شانزده", "هفده", "هجده", "نوزده"
+    };
+
+    private static final String[] TENS = {
+        "", "", "بیست", "سی", "چهل", "پنجاه", "شصت", "هفتاد", "هشتاد", "نود"
+    };
+
+    private static final String[] HUNDREDS = {
+        "", "صد", "دویست", "سیصد", "چهارصد", "پانصد", "ششصد", "هفتصد", "هشتصد", "نهصد"
+    };
+
+    private static final String[] SCALES = {
+        "", "هزار", "میلیون", "میلیارد", "تریلیون", "کوادریلیون", "کوینتیلیون"
+    };
+
+    public static final PersianNumberToWordsConverter INSTANCE = new PersianNumberToWordsConverter();
+
+    public PersianNumberToWordsConverter() {
+        super(new NumberWords(buildChunks(), SCALES, AND, "منفی", "ممیز"),
+                List.of(new Locale("fa", "IR"), new Locale("fa")));
+    }
+
+    /**
+     * Appends a Rial amount in words in the given unit, followed by the unit name,
+     * for example "یک هزار و دویست تومان" for 12,000 Rial in Toman.
+     */
+    public void appendCurrencyWords(BigDecimal rials, IranianCurrency currency, StringBuilder out) {
+        Objects.requireNonNull(rials, "Amount must not be null");
+        Objects.requireNonNull(currency, "Currency must not be null");
+        words().appendAmount(rials, currency.pointShift, out);
+        out.append(' ').append(currency.unitName);
+    }
+
+    public String convertCurrency(BigDecimal rials, IranianCurrency currency) {
+        StringBuilder out = new StringBuilder(64);
+        appendCurrencyWords(rials, currency, out);
+        return out.toString();
+    }
+
+    @Override
+    public String convertToOrdinal(long number, Locale locale) {
+        String cardinal = convert(number, locale);
+        if (cardinal.endsWith("سه")) {
+            return cardinal.substring(0, cardinal.length() - 2) + "سوم";
+        }
+        // A final "ی" takes the suffix after a zero-width non-joiner: "سی‌ام"
+        return cardinal.endsWith("ی") ? cardinal + "‌ام" : cardinal + "م";
+    }
+
+    private static String[] buildChunks() {
+        String[] chunks = new String[1000];
+        for (int i = 0; i < chunks.length; i++) {
+            StringBuilder words = new StringBuilder();
+            int rest = i % 100;
+            if (i >= 100) {
+                words.append(HUNDREDS[i / 100]);
+            }
+            if (rest > 0 || i == 0) {
+                if (words.length() > 0) words.append(AND);
+                if (rest < 20) {
+                    words.append(ONES[rest]);
+                } else {
+                    words.append(TENS[rest / 10]);
+                    if (rest % 10 > 0) words.append(AND).append(ONES[rest % 10]);
+                }
+            }
+            chunks[i] = words.toString();
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,100 @@
+package converter;
+
+import util.FormatterCache;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Shared plumbing for the converters built on a {@link NumberWords} table: locale
+ * checks, string conversions over the append methods, parsing and formatting.
+ * Subclasses supply the table, their locales and ordinal rules.
+ */
+abstract class TableNumberToWordsConverter implements NumberToWordsConverter {
+
+    private final NumberWords words;
+    private final String language;
+    private final List<Locale> supportedLocales;
+
+    TableNumberToWordsConverter(NumberWords words, List<Locale> supportedLocales) {
+        this.words = Objects.requireNonNull(words, "Words table must not be null");
+        this.supportedLocales = List.copyOf(supportedLocales);
+        this.language = this.supportedLocales.get(0).getLanguage();
+    }
+
+    @Override
+    public String convert(long number, Locale locale) {
+        StringBuilder out = new StringBuilder(64);
+        appendWords(number, locale, out);
+        return out.toString();
+    }
+
+    @Override
+    public String convert(BigDecimal amount, Locale locale) {
+        StringBuilder out = new StringBuilder(64);
+        appendWords(amount, locale, out);
+        return out.toString();
+    }
+
+    @Override
+    public void appendWords(BigDecimal amount, Locale locale, StringBuilder out) {
+        Objects.requireNonNull(amount, "Amount must not be null");
+        requireSupported(locale);
+        words.appendAmount(amount, out);
+    }
+
+    @Override
+    public void appendWords(BigDecimal amount, Locale locale, Appendable out) throws IOException {
+        Objects.requireNonNull(amount, "Amount must not be null");
+        requireSupported(locale);
+        words.appendAmount(amount, out);
+    }
+
+    @Override
+    public void appendWords(long number, Locale locale, StringBuilder out) {
+        requireSupported(locale);
+        words.appendWhole(number, out);
+    }
+
+    @Override
+    public boolean isLocaleSupported(Locale locale) {
+        return locale != null && language.equals(locale.getLanguage());
+    }
+
+    @Override
+    public String sampleConversion(Locale locale) {
+        return "1234.56 -> " + convert(new BigDecimal("1234.56"), locale);
+    }
+
+    @Override
+    public List<Locale> getSupportedLocales() {
+        return supportedLocales;
+    }
+
+    @Override
+    public String convertFromString(String numberString, Locale locale) {
+        if (numberString == null || numberString.trim().isEmpty()) {
+            throw new NumberFormatException("Number string cannot be null or empty");
+        }
+        return convert(new BigDecimal(numberString.trim()), locale);
+    }
+
+    @Override
+    public String formatNumber(long number, Locale locale) {
+        requireSupported(locale);
+        return FormatterCache.number(locale, 0).format(number);
+    }
+
+    final NumberWords words() {
+        return words;
+    }
+
+    final void requireSupported(Locale locale) {
+        if (!isLocaleSupported(locale)) {
+            throw new IllegalArgumentException("Unsupported locale: " + locale);
+        }
+    }
+}
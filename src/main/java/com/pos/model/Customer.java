@@ -1,5 +1,6 @@
 package com.pos.model;
 
+import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.Period;
 import java.util.Objects;
@@ -9,7 +10,9 @@ import java.util.Objects;
  *
  * Represents customer details such as identity, contact, and loyalty attributes.
  */
-public class Customer {
+public class Customer implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private String id;
     private String fullName;
@@ -0,0 +1,178 @@
+package com.pos.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money
+ *
+ * A monetary value held as a {@code long} count of minor units (hundredths), so sums
+ * are exact and arithmetic needs no {@code BigDecimal}. Immutable and value-like:
+ * two instances are equal when they hold the same number of minor units.
+ *
+ * Every operation is overflow-checked and throws {@link ArithmeticException} rather
+ * than wrapping. Results that fall between two minor units, such as a percentage of
+ * an amount or a conversion from a decimal, are rounded half-even (banker's rounding).
+ * Negative values are allowed, for refunds and adjustments.
+ */
+public final class Money implements Comparable<Money>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Digits after the decimal point */
+    public static final int SCALE = 2;
+
+    /** Denominator of {@link #percent(long)}: basis points, hundredths of a percent */
+    public static final long BASIS_POINTS = 10_000;
+
+    private static final long MINOR_PER_MAJOR = 100;
+
+    public static final Money ZERO = new Money(0);
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * @throws ArithmeticException if the amount does not fit in a {@code long} of minor units
+     */
+    public static Money of(BigDecimal amount) {
+        return ofMinor(amount.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact());
+    }
+
+    /** Converts through the double's shortest decimal representation, so 0.1 becomes exactly 0.10. */
+    public static Money ofMajor(double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            throw new ArithmeticException("Not a finite amount: " + amount);
+        }
+        return of(BigDecimal.valueOf(amount));
+    }
+
+    /**
+     * @throws NumberFormatException if the text is not a decimal number
+     */
+    public static Money parse(String amount) {
+        return of(new BigDecimal(amount.trim()));
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money times(long multiplier) {
+        return ofMinor(Math.multiplyExact(minorUnits, multiplier));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    /**
+     * Returns {@code basisPoints / 10,000} of this amount, rounded half-even;
+     * 1,250 basis points is 12.5%.
+     */
+    public Money percent(long basisPoints) {
+        return ofMinor(scale(minorUnits, basisPoints, BASIS_POINTS));
+    }
+
+    /**
+     * Returns {@code numerator / denominator} of this amount, rounded half-even.
+     *
+     * @throws IllegalArgumentException if the denominator is not positive
+     */
+    public Money times(long numerator, long denominator) {
+        if (denominator <= 0) {
+            throw new IllegalArgumentException("Denominator must be positive");
+        }
+        return ofMinor(scale(minorUnits, numerator, denominator));
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return minorUnits > other.minorUnits;
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /** The nearest double, for display and for APIs that still take doubles. */
+    public double toDouble() {
+        return (double) minorUnits / MINOR_PER_MAJOR;
+    }
+
+    /**
+     * Multiplies then divides with half-even rounding; the product must fit in a long.
+     * Used on the order path, so it works on primitives and allocates nothing.
+     */
+    static long scale(long value, long numerator, long denominator) {
+        long product = Math.multiplyExact(value, numerator);
+        long quotient = product / denominator;
+        long remainder = product % denominator;
+        if (remainder == 0) {
+            return quotient;
+        }
+        long excess = Math.abs(remainder);
+        long shortfall = denominator - excess;
+        if (excess > shortfall || (excess == shortfall && (quotient & 1) != 0)) {
+            quotient += product < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money)) return false;
+        return minorUnits == ((Money) o).minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    /** Plain decimal with two fraction digits, e.g. {@code -12.05}. */
+    @Override
+    public String toString() {
+        long major = minorUnits / MINOR_PER_MAJOR;
+        long minor = Math.abs(minorUnits % MINOR_PER_MAJOR);
+        String sign = minorUnits < 0 && major == 0 ? "-" : "";
+        return sign + major + (minor < 10 ? ".0" : ".") + minor;
+    }
+}
@@ -1,5 +1,6 @@
 package com.pos.model;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -9,14 +10,24 @@ import java.util.UUID;
 /**
  * Represents a customer's purchase order, including items, timestamps,
  * status, payment, and delivery information.
+ *
+ * The subtotal, discount and tax are kept as running sums of each line's contribution,
+ * so adding or removing an item costs O(1) in totals whatever the basket size. Each
+ * line remembers what it last contributed; when an item's quantity, price or rates
+ * change, the order retracts the old contribution and applies the new one. These
+ * totals are the single source of truth for what the order costs.
  */
-public class Order {
+public class Order implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private final String orderId;
     private String customerId;
     private final LocalDateTime orderDate;
-    private final List<OrderItem> items;
-    private double totalAmount;
+    private final List<Line> lines;
+    private long subtotal;
+    private long discount;
+    private long tax;
     private boolean paid;
     private String paymentMethod;
     private String notes;
@@ -28,7 +39,7 @@ public class Order {
     public Order() {
         this.orderId = UUID.randomUUID().toString();
         this.orderDate = LocalDateTime.now();
-        this.items = new ArrayList<>();
+        this.lines = new ArrayList<>();
         this.status = "PENDING";
         this.paid = false;
         this.deliveryRequired = false;
@@ -56,39 +67,126 @@ public class Order {
     }
 
     public List<OrderItem> getItems() {
-        return new ArrayList<>(items);
+        List<OrderItem> items = new ArrayList<>(lines.size());
+        for (Line line : lines) {
+            items.add(line.item);
+        }
+        return items;
     }
 
+    /**
+     * Adds the item; the same item may be added more than once. An item that already
+     * belongs to another order is added as a {@link OrderItem#copy()}, so later edits
+     * to it only change the order it came from.
+     */
     public void addItem(OrderItem item) {
         if (item != null) {
-            items.add(item);
-            recalculateTotal();
+            OrderItem owned = item.getOrder() != null && item.getOrder() != this ? item.copy() : item;
+            Line line = new Line(owned);
+            apply(line);
+            lines.add(line);
+            owned.setOrder(this);
         }
     }
 
     public void removeItem(OrderItem item) {
-        if (items.remove(item)) {
-            recalculateTotal();
+        for (int i = 0; i < lines.size(); i++) {
+            Line line = lines.get(i);
+            if (line.item.equals(item)) {
+                lines.remove(i);
+                retract(line);
+                if (!contains(line.item)) {
+                    line.item.setOrder(null);
+                }
+                return;
+            }
         }
     }
 
     public void clearItems() {
-        items.clear();
-        recalculateTotal();
+        for (Line line : lines) {
+            line.item.setOrder(null);
+        }
+        lines.clear();
+        subtotal = 0;
+        discount = 0;
+        tax = 0;
     }
 
     public boolean isEmpty() {
-        return items.isEmpty();
+        return lines.isEmpty();
     }
 
     public double getTotalAmount() {
-        return totalAmount;
+        return getTotal().toDouble();
+    }
+
+    /** The exact order total: subtotal less discount plus tax. */
+    public Money getTotal() {
+        return Money.ofMinor(Math.addExact(Math.subtractExact(subtotal, discount), tax));
+    }
+
+    /** Sum of quantity times unit price over all items, before discount and tax. */
+    public Money getSubtotal() {
+        return Money.ofMinor(subtotal);
+    }
+
+    public Money getDiscountTotal() {
+        return Money.ofMinor(discount);
+    }
+
+    public Money getTaxTotal() {
+        return Money.ofMinor(tax);
+    }
+
+    /**
+     * Called by an item of this order before its quantity, price or rates change, with the
+     * amounts its line will contribute. The new totals are computed before anything is
+     * assigned, so an overflow leaves the order as it was.
+     */
+    void itemChanged(OrderItem item, long lineSubtotal, long lineDiscount, long lineTax) {
+        long newSubtotal = subtotal;
+        long newDiscount = discount;
+        long newTax = tax;
+        for (Line line : lines) {
+            if (line.item == item) {
+                newSubtotal = Math.addExact(newSubtotal - line.subtotal, lineSubtotal);
+                newDiscount = Math.addExact(newDiscount - line.discount, lineDiscount);
+                newTax = Math.addExact(newTax - line.tax, lineTax);
+            }
+        }
+        Math.addExact(Math.subtractExact(newSubtotal, newDiscount), newTax);
+
+        Line updated = new Line(item, lineSubtotal, lineDiscount, lineTax);
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).item == item) {
+                lines.set(i, updated);
+            }
+        }
+        subtotal = newSubtotal;
+        discount = newDiscount;
+        tax = newTax;
+    }
+
+    private boolean contains(OrderItem item) {
+        for (Line line : lines) {
+            if (line.item == item) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void apply(Line line) {
+        subtotal = Math.addExact(subtotal, line.subtotal);
+        discount = Math.addExact(discount, line.discount);
+        tax = Math.addExact(tax, line.tax);
     }
 
-    private void recalculateTotal() {
-        this.totalAmount = items.stream()
-                .mapToDouble(OrderItem::getTotalPrice)
-                .sum();
+    private void retract(Line line) {
+        subtotal -= line.subtotal;
+        discount -= line.discount;
+        tax -= line.tax;
     }
 
     public boolean isPaid() {
@@ -182,13 +280,37 @@ public class Order {
                 "orderId='" + orderId + '\'' +
                 ", customerId='" + customerId + '\'' +
                 ", orderDate=" + orderDate +
-                ", totalAmount=" + totalAmount +
+                ", totalAmount=" + getTotal() +
                 ", paid=" + paid +
                 ", paymentMethod='" + paymentMethod + '\'' +
                 ", status='" + status + '\'' +
                 ", deliveryRequired=" + deliveryRequired +
                 ", deliveryScheduled=" + deliveryScheduled +
-                ", itemsCount=" + items.size() +
+                ", itemsCount=" + lines.size() +
                 '}';
     }
+
+    /** An item with the amounts it currently contributes to the order's totals. */
+    private static final class Line implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final OrderItem item;
+        private final long subtotal;
+        private final long discount;
+        private final long tax;
+
+        private Line(OrderItem item) {
+            this.item = item;
+            this.subtotal = item.subtotalMinorUnits();
+            this.discount = item.discountMinorUnits(subtotal);
+            this.tax = item.taxMinorUnits(subtotal, discount);
+        }
+
+        private Line(OrderItem item, long subtotal, long discount, long tax) {
+            this.item = item;
+            this.subtotal = subtotal;
+            this.discount = discount;
+            this.tax = tax;
+        }
+    }
 }
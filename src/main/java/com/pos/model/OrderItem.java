@@ -1,29 +1,43 @@
 package com.pos.model;
 
+import java.io.Serializable;
 import java.util.Objects;
 
 /**
  * OrderItem
  *
  * Represents a product item within an order, including quantity, price, tax, discounts, and additional business logic.
+ *
+ * Prices are {@link Money}; discount and tax rates are percentages kept to two decimals
+ * as basis points. The discount and tax are each rounded half-even to the minor unit,
+ * and the line total is their exact sum, so totals add up to the cent. The double
+ * getters are kept for display and for callers that have not moved to {@code Money}.
+ *
+ * An item belongs to at most one {@link Order} at a time and tells it when its quantity,
+ * price or rates change, so the order's running totals stay current.
  */
-public class OrderItem {
+public class OrderItem implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private String productId;
     private String productName;
     private int quantity;
-    private double unitPrice;
-    private double discount; // percentage (0-100)
-    private double taxRate;  // percentage (0-100)
+    private Money unitPrice;
+    private int discountBasisPoints; // percentage (0-100) x 100
+    private int taxBasisPoints;      // percentage (0-100) x 100
     private boolean returnable;
+    private Order order;
 
     public OrderItem(String productId, String productName, int quantity, double unitPrice) {
+        this(productId, productName, quantity, Money.ofMajor(Math.max(unitPrice, 0)));
+    }
+
+    public OrderItem(String productId, String productName, int quantity, Money unitPrice) {
         this.productId = productId;
         this.productName = productName;
         this.quantity = Math.max(quantity, 1);
-        this.unitPrice = Math.max(unitPrice, 0);
-        this.discount = 0.0;
-        this.taxRate = 0.0;
+        this.unitPrice = unitPrice == null || unitPrice.isNegative() ? Money.ZERO : unitPrice;
         this.returnable = true;
     }
 
@@ -50,37 +64,47 @@ public class OrderItem {
 
     public void setQuantity(int quantity) {
         if (quantity > 0) {
-            this.quantity = quantity;
+            change(quantity, unitPrice, discountBasisPoints, taxBasisPoints);
         }
     }
 
     public double getUnitPrice() {
+        return unitPrice.toDouble();
+    }
+
+    public Money getUnitPriceMoney() {
         return unitPrice;
     }
 
     public void setUnitPrice(double unitPrice) {
         if (unitPrice >= 0) {
-            this.unitPrice = unitPrice;
+            change(quantity, Money.ofMajor(unitPrice), discountBasisPoints, taxBasisPoints);
+        }
+    }
+
+    public void setUnitPrice(Money unitPrice) {
+        if (unitPrice != null && !unitPrice.isNegative()) {
+            change(quantity, unitPrice, discountBasisPoints, taxBasisPoints);
         }
     }
 
     public double getDiscount() {
-        return discount;
+        return discountBasisPoints / 100.0;
     }
 
     public void setDiscount(double discount) {
         if (discount >= 0 && discount <= 100) {
-            this.discount = discount;
+            change(quantity, unitPrice, (int) Math.round(discount * 100), taxBasisPoints);
         }
     }
 
     public double getTaxRate() {
-        return taxRate;
+        return taxBasisPoints / 100.0;
     }
 
     public void setTaxRate(double taxRate) {
         if (taxRate >= 0 && taxRate <= 100) {
-            this.taxRate = taxRate;
+            change(quantity, unitPrice, discountBasisPoints, (int) Math.round(taxRate * 100));
         }
     }
 
@@ -93,26 +117,100 @@ public class OrderItem {
     }
 
     // Business Logic
+    public Money getSubtotalMoney() {
+        return Money.ofMinor(subtotalMinorUnits());
+    }
+
+    public Money getDiscountMoney() {
+        return Money.ofMinor(discountMinorUnits(subtotalMinorUnits()));
+    }
+
+    public Money getTaxMoney() {
+        long subtotal = subtotalMinorUnits();
+        return Money.ofMinor(taxMinorUnits(subtotal, discountMinorUnits(subtotal)));
+    }
+
+    public Money getTotalMoney() {
+        return Money.ofMinor(totalMinorUnits());
+    }
+
     public double getSubtotal() {
-        return quantity * unitPrice;
+        return getSubtotalMoney().toDouble();
     }
 
     public double getDiscountAmount() {
-        return getSubtotal() * (discount / 100);
+        return getDiscountMoney().toDouble();
     }
 
     public double getTaxAmount() {
-        return (getSubtotal() - getDiscountAmount()) * (taxRate / 100);
+        return getTaxMoney().toDouble();
     }
 
     public double getTotalPrice() {
-        return getSubtotal() - getDiscountAmount() + getTaxAmount();
+        return getTotalMoney().toDouble();
+    }
+
+    /** Line total in minor units, computed on primitives for the order hot path. */
+    long totalMinorUnits() {
+        long subtotal = subtotalMinorUnits();
+        long discount = discountMinorUnits(subtotal);
+        return Math.addExact(subtotal - discount, taxMinorUnits(subtotal, discount));
+    }
+
+    long subtotalMinorUnits() {
+        return subtotalMinorUnits(unitPrice, quantity);
+    }
+
+    long discountMinorUnits(long subtotal) {
+        return discountMinorUnits(subtotal, discountBasisPoints);
+    }
+
+    long taxMinorUnits(long subtotal, long discount) {
+        return taxMinorUnits(subtotal, discount, taxBasisPoints);
+    }
+
+    private static long subtotalMinorUnits(Money unitPrice, int quantity) {
+        return Math.multiplyExact(unitPrice.getMinorUnits(), (long) quantity);
+    }
+
+    private static long discountMinorUnits(long subtotal, int discountBasisPoints) {
+        return Money.scale(subtotal, discountBasisPoints, Money.BASIS_POINTS);
+    }
+
+    private static long taxMinorUnits(long subtotal, long discount, int taxBasisPoints) {
+        return Money.scale(subtotal - discount, taxBasisPoints, Money.BASIS_POINTS);
+    }
+
+    Order getOrder() {
+        return order;
+    }
+
+    void setOrder(Order order) {
+        this.order = order;
+    }
+
+    /**
+     * Applies new pricing. The line amounts are computed, and the owning order's totals
+     * updated, before any field is assigned, so a change that overflows throws
+     * {@link ArithmeticException} and leaves both the item and its order as they were.
+     */
+    private void change(int quantity, Money unitPrice, int discountBasisPoints, int taxBasisPoints) {
+        long subtotal = subtotalMinorUnits(unitPrice, quantity);
+        long discount = discountMinorUnits(subtotal, discountBasisPoints);
+        long tax = taxMinorUnits(subtotal, discount, taxBasisPoints);
+        if (order != null) {
+            order.itemChanged(this, subtotal, discount, tax);
+        }
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+        this.discountBasisPoints = discountBasisPoints;
+        this.taxBasisPoints = taxBasisPoints;
     }
 
     public boolean isValid() {
         return productId != null && !productId.trim().isEmpty()
             && productName != null && !productName.trim().isEmpty()
-            && quantity > 0 && unitPrice >= 0;
+            && quantity > 0 && !unitPrice.isNegative();
     }
 
     public boolean isHighValueItem(double threshold) {
@@ -121,8 +219,8 @@ public class OrderItem {
 
     public OrderItem copy() {
         OrderItem copy = new OrderItem(productId, productName, quantity, unitPrice);
-        copy.setDiscount(discount);
-        copy.setTaxRate(taxRate);
+        copy.discountBasisPoints = discountBasisPoints;
+        copy.taxBasisPoints = taxBasisPoints;
         copy.setReturnable(returnable);
         return copy;
     }
@@ -144,7 +242,7 @@ public class OrderItem {
     public String toString() {
         return String.format(
             "OrderItem{productId='%s', productName='%s', quantity=%d, unitPrice=%.2f, discount=%.1f%%, taxRate=%.1f%%, total=%.2f, returnable=%b}",
-            productId, productName, quantity, unitPrice, discount, taxRate, getTotalPrice(), returnable
+            productId, productName, quantity, getUnitPrice(), getDiscount(), getTaxRate(), getTotalPrice(), returnable
         );
     }
 }
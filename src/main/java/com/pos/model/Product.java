@@ -1,5 +1,6 @@
 package com.pos.model;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
@@ -9,12 +10,16 @@ import java.util.Objects;
  * Represents a product in the POS system with essential details
  * such as identifier, name, description, price, and stock information.
  */
-public class Product {
+public class Product implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Money MAX_VALID_PRICE = Money.ofMinor(100_000_000);
 
     private String productId;
     private String name;
     private String description;
-    private double price;
+    private Money price;
     private int stockQuantity;
     private String category;
     private boolean active;
@@ -36,6 +41,22 @@ public class Product {
         this.discountRate = 0.0;
     }
 
+    /** Copies every field, including the timestamps, into an independent instance. */
+    public Product(Product other) {
+        this.productId = other.productId;
+        this.name = other.name;
+        this.description = other.description;
+        this.price = other.price;
+        this.stockQuantity = other.stockQuantity;
+        this.category = other.category;
+        this.active = other.active;
+        this.supplier = other.supplier;
+        this.barcode = other.barcode;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.discountRate = other.discountRate;
+    }
+
     // Getters and Setters
     public String getProductId() {
         return productId;
@@ -65,6 +86,10 @@ public class Product {
     }
 
     public double getPrice() {
+        return price.toDouble();
+    }
+
+    public Money getPriceMoney() {
         return price;
     }
 
@@ -72,6 +97,13 @@ public class Product {
         if (price < 0) {
             throw new IllegalArgumentException("Price cannot be negative");
         }
+        setPrice(Money.ofMajor(price));
+    }
+
+    public void setPrice(Money price) {
+        if (price == null || price.isNegative()) {
+            throw new IllegalArgumentException("Price cannot be negative");
+        }
         this.price = price;
         updateTimestamp();
     }
@@ -169,7 +201,7 @@ public class Product {
     }
 
     public boolean isValidPrice() {
-        return price >= 0 && price <= 1_000_000;
+        return !price.isNegative() && !price.isGreaterThan(MAX_VALID_PRICE);
     }
 
     public boolean isSameProduct(Product other) {
@@ -188,8 +220,12 @@ public class Product {
         return isInStock() && isActive();
     }
 
+    public Money getDiscountedPriceMoney() {
+        return price.minus(price.percent(Math.round(discountRate * Money.BASIS_POINTS)));
+    }
+
     public double getDiscountedPrice() {
-        return price * (1 - discountRate);
+        return getDiscountedPriceMoney().toDouble();
     }
 
     private void updateTimestamp() {
@@ -213,6 +249,6 @@ public class Product {
     public String toString() {
         return String.format(
             "Product{id='%s', name='%s', description='%s', price=%.2f, discountedPrice=%.2f, stockQuantity=%d, category='%s', active=%b, supplier='%s', barcode='%s', createdAt='%s', updatedAt='%s'}",
-            productId, name, description, price, getDiscountedPrice(), stockQuantity, category, active, supplier, barcode, createdAt, updatedAt);
+            productId, name, description, getPrice(), getDiscountedPrice(), stockQuantity, category, active, supplier, barcode, createdAt, updatedAt);
     }
 }
@@ -12,9 +12,11 @@ import java.util.Objects;
  */
 public class Transaction {
 
+    private static final Money MAX_AMOUNT = Money.ofMinor(1_000_000_000);
+
     private String transactionId;
     private String orderId;
-    private double amount;
+    private Money amount;
     private PaymentMethod paymentMethod;
     private TransactionType transactionType;
     private TransactionStatus status;
@@ -69,6 +71,10 @@ public class Transaction {
     }
 
     public double getAmount() {
+        return amount.toDouble();
+    }
+
+    public Money getAmountMoney() {
         return amount;
     }
 
@@ -76,6 +82,13 @@ public class Transaction {
         if (amount < 0 || amount > 10_000_000) {
             throw new IllegalArgumentException("Amount must be between 0 and 10,000,000");
         }
+        setAmount(Money.ofMajor(amount));
+    }
+
+    public void setAmount(Money amount) {
+        if (amount == null || amount.isNegative() || amount.isGreaterThan(MAX_AMOUNT)) {
+            throw new IllegalArgumentException("Amount must be between 0 and 10,000,000");
+        }
         this.amount = amount;
         updateTimestamp();
     }
@@ -153,7 +166,7 @@ public class Transaction {
 
     // Transaction validation logic
     public boolean isValidTransaction() {
-        return transactionId != null && orderId != null && amount > 0;
+        return transactionId != null && orderId != null && amount.isPositive();
     }
 
     // Utility methods
@@ -1,9 +1,12 @@
 package com.pos.repository;
 
 import com.pos.model.Customer;
+import com.pos.repository.persistence.DurabilityLayer;
+import com.pos.util.SubstringIndex;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.stream.Collectors;
 
 /**
@@ -12,10 +15,48 @@ import java.util.stream.Collectors;
  * An enhanced in-memory repository for managing Customer entities.
  * Ideal for development, prototyping, or lightweight deployments.
  * For production-grade applications, consider integrating with a persistent database.
+ *
+ * Changes can be made durable by supplying a {@link DurabilityLayer}, such as a
+ * write-ahead log; the default keeps everything in memory only.
+ *
+ * Lookups behind the cashier's customer search are indexed so they do not scan the
+ * store: full names in a trigram {@link SubstringIndex}, e-mail addresses and domains
+ * in hash maps, and phone numbers in a skip list ordered by (phone, customerId), where
+ * a prefix is a contiguous range. Indexes are updated while holding the customer's key
+ * in the store, like the store itself.
  */
 public class CustomerRepository {
 
+    /** Phone prefixes shorter than this are answered by scanning the store. */
+    private static final int MIN_INDEXED_PHONE_PREFIX = 3;
+
     private final Map<String, Customer> customerStore = new ConcurrentHashMap<>();
+    private final DurabilityLayer<Customer> durability;
+
+    // --- Search indexes ---
+    private final SubstringIndex<Customer> nameIndex = new SubstringIndex<>();
+    private final Map<String, Map<String, Customer>> emailIndex = new ConcurrentHashMap<>(); // values are immutable
+    private final Map<String, Map<String, Customer>> domainIndex = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<PhoneKey, Customer> phoneIndex = new ConcurrentSkipListMap<>();
+    private final Map<String, IndexedCustomer> indexedCustomers = new ConcurrentHashMap<>();
+
+    public CustomerRepository() {
+        this(DurabilityLayer.none());
+    }
+
+    /**
+     * Creates a repository that records every change through the given durability
+     * layer, starting from the state it has already persisted.
+     *
+     * @param durability where changes are recorded
+     */
+    public CustomerRepository(DurabilityLayer<Customer> durability) {
+        this.durability = Objects.requireNonNull(durability, "DurabilityLayer must not be null");
+        durability.recover().forEach((customerId, customer) -> customerStore.compute(customerId, (id, previous) -> {
+            index(id, customer);
+            return customer;
+        }));
+    }
 
     /**
      * Retrieves a customer by their ID.
@@ -46,7 +87,7 @@ public class CustomerRepository {
         if (customer.getCustomerId() == null || customer.getCustomerId().trim().isEmpty()) {
             customer.setCustomerId(UUID.randomUUID().toString());
         }
-        customerStore.put(customer.getCustomerId(), customer);
+        putDurably(customer.getCustomerId(), customer);
         return customer;
     }
 
@@ -61,7 +102,7 @@ public class CustomerRepository {
         if (customerId == null || !customerStore.containsKey(customerId)) {
             return false;
         }
-        customerStore.put(customerId, customer);
+        putDurably(customerId, customer);
         return true;
     }
 
@@ -81,14 +122,20 @@ public class CustomerRepository {
      * @param customerId ID of the customer
      */
     public void deleteById(String customerId) {
-        customerStore.remove(customerId);
+        removeDurably(customerId);
     }
 
     /**
      * Deletes all customers.
      */
     public void deleteAll() {
+        durability.awaitDurable(durability.logClear());
         customerStore.clear();
+        nameIndex.clear();
+        emailIndex.clear();
+        domainIndex.clear();
+        phoneIndex.clear();
+        indexedCustomers.clear();
     }
 
     /**
@@ -98,9 +145,19 @@ public class CustomerRepository {
      * @return List of matching customers
      */
     public List<Customer> findByEmail(String email) {
-        return customerStore.values().stream()
-                .filter(customer -> email != null && email.equalsIgnoreCase(customer.getEmail()))
-                .collect(Collectors.toList());
+        if (email == null) return new ArrayList<>();
+        return valuesOf(emailIndex.get(foldCase(email)));
+    }
+
+    /**
+     * Finds customers whose email address is at the given domain (case-insensitive).
+     *
+     * @param domain The domain, without the '@'
+     * @return List of matching customers
+     */
+    public List<Customer> findByEmailDomain(String domain) {
+        if (domain == null) return new ArrayList<>();
+        return valuesOf(domainIndex.get(domain.toLowerCase()));
     }
 
     /**
@@ -159,11 +216,20 @@ public class CustomerRepository {
      * @return Map of email domain to customer count
      */
     public Map<String, Long> countByEmailDomain() {
-        return customerStore.values().stream()
-                .map(Customer::getEmail)
-                .filter(email -> email != null && email.contains("@"))
-                .map(email -> email.substring(email.indexOf("@") + 1).toLowerCase())
-                .collect(Collectors.groupingBy(domain -> domain, Collectors.counting()));
+        Map<String, Long> counts = new HashMap<>();
+        domainIndex.forEach((domain, customers) -> counts.put(domain, (long) customers.size()));
+        return counts;
+    }
+
+    /**
+     * Groups customers by email domain (lower-cased).
+     *
+     * @return Map of email domain to its customers
+     */
+    public Map<String, List<Customer>> groupByEmailDomain() {
+        Map<String, List<Customer>> groups = new HashMap<>();
+        domainIndex.forEach((domain, customers) -> groups.put(domain, new ArrayList<>(customers.values())));
+        return groups;
     }
 
     /**
@@ -173,12 +239,226 @@ public class CustomerRepository {
      * @return List of matching customers
      */
     public List<Customer> searchByName(String query) {
-        String lowerQuery = query != null ? query.toLowerCase() : "";
-        return customerStore.values().stream()
-                .filter(customer -> {
-                    String fullName = (customer.getFirstName() + " " + customer.getLastName()).toLowerCase();
-                    return fullName.contains(lowerQuery);
-                })
-                .collect(Collectors.toList());
+        return nameIndex.search(query != null ? query.toLowerCase() : "");
+    }
+
+    /**
+     * Finds customers whose phone number starts with the given prefix. Prefixes of
+     * {@value #MIN_INDEXED_PHONE_PREFIX} or more characters are read from the phone index,
+     * in phone order. Shorter ones such as "09" match most customers, and walking most of
+     * the skip list is slower than a scan of the store, so they are scanned and returned
+     * in no particular order.
+     *
+     * @param prefix Leading characters of the phone number
+     * @return List of matching customers
+     */
+    public List<Customer> findByPhonePrefix(String prefix) {
+        if (prefix == null) return new ArrayList<>();
+        if (prefix.length() < MIN_INDEXED_PHONE_PREFIX) {
+            return customerStore.values().stream()
+                    .filter(c -> c.getPhone() != null && !c.getPhone().trim().isEmpty() && c.getPhone().startsWith(prefix))
+                    .collect(Collectors.toList());
+        }
+        PhoneKey lower = new PhoneKey(prefix, null);
+        if (prefix.charAt(prefix.length() - 1) == Character.MAX_VALUE) {
+            List<Customer> result = new ArrayList<>();
+            for (Map.Entry<PhoneKey, Customer> entry : phoneIndex.tailMap(lower).entrySet()) {
+                if (!entry.getKey().phone.startsWith(prefix)) break;
+                result.add(entry.getValue());
+            }
+            return result;
+        }
+        // Every phone starting with the prefix sorts below the prefix with its last character incremented
+        String upper = prefix.substring(0, prefix.length() - 1) + (char) (prefix.charAt(prefix.length() - 1) + 1);
+        return new ArrayList<>(phoneIndex.subMap(lower, new PhoneKey(upper, null)).values());
+    }
+
+    /**
+     * Groups customers by the first characters of their phone number; numbers shorter
+     * than the prefix length are left out.
+     *
+     * @param prefixLength Number of leading characters to group by
+     * @return Map of phone prefix to its customers
+     */
+    public Map<String, List<Customer>> groupByPhonePrefix(int prefixLength) {
+        Map<String, List<Customer>> groups = new HashMap<>();
+        if (prefixLength <= 0) return groups;
+        String prefix = null;
+        List<Customer> group = null;
+        for (Map.Entry<PhoneKey, Customer> entry : phoneIndex.entrySet()) {
+            String phone = entry.getKey().phone;
+            if (phone.length() < prefixLength) continue;
+            if (prefix == null || !phone.startsWith(prefix)) {
+                prefix = phone.substring(0, prefixLength);
+                group = groups.computeIfAbsent(prefix, p -> new ArrayList<>());
+            }
+            group.add(entry.getValue());
+        }
+        return groups;
+    }
+
+    // --- Durability ---
+
+    /**
+     * Stores the customer and records it in the durability layer while holding the key,
+     * so log order matches memory order; waits for durability after releasing it.
+     */
+    private void putDurably(String customerId, Customer customer) {
+        long[] ticket = new long[1];
+        customerStore.compute(customerId, (id, previous) -> {
+            ticket[0] = durability.logPut(id, customer);
+            index(id, customer);
+            return customer;
+        });
+        durability.awaitDurable(ticket[0]);
+    }
+
+    private void removeDurably(String customerId) {
+        long[] ticket = new long[1];
+        customerStore.computeIfPresent(customerId, (id, previous) -> {
+            ticket[0] = durability.logDelete(id);
+            unindex(id);
+            return null;
+        });
+        durability.awaitDurable(ticket[0]);
+    }
+
+    // --- Index maintenance ---
+
+    /**
+     * Re-indexes a customer by name, email, domain and phone. Called while holding the
+     * customer's key in the store, so updates of the same customer are serialized.
+     */
+    private void index(String customerId, Customer customer) {
+        unindex(customerId);
+        nameIndex.put(customerId, (customer.getFirstName() + " " + customer.getLastName()).toLowerCase(), customer);
+
+        String email = customer.getEmail();
+        if (email != null) {
+            emailIndex.compute(foldCase(email), (key, customers) -> with(customers, customerId, customer));
+            String domain = domainOf(email);
+            if (domain != null) {
+                // Insert under the domain's key lock, so a concurrent unindex cannot drop the bucket in between
+                domainIndex.compute(domain, (key, customers) -> {
+                    Map<String, Customer> current = customers == null ? new ConcurrentHashMap<>() : customers;
+                    current.put(customerId, customer);
+                    return current;
+                });
+            }
+        }
+
+        PhoneKey phoneKey = null;
+        String phone = customer.getPhone();
+        if (phone != null && !phone.trim().isEmpty()) {
+            phoneKey = new PhoneKey(phone, customerId);
+            phoneIndex.put(phoneKey, customer);
+        }
+        indexedCustomers.put(customerId, new IndexedCustomer(email, phoneKey));
+    }
+
+    private void unindex(String customerId) {
+        nameIndex.remove(customerId);
+        IndexedCustomer indexed = indexedCustomers.remove(customerId);
+        if (indexed == null) return;
+
+        if (indexed.email != null) {
+            emailIndex.computeIfPresent(foldCase(indexed.email), (key, customers) -> without(customers, customerId));
+            String domain = domainOf(indexed.email);
+            if (domain != null) {
+                domainIndex.computeIfPresent(domain, (key, customers) -> {
+                    customers.remove(customerId);
+                    return customers.isEmpty() ? null : customers;
+                });
+            }
+        }
+        if (indexed.phoneKey != null) phoneIndex.remove(indexed.phoneKey);
+    }
+
+    /**
+     * Copy-on-write add for the email index. An address almost always belongs to a
+     * single customer, so an immutable one-entry map is far smaller than a concurrent one.
+     */
+    private static Map<String, Customer> with(Map<String, Customer> customers, String customerId, Customer customer) {
+        if (customers == null) return Map.of(customerId, customer);
+        Map<String, Customer> copy = new HashMap<>(customers);
+        copy.put(customerId, customer);
+        return Map.copyOf(copy);
+    }
+
+    private static Map<String, Customer> without(Map<String, Customer> customers, String customerId) {
+        if (!customers.containsKey(customerId)) return customers;
+        Map<String, Customer> copy = new HashMap<>(customers);
+        copy.remove(customerId);
+        return copy.isEmpty() ? null : Map.copyOf(copy);
+    }
+
+    private static String domainOf(String email) {
+        int at = email.indexOf("@");
+        return at < 0 ? null : email.substring(at + 1).toLowerCase();
+    }
+
+    private static List<Customer> valuesOf(Map<String, Customer> customers) {
+        return customers == null ? new ArrayList<>() : new ArrayList<>(customers.values());
+    }
+
+    /**
+     * Folds case per code point the way {@link String#equalsIgnoreCase} compares, so two
+     * addresses have the same key exactly when they are equal ignoring case.
+     */
+    private static String foldCase(String value) {
+        StringBuilder folded = new StringBuilder(value.length());
+        value.codePoints().forEach(cp -> folded.appendCodePoint(Character.toLowerCase(Character.toUpperCase(cp))));
+        return value.contentEquals(folded) ? value : folded.toString();
+    }
+
+    /**
+     * Index key ordered by phone number, then customer ID. A null customer ID sorts
+     * before every real ID and is used only for range bounds.
+     */
+    private static final class PhoneKey implements Comparable<PhoneKey> {
+        private final String phone;
+        private final String customerId;
+
+        private PhoneKey(String phone, String customerId) {
+            this.phone = phone;
+            this.customerId = customerId;
+        }
+
+        @Override
+        public int compareTo(PhoneKey other) {
+            int byPhone = phone.compareTo(other.phone);
+            if (byPhone != 0) return byPhone;
+            if (customerId == null) return other.customerId == null ? 0 : -1;
+            if (other.customerId == null) return 1;
+            return customerId.compareTo(other.customerId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PhoneKey)) return false;
+            PhoneKey that = (PhoneKey) o;
+            return phone.equals(that.phone) && Objects.equals(customerId, that.customerId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(phone, customerId);
+        }
+    }
+
+    /**
+     * What a customer was last indexed under, so it can be removed even if the customer
+     * object was changed in place. The email and domain keys are derived from the email
+     * again on removal rather than kept for every customer.
+     */
+    private static final class IndexedCustomer {
+        private final String email;
+        private final PhoneKey phoneKey;
+
+        private IndexedCustomer(String email, PhoneKey phoneKey) {
+            this.email = email;
+            this.phoneKey = phoneKey;
+        }
     }
 }
@@ -1,9 +1,13 @@
 package com.pos.repository;
 
 import com.pos.model.Product;
+import com.pos.repository.persistence.DurabilityLayer;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 /**
@@ -12,11 +16,58 @@ import java.util.stream.Collectors;
  * A robust and thread-safe in-memory repository for managing product inventory.
  * Designed for prototyping, testing, or lightweight applications. For production,
  * consider integrating a persistent storage solution.
+ *
+ * Secondary indexes on case-folded name, category and stock level are maintained
+ * on every write, so lookups do not scan the whole store. Index maintenance for a
+ * product is serialized per product ID; there is no repository-wide lock.
+ * Products changed outside this repository must be passed to {@link #save(Product)}
+ * again to be re-indexed.
+ *
+ * Available stock per product is held in an atomic counter updated by compare-and-set,
+ * so concurrent sales of the same product can never drive it below zero. Baskets can
+ * hold stock through {@link #reserve(Map)} and later commit or release it. The
+ * product's own stock field mirrors the counter and is refreshed on every change.
+ *
+ * Changes can be made durable by supplying a {@link DurabilityLayer}; each re-indexed
+ * product is logged with its stock on hand, available plus reserved. Reservations
+ * themselves are not persisted: after a restart their units are available again, and
+ * baskets that held them must reserve anew. The default keeps everything in memory only.
  */
 public class InventoryRepository {
 
     private final Map<String, Product> productStore = new ConcurrentHashMap<>();
 
+    // --- Stock counters ---
+    private final Map<String, AtomicInteger> availableStock = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> reservedStock = new ConcurrentHashMap<>();
+
+    // --- Secondary indexes ---
+    private final Map<String, IndexedKeys> indexedKeys = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> nameIndex = new ConcurrentHashMap<>();
+    private final Map<String, CategoryBucket> categoryIndex = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<String>> stockBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Integer, Set<String>> stockIndex = new ConcurrentSkipListMap<>(); // ordered view of stockBuckets
+    private final LongAdder totalStock = new LongAdder();
+
+    private final DurabilityLayer<Product> durability;
+
+    public InventoryRepository() {
+        this(DurabilityLayer.none());
+    }
+
+    /**
+     * Creates a repository that records every change through the given durability
+     * layer, starting from the state it has already persisted.
+     */
+    public InventoryRepository(DurabilityLayer<Product> durability) {
+        this.durability = Objects.requireNonNull(durability, "DurabilityLayer must not be null");
+        durability.recover().forEach((productId, product) -> {
+            productStore.put(productId, product);
+            availableStock.put(productId, new AtomicInteger(product.getStock()));
+            updateIndexes(productId, false);
+        });
+    }
+
     public Optional<Product> findById(String productId) {
         return Optional.ofNullable(productStore.get(productId));
     }
@@ -30,62 +81,157 @@ public class InventoryRepository {
             product.setProductId(UUID.randomUUID().toString());
         }
         productStore.put(product.getProductId(), product);
+        // Update the live counter in place: callers already holding it must not decrement a discarded instance.
+        int stock = product.getStock();
+        availableStock.compute(product.getProductId(), (id, existing) -> {
+            if (existing == null) return new AtomicInteger(stock);
+            existing.set(stock);
+            return existing;
+        });
+        reindex(product.getProductId());
         return product;
     }
 
     public void deleteById(String productId) {
-        productStore.remove(productId);
+        if (productStore.remove(productId) != null) {
+            // The counters are dropped while re-indexing, under the product's key
+            reindex(productId);
+        }
     }
 
     public void deleteAll() {
+        durability.awaitDurable(durability.logClear());
         productStore.clear();
+        availableStock.clear();
+        reservedStock.clear();
+        indexedKeys.clear();
+        nameIndex.clear();
+        categoryIndex.clear();
+        stockBuckets.clear();
+        stockIndex.clear();
+        totalStock.reset();
     }
 
     public boolean existsById(String productId) {
         return productStore.containsKey(productId);
     }
 
+    /**
+     * Case-insensitive exact name match with the same semantics as
+     * {@link String#equalsIgnoreCase(String)}; the index narrows the candidates
+     * and the final comparison keeps the result identical to a full scan.
+     */
     public List<Product> findByName(String name) {
         if (name == null) return Collections.emptyList();
-        return productStore.values().stream()
+        return resolve(nameIndex.get(foldName(name))).stream()
                 .filter(p -> name.equalsIgnoreCase(p.getName()))
                 .collect(Collectors.toList());
     }
 
     public boolean updateStock(String productId, int quantity) {
         if (quantity < 0) return false;
-        Product product = productStore.get(productId);
-        if (product == null) return false;
-        product.setStock(quantity);
+        AtomicInteger counter = availableStock.get(productId);
+        if (counter == null) return false;
+        counter.set(quantity);
+        reindex(productId);
         return true;
     }
 
     public boolean increaseStock(String productId, int amount) {
         if (amount < 0) return false;
-        Product product = productStore.get(productId);
-        if (product == null) return false;
-        product.setStock(product.getStock() + amount);
+        AtomicInteger counter = availableStock.get(productId);
+        if (counter == null || !tryGive(counter, amount)) return false;
+        reindex(productId);
         return true;
     }
 
     public boolean decreaseStock(String productId, int amount) {
         if (amount < 0) return false;
-        Product product = productStore.get(productId);
-        if (product == null || product.getStock() < amount) return false;
-        product.setStock(product.getStock() - amount);
+        AtomicInteger counter = availableStock.get(productId);
+        if (counter == null || !tryTake(counter, amount)) return false;
+        reindex(productId);
+        return true;
+    }
+
+    public int getAvailableStock(String productId) {
+        AtomicInteger counter = availableStock.get(productId);
+        return counter == null ? 0 : counter.get();
+    }
+
+    public int getReservedStock(String productId) {
+        AtomicInteger counter = reservedStock.get(productId);
+        return counter == null ? 0 : counter.get();
+    }
+
+    // --- Reservations ---
+
+    /**
+     * Reserves every line of a basket, or nothing at all. Lines that were already
+     * taken are returned if a later line cannot be satisfied.
+     *
+     * @param basket product ID to quantity; quantities must be positive
+     * @return the reservation, or empty if any product is unknown or short of stock
+     */
+    public Optional<StockReservation> reserve(Map<String, Integer> basket) {
+        if (basket == null || basket.isEmpty()) return Optional.empty();
+        for (Integer quantity : basket.values()) {
+            if (quantity == null || quantity <= 0) return Optional.empty();
+        }
+
+        List<Map.Entry<String, Integer>> taken = new ArrayList<>(basket.size());
+        for (Map.Entry<String, Integer> line : basket.entrySet()) {
+            if (!moveToReserved(line.getKey(), line.getValue())) {
+                for (Map.Entry<String, Integer> rollback : taken) {
+                    moveToAvailable(rollback.getKey(), rollback.getValue());
+                    reindex(rollback.getKey());
+                }
+                return Optional.empty();
+            }
+            taken.add(line);
+            reindex(line.getKey());
+        }
+        return Optional.of(new StockReservation(basket));
+    }
+
+    /**
+     * Finalizes a pending reservation; the reserved units are considered sold.
+     *
+     * @return true if the reservation was pending and is now committed
+     */
+    public boolean commit(StockReservation reservation) {
+        if (reservation == null || !reservation.settle(StockReservation.Status.COMMITTED)) return false;
+        reservation.getLines().forEach((productId, quantity) -> {
+            indexedKeys.computeIfPresent(productId, (id, keys) -> {
+                AtomicInteger reserved = reservedStock.get(id);
+                if (reserved != null) reserved.addAndGet(-quantity);
+                return keys;
+            });
+            // Logs the lower stock on hand now that the units are sold
+            reindex(productId);
+        });
+        return true;
+    }
+
+    /**
+     * Cancels a pending reservation and returns its units to available stock.
+     *
+     * @return true if the reservation was pending and is now released
+     */
+    public boolean release(StockReservation reservation) {
+        if (reservation == null || !reservation.settle(StockReservation.Status.RELEASED)) return false;
+        reservation.getLines().forEach((productId, quantity) -> {
+            moveToAvailable(productId, quantity);
+            reindex(productId);
+        });
         return true;
     }
 
     public List<Product> findLowStock(int threshold) {
-        return productStore.values().stream()
-                .filter(p -> p.getStock() <= threshold)
-                .collect(Collectors.toList());
+        return resolveAll(stockIndex.headMap(threshold, true).values());
     }
 
     public List<Product> findOutOfStock() {
-        return productStore.values().stream()
-                .filter(p -> p.getStock() == 0)
-                .collect(Collectors.toList());
+        return resolve(stockIndex.get(0));
     }
 
     public int count() {
@@ -93,46 +239,54 @@ public class InventoryRepository {
     }
 
     public double averageStockLevel() {
-        return productStore.values().stream()
-                .mapToInt(Product::getStock)
-                .average()
-                .orElse(0.0);
+        int size = indexedKeys.size();
+        return size == 0 ? 0.0 : (double) totalStock.sum() / size;
     }
 
     public Map<String, Long> countByCategory() {
-        return productStore.values().stream()
-                .map(Product::getCategory)
-                .filter(Objects::nonNull)
-                .collect(Collectors.groupingBy(c -> c, Collectors.counting()));
+        Map<String, Long> result = new HashMap<>();
+        categoryIndex.forEach((category, bucket) -> {
+            if (!bucket.ids.isEmpty()) result.put(category, (long) bucket.ids.size());
+        });
+        return result;
     }
 
     public Map<String, Integer> totalStockByCategory() {
-        return productStore.values().stream()
-                .filter(p -> p.getCategory() != null)
-                .collect(Collectors.groupingBy(
-                        Product::getCategory,
-                        Collectors.summingInt(Product::getStock)
-                ));
+        Map<String, Integer> result = new HashMap<>();
+        categoryIndex.forEach((category, bucket) -> result.put(category, bucket.stock));
+        return result;
     }
 
     public Optional<Product> findTopStockedProduct() {
-        return productStore.values().stream()
-                .max(Comparator.comparingInt(Product::getStock));
+        for (Set<String> ids : stockIndex.descendingMap().values()) {
+            Optional<Product> product = resolve(ids).stream().findFirst();
+            if (product.isPresent()) return product;
+        }
+        return Optional.empty();
     }
 
     public Optional<Product> findLowestStockedProduct() {
-        return productStore.values().stream()
-                .filter(p -> p.getStock() > 0)
-                .min(Comparator.comparingInt(Product::getStock));
+        for (Set<String> ids : stockIndex.tailMap(0, false).values()) {
+            Optional<Product> product = resolve(ids).stream().findFirst();
+            if (product.isPresent()) return product;
+        }
+        return Optional.empty();
     }
 
     // --- Additional Features ---
 
+    /**
+     * Substring search over the distinct, already case-folded names in the name index,
+     * so each query scans names once rather than lower-casing every product.
+     */
     public List<Product> searchByKeyword(String keyword) {
         if (keyword == null || keyword.isBlank()) return Collections.emptyList();
-        return productStore.values().stream()
-                .filter(p -> p.getName() != null && p.getName().toLowerCase().contains(keyword.toLowerCase()))
-                .collect(Collectors.toList());
+        String folded = foldName(keyword);
+        List<Product> result = new ArrayList<>();
+        nameIndex.forEach((name, ids) -> {
+            if (name.contains(folded)) result.addAll(resolve(ids));
+        });
+        return result;
     }
 
     public boolean renameProduct(String productId, String newName) {
@@ -140,6 +294,7 @@ public class InventoryRepository {
         Product product = productStore.get(productId);
         if (product == null) return false;
         product.setName(newName);
+        reindex(productId);
         return true;
     }
 
@@ -147,18 +302,19 @@ public class InventoryRepository {
         Product product = productStore.get(productId);
         if (product == null || newCategory == null || newCategory.isBlank()) return false;
         product.setCategory(newCategory);
+        reindex(productId);
         return true;
     }
 
     public Map<Boolean, List<Product>> partitionByStockAvailability() {
-        return productStore.values().stream()
-                .collect(Collectors.partitioningBy(p -> p.getStock() > 0));
+        Map<Boolean, List<Product>> result = new HashMap<>();
+        result.put(true, resolveAll(stockIndex.tailMap(0, false).values()));
+        result.put(false, findOutOfStock());
+        return result;
     }
 
     public List<Product> getSortedByStockDesc() {
-        return productStore.values().stream()
-                .sorted(Comparator.comparingInt(Product::getStock).reversed())
-                .collect(Collectors.toList());
+        return resolveAll(stockIndex.descendingMap().values());
     }
 
     public List<Product> getSortedByName() {
@@ -166,4 +322,281 @@ public class InventoryRepository {
                 .sorted(Comparator.comparing(Product::getName, String.CASE_INSENSITIVE_ORDER))
                 .collect(Collectors.toList());
     }
+
+    // --- Full-scan reference implementations (kept for comparison and verification) ---
+
+    public List<Product> scanByName(String name) {
+        if (name == null) return Collections.emptyList();
+        return productStore.values().stream()
+                .filter(p -> name.equalsIgnoreCase(p.getName()))
+                .collect(Collectors.toList());
+    }
+
+    public List<Product> scanByKeyword(String keyword) {
+        if (keyword == null || keyword.isBlank()) return Collections.emptyList();
+        return productStore.values().stream()
+                .filter(p -> p.getName() != null && p.getName().toLowerCase().contains(keyword.toLowerCase()))
+                .collect(Collectors.toList());
+    }
+
+    public List<Product> scanLowStock(int threshold) {
+        return productStore.values().stream()
+                .filter(p -> p.getStock() <= threshold)
+                .collect(Collectors.toList());
+    }
+
+    public List<Product> scanOutOfStock() {
+        return productStore.values().stream()
+                .filter(p -> p.getStock() == 0)
+                .collect(Collectors.toList());
+    }
+
+    public Map<String, Long> scanCountByCategory() {
+        return productStore.values().stream()
+                .map(Product::getCategory)
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(c -> c, Collectors.counting()));
+    }
+
+    public Map<String, Integer> scanTotalStockByCategory() {
+        return productStore.values().stream()
+                .filter(p -> p.getCategory() != null)
+                .collect(Collectors.groupingBy(
+                        Product::getCategory,
+                        Collectors.summingInt(Product::getStock)
+                ));
+    }
+
+    // --- Stock counter helpers ---
+
+    private static boolean tryTake(AtomicInteger counter, int amount) {
+        while (true) {
+            int current = counter.get();
+            if (current < amount) return false;
+            if (counter.compareAndSet(current, current - amount)) return true;
+        }
+    }
+
+    private static boolean tryGive(AtomicInteger counter, int amount) {
+        while (true) {
+            int current = counter.get();
+            if (current > Integer.MAX_VALUE - amount) return false;
+            if (counter.compareAndSet(current, current + amount)) return true;
+        }
+    }
+
+    /**
+     * Takes units from available stock into reserved stock. Both counters change while
+     * the product's index key is held, so a state logged concurrently sees the move
+     * either whole or not at all.
+     *
+     * @return false if the product is unknown or short of stock
+     */
+    private boolean moveToReserved(String productId, int amount) {
+        boolean[] moved = new boolean[1];
+        indexedKeys.computeIfPresent(productId, (id, keys) -> {
+            AtomicInteger available = availableStock.get(id);
+            if (available != null && tryTake(available, amount)) {
+                reservedStock.computeIfAbsent(id, k -> new AtomicInteger()).addAndGet(amount);
+                moved[0] = true;
+            }
+            return keys;
+        });
+        return moved[0];
+    }
+
+    /**
+     * Returns reserved units to available stock. Does nothing if the product was deleted
+     * in the meantime, since its units went with it.
+     */
+    private void moveToAvailable(String productId, int amount) {
+        indexedKeys.computeIfPresent(productId, (id, keys) -> {
+            AtomicInteger reserved = reservedStock.get(id);
+            AtomicInteger available = availableStock.get(id);
+            if (reserved == null || available == null) return keys;
+            reserved.addAndGet(-amount);
+            tryGive(available, amount);
+            return keys;
+        });
+    }
+
+    /**
+     * The product as it should be recovered. Pending reservations are held only in
+     * memory, so their units are logged as on hand and return to available stock on
+     * recovery. A copy is logged only while units are reserved.
+     */
+    private Product durableState(String productId, Product product) {
+        AtomicInteger reserved = reservedStock.get(productId);
+        int held = reserved == null ? 0 : reserved.get();
+        if (held <= 0) return product;
+        Product onHand = new Product(product);
+        onHand.setStock(product.getStock() + held);
+        return onHand;
+    }
+
+    // --- Index maintenance ---
+
+    /**
+     * Brings every secondary index, and the product's stock field, in line with the
+     * current state of the product. The per-ID {@code compute} serializes concurrent
+     * re-indexing of the same product while leaving other products unblocked; the last
+     * caller always observes the latest counter value. The resulting state is logged
+     * inside the same critical section and awaited after it.
+     */
+    private void reindex(String productId) {
+        durability.awaitDurable(updateIndexes(productId, true));
+    }
+
+    private long updateIndexes(String productId, boolean logChange) {
+        long[] ticket = new long[1];
+        indexedKeys.compute(productId, (id, previous) -> {
+            Product product = productStore.get(id);
+            IndexedKeys current = null;
+            if (product == null) {
+                availableStock.remove(id);
+                reservedStock.remove(id);
+            } else {
+                AtomicInteger counter = availableStock.get(id);
+                int stock = counter == null ? product.getStock() : counter.get();
+                if (product.getStock() != stock) product.setStock(stock);
+                current = new IndexedKeys(foldName(product.getName()), product.getCategory(), stock);
+            }
+
+            if (previous != null) {
+                removeFromBucket(nameIndex, previous.name, id);
+                removeFromCategory(previous.category, id, previous.stock);
+                removeFromBucket(stockBuckets, stockIndex, previous.stock, id);
+                totalStock.add(-previous.stock);
+            }
+            if (current != null) {
+                addToBucket(nameIndex, current.name, id);
+                addToCategory(current.category, id, current.stock);
+                addToBucket(stockBuckets, stockIndex, current.stock, id);
+                totalStock.add(current.stock);
+            }
+            if (logChange && product != null) {
+                ticket[0] = durability.logPut(id, durableState(id, product));
+            } else if (logChange && previous != null) {
+                ticket[0] = durability.logDelete(id);
+            }
+            return current;
+        });
+        return ticket[0];
+    }
+
+    private static <K> void addToBucket(Map<K, Set<String>> index, K key, String productId) {
+        addToBucket(index, null, key, productId);
+    }
+
+    private static <K> void removeFromBucket(Map<K, Set<String>> index, K key, String productId) {
+        removeFromBucket(index, null, key, productId);
+    }
+
+    /**
+     * Adds to a bucket inside the index's own per-key {@code compute}, so a concurrent
+     * removal can never drop the bucket between lookup and insert. An optional ordered
+     * view is kept in step under the same per-key lock; a skip list's own
+     * {@code compute} may re-apply the function and cannot be mutated in place safely.
+     */
+    private static <K> void addToBucket(Map<K, Set<String>> index, NavigableMap<K, Set<String>> ordered,
+                                        K key, String productId) {
+        if (key == null) return;
+        index.compute(key, (k, ids) -> {
+            if (ids == null) {
+                ids = ConcurrentHashMap.newKeySet();
+                if (ordered != null) ordered.put(k, ids);
+            }
+            ids.add(productId);
+            return ids;
+        });
+    }
+
+    private static <K> void removeFromBucket(Map<K, Set<String>> index, NavigableMap<K, Set<String>> ordered,
+                                             K key, String productId) {
+        if (key == null) return;
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(productId);
+            if (!ids.isEmpty()) return ids;
+            if (ordered != null) ordered.remove(k);
+            return null;
+        });
+    }
+
+    /**
+     * Adds a product to its category and its stock to the category total in the same
+     * per-category {@code compute}, so the total always belongs to the bucket it is in.
+     */
+    private void addToCategory(String category, String productId, int stock) {
+        if (category == null) return;
+        categoryIndex.compute(category, (c, bucket) -> {
+            CategoryBucket current = bucket != null ? bucket : new CategoryBucket();
+            current.ids.add(productId);
+            current.stock += stock;
+            return current;
+        });
+    }
+
+    private void removeFromCategory(String category, String productId, int stock) {
+        if (category == null) return;
+        categoryIndex.computeIfPresent(category, (c, bucket) -> {
+            if (!bucket.ids.remove(productId)) return bucket;
+            bucket.stock -= stock;
+            return bucket.ids.isEmpty() ? null : bucket;
+        });
+    }
+
+    private List<Product> resolve(Set<String> productIds) {
+        if (productIds == null || productIds.isEmpty()) return Collections.emptyList();
+        List<Product> result = new ArrayList<>(productIds.size());
+        for (String id : productIds) {
+            Product product = productStore.get(id);
+            if (product != null) result.add(product);
+        }
+        return result;
+    }
+
+    private List<Product> resolveAll(Collection<Set<String>> buckets) {
+        List<Product> result = new ArrayList<>();
+        for (Set<String> ids : buckets) {
+            result.addAll(resolve(ids));
+        }
+        return result;
+    }
+
+    /**
+     * Folds each code point the way {@link String#equalsIgnoreCase(String)} compares
+     * them, so two names share an index key exactly when they are equal ignoring case.
+     */
+    private static String foldName(String name) {
+        if (name == null) return null;
+        StringBuilder folded = new StringBuilder(name.length());
+        name.codePoints().forEach(cp -> folded.appendCodePoint(Character.toLowerCase(Character.toUpperCase(cp))));
+        return folded.toString();
+    }
+
+    /**
+     * The products in one category and their summed stock. Changed only inside
+     * {@code categoryIndex.compute} for the category's key; readers see the ID set and
+     * the volatile total without locking.
+     */
+    private static final class CategoryBucket {
+        private final Set<String> ids = ConcurrentHashMap.newKeySet();
+        private volatile int stock;
+    }
+
+    /**
+     * Snapshot of the index keys a product was last indexed under, so stale
+     * entries can be removed even if the product object was mutated in place.
+     */
+    private static final class IndexedKeys {
+        private final String name;
+        private final String category;
+        private final int stock;
+
+        private IndexedKeys(String name, String category, int stock) {
+            this.name = name;
+            this.category = category;
+            this.stock = stock;
+        }
+    }
 }
@@ -0,0 +1,23 @@
+package com.pos.repository;
+
+import com.pos.model.Order;
+
+/**
+ * OrderChangeListener
+ *
+ * Receives every change made through an {@link OrderRepository}. Callbacks for the
+ * same order ID are delivered one at a time and in the order the changes were applied,
+ * so a listener can maintain derived state without rescanning the repository.
+ * Callbacks run on the writer's thread and should be short.
+ */
+public interface OrderChangeListener {
+
+    /** Called when an order is created or replaced, including re-saves of a modified order */
+    void onOrderSaved(Order order);
+
+    /** Called when an existing order is removed */
+    void onOrderDeleted(String orderId);
+
+    /** Called after every order has been removed */
+    void onAllOrdersDeleted();
+}
@@ -1,9 +1,15 @@
 package com.pos.repository;
 
 import com.pos.model.Order;
+import com.pos.model.OrderItem;
+import com.pos.repository.persistence.DurabilityLayer;
+import com.pos.util.TopK;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 /**
@@ -12,16 +18,60 @@ import java.util.stream.Collectors;
  * A thread-safe in-memory repository for managing customer orders.
  * Suitable for prototypes and testing environments. For production use,
  * consider integrating with a relational or document database.
+ *
+ * Changes can be made durable by supplying a {@link DurabilityLayer}, such as a
+ * write-ahead log; the default keeps everything in memory only.
+ *
+ * Dated orders are also kept in a concurrent skip list ordered by (orderDate, orderId),
+ * globally and per customer, so date-range queries cost O(log n + k) and the earliest
+ * and latest orders are read from the ends of the index without sorting.
+ * Orders are also ranked by amount, so the largest N are read without sorting.
+ *
+ * Order lines are indexed by product ID, mapping each product to the orders that
+ * contain it and the total quantity they order, so "who bought product X" is a
+ * direct lookup and per-product sold quantity is a counter read. Lines without a
+ * product ID are not indexed.
+ *
+ * Registered {@link OrderChangeListener}s are notified of every change, which lets
+ * derived views such as report aggregates stay current incrementally.
  */
 public class OrderRepository {
 
     private final Map<String, Order> orderStore = new ConcurrentHashMap<>();
+    private final DurabilityLayer<Order> durability;
+
+    // --- Time indexes ---
+    private final ConcurrentSkipListMap<TimeKey, Order> timeIndex = new ConcurrentSkipListMap<>();
+    private final Map<String, ConcurrentSkipListMap<TimeKey, Order>> customerTimeIndex = new ConcurrentHashMap<>();
+    private final Map<String, IndexedOrder> indexedOrders = new ConcurrentHashMap<>();
+    private final TopK<String> amountRanking = TopK.exact();
+
+    // --- Product index ---
+    private final Map<String, ProductSales> productIndex = new ConcurrentHashMap<>();
+
+    private final List<OrderChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    public OrderRepository() {
+        this(DurabilityLayer.none());
+    }
+
+    /**
+     * Creates a repository that records every change through the given durability
+     * layer, starting from the state it has already persisted.
+     */
+    public OrderRepository(DurabilityLayer<Order> durability) {
+        this.durability = Objects.requireNonNull(durability, "DurabilityLayer must not be null");
+        durability.recover().forEach((orderId, order) -> orderStore.compute(orderId, (id, previous) -> {
+            index(id, order);
+            return order;
+        }));
+    }
 
     public Order save(Order order) {
         if (order.getOrderId() == null || order.getOrderId().isBlank()) {
             order.setOrderId(UUID.randomUUID().toString());
         }
-        orderStore.put(order.getOrderId(), order);
+        putDurably(order.getOrderId(), order);
         return order;
     }
 
@@ -34,11 +84,37 @@ public class OrderRepository {
     }
 
     public void deleteById(String orderId) {
-        orderStore.remove(orderId);
+        removeDurably(orderId);
     }
 
     public void deleteAll() {
+        durability.awaitDurable(durability.logClear());
         orderStore.clear();
+        timeIndex.clear();
+        customerTimeIndex.clear();
+        indexedOrders.clear();
+        amountRanking.clear();
+        productIndex.clear();
+        listeners.forEach(OrderChangeListener::onAllOrdersDeleted);
+    }
+
+    /**
+     * Registers a listener and replays every stored order to it as a save. The replay
+     * holds each order's key, so it cannot overtake a concurrent change to that order.
+     */
+    public void addChangeListener(OrderChangeListener listener) {
+        Objects.requireNonNull(listener, "OrderChangeListener must not be null");
+        listeners.add(listener);
+        for (String orderId : orderStore.keySet()) {
+            orderStore.computeIfPresent(orderId, (id, order) -> {
+                listener.onOrderSaved(order);
+                return order;
+            });
+        }
+    }
+
+    public void removeChangeListener(OrderChangeListener listener) {
+        listeners.remove(listener);
     }
 
     public boolean existsById(String orderId) {
@@ -62,22 +138,15 @@ public class OrderRepository {
     }
 
     public List<Order> findOrdersBetween(Date from, Date to) {
-        return orderStore.values().stream()
-                .filter(order -> order.getOrderDate() != null)
-                .filter(order -> !order.getOrderDate().before(from) && !order.getOrderDate().after(to))
-                .collect(Collectors.toList());
+        return new ArrayList<>(range(timeIndex, from, to).values());
     }
 
     public Optional<Order> findLatestOrder() {
-        return orderStore.values().stream()
-                .filter(order -> order.getOrderDate() != null)
-                .max(Comparator.comparing(Order::getOrderDate));
+        return Optional.ofNullable(timeIndex.lastEntry()).map(Map.Entry::getValue);
     }
 
     public Optional<Order> findEarliestOrder() {
-        return orderStore.values().stream()
-                .filter(order -> order.getOrderDate() != null)
-                .min(Comparator.comparing(Order::getOrderDate));
+        return Optional.ofNullable(timeIndex.firstEntry()).map(Map.Entry::getValue);
     }
 
     public List<Order> findOrdersAboveAmount(double threshold) {
@@ -100,10 +169,7 @@ public class OrderRepository {
     }
 
     public List<Order> findAllSortedByDateDesc() {
-        return orderStore.values().stream()
-                .filter(order -> order.getOrderDate() != null)
-                .sorted(Comparator.comparing(Order::getOrderDate).reversed())
-                .collect(Collectors.toList());
+        return new ArrayList<>(timeIndex.descendingMap().values());
     }
 
     public List<Order> findByStatus(String status) {
@@ -131,34 +197,219 @@ public class OrderRepository {
     }
 
     public List<Order> findByCustomerAndDateRange(String customerId, Date from, Date to) {
-        return orderStore.values().stream()
-                .filter(order -> customerId.equals(order.getCustomerId()))
-                .filter(order -> order.getOrderDate() != null)
-                .filter(order -> !order.getOrderDate().before(from) && !order.getOrderDate().after(to))
-                .collect(Collectors.toList());
+        ConcurrentSkipListMap<TimeKey, Order> customerOrders = customerTimeIndex.get(customerId);
+        if (customerOrders == null) return new ArrayList<>();
+        return new ArrayList<>(range(customerOrders, from, to).values());
     }
 
     public List<Order> findTopNOrdersByAmount(int n) {
-        return orderStore.values().stream()
-                .sorted(Comparator.comparingDouble(Order::getTotalAmount).reversed())
-                .limit(n)
+        return amountRanking.top(n).stream()
+                .map(orderStore::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
     public List<Order> findOrdersContainingProduct(String productId) {
-        return orderStore.values().stream()
-                .filter(order -> order.getOrderItems() != null)
-                .filter(order -> order.getOrderItems().stream()
-                        .anyMatch(item -> productId.equals(item.getProductId())))
-                .collect(Collectors.toList());
+        ProductSales sales = productIndex.get(productId);
+        return sales == null ? new ArrayList<>() : new ArrayList<>(sales.orders.values());
     }
 
     public Map<String, Integer> totalProductQuantitiesSold() {
         Map<String, Integer> result = new HashMap<>();
-        orderStore.values().stream()
-                .filter(order -> order.getOrderItems() != null)
-                .forEach(order -> order.getOrderItems().forEach(item ->
-                        result.merge(item.getProductId(), item.getQuantity(), Integer::sum)));
+        productIndex.forEach((productId, sales) -> result.put(productId, sales.quantity));
         return result;
     }
+
+    /**
+     * Total quantity of a product across all stored orders, or 0 if no order contains it.
+     */
+    public int quantitySold(String productId) {
+        ProductSales sales = productIndex.get(productId);
+        return sales == null ? 0 : sales.quantity;
+    }
+
+    public Set<String> findOrderedProductIds() {
+        return new HashSet<>(productIndex.keySet());
+    }
+
+    // --- Durability ---
+
+    /**
+     * Stores the order and records it in the durability layer while holding the key,
+     * so log order matches memory order; waits for durability after releasing it.
+     */
+    private void putDurably(String orderId, Order order) {
+        long[] ticket = new long[1];
+        orderStore.compute(orderId, (id, previous) -> {
+            ticket[0] = durability.logPut(id, order);
+            index(id, order);
+            listeners.forEach(listener -> listener.onOrderSaved(order));
+            return order;
+        });
+        durability.awaitDurable(ticket[0]);
+    }
+
+    private void removeDurably(String orderId) {
+        long[] ticket = new long[1];
+        orderStore.computeIfPresent(orderId, (id, previous) -> {
+            ticket[0] = durability.logDelete(id);
+            unindex(id);
+            listeners.forEach(listener -> listener.onOrderDeleted(id));
+            return null;
+        });
+        durability.awaitDurable(ticket[0]);
+    }
+
+    // --- Index maintenance ---
+
+    /**
+     * Re-indexes an order by amount, date and product. Called while holding the order's
+     * key in the store, so updates of the same order are serialized.
+     */
+    private void index(String orderId, Order order) {
+        unindex(orderId);
+        amountRanking.increment(orderId, order.getTotalAmount());
+
+        Map<String, Integer> quantities = productQuantities(order);
+        quantities.forEach((productId, quantity) -> productIndex.compute(productId, (id, sales) -> {
+            ProductSales current = sales == null ? new ProductSales() : sales;
+            current.add(orderId, order, quantity);
+            return current;
+        }));
+
+        TimeKey key = null;
+        if (order.getOrderDate() != null) {
+            key = new TimeKey(order.getOrderDate().getTime(), orderId);
+            timeIndex.put(key, order);
+            if (order.getCustomerId() != null) {
+                // Insert under the customer's key lock, so a concurrent unindex cannot drop the bucket in between
+                TimeKey customerKey = key;
+                customerTimeIndex.compute(order.getCustomerId(), (c, orders) -> {
+                    ConcurrentSkipListMap<TimeKey, Order> current = orders == null ? new ConcurrentSkipListMap<>() : orders;
+                    current.put(customerKey, order);
+                    return current;
+                });
+            }
+        }
+        indexedOrders.put(orderId, new IndexedOrder(key, order.getCustomerId(), quantities));
+    }
+
+    private void unindex(String orderId) {
+        amountRanking.remove(orderId);
+        IndexedOrder indexed = indexedOrders.remove(orderId);
+        if (indexed == null) return;
+
+        indexed.productQuantities.forEach((productId, quantity) -> productIndex.computeIfPresent(productId, (id, sales) -> {
+            sales.remove(orderId, quantity);
+            return sales.orders.isEmpty() ? null : sales;
+        }));
+
+        if (indexed.timeKey == null) return;
+        timeIndex.remove(indexed.timeKey);
+        if (indexed.customerId != null) {
+            customerTimeIndex.computeIfPresent(indexed.customerId, (c, orders) -> {
+                orders.remove(indexed.timeKey);
+                return orders.isEmpty() ? null : orders;
+            });
+        }
+    }
+
+    /**
+     * Sums an order's quantities per product ID, skipping lines without one.
+     */
+    private static Map<String, Integer> productQuantities(Order order) {
+        List<OrderItem> items = order.getOrderItems();
+        if (items == null || items.isEmpty()) return Collections.emptyMap();
+        Map<String, Integer> quantities = new HashMap<>();
+        for (OrderItem item : items) {
+            if (item.getProductId() != null) {
+                quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        return quantities;
+    }
+
+    /**
+     * Returns the inclusive [from, to] slice of a time index.
+     */
+    private static ConcurrentNavigableMap<TimeKey, Order> range(ConcurrentSkipListMap<TimeKey, Order> index, Date from, Date to) {
+        long fromMillis = from.getTime();
+        long toMillis = to.getTime();
+        if (fromMillis > toMillis) return new ConcurrentSkipListMap<>();
+        TimeKey lower = new TimeKey(fromMillis, null);
+        if (toMillis == Long.MAX_VALUE) return index.tailMap(lower, true);
+        return index.subMap(lower, true, new TimeKey(toMillis + 1, null), false);
+    }
+
+    /**
+     * Index key ordered by order date, then order ID. A null order ID sorts before
+     * every real ID and is used only for range bounds.
+     */
+    private static final class TimeKey implements Comparable<TimeKey> {
+        private final long epochMillis;
+        private final String orderId;
+
+        private TimeKey(long epochMillis, String orderId) {
+            this.epochMillis = epochMillis;
+            this.orderId = orderId;
+        }
+
+        @Override
+        public int compareTo(TimeKey other) {
+            int byTime = Long.compare(epochMillis, other.epochMillis);
+            if (byTime != 0) return byTime;
+            if (orderId == null) return other.orderId == null ? 0 : -1;
+            if (other.orderId == null) return 1;
+            return orderId.compareTo(other.orderId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TimeKey)) return false;
+            TimeKey that = (TimeKey) o;
+            return epochMillis == that.epochMillis && Objects.equals(orderId, that.orderId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(epochMillis, orderId);
+        }
+    }
+
+    /**
+     * The keys an order was last indexed under, so they can be removed even if
+     * the order object was changed in place. The time key is null for an undated order.
+     */
+    private static final class IndexedOrder {
+        private final TimeKey timeKey;
+        private final String customerId;
+        private final Map<String, Integer> productQuantities;
+
+        private IndexedOrder(TimeKey timeKey, String customerId, Map<String, Integer> productQuantities) {
+            this.timeKey = timeKey;
+            this.customerId = customerId;
+            this.productQuantities = productQuantities;
+        }
+    }
+
+    /**
+     * The orders containing one product and their summed quantity. Changed only inside
+     * {@code productIndex.compute} for the product's key; readers see the orders map
+     * and the volatile counter without locking.
+     */
+    private static final class ProductSales {
+        private final Map<String, Order> orders = new ConcurrentHashMap<>();
+        private volatile int quantity;
+
+        private void add(String orderId, Order order, int orderQuantity) {
+            orders.put(orderId, order);
+            quantity += orderQuantity;
+        }
+
+        private void remove(String orderId, int orderQuantity) {
+            orders.remove(orderId);
+            quantity -= orderQuantity;
+        }
+    }
 }
@@ -0,0 +1,86 @@
+package com.pos.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * StockReservation
+ *
+ * A hold on stock for every line of a basket, created by
+ * {@link InventoryRepository#reserve(Map)}. Reserved units are no longer available
+ * for sale; the reservation is then either committed (the sale went through) or
+ * released (units are returned to available stock). Each reservation can be
+ * settled exactly once, even when commit and release race.
+ */
+public final class StockReservation {
+
+    public enum Status {
+        PENDING, COMMITTED, RELEASED
+    }
+
+    private final String reservationId;
+    private final Map<String, Integer> lines;
+    private final LocalDateTime createdAt;
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.PENDING);
+
+    StockReservation(Map<String, Integer> lines) {
+        this.reservationId = UUID.randomUUID().toString();
+        this.lines = Collections.unmodifiableMap(new LinkedHashMap<>(lines));
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    /**
+     * @return product ID to reserved quantity, in basket order
+     */
+    public Map<String, Integer> getLines() {
+        return lines;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Status getStatus() {
+        return status.get();
+    }
+
+    public boolean isPending() {
+        return status.get() == Status.PENDING;
+    }
+
+    boolean settle(Status outcome) {
+        return status.compareAndSet(Status.PENDING, outcome);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StockReservation)) return false;
+        StockReservation that = (StockReservation) o;
+        return Objects.equals(reservationId, that.reservationId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(reservationId);
+    }
+
+    @Override
+    public String toString() {
+        return "StockReservation{" +
+                "reservationId='" + reservationId + '\'' +
+                ", lines=" + lines +
+                ", status=" + status.get() +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
@@ -0,0 +1,95 @@
+package com.pos.repository.persistence;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * DurabilityLayer
+ *
+ * Pluggable persistence hook for the in-memory repositories. A repository records
+ * every change through {@code logPut}/{@code logDelete}/{@code logClear} while it
+ * holds the per-key write, then calls {@link #awaitDurable(long)} outside of it, so
+ * slow storage never blocks writers of other keys. On startup the repository
+ * rebuilds its map from {@link #recover()}.
+ *
+ * @param <T> the entity type stored by the repository
+ */
+public interface DurabilityLayer<T> extends Closeable {
+
+    /**
+     * Records that {@code key} now maps to {@code value}. The value is captured
+     * immediately, so later in-place mutations of the entity are not logged.
+     *
+     * @return a ticket to pass to {@link #awaitDurable(long)}
+     */
+    long logPut(String key, T value);
+
+    /**
+     * Records that {@code key} was removed.
+     *
+     * @return a ticket to pass to {@link #awaitDurable(long)}
+     */
+    long logDelete(String key);
+
+    /**
+     * Records that every key was removed.
+     *
+     * @return a ticket to pass to {@link #awaitDurable(long)}
+     */
+    long logClear();
+
+    /**
+     * Blocks until the change identified by the ticket has reached stable storage.
+     *
+     * @throws java.io.UncheckedIOException if the change could not be persisted
+     */
+    void awaitDurable(long ticket);
+
+    /**
+     * Rebuilds the last durable state.
+     *
+     * @return key to entity, in no particular order
+     */
+    Map<String, T> recover();
+
+    @Override
+    void close();
+
+    /**
+     * Returns a layer that persists nothing, keeping the repositories purely in memory.
+     */
+    static <T> DurabilityLayer<T> none() {
+        return new DurabilityLayer<>() {
+            @Override
+            public long logPut(String key, T value) {
+                return 0;
+            }
+
+            @Override
+            public long logDelete(String key) {
+                return 0;
+            }
+
+            @Override
+            public long logClear() {
+                return 0;
+            }
+
+            @Override
+            public void awaitDurable(long ticket) {
+                // Nothing to wait for
+            }
+
+            @Override
+            public Map<String, T> recover() {
+                return Collections.emptyMap();
+            }
+
+            @Override
+            public void close() {
+                // Nothing to release
+            }
+        };
+    }
+}
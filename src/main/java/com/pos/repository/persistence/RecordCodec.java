@@ -0,0 +1,46 @@
+package com.pos.repository.persistence;
+
+import java.io.*;
+
+/**
+ * RecordCodec
+ *
+ * Converts repository entities to and from the bytes stored in the write-ahead
+ * log and snapshots.
+ *
+ * @param <T> the entity type
+ */
+public interface RecordCodec<T> {
+
+    byte[] encode(T value);
+
+    T decode(byte[] bytes);
+
+    /**
+     * Returns a codec based on standard Java serialization. The entity type and
+     * everything it references must implement {@link Serializable}.
+     */
+    static <T extends Serializable> RecordCodec<T> javaSerialization(Class<T> type) {
+        return new RecordCodec<>() {
+            @Override
+            public byte[] encode(T value) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+                try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                    out.writeObject(value);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to encode " + type.getSimpleName(), e);
+                }
+                return bytes.toByteArray();
+            }
+
+            @Override
+            public T decode(byte[] bytes) {
+                try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    return type.cast(in.readObject());
+                } catch (IOException | ClassNotFoundException e) {
+                    throw new IllegalStateException("Failed to decode " + type.getSimpleName(), e);
+                }
+            }
+        };
+    }
+}
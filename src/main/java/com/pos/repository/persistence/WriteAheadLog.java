@@ -0,0 +1,528 @@
+package com.pos.repository.persistence;
+
+import com.pos.config.PersistenceConfig;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * WriteAheadLog
+ *
+ * File-based {@link DurabilityLayer}: an append-only log split into numbered segments,
+ * plus compacted snapshots.
+ *
+ * With group commit enabled, appends only queue the encoded record; a background
+ * flusher writes everything queued so far and issues one fsync for the whole batch,
+ * then wakes every writer waiting on it. Without group commit each append is written
+ * and fsynced on the calling thread.
+ *
+ * Every {@code snapshotEveryRecords} records the current segment is sealed and a
+ * background compaction folds the previous snapshot and the sealed segments into a
+ * new snapshot, after which those segments are deleted. Compaction works from the
+ * files rather than from the live repository, so it never sees a half-applied write.
+ * Recovery loads the latest snapshot and replays the remaining segments; a torn record
+ * at the end of a segment (crash mid-write) was never acknowledged and is skipped.
+ *
+ * Creating, renaming or deleting a segment or snapshot is followed by an fsync of the
+ * directory itself, so the change to the directory entry is as durable as the file.
+ *
+ * Each repository needs its own directory; {@link #open(String, Class)} places it under
+ * {@link PersistenceConfig#DATA_DIRECTORY}.
+ *
+ * @param <T> the entity type
+ */
+public final class WriteAheadLog<T> implements DurabilityLayer<T> {
+
+    private static final Logger LOGGER = Logger.getLogger(WriteAheadLog.class.getName());
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final byte OP_CLEAR = 3;
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final int SNAPSHOT_MAGIC = 0x504F5353;
+    private static final int MAX_RECORD_BYTES = 64 << 20;
+
+    private final Path directory;
+    private final RecordCodec<T> codec;
+    private final boolean groupCommit;
+    private final int snapshotEveryRecords;
+
+    // Group commit state, guarded by appendLock
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition recordsQueued = appendLock.newCondition();
+    private final Condition batchDurable = appendLock.newCondition();
+    private List<byte[]> queued = new ArrayList<>();
+    private long lastTicket;
+    private long durableTicket;
+    private IOException failure;
+    private boolean closed;
+
+    // File state, guarded by ioLock
+    private final Object ioLock = new Object();
+    private FileChannel segment;
+    private long segmentIndex;
+    private long recordsInSegment;
+    private final long firstOwnSegment;
+
+    private final Object compactionLock = new Object();
+    private final ExecutorService compactor;
+    private final Thread flusher;
+
+    public WriteAheadLog(Path directory, RecordCodec<T> codec) throws IOException {
+        this(directory, codec, PersistenceConfig.GROUP_COMMIT_ENABLED, PersistenceConfig.SNAPSHOT_EVERY_RECORDS);
+    }
+
+    public WriteAheadLog(Path directory, RecordCodec<T> codec, boolean groupCommit, int snapshotEveryRecords) throws IOException {
+        this.directory = Objects.requireNonNull(directory, "Directory must not be null");
+        this.codec = Objects.requireNonNull(codec, "Codec must not be null");
+        this.groupCommit = groupCommit;
+        this.snapshotEveryRecords = Math.max(0, snapshotEveryRecords);
+
+        Files.createDirectories(directory);
+        long highest = Math.max(
+                listIndexes(SEGMENT_PREFIX, SEGMENT_SUFFIX).stream().mapToLong(Long::longValue).max().orElse(0),
+                listIndexes(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).stream().mapToLong(Long::longValue).max().orElse(0));
+        this.firstOwnSegment = highest + 1;
+        openSegment(firstOwnSegment);
+
+        this.compactor = Executors.newSingleThreadExecutor(daemonFactory("wal-compactor-" + directory.getFileName()));
+        if (groupCommit) {
+            this.flusher = daemonFactory("wal-flusher-" + directory.getFileName()).newThread(this::flushLoop);
+            this.flusher.start();
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Opens the log for one repository in its subdirectory of
+     * {@link PersistenceConfig#DATA_DIRECTORY}, using Java serialization for the entities.
+     *
+     * @throws UncheckedIOException if the directory or the first segment cannot be created
+     */
+    public static <T extends Serializable> WriteAheadLog<T> open(String subdirectory, Class<T> type) {
+        Path directory = Paths.get(PersistenceConfig.DATA_DIRECTORY, subdirectory);
+        try {
+            return new WriteAheadLog<>(directory, RecordCodec.javaSerialization(type));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open write-ahead log in " + directory, e);
+        }
+    }
+
+    @Override
+    public long logPut(String key, T value) {
+        return append(OP_PUT, key, codec.encode(value));
+    }
+
+    @Override
+    public long logDelete(String key) {
+        return append(OP_DELETE, key, null);
+    }
+
+    @Override
+    public long logClear() {
+        return append(OP_CLEAR, "", null);
+    }
+
+    @Override
+    public void awaitDurable(long ticket) {
+        if (!groupCommit || ticket <= 0) return;
+        appendLock.lock();
+        try {
+            while (durableTicket < ticket && failure == null) {
+                batchDurable.awaitUninterruptibly();
+            }
+            if (durableTicket < ticket) {
+                throw new UncheckedIOException("Write-ahead log flush failed", failure);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Loads the latest snapshot and replays every log segment written after it.
+     * Only segments that existed when this log was opened are read.
+     */
+    @Override
+    public Map<String, T> recover() {
+        synchronized (compactionLock) {
+            try {
+                Map<String, byte[]> state = new HashMap<>();
+                long replayFrom = loadLatestSnapshot(state, firstOwnSegment);
+                for (long index : listIndexes(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+                    if (index >= replayFrom && index < firstOwnSegment) {
+                        replaySegment(segmentPath(index), state);
+                    }
+                }
+                Map<String, T> result = new HashMap<>(state.size() * 2);
+                state.forEach((key, bytes) -> result.put(key, codec.decode(bytes)));
+                return result;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to recover write-ahead log in " + directory, e);
+            }
+        }
+    }
+
+    /**
+     * Seals the current segment and folds everything before it into a new snapshot,
+     * waiting for the compaction to finish.
+     */
+    public void compact() {
+        long sealedBefore = rotateSegment();
+        compactUpTo(sealedBefore);
+    }
+
+    @Override
+    public void close() {
+        appendLock.lock();
+        try {
+            closed = true;
+            recordsQueued.signalAll();
+        } finally {
+            appendLock.unlock();
+        }
+        if (flusher != null) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        compactor.shutdown();
+        synchronized (ioLock) {
+            try {
+                segment.force(false);
+                segment.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to close write-ahead log segment in " + directory, e);
+            }
+        }
+    }
+
+    // --- Appending ---
+
+    private long append(byte op, String key, byte[] value) {
+        byte[] frame = encodeFrame(op, key, value);
+        if (!groupCommit) {
+            synchronized (ioLock) {
+                try {
+                    segment.write(ByteBuffer.wrap(frame));
+                    segment.force(false);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Write-ahead log append failed", e);
+                }
+                afterWrite(1);
+            }
+            return 0;
+        }
+
+        appendLock.lock();
+        try {
+            if (closed) throw new IllegalStateException("Write-ahead log is closed");
+            if (failure != null) throw new UncheckedIOException("Write-ahead log flush failed", failure);
+            queued.add(frame);
+            recordsQueued.signal();
+            return ++lastTicket;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            List<byte[]> batch;
+            long batchTicket;
+            appendLock.lock();
+            try {
+                while (queued.isEmpty() && !closed) {
+                    recordsQueued.awaitUninterruptibly();
+                }
+                if (queued.isEmpty()) return;
+                batch = queued;
+                batchTicket = lastTicket;
+                queued = new ArrayList<>(batch.size());
+            } finally {
+                appendLock.unlock();
+            }
+
+            try {
+                synchronized (ioLock) {
+                    ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+                    for (int i = 0; i < buffers.length; i++) {
+                        buffers[i] = ByteBuffer.wrap(batch.get(i));
+                    }
+                    long remaining = batch.stream().mapToLong(frame -> frame.length).sum();
+                    while (remaining > 0) {
+                        remaining -= segment.write(buffers);
+                    }
+                    segment.force(false);
+                    afterWrite(batch.size());
+                }
+                appendLock.lock();
+                try {
+                    durableTicket = batchTicket;
+                    batchDurable.signalAll();
+                } finally {
+                    appendLock.unlock();
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "Write-ahead log flush failed in " + directory, e);
+                appendLock.lock();
+                try {
+                    failure = e;
+                    batchDurable.signalAll();
+                } finally {
+                    appendLock.unlock();
+                }
+                return;
+            }
+        }
+    }
+
+    /** Called with ioLock held once records are on disk. */
+    private void afterWrite(int records) {
+        recordsInSegment += records;
+        if (snapshotEveryRecords > 0 && recordsInSegment >= snapshotEveryRecords) {
+            long sealedBefore = rotateSegment();
+            compactor.execute(() -> compactUpTo(sealedBefore));
+        }
+    }
+
+    private static byte[] encodeFrame(byte op, String key, byte[] value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int valueLength = value == null ? 0 : value.length;
+        int payloadLength = 1 + 4 + keyBytes.length + 4 + valueLength;
+
+        ByteBuffer frame = ByteBuffer.allocate(8 + payloadLength);
+        frame.putInt(payloadLength);
+        frame.putInt(0);
+        frame.put(op);
+        frame.putInt(keyBytes.length).put(keyBytes);
+        frame.putInt(valueLength);
+        if (value != null) frame.put(value);
+
+        CRC32 crc = new CRC32();
+        crc.update(frame.array(), 8, payloadLength);
+        frame.putInt(4, (int) crc.getValue());
+        return frame.array();
+    }
+
+    // --- Segments and snapshots ---
+
+    /**
+     * Seals the current segment and starts a new one.
+     *
+     * @return the index of the new segment; every record before it is in a sealed segment
+     */
+    private long rotateSegment() {
+        synchronized (ioLock) {
+            try {
+                segment.force(false);
+                segment.close();
+                openSegment(segmentIndex + 1);
+                return segmentIndex;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to rotate write-ahead log segment in " + directory, e);
+            }
+        }
+    }
+
+    private void openSegment(long index) throws IOException {
+        segment = FileChannel.open(segmentPath(index),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        syncDirectory();
+        segmentIndex = index;
+        recordsInSegment = 0;
+    }
+
+    private void compactUpTo(long sealedBefore) {
+        synchronized (compactionLock) {
+            try {
+                Map<String, byte[]> state = new HashMap<>();
+                long replayFrom = loadLatestSnapshot(state, sealedBefore);
+                List<Long> segments = listIndexes(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+                for (long index : segments) {
+                    if (index >= replayFrom && index < sealedBefore) {
+                        replaySegment(segmentPath(index), state);
+                    }
+                }
+                writeSnapshot(sealedBefore, state);
+
+                for (long index : segments) {
+                    if (index < sealedBefore) Files.deleteIfExists(segmentPath(index));
+                }
+                for (long index : listIndexes(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+                    if (index < sealedBefore) Files.deleteIfExists(snapshotPath(index));
+                }
+                syncDirectory();
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Write-ahead log compaction failed in " + directory, e);
+            }
+        }
+    }
+
+    /**
+     * Loads the newest readable snapshot taken before {@code limit} into {@code state}.
+     *
+     * @return the first segment index that is not covered by the loaded snapshot
+     */
+    private long loadLatestSnapshot(Map<String, byte[]> state, long limit) throws IOException {
+        List<Long> snapshots = listIndexes(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            long index = snapshots.get(i);
+            if (index > limit) continue;
+            Map<String, byte[]> loaded = readSnapshot(snapshotPath(index));
+            if (loaded != null) {
+                state.putAll(loaded);
+                return index;
+            }
+            LOGGER.warning("Skipping unreadable snapshot " + snapshotPath(index));
+        }
+        return 0;
+    }
+
+    private void writeSnapshot(long index, Map<String, byte[]> state) throws IOException {
+        Path target = snapshotPath(index);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc), 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(state.size());
+            for (Map.Entry<String, byte[]> entry : state.entrySet()) {
+                byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(key.length);
+                out.write(key);
+                out.writeInt(entry.getValue().length);
+                out.write(entry.getValue());
+            }
+            out.flush();
+            file.getChannel().write(ByteBuffer.allocate(8).putLong(0, crc.getValue()));
+            file.getFD().sync();
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        // The snapshot must be durable under its final name before the segments it replaces are deleted
+        syncDirectory();
+    }
+
+    /**
+     * Flushes the directory entry changes (new, renamed and deleted files) to stable storage.
+     * Some platforms cannot open a directory for syncing; there the file system is trusted.
+     */
+    private void syncDirectory() throws IOException {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (AccessDeniedException | UnsupportedOperationException e) {
+            LOGGER.log(Level.FINE, "Directory sync not supported for " + directory, e);
+        }
+    }
+
+    private static Map<String, byte[]> readSnapshot(Path path) {
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 1 << 16), crc))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) return null;
+            int count = in.readInt();
+            Map<String, byte[]> entries = new HashMap<>(Math.max(16, count * 2));
+            for (int i = 0; i < count; i++) {
+                byte[] key = new byte[in.readInt()];
+                in.readFully(key);
+                byte[] value = new byte[in.readInt()];
+                in.readFully(value);
+                entries.put(new String(key, StandardCharsets.UTF_8), value);
+            }
+            long expected = crc.getValue();
+            return in.readLong() == expected ? entries : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void replaySegment(Path path, Map<String, byte[]> state) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            CRC32 crc = new CRC32();
+            while (true) {
+                int length;
+                int checksum;
+                byte[] payload;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                    if (length < 9 || length > MAX_RECORD_BYTES) return;
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    return;
+                }
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    LOGGER.warning("Stopping replay of " + path + " at a corrupt or torn record");
+                    return;
+                }
+
+                ByteBuffer record = ByteBuffer.wrap(payload);
+                byte op = record.get();
+                byte[] key = new byte[record.getInt()];
+                record.get(key);
+                byte[] value = new byte[record.getInt()];
+                record.get(value);
+
+                switch (op) {
+                    case OP_PUT -> state.put(new String(key, StandardCharsets.UTF_8), value);
+                    case OP_DELETE -> state.remove(new String(key, StandardCharsets.UTF_8));
+                    case OP_CLEAR -> state.clear();
+                    default -> throw new IOException("Unknown record type " + op + " in " + path);
+                }
+            }
+        }
+    }
+
+    private List<Long> listIndexes(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                    .map(name -> name.substring(prefix.length(), name.length() - suffix.length()))
+                    .filter(number -> !number.isEmpty() && number.chars().allMatch(Character::isDigit))
+                    .map(Long::parseLong)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private Path snapshotPath(long index) {
+        return directory.resolve(String.format("%s%019d%s", SNAPSHOT_PREFIX, index, SNAPSHOT_SUFFIX));
+    }
+
+    private static java.util.concurrent.ThreadFactory daemonFactory(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
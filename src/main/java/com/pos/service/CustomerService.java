@@ -9,7 +9,8 @@ import java.util.stream.Collectors;
 /**
  * CustomerService
  *
- * Provides business logic and operations related to customers.
+ * Provides business logic and operations related to customers. Name, email and phone
+ * lookups are answered from the repository's search indexes.
  */
 public class CustomerService {
 
@@ -65,20 +66,12 @@ public class CustomerService {
 
     public List<Customer> findCustomersByName(String nameFragment) {
         if (isNullOrEmpty(nameFragment)) return Collections.emptyList();
-
-        String lowerCaseFragment = nameFragment.toLowerCase();
-        return customerRepository.findAll().stream()
-                .filter(c -> hasText(c.getName()) && c.getName().toLowerCase().contains(lowerCaseFragment))
-                .collect(Collectors.toList());
+        return customerRepository.searchByName(nameFragment);
     }
 
     public List<Customer> findCustomersByEmailDomain(String domain) {
         if (isNullOrEmpty(domain)) return Collections.emptyList();
-
-        String normalizedDomain = "@" + domain.toLowerCase();
-        return customerRepository.findAll().stream()
-                .filter(c -> hasText(c.getEmail()) && c.getEmail().toLowerCase().endsWith(normalizedDomain))
-                .collect(Collectors.toList());
+        return customerRepository.findByEmailDomain(domain);
     }
 
     public void deleteAllCustomers() {
@@ -86,28 +79,17 @@ public class CustomerService {
     }
 
     public Map<String, Long> countCustomersByDomain() {
-        return customerRepository.findAll().stream()
-                .filter(c -> hasText(c.getEmail()) && c.getEmail().contains("@"))
-                .collect(Collectors.groupingBy(
-                        c -> c.getEmail().substring(c.getEmail().indexOf("@") + 1).toLowerCase(),
-                        Collectors.counting()
-                ));
+        return customerRepository.countByEmailDomain();
     }
 
     public List<Customer> findCustomersWithPhonePrefix(String prefix) {
         if (isNullOrEmpty(prefix)) return Collections.emptyList();
-
-        return customerRepository.findAll().stream()
-                .filter(c -> hasText(c.getPhone()) && c.getPhone().startsWith(prefix))
-                .collect(Collectors.toList());
+        return customerRepository.findByPhonePrefix(prefix);
     }
 
     public Optional<Customer> findCustomerByExactEmail(String email) {
         if (isNullOrEmpty(email)) return Optional.empty();
-
-        return customerRepository.findAll().stream()
-                .filter(c -> email.equalsIgnoreCase(c.getEmail()))
-                .findFirst();
+        return customerRepository.findByEmail(email).stream().findFirst();
     }
 
     public List<Customer> findCustomersRegisteredAfter(Date date) {
@@ -134,21 +116,12 @@ public class CustomerService {
     }
 
     public Map<String, List<Customer>> groupCustomersByEmailDomain() {
-        return customerRepository.findAll().stream()
-                .filter(c -> hasText(c.getEmail()) && c.getEmail().contains("@"))
-                .collect(Collectors.groupingBy(
-                        c -> c.getEmail().substring(c.getEmail().indexOf("@") + 1).toLowerCase()
-                ));
+        return customerRepository.groupByEmailDomain();
     }
 
     public Map<String, List<Customer>> groupCustomersByPhonePrefix(int prefixLength) {
         if (prefixLength <= 0) return Collections.emptyMap();
-
-        return customerRepository.findAll().stream()
-                .filter(c -> hasText(c.getPhone()) && c.getPhone().length() >= prefixLength)
-                .collect(Collectors.groupingBy(
-                        c -> c.getPhone().substring(0, prefixLength)
-                ));
+        return customerRepository.groupByPhonePrefix(prefixLength);
     }
 
     private void validateCustomer(Customer customer) {
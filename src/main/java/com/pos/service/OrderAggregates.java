@@ -0,0 +1,407 @@
+package com.pos.service;
+
+import com.pos.model.Money;
+import com.pos.model.Order;
+import com.pos.model.OrderItem;
+import com.pos.repository.OrderChangeListener;
+import com.pos.util.TopK;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * OrderAggregates
+ *
+ * Running report totals kept up to date from repository change events. Each order's
+ * last contribution is remembered, so an update first retracts what the order added
+ * before and then applies its new state, and a delete simply retracts it. Orders that
+ * are modified in place and saved again are therefore counted once.
+ *
+ * Best-selling products and top customers are ranked by {@link TopK} trackers that are
+ * updated under the same per-key locks as the totals they mirror.
+ *
+ * Revenue is summed as {@code long} minor units of {@link Order#getTotal()}, so adding and
+ * retracting an order restores a sum exactly however often it is updated; amounts are
+ * converted to {@code double} only when read.
+ *
+ * Every figure is exact once writers are quiescent; while orders are being saved, a
+ * reader may observe one order applied to some totals and not yet to others.
+ */
+final class OrderAggregates implements OrderChangeListener {
+
+    private final Map<String, Contribution> contributions = new ConcurrentHashMap<>();
+    private final AtomicReference<Totals> totals = new AtomicReference<>(Totals.EMPTY);
+    private final Map<String, CustomerAggregate> customers = new ConcurrentHashMap<>();
+    private final Map<String, Tally> productQuantities = new ConcurrentHashMap<>();
+    private final Map<String, Tally> dailyRevenue = new ConcurrentHashMap<>();
+    private final Map<String, Tally> monthlyRevenue = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<OrderKey, Order> ordersByTotal = new ConcurrentSkipListMap<>();
+
+    private final TopK<String> productRanking;
+    private final TopK<String> customerRevenueRanking = TopK.exact();
+    private final TopK<String> customerOrderRanking = TopK.exact();
+
+    OrderAggregates(TopK<String> productRanking) {
+        this.productRanking = Objects.requireNonNull(productRanking, "Product ranking must not be null");
+    }
+
+    // --- Events ---
+
+    @Override
+    public void onOrderSaved(Order order) {
+        contributions.compute(order.getOrderId(), (id, previous) -> {
+            if (previous != null) retract(previous);
+            Contribution next = new Contribution(order);
+            apply(next);
+            return next;
+        });
+    }
+
+    @Override
+    public void onOrderDeleted(String orderId) {
+        contributions.computeIfPresent(orderId, (id, previous) -> {
+            retract(previous);
+            return null;
+        });
+    }
+
+    @Override
+    public void onAllOrdersDeleted() {
+        contributions.clear();
+        totals.set(Totals.EMPTY);
+        customers.clear();
+        productQuantities.clear();
+        dailyRevenue.clear();
+        monthlyRevenue.clear();
+        ordersByTotal.clear();
+        productRanking.clear();
+        customerRevenueRanking.clear();
+        customerOrderRanking.clear();
+    }
+
+    // --- Reads ---
+
+    double totalRevenue() {
+        return major(totals.get().revenue);
+    }
+
+    double averageRevenuePerOrder() {
+        Totals current = totals.get();
+        return current.orderCount == 0 ? 0.0 : major(current.revenue) / current.orderCount;
+    }
+
+    double averageItemsPerOrder() {
+        Totals current = totals.get();
+        return current.orderCount == 0 ? 0.0 : (double) current.itemCount / current.orderCount;
+    }
+
+    Optional<Order> largestOrder() {
+        return Optional.ofNullable(ordersByTotal.lastEntry()).map(Map.Entry::getValue);
+    }
+
+    Map<String, Double> revenueByCustomer() {
+        Map<String, Double> result = new HashMap<>();
+        customers.forEach((customerId, aggregate) -> result.put(customerId, aggregate.revenue()));
+        return result;
+    }
+
+    Map<String, Long> orderCountByCustomer() {
+        Map<String, Long> result = new HashMap<>();
+        customers.forEach((customerId, aggregate) -> result.put(customerId, aggregate.orderCount()));
+        return result;
+    }
+
+    Map<String, Double> averageSpendingByCustomer() {
+        Map<String, Double> result = new HashMap<>();
+        customers.forEach((customerId, aggregate) -> aggregate.averageSpending()
+                .ifPresent(average -> result.put(customerId, average)));
+        return result;
+    }
+
+    Map<String, Order> firstOrderByCustomer() {
+        Map<String, Order> result = new HashMap<>();
+        customers.forEach((customerId, aggregate) -> aggregate.firstDatedOrder()
+                .ifPresent(order -> result.put(customerId, order)));
+        return result;
+    }
+
+    Map<String, Date> lastOrderDateByCustomer() {
+        Map<String, Date> result = new HashMap<>();
+        customers.forEach((customerId, aggregate) -> aggregate.lastOrderDate()
+                .ifPresent(date -> result.put(customerId, date)));
+        return result;
+    }
+
+    Map<String, Integer> quantityByProduct() {
+        Map<String, Integer> result = new HashMap<>();
+        productQuantities.forEach((productId, tally) -> result.put(productId, (int) tally.amount));
+        return result;
+    }
+
+    List<String> topProductsByQuantity(int n) {
+        return productRanking.top(n);
+    }
+
+    List<String> topCustomersByRevenue(int n) {
+        return customerRevenueRanking.top(n);
+    }
+
+    List<String> topCustomersByOrderCount(int n) {
+        return customerOrderRanking.top(n);
+    }
+
+    Map<String, Double> dailyRevenue() {
+        return amounts(dailyRevenue);
+    }
+
+    Map<String, Double> monthlyRevenue() {
+        return amounts(monthlyRevenue);
+    }
+
+    // --- Maintenance ---
+
+    private void apply(Contribution c) {
+        totals.accumulateAndGet(c.asTotals(), Totals::plus);
+        if (c.customerId != null) {
+            customers.compute(c.customerId, (id, aggregate) -> {
+                CustomerAggregate target = aggregate != null ? aggregate : new CustomerAggregate();
+                target.add(c);
+                customerRevenueRanking.increment(id, c.total);
+                customerOrderRanking.increment(id, 1);
+                return target;
+            });
+        }
+        c.quantities.forEach((productId, quantity) -> productQuantities.compute(productId, (id, tally) -> {
+            productRanking.increment(id, quantity);
+            return tally != null ? tally.plus(new Tally(1, quantity)) : new Tally(1, quantity);
+        }));
+        if (c.dayKey != null) add(dailyRevenue, c.dayKey, c.total);
+        if (c.monthKey != null) add(monthlyRevenue, c.monthKey, c.total);
+        ordersByTotal.put(c.totalKey, c.order);
+    }
+
+    private void retract(Contribution c) {
+        totals.accumulateAndGet(c.asTotals(), Totals::minus);
+        if (c.customerId != null) {
+            customers.computeIfPresent(c.customerId, (id, aggregate) -> {
+                aggregate.retract(c);
+                if (aggregate.isEmpty()) {
+                    customerRevenueRanking.remove(id);
+                    customerOrderRanking.remove(id);
+                    return null;
+                }
+                customerRevenueRanking.increment(id, -c.total);
+                customerOrderRanking.increment(id, -1);
+                return aggregate;
+            });
+        }
+        c.quantities.forEach((productId, quantity) -> productQuantities.computeIfPresent(productId, (id, tally) -> {
+            Tally next = tally.minus(quantity);
+            if (next == null) productRanking.remove(id);
+            else productRanking.increment(id, -quantity);
+            return next;
+        }));
+        if (c.dayKey != null) subtract(dailyRevenue, c.dayKey, c.total);
+        if (c.monthKey != null) subtract(monthlyRevenue, c.monthKey, c.total);
+        ordersByTotal.remove(c.totalKey);
+    }
+
+    private static void add(Map<String, Tally> tallies, String key, long amount) {
+        tallies.merge(key, new Tally(1, amount), Tally::plus);
+    }
+
+    /**
+     * Removes one contribution from a tally, dropping the key when nothing is left so
+     * that reads only report keys that still have orders behind them.
+     */
+    private static void subtract(Map<String, Tally> tallies, String key, long amount) {
+        tallies.computeIfPresent(key, (k, tally) -> tally.minus(amount));
+    }
+
+    private static Map<String, Double> amounts(Map<String, Tally> tallies) {
+        Map<String, Double> result = new HashMap<>();
+        tallies.forEach((key, tally) -> result.put(key, major(tally.amount)));
+        return result;
+    }
+
+    private static double major(long minorUnits) {
+        return Money.ofMinor(minorUnits).toDouble();
+    }
+
+    static String monthKey(Date date) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(date);
+        return cal.get(Calendar.YEAR) + "-" + String.format("%02d", cal.get(Calendar.MONTH) + 1);
+    }
+
+    // --- Value types ---
+
+    /**
+     * Everything one order adds to the aggregates, captured when it was saved so the
+     * same amounts can be retracted later even if the order object has since changed.
+     */
+    private static final class Contribution {
+        private final Order order;
+        private final String customerId;
+        private final long total;
+        private final Date orderDate;
+        private final String dayKey;
+        private final String monthKey;
+        private final int itemCount;
+        private final Map<String, Integer> quantities;
+        private final OrderKey totalKey;
+        private final OrderKey dateKey;
+
+        private Contribution(Order order) {
+            this.order = order;
+            this.customerId = order.getCustomer() != null ? order.getCustomer().getId() : null;
+            this.total = order.getTotal().getMinorUnits();
+            this.orderDate = order.getOrderDate() != null ? new Date(order.getOrderDate().getTime()) : null;
+            this.dayKey = orderDate != null ? orderDate.toString() : null;
+            this.monthKey = orderDate != null ? OrderAggregates.monthKey(orderDate) : null;
+
+            List<OrderItem> items = order.getOrderItems() != null ? order.getOrderItems() : Collections.emptyList();
+            Map<String, Integer> byProduct = new HashMap<>();
+            for (OrderItem item : items) {
+                if (item.getProduct() != null && item.getProduct().getId() != null) {
+                    byProduct.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+                }
+            }
+            this.itemCount = items.size();
+            this.quantities = byProduct;
+            this.totalKey = new OrderKey(total, order.getOrderId());
+            this.dateKey = orderDate != null ? new OrderKey(orderDate.getTime(), order.getOrderId()) : null;
+        }
+
+        private Totals asTotals() {
+            return new Totals(1, total, itemCount);
+        }
+    }
+
+    private static final class Totals {
+        private static final Totals EMPTY = new Totals(0, 0, 0);
+
+        private final long orderCount;
+        private final long revenue;
+        private final long itemCount;
+
+        private Totals(long orderCount, long revenue, long itemCount) {
+            this.orderCount = orderCount;
+            this.revenue = revenue;
+            this.itemCount = itemCount;
+        }
+
+        private Totals plus(Totals other) {
+            return new Totals(orderCount + other.orderCount, revenue + other.revenue, itemCount + other.itemCount);
+        }
+
+        private Totals minus(Totals other) {
+            long count = orderCount - other.orderCount;
+            return count == 0 ? EMPTY : new Totals(count, revenue - other.revenue, itemCount - other.itemCount);
+        }
+    }
+
+    /**
+     * A running sum, of minor units or of quantities, together with the number of
+     * contributions behind it.
+     */
+    private static final class Tally {
+        private final long count;
+        private final long amount;
+
+        private Tally(long count, long amount) {
+            this.count = count;
+            this.amount = amount;
+        }
+
+        private Tally plus(Tally other) {
+            return new Tally(count + other.count, amount + other.amount);
+        }
+
+        private Tally minus(long value) {
+            return count <= 1 ? null : new Tally(count - 1, amount - value);
+        }
+    }
+
+    /**
+     * Orders a customer's or the store's orders by a numeric value, the total in minor
+     * units or the date in epoch milliseconds, then by order ID so equal values remain
+     * distinct entries.
+     */
+    private static final class OrderKey implements Comparable<OrderKey> {
+        private final long value;
+        private final String orderId;
+
+        private OrderKey(long value, String orderId) {
+            this.value = value;
+            this.orderId = orderId;
+        }
+
+        @Override
+        public int compareTo(OrderKey other) {
+            int byValue = Long.compare(value, other.value);
+            return byValue != 0 ? byValue : orderId.compareTo(other.orderId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof OrderKey)) return false;
+            OrderKey that = (OrderKey) o;
+            return value == that.value && orderId.equals(that.orderId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(value, orderId);
+        }
+    }
+
+    /**
+     * Per-customer figures. Mutated only while the customer's key is held in the
+     * customers map; the methods are synchronized so readers see a consistent state.
+     */
+    private static final class CustomerAggregate {
+        private long orderCount;
+        private long revenue;
+        private final TreeMap<OrderKey, Order> datedOrders = new TreeMap<>();
+
+        synchronized void add(Contribution c) {
+            orderCount++;
+            revenue += c.total;
+            if (c.dateKey != null) datedOrders.put(c.dateKey, c.order);
+        }
+
+        synchronized void retract(Contribution c) {
+            orderCount--;
+            revenue -= c.total;
+            if (c.dateKey != null) datedOrders.remove(c.dateKey);
+        }
+
+        synchronized boolean isEmpty() {
+            return orderCount == 0;
+        }
+
+        synchronized long orderCount() {
+            return orderCount;
+        }
+
+        synchronized double revenue() {
+            return major(revenue);
+        }
+
+        synchronized Optional<Double> averageSpending() {
+            return orderCount > 0 ? Optional.of(major(revenue) / orderCount) : Optional.empty();
+        }
+
+        synchronized Optional<Order> firstDatedOrder() {
+            return datedOrders.isEmpty() ? Optional.empty() : Optional.of(datedOrders.firstEntry().getValue());
+        }
+
+        synchronized Optional<Date> lastOrderDate() {
+            return datedOrders.isEmpty() ? Optional.empty() : Optional.of(new Date(datedOrders.lastKey().value));
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package com.pos.service;
 
+import com.pos.model.Money;
 import com.pos.model.Order;
 import com.pos.model.OrderItem;
-import com.pos.model.Product;
 import com.pos.repository.OrderRepository;
 import com.pos.repository.ProductRepository;
 
@@ -11,6 +11,9 @@ import java.util.stream.Collectors;
 
 /**
  * Service class for handling all business logic related to Orders.
+ *
+ * Order totals are maintained by the order itself as items change, so they are
+ * read as they are and never recomputed here.
  */
 public class OrderService {
 
@@ -24,7 +27,6 @@ public class OrderService {
 
     public Order saveOrder(Order order) {
         validateOrder(order);
-        calculateTotalPrice(order);
         order.setOrderDate(new Date());
         return orderRepository.save(order);
     }
@@ -48,7 +50,6 @@ public class OrderService {
         return orderRepository.findById(orderId).map(existingOrder -> {
             existingOrder.setCustomer(updatedOrder.getCustomer());
             existingOrder.setOrderItems(updatedOrder.getOrderItems());
-            calculateTotalPrice(existingOrder);
             existingOrder.setOrderDate(new Date());
             return orderRepository.save(existingOrder) != null;
         }).orElse(false);
@@ -69,16 +70,14 @@ public class OrderService {
 
     public List<Order> findOrdersByProduct(String productId) {
         if (isNullOrEmpty(productId)) return Collections.emptyList();
-        return orderRepository.findAll().stream()
-                .filter(order -> order.getOrderItems().stream()
-                        .anyMatch(item -> productId.equals(Optional.ofNullable(item.getProduct()).map(Product::getId).orElse(null))))
-                .collect(Collectors.toList());
+        return orderRepository.findOrdersContainingProduct(productId);
     }
 
     public double calculateTotalRevenue() {
         return orderRepository.findAll().stream()
-                .mapToDouble(Order::getTotalPrice)
-                .sum();
+                .map(Order::getTotal)
+                .reduce(Money.ZERO, Money::plus)
+                .toDouble();
     }
 
     public List<Order> findOrdersAfterDate(Date date) {
@@ -96,63 +95,40 @@ public class OrderService {
 
     public Optional<Order> findMostExpensiveOrder() {
         return orderRepository.findAll().stream()
-                .max(Comparator.comparingDouble(Order::getTotalPrice));
+                .max(Comparator.comparing(Order::getTotal));
     }
 
     public List<Order> findOrdersWithinTotalPriceRange(double min, double max) {
         return orderRepository.findAll().stream()
-                .filter(order -> order.getTotalPrice() >= min && order.getTotalPrice() <= max)
+                .filter(order -> order.getTotalAmount() >= min && order.getTotalAmount() <= max)
                 .collect(Collectors.toList());
     }
 
     public Map<String, Double> getTotalRevenueByCustomerId() {
         return orderRepository.findAll().stream()
                 .filter(order -> order.getCustomer() != null && order.getCustomer().getId() != null)
-                .collect(Collectors.groupingBy(order -> order.getCustomer().getId(), Collectors.summingDouble(Order::getTotalPrice)));
+                .collect(Collectors.groupingBy(order -> order.getCustomer().getId(), Collectors.collectingAndThen(
+                        Collectors.reducing(Money.ZERO, Order::getTotal, Money::plus), Money::toDouble)));
     }
 
     public double getAverageOrderValue() {
         List<Order> orders = orderRepository.findAll();
         return orders.isEmpty() ? 0.0 : orders.stream()
-                .mapToDouble(Order::getTotalPrice)
-                .average()
-                .orElse(0.0);
+                .map(Order::getTotal)
+                .reduce(Money.ZERO, Money::plus)
+                .toDouble() / orders.size();
     }
 
     public List<Order> getTopNOrdersByTotalPrice(int n) {
-        return orderRepository.findAll().stream()
-                .sorted(Comparator.comparingDouble(Order::getTotalPrice).reversed())
-                .limit(n)
-                .collect(Collectors.toList());
+        return orderRepository.findTopNOrdersByAmount(n);
     }
 
     public Map<String, Integer> getTotalQuantityByProductId() {
-        return orderRepository.findAll().stream()
-                .flatMap(order -> order.getOrderItems().stream())
-                .filter(item -> item.getProduct() != null && item.getProduct().getId() != null)
-                .collect(Collectors.groupingBy(item -> item.getProduct().getId(), Collectors.summingInt(OrderItem::getQuantity)));
+        return orderRepository.totalProductQuantitiesSold();
     }
 
     public Set<String> getAllUniqueProductIdsOrdered() {
-        return orderRepository.findAll().stream()
-                .flatMap(order -> order.getOrderItems().stream())
-                .map(item -> Optional.ofNullable(item.getProduct()).map(Product::getId).orElse(null))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-    }
-
-    private void calculateTotalPrice(Order order) {
-        double total = order.getOrderItems().stream()
-                .filter(Objects::nonNull)
-                .mapToDouble(item -> {
-                    Product product = item.getProduct();
-                    Integer quantity = item.getQuantity();
-                    return (product != null && product.getPrice() != null && quantity != null)
-                            ? product.getPrice() * quantity
-                            : 0.0;
-                })
-                .sum();
-        order.setTotalPrice(total);
+        return orderRepository.findOrderedProductIds();
     }
 
     private void validateOrder(Order order) {
@@ -6,26 +6,44 @@ import model.LocaleType;
 import converter.NumberToWordsConverter;
 import converter.CurrencyFormatter;
 import exception.InvalidAmountException;
+import com.pos.config.AppConfig;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Locale;
 import java.util.Objects;
 
 /**
  * Service responsible for generating and customizing receipts.
  * Enhanced with additional utilities for multi-currency, discounts, taxes,
  * customizable headers/footers, and optional notes.
+ *
+ * Receipt layouts are compiled once per service into {@link ReceiptTemplate}s, with
+ * the header and footer banners from {@link AppConfig} pre-rendered into them.
  */
 public class ReceiptService {
 
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String RULE = "=".repeat(AppConfig.RECEIPT_BANNER_WIDTH);
+    private static final String SEPARATOR = "-".repeat(AppConfig.RECEIPT_BANNER_WIDTH);
+    private static final String HEADER = banner(AppConfig.RECEIPT_TITLE);
+    private static final String FOOTER = banner(AppConfig.RECEIPT_CLOSING);
+    private static final ReceiptTemplate<Sale> NOTE = ReceiptTemplate.<Sale>builder()
+            .text("Note: ").value(sale -> sale.note).text("\n")
+            .compile();
+
     private final NumberToWordsConverter numberToWordsConverter;
     private final CurrencyFormatter currencyFormatter;
+    private final ReceiptTemplate<Sale> receiptTemplate;
+    private final ReceiptTemplate<Sale> taxDiscountTemplate;
 
     public ReceiptService(NumberToWordsConverter numberToWordsConverter,
                           CurrencyFormatter currencyFormatter) {
         this.numberToWordsConverter = Objects.requireNonNull(numberToWordsConverter, "NumberToWordsConverter cannot be null");
         this.currencyFormatter = Objects.requireNonNull(currencyFormatter, "CurrencyFormatter cannot be null");
+        this.receiptTemplate = compileReceiptTemplate();
+        this.taxDiscountTemplate = compileTaxDiscountTemplate();
     }
 
     public String generateReceipt(Amount amount, CurrencyInfo currencyInfo, LocaleType localeType) {
@@ -34,20 +52,7 @@ public class ReceiptService {
 
     public String generateReceiptWithNote(Amount amount, CurrencyInfo currencyInfo, LocaleType localeType, String note) {
         validateAmount(amount);
-
-        StringBuilder receipt = new StringBuilder();
-        receipt.append(buildHeader("OFFICIAL RECEIPT"));
-        receipt.append("Date: ").append(currentDateTime()).append("\n");
-        receipt.append("Locale: ").append(localeType.name()).append("\n");
-        receipt.append("Currency: ").append(currencyInfo.currencyCode()).append(" (" + currencyInfo.currencySymbol() + ")\n");
-        receipt.append("------------------------------\n");
-        receipt.append("Amount: ").append(currencyFormatter.format(amount.value(), currencyInfo, localeType)).append("\n");
-        receipt.append("In Words: ").append(numberToWordsConverter.convert(amount.value(), localeType)).append("\n");
-        if (note != null && !note.isBlank()) {
-            receipt.append("Note: ").append(note).append("\n");
-        }
-        receipt.append(buildFooter("THANK YOU FOR YOUR BUSINESS"));
-        return receipt.toString();
+        return receiptTemplate.render(new Sale(amount.value(), currencyInfo, localeType, note));
     }
 
     public String generateReceiptWithTaxAndDiscount(Amount amount, CurrencyInfo currencyInfo, LocaleType localeType, BigDecimal discountPercent, BigDecimal taxPercent) {
@@ -56,42 +61,76 @@ public class ReceiptService {
 
     public String generateReceiptWithTaxDiscountAndNote(Amount amount, CurrencyInfo currencyInfo, LocaleType localeType, BigDecimal discountPercent, BigDecimal taxPercent, String note) {
         validateAmount(amount);
-        BigDecimal discountedAmount = applyDiscount(amount.value(), discountPercent);
-        BigDecimal totalWithTax = applyTax(discountedAmount, taxPercent);
-
-        StringBuilder receipt = new StringBuilder();
-        receipt.append(buildHeader("OFFICIAL RECEIPT"));
-        receipt.append("Date: ").append(currentDateTime()).append("\n");
-        receipt.append("Original Amount: ").append(currencyFormatter.format(amount.value(), currencyInfo, localeType)).append("\n");
-        receipt.append("Discount (" + discountPercent + "%): -").append(currencyFormatter.format(amount.value().subtract(discountedAmount), currencyInfo, localeType)).append("\n");
-        receipt.append("Tax (" + taxPercent + "%): ").append(currencyFormatter.format(totalWithTax.subtract(discountedAmount), currencyInfo, localeType)).append("\n");
-        receipt.append("Total: ").append(currencyFormatter.format(totalWithTax, currencyInfo, localeType)).append("\n");
-        receipt.append("In Words: ").append(numberToWordsConverter.convert(totalWithTax, localeType)).append("\n");
-        if (note != null && !note.isBlank()) {
-            receipt.append("Note: ").append(note).append("\n");
-        }
-        receipt.append(buildFooter("THANK YOU FOR YOUR BUSINESS"));
-        return receipt.toString();
+        Sale sale = new Sale(amount.value(), currencyInfo, localeType, note);
+        sale.discountPercent = discountPercent;
+        sale.taxPercent = taxPercent;
+        sale.discountedAmount = applyDiscount(amount.value(), discountPercent);
+        sale.total = applyTax(sale.discountedAmount, taxPercent);
+        return taxDiscountTemplate.render(sale);
     }
 
     public String previewReceiptHeader(String title) {
-        return buildHeader(title);
+        return banner(title);
     }
 
     public String previewReceiptFooter(String message) {
-        return buildFooter(message);
+        return banner(message);
+    }
+
+    private ReceiptTemplate<Sale> compileReceiptTemplate() {
+        return ReceiptTemplate.<Sale>builder()
+                .text(HEADER)
+                .text("Date: ").dateTime(DATE_TIME, sale -> sale.time).text("\n")
+                .text("Locale: ").value(sale -> sale.localeType.name()).text("\n")
+                .text("Currency: ").value(sale -> sale.currencyInfo.currencyCode())
+                .text(" (").value(sale -> sale.currencyInfo.currencySymbol()).text(")\n")
+                .line(SEPARATOR)
+                .text("Amount: ").value(sale -> format(sale.amount, sale)).text("\n")
+                .text("In Words: ").slot((sale, out) -> appendWords(sale.amount, sale, out)).text("\n")
+                .when(Sale::hasNote, NOTE)
+                .text(FOOTER)
+                .compile();
+    }
+
+    private ReceiptTemplate<Sale> compileTaxDiscountTemplate() {
+        return ReceiptTemplate.<Sale>builder()
+                .text(HEADER)
+                .text("Date: ").dateTime(DATE_TIME, sale -> sale.time).text("\n")
+                .text("Original Amount: ").value(sale -> format(sale.amount, sale)).text("\n")
+                .text("Discount (").value(sale -> sale.discountPercent).text("%): -")
+                .value(sale -> format(sale.amount.subtract(sale.discountedAmount), sale)).text("\n")
+                .text("Tax (").value(sale -> sale.taxPercent).text("%): ")
+                .value(sale -> format(sale.total.subtract(sale.discountedAmount), sale)).text("\n")
+                .text("Total: ").value(sale -> format(sale.total, sale)).text("\n")
+                .text("In Words: ").slot((sale, out) -> appendWords(sale.total, sale, out)).text("\n")
+                .when(Sale::hasNote, NOTE)
+                .text(FOOTER)
+                .compile();
+    }
+
+    private String format(BigDecimal value, Sale sale) {
+        return currencyFormatter.format(value, sale.currencyInfo, sale.localeType);
     }
 
-    private String buildHeader(String title) {
-        return "==============================\n" +
-               String.format("%s%n", centerText(title, 30)) +
-               "==============================\n";
+    private void appendWords(BigDecimal value, Sale sale, StringBuilder out) {
+        wordsConverterFor(sale.localeType).appendWords(value, sale.localeType.getLocale(), out);
     }
 
-    private String buildFooter(String message) {
-        return "==============================\n" +
-               String.format("%s%n", centerText(message, 30)) +
-               "==============================\n";
+    private static String banner(String text) {
+        return RULE + "\n" +
+               centerText(text, AppConfig.RECEIPT_BANNER_WIDTH) + System.lineSeparator() +
+               RULE + "\n";
+    }
+
+    /**
+     * Uses the configured converter when it handles the receipt's locale, and the
+     * built-in converter for that language otherwise (e.g. Persian receipts).
+     */
+    private NumberToWordsConverter wordsConverterFor(LocaleType localeType) {
+        Locale locale = localeType.getLocale();
+        return numberToWordsConverter.isLocaleSupported(locale)
+                ? numberToWordsConverter
+                : NumberToWordsConverter.getInstance(locale);
     }
 
     private void validateAmount(Amount amount) {
@@ -100,10 +139,6 @@ public class ReceiptService {
         }
     }
 
-    private String currentDateTime() {
-        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-    }
-
     private BigDecimal applyDiscount(BigDecimal value, BigDecimal discountPercent) {
         if (discountPercent == null || discountPercent.compareTo(BigDecimal.ZERO) <= 0) {
             return value;
@@ -118,8 +153,32 @@ public class ReceiptService {
         return value.add(value.multiply(taxPercent).divide(BigDecimal.valueOf(100)));
     }
 
-    private String centerText(String text, int width) {
+    private static String centerText(String text, int width) {
         int padding = (width - text.length()) / 2;
         return " ".repeat(Math.max(0, padding)) + text;
     }
+
+    /** Per-sale values read by the compiled templates. */
+    private static final class Sale {
+        final BigDecimal amount;
+        final CurrencyInfo currencyInfo;
+        final LocaleType localeType;
+        final String note;
+        final LocalDateTime time = LocalDateTime.now();
+        BigDecimal discountPercent;
+        BigDecimal taxPercent;
+        BigDecimal discountedAmount;
+        BigDecimal total;
+
+        Sale(BigDecimal amount, CurrencyInfo currencyInfo, LocaleType localeType, String note) {
+            this.amount = amount;
+            this.currencyInfo = currencyInfo;
+            this.localeType = localeType;
+            this.note = note;
+        }
+
+        boolean hasNote() {
+            return note != null && !note.isBlank();
+        }
+    }
 }
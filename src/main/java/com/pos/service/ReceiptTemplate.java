@@ -0,0 +1,157 @@
+package service;
+
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * ReceiptTemplate
+ *
+ * A receipt layout compiled once into a flat list of segments: pre-rendered static
+ * text, with adjacent pieces merged, and typed slots that write one dynamic value
+ * each. Rendering is a single pass over that list into a buffer, with no formatting
+ * or concatenation of the static parts at sale time.
+ *
+ * Templates are immutable and thread-safe; the render context carries everything
+ * that changes per sale.
+ *
+ * @param <C> the render context type
+ */
+public final class ReceiptTemplate<C> {
+
+    /** Writes one dynamic part of a receipt for the given context. */
+    @FunctionalInterface
+    public interface Slot<C> {
+        void render(C context, StringBuilder out);
+    }
+
+    /** Buffers larger than this are not kept for reuse, so one huge receipt does not pin memory. */
+    private static final int MAX_RETAINED_BUFFER = 16 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    /** Each element is either a String or a Slot */
+    private final Object[] segments;
+
+    private ReceiptTemplate(List<Object> segments) {
+        this.segments = segments.toArray();
+    }
+
+    public static <C> Builder<C> builder() {
+        return new Builder<>();
+    }
+
+    /** Renders into the caller's buffer. */
+    @SuppressWarnings("unchecked")
+    public void renderTo(C context, StringBuilder out) {
+        for (Object segment : segments) {
+            if (segment instanceof String) {
+                out.append((String) segment);
+            } else {
+                ((Slot<C>) segment).render(context, out);
+            }
+        }
+    }
+
+    /** Renders into a reused per-thread buffer and returns the result. */
+    public String render(C context) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        renderTo(context, buffer);
+        String receipt = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+        return receipt;
+    }
+
+    /**
+     * Collects static text and slots in order. Static text is merged at compile time,
+     * so any number of consecutive {@code text} calls costs one append when rendering.
+     */
+    public static final class Builder<C> {
+        private final List<Object> segments = new ArrayList<>();
+        private final StringBuilder pending = new StringBuilder();
+
+        private Builder() {
+        }
+
+        public Builder<C> text(String text) {
+            pending.append(Objects.requireNonNull(text, "Text must not be null"));
+            return this;
+        }
+
+        public Builder<C> line(String text) {
+            return text(text).text("\n");
+        }
+
+        /** Static text centered in the given width, left-padded with spaces. */
+        public Builder<C> centered(String text, int width) {
+            return text(" ".repeat(Math.max(0, (width - text.length()) / 2))).text(text);
+        }
+
+        public Builder<C> slot(Slot<C> slot) {
+            flush();
+            segments.add(Objects.requireNonNull(slot, "Slot must not be null"));
+            return this;
+        }
+
+        /** Appends a value taken from the context; null values print as "null". */
+        public Builder<C> value(Function<? super C, ?> value) {
+            Objects.requireNonNull(value, "Value must not be null");
+            return slot((context, out) -> {
+                Object v = value.apply(context);
+                if (v instanceof CharSequence) {
+                    out.append((CharSequence) v);
+                } else {
+                    out.append(v);
+                }
+            });
+        }
+
+        /** Appends a date and time from the context, formatted directly into the buffer. */
+        public Builder<C> dateTime(DateTimeFormatter formatter, Function<? super C, ? extends TemporalAccessor> time) {
+            Objects.requireNonNull(formatter, "Formatter must not be null");
+            Objects.requireNonNull(time, "Time must not be null");
+            return slot((context, out) -> formatter.formatTo(time.apply(context), out));
+        }
+
+        /** Renders a compiled section only when the condition holds for the context. */
+        public Builder<C> when(Predicate<? super C> condition, ReceiptTemplate<C> section) {
+            Objects.requireNonNull(condition, "Condition must not be null");
+            Objects.requireNonNull(section, "Section must not be null");
+            return slot((context, out) -> {
+                if (condition.test(context)) section.renderTo(context, out);
+            });
+        }
+
+        /** Inlines another compiled template, such as a shared header. */
+        public Builder<C> include(ReceiptTemplate<? super C> template) {
+            for (Object segment : template.segments) {
+                if (segment instanceof String) {
+                    text((String) segment);
+                } else {
+                    flush();
+                    segments.add(segment);
+                }
+            }
+            return this;
+        }
+
+        public ReceiptTemplate<C> compile() {
+            flush();
+            return new ReceiptTemplate<>(segments);
+        }
+
+        private void flush() {
+            if (pending.length() > 0) {
+                segments.add(pending.toString());
+                pending.setLength(0);
+            }
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package com.pos.service;
 
+import com.pos.config.AppConfig;
 import com.pos.model.Order;
-import com.pos.model.OrderItem;
 import com.pos.repository.OrderRepository;
+import com.pos.util.TopK;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -10,53 +11,67 @@ import java.util.stream.Collectors;
 /**
  * Service class responsible for generating analytical reports for orders, customers, and products.
  * Enhances data clarity and enables key business insights.
+ *
+ * Totals and groupings are served from {@link OrderAggregates}, which the repository
+ * keeps current on every save and delete, so report calls no longer rescan all orders.
+ * Top-N reports read continuously ranked {@link TopK} trackers instead of sorting.
+ *
+ * The aggregates stay registered with the repository until {@link #close()} is called,
+ * so a service that is no longer used must be closed to stop receiving order changes.
  */
-public class ReportService {
+public class ReportService implements AutoCloseable {
 
     private final OrderRepository orderRepository;
+    private final OrderAggregates aggregates;
 
     public ReportService(OrderRepository orderRepository) {
+        this(orderRepository, AppConfig.APPROXIMATE_PRODUCT_RANKING
+                ? TopK.approximate(AppConfig.PRODUCT_RANKING_CAPACITY)
+                : TopK.exact());
+    }
+
+    /**
+     * Creates a report service that ranks best-selling products with the given tracker,
+     * for example {@link TopK#approximate(int)} for very large catalogs.
+     */
+    public ReportService(OrderRepository orderRepository, TopK<String> productRanking) {
         this.orderRepository = Objects.requireNonNull(orderRepository, "OrderRepository must not be null");
+        this.aggregates = new OrderAggregates(productRanking);
+        orderRepository.addChangeListener(aggregates);
+    }
+
+    /**
+     * Unregisters the aggregates from the repository. Figures read afterwards are frozen
+     * at their last state.
+     */
+    @Override
+    public void close() {
+        orderRepository.removeChangeListener(aggregates);
     }
 
     public double getTotalRevenue() {
-        return orderRepository.findAll().stream()
-                .mapToDouble(Order::getTotalPrice)
-                .sum();
+        return aggregates.totalRevenue();
     }
 
     public Map<String, Double> getRevenueByCustomer() {
-        return orderRepository.findAll().stream()
-                .filter(order -> order.getCustomer() != null && order.getCustomer().getId() != null)
-                .collect(Collectors.groupingBy(
-                        order -> order.getCustomer().getId(),
-                        Collectors.summingDouble(Order::getTotalPrice)
-                ));
+        return aggregates.revenueByCustomer();
     }
 
     public List<Order> getOrdersWithinDateRange(Date start, Date end) {
         if (start == null || end == null || start.after(end)) return Collections.emptyList();
-        return orderRepository.findAll().stream()
-                .filter(o -> o.getOrderDate() != null && !o.getOrderDate().before(start) && !o.getOrderDate().after(end))
-                .collect(Collectors.toList());
+        return orderRepository.findOrdersBetween(start, end);
     }
 
     public List<String> getTopCustomersByRevenue(int topN) {
-        return getRevenueByCustomer().entrySet().stream()
-                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
-                .limit(topN)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+        return aggregates.topCustomersByRevenue(topN);
     }
 
     public double getAverageRevenuePerOrder() {
-        List<Order> orders = orderRepository.findAll();
-        return orders.isEmpty() ? 0.0 : orders.stream().mapToDouble(Order::getTotalPrice).average().orElse(0.0);
+        return aggregates.averageRevenuePerOrder();
     }
 
     public Optional<Order> getLargestOrder() {
-        return orderRepository.findAll().stream()
-                .max(Comparator.comparingDouble(Order::getTotalPrice));
+        return aggregates.largestOrder();
     }
 
     public long getTotalOrderCount() {
@@ -64,126 +79,50 @@ public class ReportService {
     }
 
     public double getAverageItemsPerOrder() {
-        List<Order> orders = orderRepository.findAll();
-        return orders.isEmpty() ? 0.0 : orders.stream()
-                .mapToInt(order -> order.getOrderItems().size())
-                .average().orElse(0.0);
+        return aggregates.averageItemsPerOrder();
     }
 
     public List<String> getTopSellingProducts(int topN) {
-        return orderRepository.findAll().stream()
-                .flatMap(order -> order.getOrderItems().stream())
-                .filter(item -> item.getProduct() != null && item.getProduct().getId() != null)
-                .collect(Collectors.groupingBy(
-                        item -> item.getProduct().getId(),
-                        Collectors.summingInt(OrderItem::getQuantity)
-                ))
-                .entrySet().stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                .limit(topN)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+        return aggregates.topProductsByQuantity(topN);
     }
 
     public List<String> getTopCustomersByOrderCount(int topN) {
-        return orderRepository.findAll().stream()
-                .filter(order -> order.getCustomer() != null && order.getCustomer().getId() != null)
-                .collect(Collectors.groupingBy(
-                        order -> order.getCustomer().getId(),
-                        Collectors.counting()
-                ))
-                .entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(topN)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+        return aggregates.topCustomersByOrderCount(topN);
     }
 
     public Map<String, Double> getDailyRevenue() {
-        return orderRepository.findAll().stream()
-                .filter(order -> order.getOrderDate() != null)
-                .collect(Collectors.groupingBy(
-                        order -> order.getOrderDate().toString(),
-                        Collectors.summingDouble(Order::getTotalPrice)
-                ));
+        return aggregates.dailyRevenue();
     }
 
     public List<String> getLowVolumeProducts(int threshold) {
-        return orderRepository.findAll().stream()
-                .flatMap(order -> order.getOrderItems().stream())
-                .filter(item -> item.getProduct() != null && item.getProduct().getId() != null)
-                .collect(Collectors.groupingBy(
-                        item -> item.getProduct().getId(),
-                        Collectors.summingInt(OrderItem::getQuantity)
-                ))
-                .entrySet().stream()
+        return aggregates.quantityByProduct().entrySet().stream()
                 .filter(entry -> entry.getValue() < threshold)
                 .map(Map.Entry::getKey)
                 .collect(Collectors.toList());
     }
 
     public Map<String, Order> getFirstOrderPerCustomer() {
-        return orderRepository.findAll().stream()
-                .filter(order -> order.getCustomer() != null && order.getCustomer().getId() != null && order.getOrderDate() != null)
-                .collect(Collectors.groupingBy(
-                        order -> order.getCustomer().getId(),
-                        Collectors.collectingAndThen(
-                                Collectors.minBy(Comparator.comparing(Order::getOrderDate)),
-                                optional -> optional.orElse(null)
-                        )
-                ));
+        return aggregates.firstOrderByCustomer();
     }
 
     public Map<String, Double> getAverageSpendingPerCustomer() {
-        Map<String, Double> revenue = getRevenueByCustomer();
-        Map<String, Long> count = orderRepository.findAll().stream()
-                .filter(order -> order.getCustomer() != null && order.getCustomer().getId() != null)
-                .collect(Collectors.groupingBy(
-                        order -> order.getCustomer().getId(),
-                        Collectors.counting()
-                ));
-
-        return revenue.entrySet().stream()
-                .filter(entry -> count.containsKey(entry.getKey()) && count.get(entry.getKey()) > 0)
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> entry.getValue() / count.get(entry.getKey())
-                ));
+        return aggregates.averageSpendingByCustomer();
     }
 
     public Map<String, Integer> getTotalQuantitySoldByProduct() {
-        return orderRepository.findAll().stream()
-                .flatMap(order -> order.getOrderItems().stream())
-                .filter(item -> item.getProduct() != null && item.getProduct().getId() != null)
-                .collect(Collectors.groupingBy(
-                        item -> item.getProduct().getId(),
-                        Collectors.summingInt(OrderItem::getQuantity)
-                ));
+        return aggregates.quantityByProduct();
     }
 
     public Optional<Order> getEarliestOrder() {
-        return orderRepository.findAll().stream()
-                .filter(order -> order.getOrderDate() != null)
-                .min(Comparator.comparing(Order::getOrderDate));
+        return orderRepository.findEarliestOrder();
     }
 
     public Optional<Order> getLatestOrder() {
-        return orderRepository.findAll().stream()
-                .filter(order -> order.getOrderDate() != null)
-                .max(Comparator.comparing(Order::getOrderDate));
+        return orderRepository.findLatestOrder();
     }
 
     public Map<String, Double> getMonthlyRevenue() {
-        return orderRepository.findAll().stream()
-                .filter(order -> order.getOrderDate() != null)
-                .collect(Collectors.groupingBy(
-                        order -> {
-                            Calendar cal = Calendar.getInstance();
-                            cal.setTime(order.getOrderDate());
-                            return cal.get(Calendar.YEAR) + "-" + String.format("%02d", cal.get(Calendar.MONTH) + 1);
-                        },
-                        Collectors.summingDouble(Order::getTotalPrice)
-                ));
+        return aggregates.monthlyRevenue();
     }
 
     public List<String> getInactiveCustomers(int monthsThreshold) {
@@ -191,17 +130,8 @@ public class ReportService {
         cal.add(Calendar.MONTH, -monthsThreshold);
         Date thresholdDate = cal.getTime();
 
-        return orderRepository.findAll().stream()
-                .filter(order -> order.getCustomer() != null && order.getCustomer().getId() != null && order.getOrderDate() != null)
-                .collect(Collectors.groupingBy(
-                        order -> order.getCustomer().getId(),
-                        Collectors.collectingAndThen(
-                                Collectors.maxBy(Comparator.comparing(Order::getOrderDate)),
-                                optional -> optional.map(Order::getOrderDate).orElse(null)
-                        )
-                ))
-                .entrySet().stream()
-                .filter(entry -> entry.getValue() != null && entry.getValue().before(thresholdDate))
+        return aggregates.lastOrderDateByCustomer().entrySet().stream()
+                .filter(entry -> entry.getValue().before(thresholdDate))
                 .map(Map.Entry::getKey)
                 .collect(Collectors.toList());
     }
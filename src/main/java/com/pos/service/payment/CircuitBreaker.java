@@ -0,0 +1,194 @@
+package com.pos.gateway;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * CircuitBreaker
+ *
+ * Failure-rate circuit breaker over a rolling time window. Outcomes are counted in
+ * fixed-width buckets, so the window slides without keeping one entry per call.
+ *
+ * While CLOSED every call is permitted. Once the window holds at least the minimum
+ * number of calls and the failure rate reaches the threshold, the breaker OPENs and
+ * rejects calls for the open duration. It then goes HALF_OPEN and lets a few trial
+ * calls through: if they all succeed it closes again, and any failure re-opens it.
+ *
+ * All methods are synchronized; each holds the lock for a handful of array updates.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final long bucketNanos;
+    private final LongSupplier clock;
+
+    private final long[] bucketEpochs;
+    private final int[] bucketCalls;
+    private final int[] bucketFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+    private long timesOpened;
+
+    public CircuitBreaker(long windowMs, int buckets, int minimumCalls, double failureRateThreshold,
+                          long openMs, int halfOpenCalls) {
+        this(windowMs, buckets, minimumCalls, failureRateThreshold, openMs, halfOpenCalls, System::nanoTime);
+    }
+
+    CircuitBreaker(long windowMs, int buckets, int minimumCalls, double failureRateThreshold,
+                   long openMs, int halfOpenCalls, LongSupplier clock) {
+        if (buckets <= 0 || windowMs < buckets) throw new IllegalArgumentException("Window must span at least one millisecond per bucket");
+        if (minimumCalls <= 0) throw new IllegalArgumentException("Minimum calls must be positive");
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) throw new IllegalArgumentException("Failure rate threshold must be in (0, 1]");
+        if (openMs < 0) throw new IllegalArgumentException("Open duration must not be negative");
+        if (halfOpenCalls <= 0) throw new IllegalArgumentException("Half-open calls must be positive");
+
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openMs * 1_000_000L;
+        this.halfOpenCalls = halfOpenCalls;
+        this.bucketNanos = windowMs * 1_000_000L / buckets;
+        this.clock = clock;
+        this.bucketEpochs = new long[buckets];
+        this.bucketCalls = new int[buckets];
+        this.bucketFailures = new int[buckets];
+        Arrays.fill(bucketEpochs, Long.MIN_VALUE);
+    }
+
+    /**
+     * Claims permission for one call. In HALF_OPEN this consumes one of the trial slots,
+     * so every permitted call must report back through {@link #onSuccess} or {@link #onFailure}.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        return switch (currentState()) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (halfOpenPermits >= halfOpenCalls) yield false;
+                halfOpenPermits++;
+                yield true;
+            }
+        };
+    }
+
+    /** Whether a call would currently be permitted, without claiming a trial slot. */
+    public synchronized boolean isCallPermitted() {
+        return switch (currentState()) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> halfOpenPermits < halfOpenCalls;
+        };
+    }
+
+    public synchronized void onSuccess() {
+        switch (currentState()) {
+            case CLOSED -> {
+                record(false);
+                tripIfOverThreshold();
+            }
+            case HALF_OPEN -> {
+                if (++halfOpenSuccesses >= halfOpenCalls) transitionTo(State.CLOSED);
+            }
+            case OPEN -> { /* a call from before the breaker opened; ignore it */ }
+        }
+    }
+
+    public synchronized void onFailure() {
+        switch (currentState()) {
+            case CLOSED -> {
+                record(true);
+                tripIfOverThreshold();
+            }
+            case HALF_OPEN -> transitionTo(State.OPEN);
+            case OPEN -> { /* already open */ }
+        }
+    }
+
+    public synchronized State getState() {
+        return currentState();
+    }
+
+    /** Failure rate over the current window, or 0 when no calls have been recorded. */
+    public synchronized double getFailureRate() {
+        long[] totals = windowTotals();
+        return totals[0] == 0 ? 0.0 : (double) totals[1] / totals[0];
+    }
+
+    /** Number of times the breaker has tripped open since it was created. */
+    public synchronized long getTimesOpened() {
+        return timesOpened;
+    }
+
+    // --- Internal state ---
+
+    private State currentState() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+            transitionTo(State.HALF_OPEN);
+        }
+        return state;
+    }
+
+    private long epoch() {
+        return Math.floorDiv(clock.getAsLong(), bucketNanos);
+    }
+
+    /** Opens the breaker once the window holds enough calls and too many of them failed. */
+    private void tripIfOverThreshold() {
+        long[] totals = windowTotals();
+        if (totals[0] >= minimumCalls && totals[1] >= totals[0] * failureRateThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    /** Calls and failures across the buckets that are still inside the window. */
+    private long[] windowTotals() {
+        long oldestEpoch = epoch() - bucketEpochs.length;
+        long calls = 0;
+        long failures = 0;
+        for (int i = 0; i < bucketEpochs.length; i++) {
+            if (bucketEpochs[i] > oldestEpoch) {
+                calls += bucketCalls[i];
+                failures += bucketFailures[i];
+            }
+        }
+        return new long[] {calls, failures};
+    }
+
+    private void record(boolean failure) {
+        long epoch = epoch();
+        int index = (int) Math.floorMod(epoch, (long) bucketEpochs.length);
+        if (bucketEpochs[index] != epoch) {
+            bucketEpochs[index] = epoch;
+            bucketCalls[index] = 0;
+            bucketFailures[index] = 0;
+        }
+        bucketCalls[index]++;
+        if (failure) bucketFailures[index]++;
+    }
+
+    private void transitionTo(State next) {
+        state = next;
+        switch (next) {
+            case CLOSED -> {
+                Arrays.fill(bucketEpochs, Long.MIN_VALUE);
+                Arrays.fill(bucketCalls, 0);
+                Arrays.fill(bucketFailures, 0);
+            }
+            case OPEN -> {
+                openedAt = clock.getAsLong();
+                timesOpened++;
+            }
+            case HALF_OPEN -> {
+                halfOpenPermits = 0;
+                halfOpenSuccesses = 0;
+            }
+        }
+    }
+}
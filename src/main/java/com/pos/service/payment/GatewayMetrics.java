@@ -0,0 +1,103 @@
+package com.pos.gateway;
+
+/**
+ * Point-in-time snapshot of one provider's resilience counters, as reported by
+ * {@link GatewayResilience#metrics()}. Counters are cumulative since startup.
+ */
+public final class GatewayMetrics {
+
+    private final String provider;
+    private final CircuitBreaker.State breakerState;
+    private final double failureRate;
+    private final long timesOpened;
+    private final int activeCalls;
+    private final long calls;
+    private final long failures;
+    private final long breakerRejections;
+    private final long bulkheadRejections;
+    private final long retries;
+    private final long retriesDenied;
+
+    GatewayMetrics(String provider, CircuitBreaker.State breakerState, double failureRate, long timesOpened,
+                   int activeCalls, long calls, long failures, long breakerRejections, long bulkheadRejections,
+                   long retries, long retriesDenied) {
+        this.provider = provider;
+        this.breakerState = breakerState;
+        this.failureRate = failureRate;
+        this.timesOpened = timesOpened;
+        this.activeCalls = activeCalls;
+        this.calls = calls;
+        this.failures = failures;
+        this.breakerRejections = breakerRejections;
+        this.bulkheadRejections = bulkheadRejections;
+        this.retries = retries;
+        this.retriesDenied = retriesDenied;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public CircuitBreaker.State getBreakerState() {
+        return breakerState;
+    }
+
+    /** Failure rate over the breaker's current window */
+    public double getFailureRate() {
+        return failureRate;
+    }
+
+    public long getTimesOpened() {
+        return timesOpened;
+    }
+
+    public int getActiveCalls() {
+        return activeCalls;
+    }
+
+    /** Calls actually sent to the gateway, including retries */
+    public long getCalls() {
+        return calls;
+    }
+
+    /** Calls that failed or timed out */
+    public long getFailures() {
+        return failures;
+    }
+
+    /** Calls rejected because the circuit was open */
+    public long getBreakerRejections() {
+        return breakerRejections;
+    }
+
+    /** Calls rejected because the provider was at its concurrency limit */
+    public long getBulkheadRejections() {
+        return bulkheadRejections;
+    }
+
+    public long getRetries() {
+        return retries;
+    }
+
+    /** Retries skipped because the retry budget was spent */
+    public long getRetriesDenied() {
+        return retriesDenied;
+    }
+
+    @Override
+    public String toString() {
+        return "GatewayMetrics{" +
+                "provider='" + provider + '\'' +
+                ", breakerState=" + breakerState +
+                ", failureRate=" + failureRate +
+                ", timesOpened=" + timesOpened +
+                ", activeCalls=" + activeCalls +
+                ", calls=" + calls +
+                ", failures=" + failures +
+                ", breakerRejections=" + breakerRejections +
+                ", bulkheadRejections=" + bulkheadRejections +
+                ", retries=" + retries +
+                ", retriesDenied=" + retriesDenied +
+                '}';
+    }
+}
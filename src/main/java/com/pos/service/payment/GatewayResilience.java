@@ -0,0 +1,225 @@
+package com.pos.gateway;
+
+import com.pos.config.PaymentConfig;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * GatewayResilience
+ *
+ * Per-provider guard for gateway calls, so a degraded bank cannot take the other one
+ * down with it. Each call passes through:
+ * <ul>
+ *   <li>a bulkhead that caps the calls in flight to this provider,</li>
+ *   <li>a {@link CircuitBreaker} that stops calling a provider whose failure rate is high,</li>
+ *   <li>a timeout, after which the call counts as failed,</li>
+ *   <li>retries with exponential backoff and full jitter, limited by a {@link RetryBudget}.</li>
+ * </ul>
+ * Rejected calls fail fast with {@link GatewayUnavailableException} instead of queuing.
+ * Only failures and timeouts are retried; a gateway that answers "declined" has answered.
+ * Each time the circuit opens, the provider's {@link GatewayMetrics} are logged.
+ *
+ * Use {@link #forProvider} for the shared instance configured from {@link PaymentConfig}.
+ */
+public class GatewayResilience {
+
+    private static final Logger LOGGER = Logger.getLogger(GatewayResilience.class.getName());
+
+    private static final Map<PaymentConfig.Provider, GatewayResilience> PROVIDER_RESILIENCE = new EnumMap<>(PaymentConfig.Provider.class);
+
+    static {
+        for (PaymentConfig.Provider provider : PaymentConfig.Provider.values()) {
+            PROVIDER_RESILIENCE.put(provider, new GatewayResilience(
+                    provider.name(),
+                    new CircuitBreaker(PaymentConfig.BREAKER_WINDOW_MS, PaymentConfig.BREAKER_WINDOW_BUCKETS,
+                            PaymentConfig.BREAKER_MINIMUM_CALLS, PaymentConfig.BREAKER_FAILURE_RATE,
+                            PaymentConfig.BREAKER_OPEN_MS, PaymentConfig.BREAKER_HALF_OPEN_CALLS),
+                    PaymentConfig.BULKHEAD_MAX_CONCURRENT_CALLS,
+                    new RetryBudget(PaymentConfig.RETRY_BUDGET_RATIO, PaymentConfig.RETRY_BUDGET_MIN_PER_SECOND),
+                    PaymentConfig.MAX_RETRY_ATTEMPTS,
+                    PaymentConfig.RETRY_BASE_DELAY_MS,
+                    PaymentConfig.RETRY_DELAY_MS,
+                    provider.getRequestTimeoutMs()));
+        }
+    }
+
+    private final String name;
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final int maxConcurrentCalls;
+    private final RetryBudget retryBudget;
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final long callTimeoutMs;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder breakerRejections = new LongAdder();
+    private final LongAdder bulkheadRejections = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder retriesDenied = new LongAdder();
+    private final AtomicLong openingsReported = new AtomicLong();
+
+    public GatewayResilience(String name, CircuitBreaker circuitBreaker, int maxConcurrentCalls, RetryBudget retryBudget,
+                             int maxAttempts, long baseDelayMs, long maxDelayMs, long callTimeoutMs) {
+        if (maxConcurrentCalls <= 0) throw new IllegalArgumentException("Max concurrent calls must be positive");
+        if (maxAttempts <= 0) throw new IllegalArgumentException("Max attempts must be positive");
+        if (baseDelayMs < 0 || maxDelayMs < baseDelayMs) throw new IllegalArgumentException("Invalid backoff delays");
+        if (callTimeoutMs <= 0) throw new IllegalArgumentException("Call timeout must be positive");
+
+        this.name = Objects.requireNonNull(name, "Name must not be null");
+        this.circuitBreaker = Objects.requireNonNull(circuitBreaker, "CircuitBreaker must not be null");
+        this.retryBudget = Objects.requireNonNull(retryBudget, "RetryBudget must not be null");
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.callTimeoutMs = callTimeoutMs;
+    }
+
+    /**
+     * Returns the shared resilience guard for a payment provider, configured from
+     * {@link PaymentConfig}.
+     */
+    public static GatewayResilience forProvider(PaymentConfig.Provider provider) {
+        return PROVIDER_RESILIENCE.get(Objects.requireNonNull(provider, "Provider must not be null"));
+    }
+
+    /**
+     * Runs a gateway call with retries. The supplier is invoked once per attempt, so it
+     * must only be used for operations that are safe to repeat.
+     */
+    public <T> CompletionStage<T> execute(Supplier<? extends CompletionStage<T>> call) {
+        return run(call, maxAttempts);
+    }
+
+    /** Runs a gateway call through the bulkhead, breaker and timeout, without retrying it. */
+    public <T> CompletionStage<T> executeOnce(Supplier<? extends CompletionStage<T>> call) {
+        return run(call, 1);
+    }
+
+    /**
+     * Whether a new call would currently be let through. Used to route new payments
+     * away from a provider whose circuit is open or whose bulkhead is full.
+     */
+    public boolean isAvailable() {
+        return bulkhead.availablePermits() > 0 && circuitBreaker.isCallPermitted();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CircuitBreaker.State getBreakerState() {
+        return circuitBreaker.getState();
+    }
+
+    public GatewayMetrics metrics() {
+        return new GatewayMetrics(
+                name,
+                circuitBreaker.getState(),
+                circuitBreaker.getFailureRate(),
+                circuitBreaker.getTimesOpened(),
+                maxConcurrentCalls - bulkhead.availablePermits(),
+                calls.sum(),
+                failures.sum(),
+                breakerRejections.sum(),
+                bulkheadRejections.sum(),
+                retries.sum(),
+                retriesDenied.sum());
+    }
+
+    // --- Call pipeline ---
+
+    private <T> CompletionStage<T> run(Supplier<? extends CompletionStage<T>> call, int attempts) {
+        Objects.requireNonNull(call, "Call must not be null");
+        retryBudget.onRequest();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(call, 1, attempts, result);
+        return result;
+    }
+
+    private <T> void attempt(Supplier<? extends CompletionStage<T>> call, int attempt, int attempts, CompletableFuture<T> result) {
+        if (!bulkhead.tryAcquire()) {
+            bulkheadRejections.increment();
+            result.completeExceptionally(new GatewayUnavailableException(name + " gateway is at its concurrency limit"));
+            return;
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.release();
+            breakerRejections.increment();
+            result.completeExceptionally(new GatewayUnavailableException(name + " gateway circuit is open"));
+            return;
+        }
+        calls.increment();
+
+        CompletionStage<T> stage;
+        try {
+            stage = Objects.requireNonNull(call.get(), "Gateway call returned no stage");
+        } catch (RuntimeException e) {
+            stage = CompletableFuture.failedFuture(e);
+        }
+
+        // The permit is held until the gateway actually answers, even past the timeout,
+        // so a hanging bank cannot tie up more than its share of threads
+        CompletableFuture<T> outcome = new CompletableFuture<>();
+        stage.whenComplete((value, error) -> {
+            bulkhead.release();
+            if (error != null) {
+                outcome.completeExceptionally(error);
+            } else {
+                outcome.complete(value);
+            }
+        });
+
+        outcome.orTimeout(callTimeoutMs, TimeUnit.MILLISECONDS).whenComplete((value, error) -> {
+            if (error == null) {
+                circuitBreaker.onSuccess();
+                reportOpening();
+                result.complete(value);
+                return;
+            }
+            circuitBreaker.onFailure();
+            failures.increment();
+            reportOpening();
+            if (attempt >= attempts) {
+                result.completeExceptionally(error);
+            } else if (!retryBudget.tryAcquire()) {
+                retriesDenied.increment();
+                result.completeExceptionally(error);
+            } else {
+                retries.increment();
+                CompletableFuture.delayedExecutor(backoffMs(attempt), TimeUnit.MILLISECONDS)
+                        .execute(() -> attempt(call, attempt + 1, attempts, result));
+            }
+        });
+    }
+
+    /** Logs the provider's metrics once each time its circuit trips open. */
+    private void reportOpening() {
+        long opened = circuitBreaker.getTimesOpened();
+        long reported = openingsReported.get();
+        if (opened > reported && openingsReported.compareAndSet(reported, opened)) {
+            LOGGER.warning(() -> name + " gateway circuit opened: " + metrics());
+        }
+    }
+
+    /** Full jitter: a random delay up to the exponential ceiling for this attempt. */
+    private long backoffMs(int attempt) {
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 30));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
@@ -0,0 +1,14 @@
+package com.pos.gateway;
+
+/**
+ * Thrown (as the failure of a returned stage) when a gateway call is rejected without
+ * being attempted, because the provider's circuit is open or its bulkhead is full.
+ */
+public class GatewayUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public GatewayUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,95 @@
+package com.pos.gateway;
+
+import com.pos.config.PaymentConfig;
+import com.pos.util.HttpTransport;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.regex.Pattern;
+
+/**
+ * HttpGatewayClient
+ *
+ * Calls a payment provider's HTTP API over the provider's shared {@link HttpTransport},
+ * so every gateway call uses the pooled connections and the timeouts configured for
+ * that provider in {@link PaymentConfig}.
+ *
+ * Each operation is a JSON POST to {@code <api url>/<operation>} carrying the merchant
+ * ID, order ID, callback URL and, where relevant, the amount. The provider answers with
+ * a JSON object; state-changing operations succeed when it contains
+ * {@code "success": true}, and queries return the body as it is. A request that gets no
+ * answer completes exceptionally, so the resilience layer counts it as a failure.
+ */
+public final class HttpGatewayClient {
+
+    private static final Pattern SUCCESS = Pattern.compile("\"success\"\\s*:\\s*true");
+
+    private final PaymentConfig.Provider provider;
+    private final HttpTransport transport;
+    private final String apiUrl;
+
+    HttpGatewayClient(PaymentConfig.Provider provider, HttpTransport transport, String apiUrl) {
+        this.provider = Objects.requireNonNull(provider, "Provider must not be null");
+        this.transport = Objects.requireNonNull(transport, "HttpTransport must not be null");
+        this.apiUrl = Objects.requireNonNull(apiUrl, "API URL must not be null");
+    }
+
+    /**
+     * Returns a client for the provider's configured API, on the provider's shared transport.
+     */
+    public static HttpGatewayClient forProvider(PaymentConfig.Provider provider) {
+        return new HttpGatewayClient(provider, HttpTransport.forProvider(provider), provider.getApiUrl());
+    }
+
+    /** Performs a state-changing operation; completes with whether the provider accepted it. */
+    public CompletionStage<Boolean> command(String operation, String orderId, Double amount) {
+        return call(operation, orderId, amount).thenApply(body -> SUCCESS.matcher(body).find());
+    }
+
+    /** Performs a read-only operation; completes with the provider's response body. */
+    public CompletionStage<String> query(String operation, String orderId) {
+        return call(operation, orderId, null);
+    }
+
+    private CompletionStage<String> call(String operation, String orderId, Double amount) {
+        Map<String, String> headers = Map.of(
+                "Content-Type", PaymentConfig.CONTENT_TYPE_JSON,
+                "Accept-Language", PaymentConfig.ACCEPT_LANGUAGE,
+                "Authorization", "Bearer " + provider.getApiKey());
+        return transport.postAsync(apiUrl + "/" + operation, body(orderId, amount), headers)
+                .thenCompose(response -> response
+                        .map(CompletableFuture::completedFuture)
+                        .orElseGet(() -> CompletableFuture.failedFuture(new IllegalStateException(
+                                provider + " gateway gave no answer to " + operation + " for order " + orderId))));
+    }
+
+    private String body(String orderId, Double amount) {
+        StringBuilder json = new StringBuilder(160)
+                .append("{\"merchantId\":\"").append(escape(provider.getMerchantId()))
+                .append("\",\"orderId\":\"").append(escape(orderId))
+                .append("\",\"callbackUrl\":\"").append(escape(provider.getCallbackUrl())).append('"');
+        if (amount != null) {
+            json.append(",\"amount\":").append(BigDecimal.valueOf(amount).toPlainString());
+        }
+        return json.append('}').toString();
+    }
+
+    private static String escape(String value) {
+        if (value == null) return "";
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 0x20) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
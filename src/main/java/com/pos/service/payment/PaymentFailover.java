@@ -0,0 +1,102 @@
+package com.pos.gateway;
+
+import com.pos.config.PaymentConfig;
+import com.pos.model.PaymentResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * Routes new payments to the first provider, in priority order, that is enabled and
+ * currently accepting calls. When the preferred bank's circuit opens or its bulkhead
+ * fills up, checkout moves to the next provider until the first one recovers.
+ *
+ * Only new payments are routed here; refunds, cancellations and inquiries must go to
+ * the provider that took the payment.
+ */
+public class PaymentFailover {
+
+    private final List<Route> routes;
+
+    public PaymentFailover(List<Route> routes) {
+        Objects.requireNonNull(routes, "Routes must not be null");
+        if (routes.isEmpty()) throw new IllegalArgumentException("At least one route is required");
+        this.routes = List.copyOf(routes);
+    }
+
+    /**
+     * Routes new payments to Sadad, falling back to Sep, each guarded by its provider's
+     * shared {@link GatewayResilience}, the same instance the services' default clients use.
+     */
+    public static PaymentFailover between(SadadService sadadService, SepService sepService) {
+        Objects.requireNonNull(sadadService, "SadadService must not be null");
+        Objects.requireNonNull(sepService, "SepService must not be null");
+        return new PaymentFailover(List.of(
+                route(PaymentConfig.Provider.SADAD, GatewayResilience.forProvider(PaymentConfig.Provider.SADAD),
+                        sadadService::processPaymentAsync),
+                route(PaymentConfig.Provider.SEP, GatewayResilience.forProvider(PaymentConfig.Provider.SEP),
+                        sepService::processPaymentAsync)));
+    }
+
+    /**
+     * Creates a route that sends payments to {@code processor}, typically a service's
+     * {@code processPaymentAsync}, while {@code resilience} reports the provider healthy.
+     */
+    public static Route route(PaymentConfig.Provider provider,
+                              GatewayResilience resilience,
+                              Function<String, ? extends CompletionStage<PaymentResult>> processor) {
+        return new Route(provider, resilience, processor);
+    }
+
+    public CompletionStage<PaymentResult> processPayment(String orderId) {
+        return selectRoute()
+                .<CompletionStage<PaymentResult>>map(route -> route.processor.apply(orderId))
+                .orElseGet(() -> CompletableFuture.completedFuture(
+                        PaymentResult.failure("No payment provider is currently available.")));
+    }
+
+    /** The provider a new payment would be sent to right now, if any. */
+    public Optional<PaymentConfig.Provider> selectProvider() {
+        return selectRoute().map(route -> route.provider);
+    }
+
+    public List<GatewayMetrics> metrics() {
+        List<GatewayMetrics> metrics = new ArrayList<>(routes.size());
+        for (Route route : routes) {
+            metrics.add(route.resilience.metrics());
+        }
+        return metrics;
+    }
+
+    private Optional<Route> selectRoute() {
+        for (Route route : routes) {
+            if (route.provider.isEnabled() && route.resilience.isAvailable()) {
+                return Optional.of(route);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public static final class Route {
+        private final PaymentConfig.Provider provider;
+        private final GatewayResilience resilience;
+        private final Function<String, ? extends CompletionStage<PaymentResult>> processor;
+
+        private Route(PaymentConfig.Provider provider,
+                      GatewayResilience resilience,
+                      Function<String, ? extends CompletionStage<PaymentResult>> processor) {
+            this.provider = Objects.requireNonNull(provider, "Provider must not be null");
+            this.resilience = Objects.requireNonNull(resilience, "GatewayResilience must not be null");
+            this.processor = Objects.requireNonNull(processor, "Processor must not be null");
+        }
+
+        public PaymentConfig.Provider getProvider() {
+            return provider;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.pos.gateway;
+
+import java.util.function.LongSupplier;
+
+/**
+ * RetryBudget
+ *
+ * Caps retries relative to first attempts so that retrying cannot multiply the load on
+ * a provider that is already struggling. Every first attempt deposits {@code ratio}
+ * tokens and every retry withdraws one; on top of that the budget refills at a fixed
+ * minimum rate, so a provider with little traffic can still retry the odd failure.
+ *
+ * The balance is capped at ten seconds' worth of the minimum rate, which bounds the
+ * burst of retries that can follow a quiet period.
+ */
+public class RetryBudget {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final int BURST_SECONDS = 10;
+
+    private final double ratio;
+    private final double minRetriesPerSecond;
+    private final double maxBalance;
+    private final LongSupplier clock;
+
+    private double balance;
+    private long lastRefill;
+
+    public RetryBudget(double ratio, int minRetriesPerSecond) {
+        this(ratio, minRetriesPerSecond, System::nanoTime);
+    }
+
+    RetryBudget(double ratio, int minRetriesPerSecond, LongSupplier clock) {
+        if (ratio < 0) throw new IllegalArgumentException("Retry ratio must not be negative");
+        if (minRetriesPerSecond < 0) throw new IllegalArgumentException("Minimum retries per second must not be negative");
+        this.ratio = ratio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.maxBalance = Math.max(1, minRetriesPerSecond * BURST_SECONDS);
+        this.clock = clock;
+        this.lastRefill = clock.getAsLong();
+        this.balance = maxBalance;
+    }
+
+    /** Records a first attempt, earning a fraction of a retry. */
+    public synchronized void onRequest() {
+        refill();
+        balance = Math.min(maxBalance, balance + ratio);
+    }
+
+    /** Spends one retry if the budget allows it. */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (balance < 1) return false;
+        balance -= 1;
+        return true;
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        long elapsed = now - lastRefill;
+        if (elapsed > 0) {
+            balance = Math.min(maxBalance, balance + minRetriesPerSecond * elapsed / NANOS_PER_SECOND);
+            lastRefill = now;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.pos.gateway;
 
+import com.pos.config.PaymentConfig;
 import com.pos.model.Order;
 import com.pos.model.Payment;
 import com.pos.model.PaymentResult;
@@ -9,46 +10,132 @@ import com.pos.repository.PaymentRepository;
 import java.util.Date;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Professional service class for integrating with the Sadad payment gateway.
  * Documentation: https://sadad.shaparak.ir/
+ *
+ * {@link #processPaymentAsync(String)} is the non-blocking checkout path: the gateway
+ * call is issued through an {@link AsyncSadadClient} and the order and payment are
+ * recorded when it completes, so no thread waits on the bank. The blocking methods wait
+ * on the same client, so every gateway call goes through the same resilience guard.
  */
 public class SadadService {
 
+    /** Runs calls of blocking clients that have no asynchronous implementation */
+    private static final ExecutorService BLOCKING_CALLS = Executors.newFixedThreadPool(
+            PaymentConfig.BLOCKING_GATEWAY_THREADS, runnable -> {
+                Thread thread = new Thread(runnable, "sadad-gateway");
+                thread.setDaemon(true);
+                return thread;
+            });
+
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
-    private final SadadClient sadadClient;
+    private final AsyncSadadClient asyncSadadClient;
+    private final Set<String> paymentsInFlight = ConcurrentHashMap.newKeySet();
 
+    /**
+     * Creates a service that talks to the Sadad HTTP API configured in {@link PaymentConfig},
+     * over the provider's shared transport and behind its resilience guard.
+     */
+    public SadadService(PaymentRepository paymentRepository, OrderRepository orderRepository) {
+        this(paymentRepository, orderRepository,
+                AsyncSadadClient.overHttp(HttpGatewayClient.forProvider(PaymentConfig.Provider.SADAD))
+                        .withResilience(GatewayResilience.forProvider(PaymentConfig.Provider.SADAD)));
+    }
+
+    /**
+     * Creates a service over a blocking client, whose calls run on a shared pool behind the
+     * provider's resilience guard.
+     */
     public SadadService(PaymentRepository paymentRepository,
                         OrderRepository orderRepository,
                         SadadClient sadadClient) {
+        this(paymentRepository, orderRepository,
+                AsyncSadadClient.fromBlocking(Objects.requireNonNull(sadadClient, "SadadClient must not be null"), BLOCKING_CALLS)
+                        .withResilience(GatewayResilience.forProvider(PaymentConfig.Provider.SADAD)));
+    }
+
+    /**
+     * Creates a service that uses the given client as it is; wrap it with
+     * {@link AsyncSadadClient#withResilience} to guard its calls.
+     */
+    public SadadService(PaymentRepository paymentRepository,
+                        OrderRepository orderRepository,
+                        AsyncSadadClient asyncSadadClient) {
         this.paymentRepository = Objects.requireNonNull(paymentRepository, "PaymentRepository must not be null");
         this.orderRepository = Objects.requireNonNull(orderRepository, "OrderRepository must not be null");
-        this.sadadClient = Objects.requireNonNull(sadadClient, "SadadClient must not be null");
+        this.asyncSadadClient = Objects.requireNonNull(asyncSadadClient, "AsyncSadadClient must not be null");
     }
 
+    /**
+     * Blocking variant of {@link #processPaymentAsync(String)}, with the same in-flight
+     * claim and resilience guard.
+     */
     public PaymentResult processPayment(String orderId) {
+        return processPaymentAsync(orderId).toCompletableFuture().join();
+    }
+
+    /**
+     * Initiates the payment for an order without blocking. A second attempt for the same
+     * order is rejected while the first is still waiting on the gateway.
+     */
+    public CompletionStage<PaymentResult> processPaymentAsync(String orderId) {
         Optional<Order> optionalOrder = orderRepository.findById(orderId);
         if (optionalOrder.isEmpty()) {
-            return PaymentResult.failure("Order not found.");
+            return CompletableFuture.completedFuture(PaymentResult.failure("Order not found."));
         }
 
         Order order = optionalOrder.get();
         if (order.isPaid()) {
-            return PaymentResult.failure("Order has already been paid.");
+            return CompletableFuture.completedFuture(PaymentResult.failure("Order has already been paid."));
+        }
+        if (!paymentsInFlight.add(orderId)) {
+            return CompletableFuture.completedFuture(PaymentResult.failure("A payment for this order is already in progress."));
+        }
+        // A payment that finished between the check above and the claim marked the order
+        // paid before releasing its claim, so look again now that the claim is held
+        if (orderRepository.findById(orderId).map(Order::isPaid).orElse(true)) {
+            paymentsInFlight.remove(orderId);
+            return CompletableFuture.completedFuture(PaymentResult.failure("Order has already been paid."));
         }
 
-        boolean initiated = sadadClient.initiatePayment(order.getTotalPrice(), orderId);
-        if (!initiated) {
-            return PaymentResult.failure("Failed to initiate Sadad payment.");
+        double amount = order.getTotalAmount();
+        CompletionStage<Boolean> initiated;
+        try {
+            initiated = asyncSadadClient.initiatePayment(amount, orderId);
+        } catch (RuntimeException e) {
+            initiated = CompletableFuture.failedFuture(e);
         }
 
+        return initiated.handle((success, error) -> {
+            try {
+                if (error != null || !Boolean.TRUE.equals(success)) {
+                    return PaymentResult.failure("Failed to initiate Sadad payment.");
+                }
+                return recordPayment(order, amount);
+            } finally {
+                paymentsInFlight.remove(orderId);
+            }
+        });
+    }
+
+    private PaymentResult recordPayment(Order order, double amount) {
         Payment payment = new Payment(
                 UUID.randomUUID().toString(),
-                orderId,
-                order.getTotalPrice(),
+                order.getOrderId(),
+                amount,
                 "SADAD",
                 new Date(),
                 "SUCCESS"
@@ -65,7 +152,7 @@ public class SadadService {
         return paymentRepository.findByOrderId(orderId)
                 .filter(payment -> "SADAD".equalsIgnoreCase(payment.getMethod()))
                 .map(payment -> {
-                    boolean refunded = sadadClient.refund(payment.getAmount(), payment.getOrderId());
+                    boolean refunded = await(asyncSadadClient.refund(payment.getAmount(), payment.getOrderId())).orElse(false);
                     if (refunded) {
                         orderRepository.findById(orderId).ifPresent(order -> {
                             order.setPaid(false);
@@ -80,7 +167,7 @@ public class SadadService {
 
     public PaymentResult verifyPaymentStatus(String orderId) {
         return paymentRepository.findByOrderId(orderId)
-                .map(payment -> sadadClient.checkStatus(payment.getOrderId()) ?
+                .map(payment -> await(asyncSadadClient.checkStatus(payment.getOrderId())).orElse(false) ?
                         PaymentResult.success("Payment is confirmed.") :
                         PaymentResult.failure("Payment is not confirmed."))
                 .orElse(PaymentResult.failure("No payment found for this order."));
@@ -101,7 +188,7 @@ public class SadadService {
                         return PaymentResult.failure("Payment method is not SADAD.");
                     }
 
-                    boolean cancelled = sadadClient.cancel(orderId);
+                    boolean cancelled = await(asyncSadadClient.cancel(orderId)).orElse(false);
                     if (!cancelled) {
                         return PaymentResult.failure("Failed to cancel Sadad payment.");
                     }
@@ -114,7 +201,7 @@ public class SadadService {
 
     public PaymentResult extendAuthorization(String orderId) {
         return paymentRepository.findByOrderId(orderId)
-                .map(payment -> sadadClient.extend(orderId) ?
+                .map(payment -> await(asyncSadadClient.extend(orderId)).orElse(false) ?
                         PaymentResult.success("Authorization extended successfully.") :
                         PaymentResult.failure("Failed to extend payment authorization."))
                 .orElse(PaymentResult.failure("No payment found for this order."));
@@ -122,10 +209,9 @@ public class SadadService {
 
     public PaymentResult inquireTransaction(String orderId) {
         return paymentRepository.findByOrderId(orderId)
-                .map(payment -> {
-                    String inquiryResult = sadadClient.inquire(orderId);
-                    return PaymentResult.success("Inquiry result: " + inquiryResult);
-                })
+                .map(payment -> await(asyncSadadClient.inquire(orderId))
+                        .map(inquiryResult -> PaymentResult.success("Inquiry result: " + inquiryResult))
+                        .orElse(PaymentResult.failure("Failed to inquire Sadad transaction.")))
                 .orElse(PaymentResult.failure("No payment found for this order."));
     }
 
@@ -151,6 +237,18 @@ public class SadadService {
                 .orElse(PaymentResult.failure("Payment not found."));
     }
 
+    /**
+     * Waits for a gateway call. A call that failed, timed out or was rejected by the
+     * resilience guard yields an empty result, as a refusal would.
+     */
+    private static <T> Optional<T> await(CompletionStage<T> call) {
+        try {
+            return Optional.ofNullable(call.toCompletableFuture().join());
+        } catch (CompletionException | CancellationException e) {
+            return Optional.empty();
+        }
+    }
+
     /**
      * Interface to abstract Sadad gateway operations for testability and flexibility.
      */
@@ -162,4 +260,136 @@ public class SadadService {
         boolean extend(String orderId);
         String inquire(String orderId);
     }
+
+    /**
+     * Non-blocking counterpart of {@link SadadClient}. Implementations should complete
+     * the returned stages from I/O callbacks rather than blocking a thread per call.
+     */
+    public interface AsyncSadadClient {
+        CompletionStage<Boolean> initiatePayment(double amount, String orderId);
+        CompletionStage<Boolean> refund(double amount, String orderId);
+        CompletionStage<Boolean> checkStatus(String orderId);
+        CompletionStage<Boolean> cancel(String orderId);
+        CompletionStage<Boolean> extend(String orderId);
+        CompletionStage<String> inquire(String orderId);
+
+        /**
+         * Wraps this client in the provider's {@link GatewayResilience}. Only read-only calls
+         * are retried. Payment initiation, refunds, cancellations and other changes are
+         * attempted once, since a call that timed out may still have reached the bank.
+         */
+        default AsyncSadadClient withResilience(GatewayResilience resilience) {
+            Objects.requireNonNull(resilience, "GatewayResilience must not be null");
+            AsyncSadadClient delegate = this;
+            return new AsyncSadadClient() {
+                @Override
+                public CompletionStage<Boolean> initiatePayment(double amount, String orderId) {
+                    return resilience.executeOnce(() -> delegate.initiatePayment(amount, orderId));
+                }
+
+                @Override
+                public CompletionStage<Boolean> refund(double amount, String orderId) {
+                    return resilience.executeOnce(() -> delegate.refund(amount, orderId));
+                }
+
+                @Override
+                public CompletionStage<Boolean> checkStatus(String orderId) {
+                    return resilience.execute(() -> delegate.checkStatus(orderId));
+                }
+
+                @Override
+                public CompletionStage<Boolean> cancel(String orderId) {
+                    return resilience.executeOnce(() -> delegate.cancel(orderId));
+                }
+
+                @Override
+                public CompletionStage<Boolean> extend(String orderId) {
+                    return resilience.executeOnce(() -> delegate.extend(orderId));
+                }
+
+                @Override
+                public CompletionStage<String> inquire(String orderId) {
+                    return resilience.execute(() -> delegate.inquire(orderId));
+                }
+            };
+        }
+
+        /**
+         * Implements the client over the gateway's HTTP API.
+         */
+        static AsyncSadadClient overHttp(HttpGatewayClient http) {
+            Objects.requireNonNull(http, "HttpGatewayClient must not be null");
+            return new AsyncSadadClient() {
+                @Override
+                public CompletionStage<Boolean> initiatePayment(double amount, String orderId) {
+                    return http.command("initiate", orderId, amount);
+                }
+
+                @Override
+                public CompletionStage<Boolean> refund(double amount, String orderId) {
+                    return http.command("refund", orderId, amount);
+                }
+
+                @Override
+                public CompletionStage<Boolean> checkStatus(String orderId) {
+                    return http.command("status", orderId, null);
+                }
+
+                @Override
+                public CompletionStage<Boolean> cancel(String orderId) {
+                    return http.command("cancel", orderId, null);
+                }
+
+                @Override
+                public CompletionStage<Boolean> extend(String orderId) {
+                    return http.command("extend", orderId, null);
+                }
+
+                @Override
+                public CompletionStage<String> inquire(String orderId) {
+                    return http.query("inquire", orderId);
+                }
+            };
+        }
+
+        /**
+         * Adapts a blocking client by running its calls on the given executor, which
+         * keeps them off the caller's thread until a native asynchronous client exists.
+         */
+        static AsyncSadadClient fromBlocking(SadadClient client, Executor executor) {
+            Objects.requireNonNull(client, "SadadClient must not be null");
+            Objects.requireNonNull(executor, "Executor must not be null");
+            return new AsyncSadadClient() {
+                @Override
+                public CompletionStage<Boolean> initiatePayment(double amount, String orderId) {
+                    return CompletableFuture.supplyAsync(() -> client.initiatePayment(amount, orderId), executor);
+                }
+
+                @Override
+                public CompletionStage<Boolean> refund(double amount, String orderId) {
+                    return CompletableFuture.supplyAsync(() -> client.refund(amount, orderId), executor);
+                }
+
+                @Override
+                public CompletionStage<Boolean> checkStatus(String orderId) {
+                    return CompletableFuture.supplyAsync(() -> client.checkStatus(orderId), executor);
+                }
+
+                @Override
+                public CompletionStage<Boolean> cancel(String orderId) {
+                    return CompletableFuture.supplyAsync(() -> client.cancel(orderId), executor);
+                }
+
+                @Override
+                public CompletionStage<Boolean> extend(String orderId) {
+                    return CompletableFuture.supplyAsync(() -> client.extend(orderId), executor);
+                }
+
+                @Override
+                public CompletionStage<String> inquire(String orderId) {
+                    return CompletableFuture.supplyAsync(() -> client.inquire(orderId), executor);
+                }
+            };
+        }
+    }
 }
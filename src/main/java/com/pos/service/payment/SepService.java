@@ -1,5 +1,6 @@
 package com.pos.gateway;
 
+import com.pos.config.PaymentConfig;
 import com.pos.model.Order;
 import com.pos.model.Payment;
 import com.pos.model.PaymentResult;
@@ -9,34 +10,109 @@ import com.pos.repository.PaymentRepository;
 import java.util.Date;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Enhanced and optimized implementation of SepService for integration with the Sep payment gateway (https://sep.shaparak.ir/).
+ * {@link #processPaymentAsync(String)} issues the gateway call through an {@link AsyncSepClient} and records
+ * the payment when it completes, so no thread waits on the bank. The blocking methods wait on the same client,
+ * so every gateway call goes through the same resilience guard.
  */
 public class SepService {
 
+    /** Runs calls of blocking clients that have no asynchronous implementation */
+    private static final ExecutorService BLOCKING_CALLS = Executors.newFixedThreadPool(
+        PaymentConfig.BLOCKING_GATEWAY_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "sep-gateway");
+            thread.setDaemon(true);
+            return thread;
+        });
+
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
-    private final SepClient sepClient;
+    private final AsyncSepClient asyncSepClient;
+    private final Set<String> paymentsInFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a service that talks to the Sep HTTP API configured in {@link PaymentConfig},
+     * over the provider's shared transport and behind its resilience guard.
+     */
+    public SepService(PaymentRepository paymentRepository, OrderRepository orderRepository) {
+        this(paymentRepository, orderRepository, AsyncSepClient.overHttp(HttpGatewayClient.forProvider(PaymentConfig.Provider.SEP))
+            .withResilience(GatewayResilience.forProvider(PaymentConfig.Provider.SEP)));
+    }
 
+    /**
+     * Creates a service over a blocking client, whose calls run on a shared pool behind the provider's resilience guard.
+     */
     public SepService(PaymentRepository paymentRepository, OrderRepository orderRepository, SepClient sepClient) {
+        this(paymentRepository, orderRepository, AsyncSepClient.fromBlocking(Objects.requireNonNull(sepClient), BLOCKING_CALLS)
+            .withResilience(GatewayResilience.forProvider(PaymentConfig.Provider.SEP)));
+    }
+
+    /**
+     * Creates a service that uses the given client as it is; wrap it with {@link AsyncSepClient#withResilience} to guard its calls.
+     */
+    public SepService(PaymentRepository paymentRepository, OrderRepository orderRepository, AsyncSepClient asyncSepClient) {
         this.paymentRepository = Objects.requireNonNull(paymentRepository);
         this.orderRepository = Objects.requireNonNull(orderRepository);
-        this.sepClient = Objects.requireNonNull(sepClient);
+        this.asyncSepClient = Objects.requireNonNull(asyncSepClient);
     }
 
+    /**
+     * Blocking variant of {@link #processPaymentAsync(String)}, with the same in-flight claim and resilience guard.
+     */
     public PaymentResult processPayment(String orderId) {
+        return processPaymentAsync(orderId).toCompletableFuture().join();
+    }
+
+    /**
+     * Initiates the payment for an order without blocking; rejects a second attempt for an order
+     * while the first is still waiting on the gateway.
+     */
+    public CompletionStage<PaymentResult> processPaymentAsync(String orderId) {
         Optional<Order> orderOpt = orderRepository.findById(orderId);
-        if (orderOpt.isEmpty()) return PaymentResult.failure("Order not found.");
+        if (orderOpt.isEmpty()) return CompletableFuture.completedFuture(PaymentResult.failure("Order not found."));
 
         Order order = orderOpt.get();
-        if (order.isPaid()) return PaymentResult.failure("Order already paid.");
+        if (order.isPaid()) return CompletableFuture.completedFuture(PaymentResult.failure("Order already paid."));
+        if (!paymentsInFlight.add(orderId)) return CompletableFuture.completedFuture(PaymentResult.failure("Payment already in progress."));
+        // A payment that finished between the check above and the claim marked the order paid
+        // before releasing its claim, so look again now that the claim is held
+        if (orderRepository.findById(orderId).map(Order::isPaid).orElse(true)) {
+            paymentsInFlight.remove(orderId);
+            return CompletableFuture.completedFuture(PaymentResult.failure("Order already paid."));
+        }
 
-        boolean initiated = sepClient.initiatePayment(order.getTotalPrice(), orderId);
-        if (!initiated) return PaymentResult.failure("Failed to initiate payment with Sep.");
+        double amount = order.getTotalAmount();
+        CompletionStage<Boolean> initiated;
+        try {
+            initiated = asyncSepClient.initiatePayment(amount, orderId);
+        } catch (RuntimeException e) {
+            initiated = CompletableFuture.failedFuture(e);
+        }
+
+        return initiated.handle((success, error) -> {
+            try {
+                if (error != null || !Boolean.TRUE.equals(success)) return PaymentResult.failure("Failed to initiate payment with Sep.");
+                return recordPayment(order, amount);
+            } finally {
+                paymentsInFlight.remove(orderId);
+            }
+        });
+    }
 
-        Payment payment = new Payment(UUID.randomUUID().toString(), orderId, order.getTotalPrice(), "SEP", new Date(), "SUCCESS");
+    private PaymentResult recordPayment(Order order, double amount) {
+        Payment payment = new Payment(UUID.randomUUID().toString(), order.getOrderId(), amount, "SEP", new Date(), "SUCCESS");
         order.setPaid(true);
         orderRepository.save(order);
         paymentRepository.save(payment);
@@ -48,7 +124,7 @@ public class SepService {
         return paymentRepository.findByOrderId(orderId)
             .filter(payment -> "SEP".equalsIgnoreCase(payment.getMethod()))
             .map(payment -> {
-                boolean refunded = sepClient.refund(payment.getAmount(), payment.getOrderId());
+                boolean refunded = await(asyncSepClient.refund(payment.getAmount(), payment.getOrderId())).orElse(false);
                 if (refunded) {
                     orderRepository.findById(orderId).ifPresent(order -> {
                         order.setPaid(false);
@@ -62,7 +138,7 @@ public class SepService {
 
     public PaymentResult verifyPaymentStatus(String orderId) {
         return paymentRepository.findByOrderId(orderId)
-            .map(p -> sepClient.checkStatus(orderId)
+            .map(p -> await(asyncSepClient.checkStatus(orderId)).orElse(false)
                 ? PaymentResult.success("Payment is confirmed.")
                 : PaymentResult.failure("Payment not confirmed."))
             .orElse(PaymentResult.failure("Payment not found."));
@@ -82,7 +158,7 @@ public class SepService {
                 if (!"SEP".equalsIgnoreCase(payment.getMethod()))
                     return PaymentResult.failure("Invalid payment method.");
 
-                if (!sepClient.cancel(orderId))
+                if (!await(asyncSepClient.cancel(orderId)).orElse(false))
                     return PaymentResult.failure("Sep cancellation failed.");
 
                 paymentRepository.delete(payment.getId());
@@ -92,7 +168,7 @@ public class SepService {
 
     public PaymentResult extendAuthorization(String orderId) {
         return paymentRepository.findByOrderId(orderId)
-            .map(p -> sepClient.extend(orderId)
+            .map(p -> await(asyncSepClient.extend(orderId)).orElse(false)
                 ? PaymentResult.success("Authorization extended.")
                 : PaymentResult.failure("Failed to extend authorization."))
             .orElse(PaymentResult.failure("Payment not found."));
@@ -100,14 +176,16 @@ public class SepService {
 
     public PaymentResult inquireTransaction(String orderId) {
         return paymentRepository.findByOrderId(orderId)
-            .map(p -> PaymentResult.success("Inquiry: " + sepClient.inquire(orderId)))
+            .map(p -> await(asyncSepClient.inquire(orderId))
+                .map(inquiry -> PaymentResult.success("Inquiry: " + inquiry))
+                .orElse(PaymentResult.failure("Inquiry failed.")))
             .orElse(PaymentResult.failure("Payment not found."));
     }
 
     public PaymentResult reverseTransaction(String orderId) {
         return paymentRepository.findByOrderId(orderId)
             .filter(p -> "SEP".equalsIgnoreCase(p.getMethod()))
-            .map(p -> sepClient.reverse(orderId)
+            .map(p -> await(asyncSepClient.reverse(orderId)).orElse(false)
                 ? PaymentResult.success("Transaction reversed.")
                 : PaymentResult.failure("Reverse failed."))
             .orElse(PaymentResult.failure("Payment not found."));
@@ -115,7 +193,9 @@ public class SepService {
 
     public PaymentResult fetchTransactionDetails(String orderId) {
         return paymentRepository.findByOrderId(orderId)
-            .map(p -> PaymentResult.success("Details: " + sepClient.getTransactionDetails(orderId)))
+            .map(p -> await(asyncSepClient.getTransactionDetails(orderId))
+                .map(details -> PaymentResult.success("Details: " + details))
+                .orElse(PaymentResult.failure("Fetching details failed.")))
             .orElse(PaymentResult.failure("Payment not found."));
     }
 
@@ -136,7 +216,7 @@ public class SepService {
 
     public PaymentResult resendPaymentNotification(String orderId) {
         return paymentRepository.findByOrderId(orderId)
-            .map(p -> sepClient.notify(orderId)
+            .map(p -> await(asyncSepClient.notify(orderId)).orElse(false)
                 ? PaymentResult.success("Notification resent.")
                 : PaymentResult.failure("Notification failed."))
             .orElse(PaymentResult.failure("Payment not found."));
@@ -194,6 +274,18 @@ public class SepService {
             .orElse(PaymentResult.failure("Payment not found."));
     }
 
+    /**
+     * Waits for a gateway call; one that failed, timed out or was rejected by the resilience guard yields an
+     * empty result, as a refusal would.
+     */
+    private static <T> Optional<T> await(CompletionStage<T> call) {
+        try {
+            return Optional.ofNullable(call.toCompletableFuture().join());
+        } catch (CompletionException | CancellationException e) {
+            return Optional.empty();
+        }
+    }
+
     public interface SepClient {
         boolean initiatePayment(double amount, String orderId);
         boolean refund(double amount, String orderId);
@@ -205,4 +297,182 @@ public class SepService {
         String getTransactionDetails(String orderId);
         boolean notify(String orderId);
     }
+
+    /**
+     * Non-blocking counterpart of {@link SepClient}; implementations should complete stages from I/O callbacks.
+     */
+    public interface AsyncSepClient {
+        CompletionStage<Boolean> initiatePayment(double amount, String orderId);
+        CompletionStage<Boolean> refund(double amount, String orderId);
+        CompletionStage<Boolean> checkStatus(String orderId);
+        CompletionStage<Boolean> cancel(String orderId);
+        CompletionStage<Boolean> extend(String orderId);
+        CompletionStage<String> inquire(String orderId);
+        CompletionStage<Boolean> reverse(String orderId);
+        CompletionStage<String> getTransactionDetails(String orderId);
+        CompletionStage<Boolean> notify(String orderId);
+
+        /**
+         * Wraps this client in the provider's {@link GatewayResilience}. Only read-only calls
+         * are retried. Payment initiation, refunds, cancellations and other changes are
+         * attempted once, since a call that timed out may still have reached the bank.
+         */
+        default AsyncSepClient withResilience(GatewayResilience resilience) {
+            Objects.requireNonNull(resilience, "GatewayResilience must not be null");
+            AsyncSepClient delegate = this;
+            return new AsyncSepClient() {
+                @Override
+                public CompletionStage<Boolean> initiatePayment(double amount, String orderId) {
+                    return resilience.executeOnce(() -> delegate.initiatePayment(amount, orderId));
+                }
+
+                @Override
+                public CompletionStage<Boolean> refund(double amount, String orderId) {
+                    return resilience.executeOnce(() -> delegate.refund(amount, orderId));
+                }
+
+                @Override
+                public CompletionStage<Boolean> checkStatus(String orderId) {
+                    return resilience.execute(() -> delegate.checkStatus(orderId));
+                }
+
+                @Override
+                public CompletionStage<Boolean> cancel(String orderId) {
+                    return resilience.executeOnce(() -> delegate.cancel(orderId));
+                }
+
+                @Override
+                public CompletionStage<Boolean> extend(String orderId) {
+                    return resilience.executeOnce(() -> delegate.extend(orderId));
+                }
+
+                @Override
+                public CompletionStage<String> inquire(String orderId) {
+                    return resilience.execute(() -> delegate.inquire(orderId));
+                }
+
+                @Override
+                public CompletionStage<Boolean> reverse(String orderId) {
+                    return resilience.executeOnce(() -> delegate.reverse(orderId));
+                }
+
+                @Override
+                public CompletionStage<String> getTransactionDetails(String orderId) {
+                    return resilience.execute(() -> delegate.getTransactionDetails(orderId));
+                }
+
+                @Override
+                public CompletionStage<Boolean> notify(String orderId) {
+                    return resilience.executeOnce(() -> delegate.notify(orderId));
+                }
+            };
+        }
+
+        /**
+         * Implements the client over the gateway's HTTP API.
+         */
+        static AsyncSepClient overHttp(HttpGatewayClient http) {
+            Objects.requireNonNull(http);
+            return new AsyncSepClient() {
+                @Override
+                public CompletionStage<Boolean> initiatePayment(double amount, String orderId) {
+                    return http.command("initiate", orderId, amount);
+                }
+
+                @Override
+                public CompletionStage<Boolean> refund(double amount, String orderId) {
+                    return http.command("refund", orderId, amount);
+                }
+
+                @Override
+                public CompletionStage<Boolean> checkStatus(String orderId) {
+                    return http.command("status", orderId, null);
+                }
+
+                @Override
+                public CompletionStage<Boolean> cancel(String orderId) {
+                    return http.command("cancel", orderId, null);
+                }
+
+                @Override
+                public CompletionStage<Boolean> extend(String orderId) {
+                    return http.command("extend", orderId, null);
+                }
+
+                @Override
+                public CompletionStage<String> inquire(String orderId) {
+                    return http.query("inquire", orderId);
+                }
+
+                @Override
+                public CompletionStage<Boolean> reverse(String orderId) {
+                    return http.command("reverse", orderId, null);
+                }
+
+                @Override
+                public CompletionStage<String> getTransactionDetails(String orderId) {
+                    return http.query("details", orderId);
+                }
+
+                @Override
+                public CompletionStage<Boolean> notify(String orderId) {
+                    return http.command("notify", orderId, null);
+                }
+            };
+        }
+
+        /**
+         * Adapts a blocking client by running its calls on the given executor.
+         */
+        static AsyncSepClient fromBlocking(SepClient client, Executor executor) {
+            Objects.requireNonNull(client);
+            Objects.requireNonNull(executor);
+            return new AsyncSepClient() {
+                @Override
+                public CompletionStage<Boolean> initiatePayment(double amount, String orderId) {
+                    return CompletableFuture.supplyAsync(() -> client.initiatePayment(amount, orderId), executor);
+                }
+
+                @Override
+                public CompletionStage<Boolean> refund(double amount, String orderId) {
+                    return CompletableFuture.supplyAsync(() -> client.refund(amount, orderId), executor);
+                }
+
+                @Override
+                public CompletionStage<Boolean> checkStatus(String orderId) {
+                    return CompletableFuture.supplyAsync(() -> client.checkStatus(orderId), executor);
+                }
+
+                @Override
+                public CompletionStage<Boolean> cancel(String orderId) {
+                    return CompletableFuture.supplyAsync(() -> client.cancel(orderId), executor);
+                }
+
+                @Override
+                public CompletionStage<Boolean> extend(String orderId) {
+                    return CompletableFuture.supplyAsync(() -> client.extend(orderId), executor);
+                }
+
+                @Override
+                public CompletionStage<String> inquire(String orderId) {
+                    return CompletableFuture.supplyAsync(() -> client.inquire(orderId), executor);
+                }
+
+                @Override
+                public CompletionStage<Boolean> reverse(String orderId) {
+                    return CompletableFuture.supplyAsync(() -> client.reverse(orderId), executor);
+                }
+
+                @Override
+                public CompletionStage<String> getTransactionDetails(String orderId) {
+                    return CompletableFuture.supplyAsync(() -> client.getTransactionDetails(orderId), executor);
+                }
+
+                @Override
+                public CompletionStage<Boolean> notify(String orderId) {
+                    return CompletableFuture.supplyAsync(() -> client.notify(orderId), executor);
+                }
+            };
+        }
+    }
 }
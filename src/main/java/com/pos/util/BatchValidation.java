@@ -0,0 +1,301 @@
+package com.pos.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Column-at-a-time validation for bulk imports of customer and merchant records.
+ *
+ * Each column is checked in a tight loop by a hand-written scan of the same grammar
+ * as the {@link ValidationUtil} pattern, so no matcher is allocated per field. A row
+ * fails a column exactly when the corresponding {@code ValidationUtil.isValidXxx}
+ * method would return false for it, null included.
+ *
+ * Failures come back as one {@link BitSet} per column, bit {@code i} set when row
+ * {@code i} failed. Batches of at least {@value #PARALLEL_THRESHOLD} values are split
+ * into slices of {@value #SLICE_ROWS} rows per column and validated on the common
+ * fork-join pool; slices cover whole 64-bit words, so workers never share a word.
+ */
+public final class BatchValidation {
+
+    /** Values (rows times columns) below which validation stays on the calling thread */
+    public static final int PARALLEL_THRESHOLD = 16_384;
+
+    /** Rows per parallel slice; a multiple of 64 */
+    static final int SLICE_ROWS = 4_096;
+
+    /** Records buffered per block when validating from an iterator; a multiple of 64 */
+    static final int BLOCK_ROWS = 65_536;
+
+    /** The validated columns, each accepting exactly what its {@code ValidationUtil} method does. */
+    public enum Column {
+        /** {@code [A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+} */
+        EMAIL {
+            @Override
+            boolean isValid(String value) {
+                int at = value.indexOf('@');
+                if (at <= 0 || at == value.length() - 1) {
+                    return false;
+                }
+                for (int i = 0; i < at; i++) {
+                    char ch = value.charAt(i);
+                    if (!isEmailDomainChar(ch) && ch != '+' && ch != '_') {
+                        return false;
+                    }
+                }
+                for (int i = at + 1; i < value.length(); i++) {
+                    if (!isEmailDomainChar(value.charAt(i))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        },
+        /** {@code \+?[0-9]{10,15}} */
+        PHONE {
+            @Override
+            boolean isValid(String value) {
+                int start = !value.isEmpty() && value.charAt(0) == '+' ? 1 : 0;
+                int digits = value.length() - start;
+                return digits >= 10 && digits <= 15 && isDigits(value, start, value.length());
+            }
+        },
+        /** {@code IR[0-9]{24}} */
+        IBAN {
+            @Override
+            boolean isValid(String value) {
+                return value.length() == 26 && value.charAt(0) == 'I' && value.charAt(1) == 'R'
+                        && isDigits(value, 2, 26);
+            }
+        },
+        /** {@code \d{10}} and the mod-11 check digit */
+        NATIONAL_ID {
+            @Override
+            boolean isValid(String value) {
+                return value.length() == 10 && isDigits(value, 0, 10)
+                        && ValidationUtil.hasValidNationalIdChecksum(value);
+            }
+        };
+
+        abstract boolean isValid(String value);
+    }
+
+    /** Failures of one batch, per column. */
+    public static final class Report {
+        private final int rowCount;
+        private final Map<Column, BitSet> failures;
+
+        private Report(int rowCount, Map<Column, BitSet> failures) {
+            this.rowCount = rowCount;
+            this.failures = failures;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        public Set<Column> getColumns() {
+            return Collections.unmodifiableSet(failures.keySet());
+        }
+
+        /**
+         * Rows that failed the column; empty if the column was not validated.
+         * The returned set is a copy.
+         */
+        public BitSet getFailures(Column column) {
+            BitSet bits = failures.get(column);
+            return bits == null ? new BitSet() : (BitSet) bits.clone();
+        }
+
+        public int getFailureCount(Column column) {
+            BitSet bits = failures.get(column);
+            return bits == null ? 0 : bits.cardinality();
+        }
+
+        /** Rows that failed at least one column. */
+        public BitSet getInvalidRows() {
+            BitSet rows = new BitSet(rowCount);
+            for (BitSet bits : failures.values()) {
+                rows.or(bits);
+            }
+            return rows;
+        }
+
+        public boolean isValid(int row) {
+            Objects.checkIndex(row, rowCount);
+            for (BitSet bits : failures.values()) {
+                if (bits.get(row)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public boolean isAllValid() {
+            for (BitSet bits : failures.values()) {
+                if (!bits.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private BatchValidation() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated");
+    }
+
+    /**
+     * Validates a single column.
+     *
+     * @return the rows that failed
+     */
+    public static BitSet validate(Column column, String[] values) {
+        Map<Column, String[]> columns = new EnumMap<>(Column.class);
+        columns.put(Objects.requireNonNull(column, "Column must not be null"), values);
+        return BitSet.valueOf(validateColumns(columns, values.length).get(column));
+    }
+
+    /**
+     * Validates several columns of the same batch; every array must hold one value per row.
+     *
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public static Report validate(Map<Column, String[]> columns) {
+        int rowCount = -1;
+        for (Map.Entry<Column, String[]> column : columns.entrySet()) {
+            int length = column.getValue().length;
+            if (rowCount >= 0 && length != rowCount) {
+                throw new IllegalArgumentException("Column " + column.getKey() + " has " + length
+                        + " rows, expected " + rowCount);
+            }
+            rowCount = length;
+        }
+        rowCount = Math.max(rowCount, 0);
+
+        Map<Column, BitSet> failures = new EnumMap<>(Column.class);
+        validateColumns(columns, rowCount).forEach((column, words) -> failures.put(column, BitSet.valueOf(words)));
+        return new Report(rowCount, failures);
+    }
+
+    /**
+     * Validates records as they are read, {@value #BLOCK_ROWS} at a time, so the whole
+     * import never has to be held in memory. {@code layout[i]} names the column held in
+     * field {@code i} of each record, or is null for a field that is not validated.
+     * A record too short to hold a validated field fails that column.
+     */
+    public static Report validate(Iterator<? extends String[]> records, Column... layout) {
+        Map<Column, Integer> positions = new EnumMap<>(Column.class);
+        for (int i = 0; i < layout.length; i++) {
+            if (layout[i] != null && positions.put(layout[i], i) != null) {
+                throw new IllegalArgumentException("Column " + layout[i] + " appears more than once");
+            }
+        }
+
+        Map<Column, String[]> block = new EnumMap<>(Column.class);
+        Map<Column, long[]> words = new EnumMap<>(Column.class);
+        int[] fields = new int[positions.size()];
+        String[][] buffers = new String[positions.size()][];
+        int c = 0;
+        for (Map.Entry<Column, Integer> position : positions.entrySet()) {
+            fields[c] = position.getValue();
+            buffers[c] = new String[BLOCK_ROWS];
+            block.put(position.getKey(), buffers[c++]);
+            words.put(position.getKey(), new long[0]);
+        }
+
+        int rowCount = 0;
+        int filled = 0;
+        while (records.hasNext()) {
+            String[] record = records.next();
+            for (int i = 0; i < fields.length; i++) {
+                buffers[i][filled] = fields[i] < record.length ? record[fields[i]] : null;
+            }
+            filled++;
+            if (filled == BLOCK_ROWS) {
+                appendBlock(block, filled, words, rowCount);
+                rowCount += filled;
+                filled = 0;
+            }
+        }
+        if (filled > 0) {
+            appendBlock(block, filled, words, rowCount);
+            rowCount += filled;
+        }
+
+        Map<Column, BitSet> failures = new EnumMap<>(Column.class);
+        words.forEach((column, bits) -> failures.put(column, BitSet.valueOf(bits)));
+        return new Report(rowCount, failures);
+    }
+
+    /** Validates the block's first {@code rows} rows and copies their failure words in at {@code offset}. */
+    private static void appendBlock(Map<Column, String[]> block, int rows, Map<Column, long[]> words, int offset) {
+        Map<Column, long[]> blockWords = validateColumns(block, rows);
+        int wordOffset = offset >>> 6;
+        for (Map.Entry<Column, long[]> column : blockWords.entrySet()) {
+            long[] bits = words.get(column.getKey());
+            int needed = wordOffset + column.getValue().length;
+            if (bits.length < needed) {
+                bits = Arrays.copyOf(bits, Math.max(needed, bits.length * 2));
+                words.put(column.getKey(), bits);
+            }
+            System.arraycopy(column.getValue(), 0, bits, wordOffset, column.getValue().length);
+        }
+    }
+
+    /** Validates the first {@code rows} rows of each column into failure words. */
+    private static Map<Column, long[]> validateColumns(Map<Column, String[]> columns, int rows) {
+        Map<Column, long[]> words = new EnumMap<>(Column.class);
+        List<Runnable> slices = new ArrayList<>();
+        for (Map.Entry<Column, String[]> entry : columns.entrySet()) {
+            Column column = entry.getKey();
+            String[] values = entry.getValue();
+            long[] bits = new long[(rows + 63) >>> 6];
+            words.put(column, bits);
+            for (int from = 0; from < rows; from += SLICE_ROWS) {
+                int start = from;
+                int end = Math.min(from + SLICE_ROWS, rows);
+                slices.add(() -> validateSlice(column, values, start, end, bits));
+            }
+        }
+
+        if ((long) rows * columns.size() >= PARALLEL_THRESHOLD && slices.size() > 1) {
+            slices.parallelStream().forEach(Runnable::run);
+        } else {
+            slices.forEach(Runnable::run);
+        }
+        return words;
+    }
+
+    private static void validateSlice(Column column, String[] values, int from, int to, long[] words) {
+        for (int row = from; row < to; row++) {
+            String value = values[row];
+            if (value == null || !column.isValid(value)) {
+                words[row >>> 6] |= 1L << row;
+            }
+        }
+    }
+
+    private static boolean isDigits(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char ch = value.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isEmailDomainChar(char ch) {
+        return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9')
+                || ch == '.' || ch == '-';
+    }
+}
@@ -0,0 +1,234 @@
+package com.pos.util;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * EscPosWriter
+ *
+ * Builds raw ESC/POS command bytes for thermal receipt printers in a reusable
+ * {@link ByteBuffer}. Text is encoded with the printer's code page; ASCII goes
+ * straight into the buffer, and characters the code page cannot print become '?'.
+ *
+ * The writer implements {@link Appendable}, so formatters such as
+ * {@link java.time.format.DateTimeFormatter#formatTo} can write into it directly.
+ *
+ * A writer is not thread-safe. Call {@link #reset()} to reuse it for the next receipt;
+ * the buffer grows as needed and keeps its size.
+ */
+public final class EscPosWriter implements Appendable {
+
+    private static final byte ESC = 0x1B;
+    private static final byte GS = 0x1D;
+    private static final byte LF = 0x0A;
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /** Horizontal text alignment, ESC a */
+    public enum Alignment { LEFT, CENTER, RIGHT }
+
+    private final CharsetEncoder encoder;
+    private final boolean asciiCompatible;
+    private ByteBuffer buffer;
+
+    /** Writer for printers on their default ASCII-compatible code page. */
+    public EscPosWriter() {
+        this(StandardCharsets.US_ASCII, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param charset         the charset matching the printer's selected code table
+     * @param initialCapacity initial buffer size in bytes
+     */
+    public EscPosWriter(Charset charset, int initialCapacity) {
+        Objects.requireNonNull(charset, "Charset must not be null");
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be positive");
+        }
+        this.encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .replaceWith(new byte[] {'?'});
+        this.asciiCompatible = isAsciiCompatible(charset);
+        this.buffer = ByteBuffer.allocate(initialCapacity);
+    }
+
+    /** Discards everything written so far. */
+    public EscPosWriter reset() {
+        buffer.clear();
+        return this;
+    }
+
+    /** ESC @: resets the printer to its power-on modes. */
+    public EscPosWriter initialize() {
+        return command(ESC, (byte) '@');
+    }
+
+    /** ESC t n: selects the printer's character code table. */
+    public EscPosWriter codeTable(int table) {
+        return command(ESC, (byte) 't', (byte) checkRange(table, 0, 255, "Code table"));
+    }
+
+    /** ESC a n */
+    public EscPosWriter align(Alignment alignment) {
+        return command(ESC, (byte) 'a', (byte) alignment.ordinal());
+    }
+
+    /** ESC E n */
+    public EscPosWriter bold(boolean on) {
+        return command(ESC, (byte) 'E', (byte) (on ? 1 : 0));
+    }
+
+    /** GS ! n: character width and height multipliers, 1 to 8 each. */
+    public EscPosWriter size(int width, int height) {
+        int w = checkRange(width, 1, 8, "Width") - 1;
+        int h = checkRange(height, 1, 8, "Height") - 1;
+        return command(GS, (byte) '!', (byte) (w << 4 | h));
+    }
+
+    public EscPosWriter text(CharSequence text) {
+        append(text, 0, text.length());
+        return this;
+    }
+
+    public EscPosWriter line(CharSequence text) {
+        return text(text).newLine();
+    }
+
+    public EscPosWriter newLine() {
+        ensureCapacity(1);
+        buffer.put(LF);
+        return this;
+    }
+
+    /** ESC d n: prints the buffer and feeds n lines. */
+    public EscPosWriter feed(int lines) {
+        return command(ESC, (byte) 'd', (byte) checkRange(lines, 0, 255, "Lines"));
+    }
+
+    /** GS V 66 0: feeds to the cutter and makes a partial cut. */
+    public EscPosWriter cut() {
+        return command(GS, (byte) 'V', (byte) 66, (byte) 0);
+    }
+
+    @Override
+    public EscPosWriter append(CharSequence csq) {
+        return text(csq == null ? "null" : csq);
+    }
+
+    @Override
+    public EscPosWriter append(CharSequence csq, int start, int end) {
+        if (csq == null) {
+            csq = "null";
+        }
+        ensureCapacity(end - start);
+        int i = start;
+        while (i < end) {
+            char c = csq.charAt(i);
+            if (c < 0x80 && asciiCompatible) {
+                buffer.put((byte) c);
+                i++;
+            } else {
+                int runEnd = i + 1;
+                while (runEnd < end && (csq.charAt(runEnd) >= 0x80 || !asciiCompatible)) {
+                    runEnd++;
+                }
+                encode(CharBuffer.wrap(csq, i, runEnd));
+                i = runEnd;
+                // Multi-byte code pages may have used the room reserved for the rest
+                ensureCapacity(end - i);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public EscPosWriter append(char c) {
+        if (c < 0x80 && asciiCompatible) {
+            ensureCapacity(1);
+            buffer.put((byte) c);
+            return this;
+        }
+        encode(CharBuffer.wrap(new char[] {c}));
+        return this;
+    }
+
+    /** Number of bytes written since the last reset. */
+    public int size() {
+        return buffer.position();
+    }
+
+    /**
+     * Returns a read-only view of the bytes written so far, ready to be sent. The view
+     * shares the writer's buffer and is only valid until the next reset.
+     */
+    public ByteBuffer toByteBuffer() {
+        ByteBuffer bytes = buffer.asReadOnlyBuffer();
+        bytes.flip();
+        return bytes;
+    }
+
+    /** Copy of the bytes written so far. */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[buffer.position()];
+        toByteBuffer().get(bytes);
+        return bytes;
+    }
+
+    private EscPosWriter command(byte... bytes) {
+        ensureCapacity(bytes.length);
+        buffer.put(bytes);
+        return this;
+    }
+
+    private void encode(CharBuffer chars) {
+        encoder.reset();
+        while (encoder.encode(chars, buffer, true).isOverflow()) {
+            grow(chars.remaining() * 4);
+        }
+        CoderResult result;
+        while ((result = encoder.flush(buffer)).isOverflow()) {
+            grow(16);
+        }
+        if (result.isError()) {
+            throw new IllegalStateException("Unexpected encoder result: " + result);
+        }
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() < bytes) {
+            grow(bytes);
+        }
+    }
+
+    private void grow(int minExtra) {
+        int capacity = Math.max(buffer.capacity() * 2, buffer.position() + minExtra);
+        ByteBuffer larger = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        larger.put(buffer);
+        buffer = larger;
+    }
+
+    private static int checkRange(int value, int min, int max, String name) {
+        if (value < min || value > max) {
+            throw new IllegalArgumentException(name + " must be between " + min + " and " + max);
+        }
+        return value;
+    }
+
+    private static boolean isAsciiCompatible(Charset charset) {
+        byte[] ascii = new byte[0x80];
+        for (int i = 0; i < ascii.length; i++) {
+            ascii[i] = (byte) i;
+        }
+        String decoded = new String(ascii, StandardCharsets.US_ASCII);
+        return Arrays.equals(ascii, decoded.getBytes(charset));
+    }
+}
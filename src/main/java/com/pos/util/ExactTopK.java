@@ -0,0 +1,66 @@
+package com.pos.util;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * ExactTopK
+ *
+ * Exact ranking backed by a concurrent skip list of (weight, key) entries. Each key's
+ * entry is replaced while holding that key in the weights map, inserting the new entry
+ * before removing the old one, so a concurrent reader may briefly see a key twice but
+ * never miss it. {@link #top(int)} skips such duplicates.
+ */
+final class ExactTopK<K extends Comparable<K>> implements TopK<K> {
+
+    private final Map<K, RankedKey<K>> weights = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<RankedKey<K>> ranking = new ConcurrentSkipListSet<>();
+
+    @Override
+    public void increment(K key, double delta) {
+        weights.compute(key, (k, previous) -> {
+            RankedKey<K> next = previous != null ? previous.plus(delta) : new RankedKey<>(k, delta, 0);
+            if (next.equals(previous)) return previous;
+            ranking.add(next);
+            if (previous != null) ranking.remove(previous);
+            return next;
+        });
+    }
+
+    @Override
+    public void remove(K key) {
+        weights.computeIfPresent(key, (k, previous) -> {
+            ranking.remove(previous);
+            return null;
+        });
+    }
+
+    @Override
+    public List<K> top(int n) {
+        if (n < 0) throw new IllegalArgumentException("n must not be negative");
+        Set<K> result = new LinkedHashSet<>();
+        for (RankedKey<K> entry : ranking) {
+            if (result.size() >= n) break;
+            result.add(entry.key);
+        }
+        return new ArrayList<>(result);
+    }
+
+    @Override
+    public double estimate(K key) {
+        RankedKey<K> entry = weights.get(key);
+        return entry != null ? entry.weight : 0.0;
+    }
+
+    @Override
+    public int size() {
+        return weights.size();
+    }
+
+    @Override
+    public void clear() {
+        weights.clear();
+        ranking.clear();
+    }
+}
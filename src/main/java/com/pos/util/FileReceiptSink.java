@@ -0,0 +1,41 @@
+package com.pos.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * FileReceiptSink
+ *
+ * Appends receipts to a file: a printer device such as /dev/usb/lp0, a serial port,
+ * or a spool file. The file is opened for each receipt, so a printer that is
+ * unplugged and reconnected needs no restart.
+ *
+ * Instances are thread-safe; receipts are written one at a time.
+ */
+public final class FileReceiptSink implements ReceiptSink {
+
+    private final Path path;
+
+    FileReceiptSink(Path path) {
+        this.path = Objects.requireNonNull(path, "Path must not be null");
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public synchronized void write(ByteBuffer receipt) throws IOException {
+        ByteBuffer bytes = receipt.duplicate();
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+    }
+}
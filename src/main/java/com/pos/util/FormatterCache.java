@@ -0,0 +1,122 @@
+package util;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shared cache of configured {@link NumberFormat} instances, keyed by style, locale,
+ * currency and fraction digits.
+ *
+ * Building a NumberFormat loads locale data and allocates symbols, patterns and digit
+ * buffers, which made it the main cost of every price display. NumberFormat is not
+ * thread-safe, so each thread gets its own instance per key: lookups are a lock-free
+ * map read plus a thread-local read.
+ *
+ * Returned formats are confined to the calling thread. Use them immediately and do not
+ * reconfigure them, store them, or hand them to another thread.
+ */
+public final class FormatterCache {
+
+    /** Marks "use the locale's default" for fraction digits */
+    public static final int DEFAULT_DIGITS = -1;
+
+    private enum Style { CURRENCY, NUMBER, GROUPED }
+
+    private static final ConcurrentMap<Key, ThreadLocal<NumberFormat>> FORMATS = new ConcurrentHashMap<>();
+
+    private FormatterCache() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Currency format for the locale. A null currency code keeps the locale's own
+     * currency; {@link #DEFAULT_DIGITS} keeps its default fraction digits.
+     */
+    public static NumberFormat currency(Locale locale, String currencyCode, int fractionDigits) {
+        return lookup(new Key(Style.CURRENCY, locale, currencyCode, fractionDigits));
+    }
+
+    /** Plain number format for the locale with a fixed number of fraction digits. */
+    public static NumberFormat number(Locale locale, int fractionDigits) {
+        return lookup(new Key(Style.NUMBER, locale, null, fractionDigits));
+    }
+
+    /** Grouped decimal format using the locale's symbols and a fixed number of fraction digits. */
+    public static NumberFormat grouped(Locale locale, int fractionDigits) {
+        return lookup(new Key(Style.GROUPED, locale, null, fractionDigits));
+    }
+
+    private static NumberFormat lookup(Key key) {
+        ThreadLocal<NumberFormat> perThread = FORMATS.get(key);
+        if (perThread == null) {
+            // Build once up front so an invalid currency fails here rather than being cached
+            create(key);
+            perThread = FORMATS.computeIfAbsent(key, k -> ThreadLocal.withInitial(() -> create(k)));
+        }
+        return perThread.get();
+    }
+
+    private static NumberFormat create(Key key) {
+        NumberFormat format;
+        switch (key.style) {
+            case CURRENCY:
+                format = NumberFormat.getCurrencyInstance(key.locale);
+                if (key.currencyCode != null) {
+                    format.setCurrency(Currency.getInstance(key.currencyCode));
+                }
+                break;
+            case NUMBER:
+                format = NumberFormat.getNumberInstance(key.locale);
+                break;
+            default:
+                DecimalFormat decimalFormat = new DecimalFormat();
+                decimalFormat.setDecimalFormatSymbols(new DecimalFormatSymbols(key.locale));
+                decimalFormat.setGroupingUsed(true);
+                format = decimalFormat;
+                break;
+        }
+        if (key.fractionDigits != DEFAULT_DIGITS) {
+            format.setMinimumFractionDigits(key.fractionDigits);
+            format.setMaximumFractionDigits(key.fractionDigits);
+        }
+        return format;
+    }
+
+    private static final class Key {
+        private final Style style;
+        private final Locale locale;
+        private final String currencyCode;
+        private final int fractionDigits;
+        private final int hash;
+
+        private Key(Style style, Locale locale, String currencyCode, int fractionDigits) {
+            this.style = style;
+            this.locale = Objects.requireNonNull(locale, "Locale must not be null");
+            this.currencyCode = currencyCode;
+            this.fractionDigits = fractionDigits;
+            this.hash = ((style.ordinal() * 31 + locale.hashCode()) * 31 + Objects.hashCode(currencyCode)) * 31 + fractionDigits;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key that = (Key) o;
+            return fractionDigits == that.fractionDigits
+                    && style == that.style
+                    && locale.equals(that.locale)
+                    && Objects.equals(currencyCode, that.currencyCode);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -7,19 +7,25 @@ import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Utility class for sending HTTP requests with reusable methods and enhanced functionality.
+ * The {@code *Async} variants run on a shared, pooled {@link HttpTransport} and do not
+ * hold the calling thread while waiting for the response.
  */
 public class HttpClientUtil {
 
     private static final int CONNECT_TIMEOUT = 10000;
     private static final int READ_TIMEOUT = 15000;
     private static final Logger LOGGER = Logger.getLogger(HttpClientUtil.class.getName());
+    private static final HttpTransport TRANSPORT = new HttpTransport(
+            Duration.ofMillis(CONNECT_TIMEOUT), Duration.ofMillis(READ_TIMEOUT));
 
     public static Optional<String> post(String targetUrl, String body, Map<String, String> headers) {
         return executeRequest(targetUrl, "POST", body, headers);
@@ -37,6 +43,22 @@ public class HttpClientUtil {
         return executeRequest(targetUrl, "DELETE", null, headers);
     }
 
+    public static CompletableFuture<Optional<String>> postAsync(String targetUrl, String body, Map<String, String> headers) {
+        return TRANSPORT.postAsync(targetUrl, body, headers);
+    }
+
+    public static CompletableFuture<Optional<String>> getAsync(String targetUrl, Map<String, String> headers) {
+        return TRANSPORT.getAsync(targetUrl, headers);
+    }
+
+    public static CompletableFuture<Optional<String>> putAsync(String targetUrl, String body, Map<String, String> headers) {
+        return TRANSPORT.putAsync(targetUrl, body, headers);
+    }
+
+    public static CompletableFuture<Optional<String>> deleteAsync(String targetUrl, Map<String, String> headers) {
+        return TRANSPORT.deleteAsync(targetUrl, headers);
+    }
+
     private static Optional<String> executeRequest(String targetUrl, String method, String body, Map<String, String> headers) {
         try {
             HttpURLConnection connection = setupConnection(targetUrl, method, headers);
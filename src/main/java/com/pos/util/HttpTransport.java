@@ -0,0 +1,143 @@
+package com.pos.util;
+
+import com.pos.config.PaymentConfig;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * HttpTransport
+ *
+ * Pooled HTTP transport built on {@link HttpClient}. Connections are kept alive and
+ * reused across requests, and HTTP/2 is negotiated where the server supports it, so
+ * repeated calls to the same gateway skip the TCP and TLS handshakes.
+ *
+ * Like {@link HttpClientUtil}, responses are returned as the trimmed body for any
+ * status code, and failures are logged and reported as an empty result.
+ *
+ * Instances are thread-safe and meant to be shared; use {@link #forProvider} for
+ * payment gateways so each provider gets its configured timeouts.
+ */
+public final class HttpTransport {
+
+    private static final Logger LOGGER = Logger.getLogger(HttpTransport.class.getName());
+
+    /** Headers managed by {@link HttpClient} itself; setting them throws */
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private static final Map<PaymentConfig.Provider, HttpTransport> PROVIDER_TRANSPORTS = new EnumMap<>(PaymentConfig.Provider.class);
+
+    static {
+        for (PaymentConfig.Provider provider : PaymentConfig.Provider.values()) {
+            PROVIDER_TRANSPORTS.put(provider, new HttpTransport(
+                    Duration.ofMillis(provider.getConnectTimeoutMs()),
+                    Duration.ofMillis(provider.getRequestTimeoutMs())));
+        }
+    }
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+
+    public HttpTransport(Duration connectTimeout, Duration requestTimeout) {
+        this.requestTimeout = Objects.requireNonNull(requestTimeout, "Request timeout must not be null");
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Objects.requireNonNull(connectTimeout, "Connect timeout must not be null"))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * Returns the shared transport for a payment provider, configured with that
+     * provider's timeouts from {@link PaymentConfig}.
+     */
+    public static HttpTransport forProvider(PaymentConfig.Provider provider) {
+        return PROVIDER_TRANSPORTS.get(Objects.requireNonNull(provider, "Provider must not be null"));
+    }
+
+    // --- Asynchronous ---
+
+    public CompletableFuture<Optional<String>> postAsync(String targetUrl, String body, Map<String, String> headers) {
+        return sendAsync(targetUrl, "POST", body, headers);
+    }
+
+    public CompletableFuture<Optional<String>> getAsync(String targetUrl, Map<String, String> headers) {
+        return sendAsync(targetUrl, "GET", null, headers);
+    }
+
+    public CompletableFuture<Optional<String>> putAsync(String targetUrl, String body, Map<String, String> headers) {
+        return sendAsync(targetUrl, "PUT", body, headers);
+    }
+
+    public CompletableFuture<Optional<String>> deleteAsync(String targetUrl, Map<String, String> headers) {
+        return sendAsync(targetUrl, "DELETE", null, headers);
+    }
+
+    // --- Blocking ---
+
+    public Optional<String> post(String targetUrl, String body, Map<String, String> headers) {
+        return postAsync(targetUrl, body, headers).join();
+    }
+
+    public Optional<String> get(String targetUrl, Map<String, String> headers) {
+        return getAsync(targetUrl, headers).join();
+    }
+
+    public Optional<String> put(String targetUrl, String body, Map<String, String> headers) {
+        return putAsync(targetUrl, body, headers).join();
+    }
+
+    public Optional<String> delete(String targetUrl, Map<String, String> headers) {
+        return deleteAsync(targetUrl, headers).join();
+    }
+
+    private CompletableFuture<Optional<String>> sendAsync(String targetUrl, String method, String body, Map<String, String> headers) {
+        HttpRequest request;
+        try {
+            request = buildRequest(targetUrl, method, body, headers);
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.SEVERE, "Invalid HTTP request: " + method + " " + targetUrl, e);
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        LOGGER.log(Level.SEVERE, "HTTP request failed: " + method + " " + targetUrl, error);
+                        return Optional.empty();
+                    }
+                    return Optional.of(response.body().trim());
+                });
+    }
+
+    private HttpRequest buildRequest(String targetUrl, String method, String body, Map<String, String> headers) {
+        HttpRequest.BodyPublisher publisher = body != null && !body.isEmpty()
+                ? HttpRequest.BodyPublishers.ofString(body)
+                : HttpRequest.BodyPublishers.noBody();
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(targetUrl))
+                .timeout(requestTimeout)
+                .method(method, publisher);
+
+        if (headers != null) {
+            headers.forEach((name, value) -> {
+                if (!RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    builder.header(name, value);
+                }
+            });
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.pos.util;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LoopbackReceiptSink
+ *
+ * Keeps a copy of every receipt in memory instead of printing it. Used for tests and
+ * for running the ESC/POS path on machines without a printer.
+ *
+ * Instances are thread-safe.
+ */
+public final class LoopbackReceiptSink implements ReceiptSink {
+
+    private final List<byte[]> receipts = new ArrayList<>();
+
+    LoopbackReceiptSink() {
+    }
+
+    @Override
+    public synchronized void write(ByteBuffer receipt) {
+        byte[] copy = new byte[receipt.remaining()];
+        receipt.duplicate().get(copy);
+        receipts.add(copy);
+    }
+
+    /** Receipts in the order they were written. */
+    public synchronized List<byte[]> getReceipts() {
+        return new ArrayList<>(receipts);
+    }
+
+    /** The most recent receipt, or null if none was written. */
+    public synchronized byte[] getLastReceipt() {
+        return receipts.isEmpty() ? null : receipts.get(receipts.size() - 1);
+    }
+
+    public synchronized int getReceiptCount() {
+        return receipts.size();
+    }
+
+    public synchronized void clear() {
+        receipts.clear();
+    }
+}
@@ -2,8 +2,6 @@ package util;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
 import java.util.Locale;
 
 /**
@@ -24,13 +22,7 @@ public final class NumberUtils {
 
     public static String formatWithGrouping(BigDecimal value, Locale locale, int fractionDigits) {
         if (value == null) return "";
-        DecimalFormatSymbols symbols = new DecimalFormatSymbols(locale);
-        DecimalFormat df = new DecimalFormat();
-        df.setDecimalFormatSymbols(symbols);
-        df.setGroupingUsed(true);
-        df.setMaximumFractionDigits(fractionDigits);
-        df.setMinimumFractionDigits(fractionDigits);
-        return df.format(value);
+        return FormatterCache.grouped(locale, fractionDigits).format(value);
     }
 
     public static boolean isPositive(BigDecimal value) {
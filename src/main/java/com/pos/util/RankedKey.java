@@ -0,0 +1,42 @@
+package com.pos.util;
+
+import java.util.Objects;
+
+/**
+ * An immutable (key, weight) pair ordered heaviest first, then by key.
+ */
+final class RankedKey<K extends Comparable<K>> implements Comparable<RankedKey<K>> {
+
+    final K key;
+    final double weight;
+    final double error;
+
+    RankedKey(K key, double weight, double error) {
+        this.key = key;
+        this.weight = weight;
+        this.error = error;
+    }
+
+    RankedKey<K> plus(double delta) {
+        return new RankedKey<>(key, weight + delta, error);
+    }
+
+    @Override
+    public int compareTo(RankedKey<K> other) {
+        int byWeight = Double.compare(other.weight, weight);
+        return byWeight != 0 ? byWeight : key.compareTo(other.key);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RankedKey)) return false;
+        RankedKey<?> that = (RankedKey<?>) o;
+        return Double.compare(weight, that.weight) == 0 && key.equals(that.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(key, weight);
+    }
+}
@@ -1,9 +1,16 @@
 package com.pos.util;
 
+import com.pos.config.AppConfig;
+import util.FormatterCache;
+
 import java.awt.*;
 import java.awt.print.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
@@ -12,15 +19,23 @@ import java.util.logging.Logger;
 
 /**
  * Utility class for printing receipts in a POS system.
+ *
+ * Receipts can be printed through an AWT print dialog, or sent as raw ESC/POS bytes
+ * to a thermal printer through a {@link ReceiptSink}. The ESC/POS path needs no AWT,
+ * so it also works on headless servers.
  */
 public class ReceiptPrinter {
 
     private static final int LINE_HEIGHT = 15;
     private static final int MARGIN_LEFT = 10;
-    private static final Font RECEIPT_FONT = new Font("Monospaced", Font.PLAIN, 10);
     private static final String DIVIDER = "------------------------------";
     private static final Logger LOGGER = Logger.getLogger(ReceiptPrinter.class.getName());
 
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    /** Thermal printers' default code pages only have ASCII digits */
+    private static final Locale ESC_POS_LOCALE = Locale.US;
+    private static final ThreadLocal<EscPosWriter> ESC_POS_WRITER = ThreadLocal.withInitial(EscPosWriter::new);
+
     /**
      * Prints a formatted receipt.
      *
@@ -36,7 +51,7 @@ public class ReceiptPrinter {
 
             Graphics2D g2d = (Graphics2D) graphics;
             g2d.translate(pageFormat.getImageableX(), pageFormat.getImageableY());
-            g2d.setFont(RECEIPT_FONT);
+            g2d.setFont(AwtResources.RECEIPT_FONT);
 
             int y = LINE_HEIGHT;
 
@@ -79,6 +94,62 @@ public class ReceiptPrinter {
         }
     }
 
+    /**
+     * Prints a receipt on an ESC/POS thermal printer. Rendering reuses a per-thread
+     * buffer; failures are logged.
+     *
+     * @param storeName   the name of the store
+     * @param items       list of item descriptions
+     * @param totalAmount the total price
+     * @param cashierName the name of the cashier
+     * @param sink        where the printer bytes are sent
+     * @return true if the receipt was handed to the sink
+     */
+    public static boolean printReceipt(String storeName, List<String> items, double totalAmount, String cashierName, ReceiptSink sink) {
+        EscPosWriter writer = ESC_POS_WRITER.get();
+        try {
+            sink.write(renderEscPos(storeName, items, totalAmount, cashierName, writer));
+            return true;
+        } catch (IOException e) {
+            logError("Receipt printing failed", e);
+            return false;
+        }
+    }
+
+    /**
+     * Renders the receipt laid out by {@link #printReceipt(String, List, double, String)}
+     * as ESC/POS commands, replacing the writer's previous contents.
+     *
+     * @return the receipt bytes, valid until the writer is reset
+     */
+    public static ByteBuffer renderEscPos(String storeName, List<String> items, double totalAmount, String cashierName, EscPosWriter writer) {
+        writer.reset()
+                .initialize()
+                .align(EscPosWriter.Alignment.CENTER)
+                .bold(true).line(storeName.toUpperCase()).bold(false)
+                .align(EscPosWriter.Alignment.LEFT)
+                .text("Date: ");
+        DATE_TIME.formatTo(LocalDateTime.now(), writer);
+        writer.newLine()
+                .text("Cashier: ").line(cashierName)
+                .newLine()
+                .line("Items:");
+        for (String item : items) {
+            writer.text("- ").line(item);
+        }
+        writer.newLine()
+                .line(DIVIDER)
+                .text("Total: ").text(FormatterCache.number(ESC_POS_LOCALE, 2).format(totalAmount)).line(" IRR")
+                .line(DIVIDER)
+                .newLine()
+                .align(EscPosWriter.Alignment.CENTER)
+                .line(AppConfig.RECEIPT_FOOTER)
+                .line("POS Powered by Java")
+                .feed(3)
+                .cut();
+        return writer.toByteBuffer();
+    }
+
     /**
      * Draws centered text within the printable area.
      *
@@ -135,4 +206,9 @@ public class ReceiptPrinter {
     private static void logError(String message, Exception e) {
         LOGGER.log(Level.SEVERE, message, e);
     }
+
+    /** Created on first AWT print, so the ESC/POS path never initializes AWT */
+    private static final class AwtResources {
+        private static final Font RECEIPT_FONT = new Font("Monospaced", Font.PLAIN, 10);
+    }
 }
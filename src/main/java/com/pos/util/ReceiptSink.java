@@ -0,0 +1,41 @@
+package com.pos.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * ReceiptSink
+ *
+ * Destination for raw ESC/POS receipt bytes: a network printer, a device or spool
+ * file, or an in-memory loopback for tests and headless servers.
+ */
+public interface ReceiptSink extends Closeable {
+
+    /**
+     * Sends one complete receipt. The buffer's position and limit are left unchanged.
+     *
+     * @param receipt the bytes between the buffer's position and limit
+     */
+    void write(ByteBuffer receipt) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+
+    /** Network printer in raw mode, usually on port {@link SocketReceiptSink#DEFAULT_PORT}. */
+    static SocketReceiptSink socket(String host, int port, int connectTimeoutMillis) {
+        return new SocketReceiptSink(host, port, connectTimeoutMillis);
+    }
+
+    /** Device file such as /dev/usb/lp0, or a spool file receipts are appended to. */
+    static FileReceiptSink file(Path path) {
+        return new FileReceiptSink(path);
+    }
+
+    /** Keeps receipts in memory. */
+    static LoopbackReceiptSink loopback() {
+        return new LoopbackReceiptSink();
+    }
+}
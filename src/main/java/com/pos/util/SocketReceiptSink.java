@@ -0,0 +1,124 @@
+package com.pos.util;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * SocketReceiptSink
+ *
+ * Sends receipts to a network thermal printer over raw TCP. The connection is opened
+ * on first use and kept for later receipts. Before a kept connection is reused, a
+ * non-blocking read checks whether the printer has closed or reset it (printers drop
+ * idle connections), and a new connection is opened if so. A failed write is never
+ * repeated, since part of the receipt may already have printed.
+ *
+ * The probe only sees a close the printer has already signalled; a printer that lost
+ * power without closing the connection surfaces as a failed write.
+ *
+ * Instances are thread-safe; receipts are written one at a time.
+ */
+public final class SocketReceiptSink implements ReceiptSink {
+
+    /** Raw printing port used by most network receipt printers */
+    public static final int DEFAULT_PORT = 9100;
+
+    private static final Logger LOGGER = Logger.getLogger(SocketReceiptSink.class.getName());
+
+    private final String host;
+    private final int port;
+    private final int connectTimeoutMillis;
+    private SocketChannel channel;
+
+    SocketReceiptSink(String host, int port, int connectTimeoutMillis) {
+        this.host = Objects.requireNonNull(host, "Host must not be null");
+        if (port <= 0 || port > 65535) {
+            throw new IllegalArgumentException("Invalid port: " + port);
+        }
+        this.port = port;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    @Override
+    public synchronized void write(ByteBuffer receipt) throws IOException {
+        if (channel != null && !isOpenByPeer(channel)) {
+            LOGGER.fine("Printer closed the connection, reconnecting");
+            closeChannel();
+        }
+        try {
+            writeFully(connection(), receipt.duplicate());
+        } catch (IOException e) {
+            closeChannel();
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            try {
+                channel.close();
+            } finally {
+                channel = null;
+            }
+        }
+    }
+
+    private SocketChannel connection() throws IOException {
+        if (channel == null || !channel.isConnected()) {
+            SocketChannel opened = SocketChannel.open();
+            try {
+                opened.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                opened.socket().connect(new InetSocketAddress(host, port), connectTimeoutMillis);
+            } catch (IOException e) {
+                opened.close();
+                throw e;
+            }
+            channel = opened;
+        }
+        return channel;
+    }
+
+    /**
+     * Reads without blocking to see whether the printer has ended the connection. Status
+     * bytes some printers send unprompted are discarded.
+     */
+    private static boolean isOpenByPeer(SocketChannel channel) {
+        ByteBuffer probe = ByteBuffer.allocate(64);
+        try {
+            channel.configureBlocking(false);
+            try {
+                int read;
+                do {
+                    probe.clear();
+                    read = channel.read(probe);
+                } while (read > 0);
+                return read == 0;
+            } finally {
+                channel.configureBlocking(true);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Printer connection failed while idle", e);
+            return false;
+        }
+    }
+
+    private static void writeFully(SocketChannel channel, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    private void closeChannel() {
+        try {
+            close();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Failed to close printer connection", e);
+        }
+    }
+}
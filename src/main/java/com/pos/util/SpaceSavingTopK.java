@@ -0,0 +1,83 @@
+package com.pos.util;
+
+import java.util.*;
+
+/**
+ * SpaceSavingTopK
+ *
+ * Approximate ranking with a fixed number of counters (Metwally et al., Space-Saving).
+ * When all counters are in use, a new key takes over the lightest counter and inherits
+ * its weight as overestimation error. Memory stays at O(capacity) no matter how many
+ * distinct keys are seen. Updates take a single lock and cost O(log capacity).
+ */
+final class SpaceSavingTopK<K extends Comparable<K>> implements TopK<K> {
+
+    private final int capacity;
+    private final Map<K, RankedKey<K>> counters = new HashMap<>();
+    private final TreeSet<RankedKey<K>> ranking = new TreeSet<>();
+
+    SpaceSavingTopK(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive");
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void increment(K key, double delta) {
+        RankedKey<K> previous = counters.get(key);
+        RankedKey<K> next;
+        if (previous != null) {
+            ranking.remove(previous);
+            next = previous.plus(delta);
+            if (next.weight - next.error <= 0 && delta < 0) {
+                // Everything this key contributed has been retracted
+                counters.remove(key);
+                return;
+            }
+        } else if (delta <= 0) {
+            // The key was evicted or never seen, so there is nothing to retract
+            return;
+        } else if (counters.size() < capacity) {
+            next = new RankedKey<>(key, delta, 0);
+        } else {
+            RankedKey<K> lightest = ranking.pollLast();
+            counters.remove(lightest.key);
+            next = new RankedKey<>(key, lightest.weight + delta, lightest.weight);
+        }
+        ranking.add(next);
+        counters.put(key, next);
+    }
+
+    @Override
+    public synchronized void remove(K key) {
+        RankedKey<K> previous = counters.remove(key);
+        if (previous != null) ranking.remove(previous);
+    }
+
+    @Override
+    public synchronized List<K> top(int n) {
+        if (n < 0) throw new IllegalArgumentException("n must not be negative");
+        List<K> result = new ArrayList<>(Math.min(n, ranking.size()));
+        for (RankedKey<K> entry : ranking) {
+            if (result.size() >= n) break;
+            result.add(entry.key);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized double estimate(K key) {
+        RankedKey<K> entry = counters.get(key);
+        return entry != null ? entry.weight : 0.0;
+    }
+
+    @Override
+    public synchronized int size() {
+        return counters.size();
+    }
+
+    @Override
+    public synchronized void clear() {
+        counters.clear();
+        ranking.clear();
+    }
+}
@@ -0,0 +1,227 @@
+package com.pos.util;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * SubstringIndex
+ *
+ * Finds the values whose text contains a query, without scanning every text. Each
+ * entry's text is broken into its overlapping trigrams, and every trigram maps to the
+ * entries that contain it. A query of three or more characters reads the shortest
+ * posting list among its own trigrams and checks only those candidates with
+ * {@link String#contains}, so the cost follows the rarest part of the query rather
+ * than the number of entries. Shorter queries match too many entries for a posting
+ * list to help and scan the stored texts instead.
+ *
+ * Matching is exact on the texts and queries as given; callers normalize both, for
+ * example by lower-casing. Entries are keyed, so putting a key again replaces its text
+ * and value. Reads share a lock and writes take it exclusively.
+ *
+ * Every entry remembers where it sits in each of its posting lists, so replacing or
+ * removing it costs one step per trigram of its own text, however long the posting
+ * lists of common trigrams grow.
+ */
+public final class SubstringIndex<V> {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    // Entries are stored by slot; freed slots are reused
+    private String[] texts = new String[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    // Per slot: the entry's distinct trigrams, and its index in each trigram's postings
+    private long[][] slotGrams = new long[INITIAL_CAPACITY][];
+    private int[][] slotPositions = new int[INITIAL_CAPACITY][];
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int slotLimit;
+
+    /**
+     * Adds an entry, replacing any entry with the same key.
+     */
+    public void put(String key, String text, V value) {
+        Objects.requireNonNull(key, "Key must not be null");
+        Objects.requireNonNull(text, "Text must not be null");
+        lock.writeLock().lock();
+        try {
+            Integer previous = slots.remove(key);
+            if (previous != null) release(previous);
+
+            int slot = allocate();
+            texts[slot] = text;
+            values[slot] = value;
+            slots.put(key, slot);
+            long[] grams = distinctGrams(text);
+            int[] positions = new int[grams.length];
+            for (int rank = 0; rank < grams.length; rank++) {
+                positions[rank] = postings.computeIfAbsent(grams[rank], g -> new Postings()).add(slot, rank);
+            }
+            slotGrams[slot] = grams;
+            slotPositions[slot] = positions;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.remove(key);
+            if (slot != null) release(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            slots.clear();
+            postings.clear();
+            texts = new String[INITIAL_CAPACITY];
+            values = new Object[INITIAL_CAPACITY];
+            slotGrams = new long[INITIAL_CAPACITY][];
+            slotPositions = new int[INITIAL_CAPACITY][];
+            freeSlots = new int[INITIAL_CAPACITY];
+            freeCount = 0;
+            slotLimit = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the values of every entry whose text contains the query, in no
+     * particular order. The empty query matches every entry.
+     */
+    public List<V> search(String query) {
+        Objects.requireNonNull(query, "Query must not be null");
+        lock.readLock().lock();
+        try {
+            if (query.length() < GRAM_LENGTH) {
+                return scan(query);
+            }
+            Postings rarest = null;
+            for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+                Postings candidates = postings.get(gram(query, i));
+                if (candidates == null) return new ArrayList<>();
+                if (rarest == null || candidates.size < rarest.size) rarest = candidates;
+            }
+            List<V> result = new ArrayList<>();
+            for (int i = 0; i < rarest.size; i++) {
+                int slot = rarest.slots[i];
+                if (texts[slot].contains(query)) result.add(value(slot));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<V> scan(String query) {
+        List<V> result = new ArrayList<>();
+        for (int slot = 0; slot < slotLimit; slot++) {
+            String text = texts[slot];
+            if (text != null && text.contains(query)) result.add(value(slot));
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int slot) {
+        return (V) values[slot];
+    }
+
+    private int allocate() {
+        if (freeCount > 0) return freeSlots[--freeCount];
+        if (slotLimit == texts.length) {
+            texts = Arrays.copyOf(texts, slotLimit * 2);
+            values = Arrays.copyOf(values, slotLimit * 2);
+            slotGrams = Arrays.copyOf(slotGrams, slotLimit * 2);
+            slotPositions = Arrays.copyOf(slotPositions, slotLimit * 2);
+        }
+        return slotLimit++;
+    }
+
+    private void release(int slot) {
+        long[] grams = slotGrams[slot];
+        int[] positions = slotPositions[slot];
+        for (int rank = 0; rank < grams.length; rank++) {
+            Postings entries = postings.get(grams[rank]);
+            entries.removeAt(positions[rank], slotPositions);
+            if (entries.size == 0) postings.remove(grams[rank]);
+        }
+        texts[slot] = null;
+        values[slot] = null;
+        slotGrams[slot] = null;
+        slotPositions[slot] = null;
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+    }
+
+    /** The text's trigrams, each packed into the low 48 bits of a long, without repeats. */
+    private static long[] distinctGrams(String text) {
+        int count = text.length() - GRAM_LENGTH + 1;
+        if (count <= 0) return new long[0];
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = gram(text, i);
+        }
+        Arrays.sort(grams);
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            if (grams[i] != grams[distinct - 1]) grams[distinct++] = grams[i];
+        }
+        return distinct == count ? grams : Arrays.copyOf(grams, distinct);
+    }
+
+    private static long gram(String text, int from) {
+        return ((long) text.charAt(from) << 32) | ((long) text.charAt(from + 1) << 16) | text.charAt(from + 2);
+    }
+
+    /**
+     * Unordered slots of the entries containing one trigram, each with the trigram's
+     * rank among its entry's grams. Removal swaps the last entry into the gap and
+     * updates that entry's recorded position, so it never scans or shifts the list.
+     */
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private int[] ranks = new int[4];
+        private int size;
+
+        /** Appends the entry and returns its index. */
+        private int add(int slot, int rank) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                ranks = Arrays.copyOf(ranks, size * 2);
+            }
+            slots[size] = slot;
+            ranks[size] = rank;
+            return size++;
+        }
+
+        private void removeAt(int index, int[][] slotPositions) {
+            int last = --size;
+            if (index != last) {
+                slots[index] = slots[last];
+                ranks[index] = ranks[last];
+                slotPositions[slots[index]][ranks[index]] = index;
+            }
+        }
+    }
+}
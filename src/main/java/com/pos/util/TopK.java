@@ -0,0 +1,69 @@
+package com.pos.util;
+
+import java.util.List;
+
+/**
+ * TopK
+ *
+ * Keeps keys ranked by a running weight so the heaviest N can be read without
+ * grouping and sorting the whole data set. Weights are updated as events arrive;
+ * negative deltas retract earlier contributions.
+ *
+ * Two modes are available:
+ * <ul>
+ *   <li>{@link #exact()} tracks every key and answers {@code top(n)} in O(n), at
+ *       O(log keys) per update.</li>
+ *   <li>{@link #approximate(int)} uses the Space-Saving algorithm with a fixed number
+ *       of counters, for very high-cardinality key sets. Any key whose true weight
+ *       exceeds total / capacity is guaranteed to be tracked, and reported weights
+ *       overestimate by at most the smallest tracked weight. Retractions of keys that
+ *       were already evicted are ignored.</li>
+ * </ul>
+ *
+ * Ties are broken by key order so rankings are deterministic.
+ *
+ * @param <K> the key type
+ */
+public interface TopK<K extends Comparable<K>> {
+
+    /**
+     * Adds {@code delta} to the key's weight; a negative delta retracts.
+     */
+    void increment(K key, double delta);
+
+    /**
+     * Stops tracking the key.
+     */
+    void remove(K key);
+
+    /**
+     * Returns up to {@code n} keys, heaviest first.
+     *
+     * @throws IllegalArgumentException if {@code n} is negative
+     */
+    List<K> top(int n);
+
+    /**
+     * Returns the tracked weight of the key, or 0 if it is not tracked.
+     */
+    double estimate(K key);
+
+    /**
+     * Returns the number of keys currently tracked.
+     */
+    int size();
+
+    void clear();
+
+    static <K extends Comparable<K>> TopK<K> exact() {
+        return new ExactTopK<>();
+    }
+
+    /**
+     * @param capacity the number of counters to keep; should comfortably exceed the
+     *                 largest N that will be requested
+     */
+    static <K extends Comparable<K>> TopK<K> approximate(int capacity) {
+        return new SpaceSavingTopK<>(capacity);
+    }
+}
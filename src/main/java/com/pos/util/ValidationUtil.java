@@ -55,7 +55,11 @@ public final class ValidationUtil {
     }
 
     public static boolean isValidNationalId(String nationalId) {
-        if (!matchPattern(nationalId, NATIONAL_ID_PATTERN)) return false;
+        return matchPattern(nationalId, NATIONAL_ID_PATTERN) && hasValidNationalIdChecksum(nationalId);
+    }
+
+    /** Checks the mod-11 check digit of an input already known to be 10 digits. */
+    static boolean hasValidNationalIdChecksum(String nationalId) {
         int sum = 0;
         for (int i = 0; i < 9; i++) {
             sum += Character.getNumericValue(nationalId.charAt(i)) * (10 - i);
@@ -1,68 +1,68 @@
 package com.phoenix.pos.validation;
 
-import java.util.regex.Pattern;
-
 /**
  * Validates Iranian card numbers with the following rules:
  * - Must be 16 digits long
  * - Must start with the prefix 603799
  * - Must pass the Luhn checksum algorithm
  */
-public class CardNumberValidator implements Validator {
+public class CardNumberValidator implements Validator, StatelessValidator {
+
+    /** Shared instance; only the stateless {@link #validate(String)} is reachable through it. */
+    public static final StatelessValidator INSTANCE = new CardNumberValidator();
 
-    private static final Pattern CARD_PATTERN = Pattern.compile("^603799\\d{10}$");
     private String reason = "Validation has not yet been performed.";
 
     /**
-     * Checks if the card number is valid.
-     *
-     * @param input the card number as a string
-     * @return true if the card number is valid; false otherwise
+     * Possible outcomes of card number validation.
      */
-    @Override
-    public boolean isValid(String input) {
-        if (input == null || input.trim().isEmpty()) {
-            reason = "Input is null or empty.";
-            return false;
-        }
+    public enum Result implements ValidationResult {
+        EMPTY(false, "Input is null or empty."),
+        INVALID_FORMAT(false, "Card number must start with 603799 and be 16 digits long."),
+        INVALID_CHECKSUM(false, "Card number does not pass Luhn checksum validation."),
+        VALID(true, "Card number is valid.");
 
-        if (!CARD_PATTERN.matcher(input).matches()) {
-            reason = "Card number must start with 603799 and be 16 digits long.";
-            return false;
+        private final boolean valid;
+        private final String reason;
+
+        Result(boolean valid, String reason) {
+            this.valid = valid;
+            this.reason = reason;
         }
 
-        if (!isLuhnValid(input)) {
-            reason = "Card number does not pass Luhn checksum validation.";
-            return false;
+        @Override
+        public boolean isValid() {
+            return valid;
         }
 
-        reason = "Card number is valid.";
-        return true;
+        @Override
+        public String getReason() {
+            return reason;
+        }
     }
 
     /**
-     * Performs the Luhn checksum algorithm to verify the card number.
+     * Checks the card number without touching any instance state.
      *
-     * @param cardNumber the full card number as a string
-     * @return true if the number passes the Luhn check; false otherwise
+     * @param input the card number as a string
+     * @return the outcome of the validation
      */
-    private boolean isLuhnValid(String cardNumber) {
-        int sum = 0;
-        boolean alternate = false;
-
-        for (int i = cardNumber.length() - 1; i >= 0; i--) {
-            int n = Character.getNumericValue(cardNumber.charAt(i));
-            if (alternate) {
-                n *= 2;
-                if (n > 9) {
-                    n -= 9;
-                }
-            }
-            sum += n;
-            alternate = !alternate;
-        }
+    @Override
+    public Result validate(String input) {
+        return IdentifierChecks.validateCardNumber(input);
+    }
 
-        return sum % 10 == 0;
+    /**
+     * Checks if the card number is valid.
+     *
+     * @param input the card number as a string
+     * @return true if the card number is valid; false otherwise
+     */
+    @Override
+    public boolean isValid(String input) {
+        Result result = validate(input);
+        reason = result.getReason();
+        return result.isValid();
     }
 
     /**
@@ -0,0 +1,57 @@
+package com.phoenix.pos.validation;
+
+/**
+ * Validates Iranian cellphone numbers in strict formats.
+ * Valid prefixes: +989 or 00989, followed by exactly nine digits.
+ */
+public class CellphoneNumberValidator implements Validator, StatelessValidator {
+
+    /** Shared instance; only the stateless {@link #validate(String)} is reachable through it. */
+    public static final StatelessValidator INSTANCE = new CellphoneNumberValidator();
+
+    private String reason = "Validation not yet performed.";
+
+    /**
+     * Possible outcomes of cellphone number validation.
+     */
+    public enum Result implements ValidationResult {
+        EMPTY(false, "Cellphone number cannot be null or empty."),
+        INVALID_FORMAT(false, "Cellphone number must start with '+989' or '00989' and be followed by exactly 9 digits."),
+        VALID(true, "Valid Iranian cellphone number.");
+
+        private final boolean valid;
+        private final String reason;
+
+        Result(boolean valid, String reason) {
+            this.valid = valid;
+            this.reason = reason;
+        }
+
+        @Override
+        public boolean isValid() {
+            return valid;
+        }
+
+        @Override
+        public String getReason() {
+            return reason;
+        }
+    }
+
+    @Override
+    public Result validate(String input) {
+        return IdentifierChecks.validateCellphoneNumber(input);
+    }
+
+    @Override
+    public boolean isValid(String input) {
+        Result result = validate(input);
+        reason = result.getReason();
+        return result.isValid();
+    }
+
+    @Override
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,220 @@
+package com.phoenix.pos.validation;
+
+/**
+ * Single-pass, regex-free checks for payment and identity numbers.
+ * <p>
+ * Each method walks its input once, reading characters straight from the
+ * {@link CharSequence}, and never allocates: outcomes are the validators' cached
+ * {@code Result} constants and checksums are kept in an {@code int}. The
+ * validators in this package delegate here, so the outcome for any input,
+ * including which failure is reported first, is the same as before.
+ * <p>
+ * "Digit" means an ASCII digit, matching the {@code \d} of the former patterns.
+ */
+public final class IdentifierChecks {
+
+    private static final String CARD_PREFIX = "603799";
+    private static final int CARD_LENGTH = 16;
+    private static final int IBAN_LENGTH = 26;
+    private static final int NATIONAL_ID_LENGTH = 10;
+    private static final int CELLPHONE_DIGITS = 9;
+    private static final int MOD_97_FOLD = 10_000_000;
+
+    // Prevents instantiation
+    private IdentifierChecks() {
+        throw new UnsupportedOperationException("IdentifierChecks should not be instantiated");
+    }
+
+    /**
+     * Validates an Iranian card number: the 603799 prefix, 16 digits, and the Luhn checksum.
+     *
+     * @param input the card number
+     * @return the outcome, as {@link CardNumberValidator#validate(String)} reports it
+     */
+    public static CardNumberValidator.Result validateCardNumber(CharSequence input) {
+        if (input == null || isTrimmedEmpty(input)) {
+            return CardNumberValidator.Result.EMPTY;
+        }
+        if (input.length() != CARD_LENGTH || !startsWith(input, CARD_PREFIX) || !isDigits(input, 0, CARD_LENGTH)) {
+            return CardNumberValidator.Result.INVALID_FORMAT;
+        }
+        return isLuhnValid(input) ? CardNumberValidator.Result.VALID : CardNumberValidator.Result.INVALID_CHECKSUM;
+    }
+
+    /**
+     * Validates an Iranian IBAN: "IR" followed by 24 digits, and the MOD-97 checksum.
+     *
+     * @param input the IBAN
+     * @return the outcome, as {@link IbanValidator#validate(String)} reports it
+     */
+    public static IbanValidator.Result validateIban(CharSequence input) {
+        if (input == null || isBlank(input)) {
+            return IbanValidator.Result.BLANK;
+        }
+        if (input.length() != IBAN_LENGTH || input.charAt(0) != 'I' || input.charAt(1) != 'R'
+                || !isDigits(input, 2, IBAN_LENGTH)) {
+            return IbanValidator.Result.INVALID_FORMAT;
+        }
+        return ibanMod97(input) == 1 ? IbanValidator.Result.VALID : IbanValidator.Result.INVALID_CHECKSUM;
+    }
+
+    /**
+     * Validates an Iranian national ID: 10 digits, not a repeated or straight
+     * sequence, and the mod-11 check digit.
+     *
+     * @param input the national ID
+     * @return the outcome, as {@link NationalIdValidator#validate(String)} reports it
+     */
+    public static NationalIdValidator.Result validateNationalId(CharSequence input) {
+        if (input == null || isBlank(input)) {
+            return NationalIdValidator.Result.BLANK;
+        }
+        if (input.length() != NATIONAL_ID_LENGTH || !isDigits(input, 0, NATIONAL_ID_LENGTH)) {
+            return NationalIdValidator.Result.INVALID_FORMAT;
+        }
+
+        int first = input.charAt(0) - '0';
+        boolean repeated = true;
+        boolean ascending = true;
+        boolean descending = true;
+        int sum = 0;
+        for (int i = 0; i < NATIONAL_ID_LENGTH; i++) {
+            int digit = input.charAt(i) - '0';
+            repeated &= digit == first;
+            ascending &= digit == i;
+            descending &= digit == 9 - i;
+            if (i < NATIONAL_ID_LENGTH - 1) {
+                sum += digit * (NATIONAL_ID_LENGTH - i);
+            }
+        }
+        if (repeated || ascending || descending) {
+            return NationalIdValidator.Result.DISALLOWED;
+        }
+
+        int remainder = sum % 11;
+        int checkDigit = input.charAt(NATIONAL_ID_LENGTH - 1) - '0';
+        boolean valid = remainder < 2 ? checkDigit == remainder : checkDigit == 11 - remainder;
+        return valid ? NationalIdValidator.Result.VALID : NationalIdValidator.Result.INVALID_CHECKSUM;
+    }
+
+    /**
+     * Validates an Iranian cellphone number: +989 or 00989 followed by nine digits.
+     *
+     * @param input the cellphone number
+     * @return the outcome, as {@link CellphoneNumberValidator#validate(String)} reports it
+     */
+    public static CellphoneNumberValidator.Result validateCellphoneNumber(CharSequence input) {
+        if (input == null || isTrimmedEmpty(input)) {
+            return CellphoneNumberValidator.Result.EMPTY;
+        }
+        int prefix = startsWith(input, "+989") ? 4 : startsWith(input, "00989") ? 5 : -1;
+        if (prefix < 0 || input.length() != prefix + CELLPHONE_DIGITS || !isDigits(input, prefix, input.length())) {
+            return CellphoneNumberValidator.Result.INVALID_FORMAT;
+        }
+        return CellphoneNumberValidator.Result.VALID;
+    }
+
+    /**
+     * Luhn checksum over a sequence of digits.
+     *
+     * @param digits the number, most significant digit first
+     * @return true if every character is a digit and the checksum holds
+     */
+    public static boolean isLuhnValid(CharSequence digits) {
+        int sum = 0;
+        boolean alternate = false;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int n = digits.charAt(i) - '0';
+            if (n < 0 || n > 9) {
+                return false;
+            }
+            if (alternate) {
+                n = n < 5 ? n * 2 : n * 2 - 9;
+            }
+            sum += n;
+            alternate = !alternate;
+        }
+        return sum % 10 == 0;
+    }
+
+    /**
+     * Remainder of an IBAN modulo 97, as ISO 13616 defines it: the first four
+     * characters moved to the end and letters expanded to 10..35. Characters are
+     * folded into an {@code int} and reduced whenever it passes {@link #MOD_97_FOLD},
+     * which keeps it below {@code 10^9 + 35} and so never overflows.
+     *
+     * @param iban the IBAN, upper case, without spaces
+     * @return the remainder, which is 1 for a valid IBAN, or -1 if the input holds
+     *         a character other than a digit or an upper-case letter
+     */
+    public static int ibanMod97(CharSequence iban) {
+        int length = iban.length();
+        int remainder = 0;
+        for (int i = 0; i < length; i++) {
+            char ch = iban.charAt(i < length - 4 ? i + 4 : i - (length - 4));
+            if (ch >= '0' && ch <= '9') {
+                remainder = remainder * 10 + (ch - '0');
+            } else if (ch >= 'A' && ch <= 'Z') {
+                remainder = remainder * 100 + (ch - 'A' + 10);
+            } else {
+                return -1;
+            }
+            if (remainder >= MOD_97_FOLD) {
+                remainder %= 97;
+            }
+        }
+        return remainder % 97;
+    }
+
+    /**
+     * Verifies whether a sequence is non-empty and composed entirely of digits.
+     *
+     * @param input the sequence to verify
+     * @return true if the sequence is non-null and matches \d+
+     */
+    public static boolean isNumeric(CharSequence input) {
+        return input != null && input.length() > 0 && isDigits(input, 0, input.length());
+    }
+
+    private static boolean isDigits(CharSequence input, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char ch = input.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsWith(CharSequence input, String prefix) {
+        if (input.length() < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (input.charAt(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Same test as {@code trim().isEmpty()}: nothing but characters up to U+0020. */
+    private static boolean isTrimmedEmpty(CharSequence input) {
+        for (int i = 0; i < input.length(); i++) {
+            if (input.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Same test as {@link String#isBlank()}. */
+    private static boolean isBlank(CharSequence input) {
+        for (int i = 0; i < input.length(); i++) {
+            if (!Character.isWhitespace(input.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -73,9 +73,9 @@ public class Main {
      * @param nationalId National ID to validate
      */
     private static void performValidation(String cardNumber, String iban, String nationalId) {
-        validate("Card Number", cardNumber, new CardNumberValidator());
-        validate("IBAN", iban, new IbanValidator());
-        validate("National ID", nationalId, new NationalIdValidator());
+        validate("Card Number", cardNumber, CardNumberValidator.INSTANCE);
+        validate("IBAN", iban, IbanValidator.INSTANCE);
+        validate("National ID", nationalId, NationalIdValidator.INSTANCE);
         System.out.println("------------------------------------------------------------\n");
     }
 
@@ -86,10 +86,10 @@ public class Main {
      * @param value     Input value
      * @param validator Corresponding validator
      */
-    private static void validate(String label, String value, Validator validator) {
-        boolean isValid = validator.isValid(value);
+    private static void validate(String label, String value, StatelessValidator validator) {
+        ValidationResult result = validator.validate(value);
         System.out.println(label + ": " + value);
-        System.out.println("  Valid: " + isValid);
-        System.out.println("  Reason: " + validator.getReason());
+        System.out.println("  Valid: " + result.isValid());
+        System.out.println("  Reason: " + result.getReason());
     }
 }
@@ -1,64 +1,54 @@
 package com.phoenix.pos.validation;
 
-import java.util.regex.Pattern;
-
 /**
  * Validates Iranian national ID numbers based on format, repetition rules, and checksum algorithm.
  */
-public class NationalIdValidator implements Validator {
+public class NationalIdValidator implements Validator, StatelessValidator {
 
-    private static final Pattern ID_PATTERN = Pattern.compile("^\\d{10}$");
-    private static final String[] DISALLOWED_SEQUENCES = {
-        "0000000000", "1111111111", "2222222222", "3333333333",
-        "4444444444", "5555555555", "6666666666", "7777777777",
-        "8888888888", "9999999999", "0123456789" , "9876543210"
-    };
+    /** Shared instance; only the stateless {@link #validate(String)} is reachable through it. */
+    public static final StatelessValidator INSTANCE = new NationalIdValidator();
 
     private String reason = "Validation has not yet been performed.";
 
-    @Override
-    public boolean isValid(String input) {
-        if (input == null || input.isBlank()) {
-            reason = "Input cannot be null or blank.";
-            return false;
-        }
-
-        if (!ID_PATTERN.matcher(input).matches()) {
-            reason = "Input must be exactly 10 numeric digits.";
-            return false;
+    /**
+     * Possible outcomes of national ID validation.
+     */
+    public enum Result implements ValidationResult {
+        BLANK(false, "Input cannot be null or blank."),
+        INVALID_FORMAT(false, "Input must be exactly 10 numeric digits."),
+        DISALLOWED(false, "Input matches a disallowed repetitive or sequential pattern."),
+        INVALID_CHECKSUM(false, "Checksum verification failed."),
+        VALID(true, "National ID is valid.");
+
+        private final boolean valid;
+        private final String reason;
+
+        Result(boolean valid, String reason) {
+            this.valid = valid;
+            this.reason = reason;
         }
 
-        if (isDisallowed(input)) {
-            reason = "Input matches a disallowed repetitive or sequential pattern.";
-            return false;
+        @Override
+        public boolean isValid() {
+            return valid;
         }
 
-        if (!isChecksumValid(input)) {
-            reason = "Checksum verification failed.";
-            return false;
+        @Override
+        public String getReason() {
+            return reason;
         }
-
-        reason = "National ID is valid.";
-        return true;
     }
 
-    private boolean isDisallowed(String id) {
-        for (String pattern : DISALLOWED_SEQUENCES) {
-            if (pattern.equals(id)) {
-                return true;
-            }
-        }
-        return false;
+    @Override
+    public Result validate(String input) {
+        return IdentifierChecks.validateNationalId(input);
     }
 
-    private boolean isChecksumValid(String id) {
-        int sum = 0;
-        for (int i = 0; i < 9; i++) {
-            sum += Character.digit(id.charAt(i), 10) * (10 - i);
-        }
-        int remainder = sum % 11;
-        int checkDigit = Character.digit(id.charAt(9), 10);
-        return (remainder < 2 && checkDigit == remainder) || (remainder >= 2 && checkDigit == 11 - remainder);
+    @Override
+    public boolean isValid(String input) {
+        Result result = validate(input);
+        reason = result.getReason();
+        return result.isValid();
     }
 
     @Override
@@ -0,0 +1,31 @@
+package com.phoenix.pos.validation;
+
+/**
+ * Result-returning variant of {@link Validator}.
+ * <p>
+ * The outcome of each call is returned rather than stored, so an implementation
+ * keeps no per-call state and a single instance can be shared by any number of
+ * threads. Prefer the {@code INSTANCE} constant of each validator over allocating
+ * one per call.
+ */
+@FunctionalInterface
+public interface StatelessValidator {
+
+    /**
+     * Applies validation logic to the given input.
+     *
+     * @param input the input string to validate
+     * @return the outcome of the validation; never {@code null}
+     */
+    ValidationResult validate(String input);
+
+    /**
+     * Convenience for callers that only need the verdict.
+     *
+     * @param input the input string to validate
+     * @return {@code true} if the input passes validation; {@code false} otherwise
+     */
+    default boolean test(String input) {
+        return validate(input).isValid();
+    }
+}
@@ -0,0 +1,21 @@
+package com.phoenix.pos.validation;
+
+/**
+ * Immutable outcome of a single validation.
+ * <p>
+ * Implementations are enum constants, one per possible outcome, so returning a
+ * result never allocates and results can be compared with {@code ==} or used
+ * in a {@code switch}.
+ */
+public interface ValidationResult {
+
+    /**
+     * @return {@code true} if the input passed validation; {@code false} otherwise
+     */
+    boolean isValid();
+
+    /**
+     * @return a descriptive message corresponding to this outcome
+     */
+    String getReason();
+}
@@ -32,7 +32,7 @@ public final class ValidationUtils {
      * @return true if the string is non-null and matches \d+
      */
     public static boolean isNumeric(String input) {
-        return input != null && input.matches("\\d+");
+        return IdentifierChecks.isNumeric(input);
     }
 
     /**
@@ -6,6 +6,10 @@ package com.phoenix.pos.validation;
  * Each implementation is responsible for applying validation rules specific to
  * a particular domain (e.g., national ID, IBAN, card number) and for returning
  * an explanatory message reflecting the outcome of the validation.
+ * <p>
+ * The reason is kept on the instance, so an implementation must not be shared
+ * between threads through this interface. Use {@link StatelessValidator} for
+ * shared instances.
  */
 public interface Validator {
 
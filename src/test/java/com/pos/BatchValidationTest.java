@@ -0,0 +1,95 @@
+package com.pos.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit Tests for BatchValidation")
+class BatchValidationTest {
+
+    private static final String[] EMAILS = {"a@b.com", "bad", null, "x.y+z@shop.ir", "@no", "a@b\n"};
+    private static final String[] PHONES = {"+989121234567", "0912", "09121234567", null, "+98 912", "1234567890123456"};
+    private static final String[] IBANS = {"IR062960000000100324200001", "IR06", null, "ir062960000000100324200001", "", "IR000000000000000000000000"};
+    private static final String[] NATIONAL_IDS = {"0084571365", "0084571369", "123", null, "0000000000", "008457136a"};
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    @Test
+    @DisplayName("Each column fails exactly the rows ValidationUtil rejects, sequential and parallel")
+    void testValidate_matchesValidationUtil() {
+        Random random = new Random(21);
+        for (int rows : new int[] {0, 1, 63, 65, 5_000, 40_000}) {
+            Map<BatchValidation.Column, String[]> columns = new EnumMap<>(BatchValidation.Column.class);
+            String[] emails = new String[rows];
+            String[] nationalIds = new String[rows];
+            for (int i = 0; i < rows; i++) {
+                emails[i] = pick(EMAILS, random);
+                nationalIds[i] = pick(NATIONAL_IDS, random);
+            }
+            columns.put(BatchValidation.Column.EMAIL, emails);
+            columns.put(BatchValidation.Column.NATIONAL_ID, nationalIds);
+
+            BatchValidation.Report report = BatchValidation.validate(columns);
+
+            assertEquals(rows, report.getRowCount());
+            BitSet emailFailures = report.getFailures(BatchValidation.Column.EMAIL);
+            BitSet idFailures = report.getFailures(BatchValidation.Column.NATIONAL_ID);
+            for (int i = 0; i < rows; i++) {
+                assertEquals(!ValidationUtil.isValidEmail(emails[i]), emailFailures.get(i), "email row " + i);
+                assertEquals(!ValidationUtil.isValidNationalId(nationalIds[i]), idFailures.get(i), "id row " + i);
+                assertEquals(!emailFailures.get(i) && !idFailures.get(i), report.isValid(i));
+            }
+            assertEquals(emailFailures, BatchValidation.validate(BatchValidation.Column.EMAIL, emails));
+        }
+    }
+
+    @Test
+    @DisplayName("Streamed records give the same report as columns, across block boundaries")
+    void testValidate_iterator() {
+        Random random = new Random(7);
+        int rows = BatchValidation.BLOCK_ROWS + 100;
+        List<String[]> records = new ArrayList<>(rows);
+        String[] phones = new String[rows];
+        String[] ibans = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            phones[i] = pick(PHONES, random);
+            ibans[i] = pick(IBANS, random);
+            records.add(i % 1000 == 999 ? new String[] {"name"} : new String[] {"name", phones[i], ibans[i]});
+            if (i % 1000 == 999) {
+                phones[i] = null;
+                ibans[i] = null;
+            }
+        }
+
+        BatchValidation.Report report = BatchValidation.validate(records.iterator(),
+                null, BatchValidation.Column.PHONE, BatchValidation.Column.IBAN);
+
+        assertEquals(rows, report.getRowCount());
+        assertEquals(BatchValidation.validate(BatchValidation.Column.PHONE, phones), report.getFailures(BatchValidation.Column.PHONE));
+        assertEquals(BatchValidation.validate(BatchValidation.Column.IBAN, ibans), report.getFailures(BatchValidation.Column.IBAN));
+        assertTrue(report.getFailures(BatchValidation.Column.IBAN).get(999));
+        assertEquals(0, report.getFailureCount(BatchValidation.Column.EMAIL));
+    }
+
+    @Test
+    @DisplayName("Mismatched column lengths and repeated columns are rejected")
+    void testValidate_invalidArguments() {
+        Map<BatchValidation.Column, String[]> columns = new EnumMap<>(BatchValidation.Column.class);
+        columns.put(BatchValidation.Column.EMAIL, new String[2]);
+        columns.put(BatchValidation.Column.PHONE, new String[3]);
+
+        assertThrows(IllegalArgumentException.class, () -> BatchValidation.validate(columns));
+        assertThrows(IllegalArgumentException.class, () -> BatchValidation.validate(List.<String[]>of().iterator(),
+                BatchValidation.Column.EMAIL, BatchValidation.Column.EMAIL));
+    }
+}
@@ -0,0 +1,58 @@
+package com.pos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared driver for the concurrency tests: runs one task on a number of threads that
+ * are released together from a latch, so their operations overlap as much as possible.
+ * Each test keeps its own scenario in the task; this class only owns the threads.
+ */
+public final class ConcurrentTestSupport {
+
+    private static final long TIMEOUT_SECONDS = 60;
+
+    private ConcurrentTestSupport() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Runs {@code task} once on each of {@code threads} threads, passing each its index
+     * from 0, and waits for all of them.
+     *
+     * @throws java.util.concurrent.ExecutionException if any task threw; the first failure is the cause
+     * @throws java.util.concurrent.TimeoutException  if a task is still running after 60 seconds
+     */
+    public static void runConcurrently(int threads, ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /** One thread's share of a concurrent test. */
+    @FunctionalInterface
+    public interface ThreadTask {
+        void run(int thread) throws Exception;
+    }
+}
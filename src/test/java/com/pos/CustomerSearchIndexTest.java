@@ -0,0 +1,257 @@
+package com.pos.repository;
+
+import com.pos.model.Customer;
+import com.pos.util.SubstringIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.pos.ConcurrentTestSupport.runConcurrently;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Unit Tests for CustomerRepository search indexes")
+class CustomerSearchIndexTest {
+
+    private static final int THREADS = 16;
+    private static final int CUSTOMERS_PER_THREAD = 1_000;
+
+    private CustomerRepository customerRepository;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository = new CustomerRepository();
+    }
+
+    @Test
+    @DisplayName("Name search matches substrings of the full name, ignoring case, for short and long queries")
+    void testSearchByName() {
+        Customer ali = customer("C1", "Ali", "Ahmadi", null, null);
+        Customer sara = customer("C2", "Sara", "Karimi", null, null);
+        customerRepository.save(ali);
+        customerRepository.save(sara);
+
+        assertAll(
+            () -> assertEquals(Set.of("C1", "C2"), ids(customerRepository.searchByName(""))),
+            () -> assertEquals(Set.of("C1", "C2"), ids(customerRepository.searchByName("A"))),
+            () -> assertEquals(Set.of("C1"), ids(customerRepository.searchByName("i a"))),
+            () -> assertEquals(Set.of("C2"), ids(customerRepository.searchByName("KARIM"))),
+            () -> assertTrue(customerRepository.searchByName("xyz").isEmpty())
+        );
+    }
+
+    @Test
+    @DisplayName("Email lookup is exact and case-insensitive, and returns every customer sharing the address")
+    void testFindByEmail() {
+        customerRepository.save(customer("C1", "Ali", "Ahmadi", "ali@Example.com", null));
+        customerRepository.save(customer("C2", "Sara", "Karimi", "ALI@example.com", null));
+        customerRepository.save(customer("C3", "Amir", "Moradi", "amir@example.com", null));
+
+        assertAll(
+            () -> assertEquals(Set.of("C1", "C2"), ids(customerRepository.findByEmail("Ali@Example.COM"))),
+            () -> assertEquals(Set.of("C3"), ids(customerRepository.findByEmail("amir@example.com"))),
+            () -> assertTrue(customerRepository.findByEmail("ali@example").isEmpty())
+        );
+    }
+
+    @Test
+    @DisplayName("Domains are lower-cased, and addresses without an '@' are left out of domain lookups")
+    void testEmailDomains() {
+        customerRepository.save(customer("C1", "Ali", "Ahmadi", "ali@Mail.IR", null));
+        customerRepository.save(customer("C2", "Sara", "Karimi", "sara@mail.ir", null));
+        customerRepository.save(customer("C3", "Amir", "Moradi", "amir@pos.co", null));
+        customerRepository.save(customer("C4", "Neda", "Rezaei", "no-domain", null));
+
+        assertAll(
+            () -> assertEquals(Set.of("C1", "C2"), ids(customerRepository.findByEmailDomain("MAIL.ir"))),
+            () -> assertEquals(Map.of("mail.ir", 2L, "pos.co", 1L), customerRepository.countByEmailDomain()),
+            () -> assertEquals(Set.of("mail.ir", "pos.co"), customerRepository.groupByEmailDomain().keySet()),
+            () -> assertTrue(customerRepository.findByEmailDomain("no-domain").isEmpty())
+        );
+    }
+
+    @Test
+    @DisplayName("Phone prefixes are served in phone order from the index, and short ones by scanning")
+    void testFindByPhonePrefix() {
+        customerRepository.save(customer("C1", "Ali", "Ahmadi", null, "09124440000"));
+        customerRepository.save(customer("C2", "Sara", "Karimi", null, "09121110000"));
+        customerRepository.save(customer("C3", "Amir", "Moradi", null, "09351110000"));
+        customerRepository.save(customer("C4", "Neda", "Rezaei", null, "  "));
+
+        assertAll(
+            () -> assertEquals(List.of("C2", "C1"), idList(customerRepository.findByPhonePrefix("0912"))),
+            () -> assertEquals(List.of("C2", "C1"), idList(customerRepository.findByPhonePrefix("091"))),
+            () -> assertEquals(List.of("C3"), idList(customerRepository.findByPhonePrefix("093"))),
+            () -> assertEquals(Set.of("C1", "C2", "C3"), ids(customerRepository.findByPhonePrefix("09"))),
+            () -> assertEquals(Set.of("C1", "C2", "C3"), ids(customerRepository.findByPhonePrefix(""))),
+            () -> assertTrue(customerRepository.findByPhonePrefix(" ").isEmpty()),
+            () -> assertTrue(customerRepository.findByPhonePrefix("0913").isEmpty()),
+            () -> assertEquals(Set.of("09121", "09124", "09351"), customerRepository.groupByPhonePrefix(5).keySet()),
+            () -> assertEquals(List.of("C2", "C1"), idList(customerRepository.groupByPhonePrefix(4).get("0912")))
+        );
+    }
+
+    @Test
+    @DisplayName("Re-saving a customer edited in place moves them to their new name, email and phone")
+    void testInPlaceUpdate_reindexes() {
+        Customer customer = customer("C1", "Ali", "Ahmadi", "ali@mail.ir", "09121110000");
+        customerRepository.save(customer);
+
+        when(customer.getFirstName()).thenReturn("Reza");
+        when(customer.getEmail()).thenReturn("reza@pos.co");
+        when(customer.getPhone()).thenReturn("09351110000");
+        customerRepository.save(customer);
+
+        assertAll(
+            () -> assertTrue(customerRepository.searchByName("ali").isEmpty()),
+            () -> assertEquals(Set.of("C1"), ids(customerRepository.searchByName("reza"))),
+            () -> assertTrue(customerRepository.findByEmail("ali@mail.ir").isEmpty()),
+            () -> assertEquals(Set.of("C1"), ids(customerRepository.findByEmail("reza@pos.co"))),
+            () -> assertEquals(Map.of("pos.co", 1L), customerRepository.countByEmailDomain()),
+            () -> assertTrue(customerRepository.findByPhonePrefix("0912").isEmpty()),
+            () -> assertEquals(Set.of("C1"), ids(customerRepository.findByPhonePrefix("0935")))
+        );
+    }
+
+    @Test
+    @DisplayName("Deleting a customer removes them from every index and drops domains left empty")
+    void testDelete_unindexes() {
+        customerRepository.save(customer("C1", "Ali", "Ahmadi", "ali@mail.ir", "09121110000"));
+        customerRepository.save(customer("C2", "Sara", "Karimi", "sara@pos.co", "09121110000"));
+
+        customerRepository.deleteById("C1");
+
+        assertAll(
+            () -> assertTrue(customerRepository.searchByName("ali").isEmpty()),
+            () -> assertTrue(customerRepository.findByEmail("ali@mail.ir").isEmpty()),
+            () -> assertEquals(Map.of("pos.co", 1L), customerRepository.countByEmailDomain()),
+            () -> assertEquals(Set.of("C2"), ids(customerRepository.findByPhonePrefix("0912")))
+        );
+    }
+
+    @Test
+    @DisplayName("Deleting all customers empties every index")
+    void testSearchIndexes_resetOnDeleteAll() {
+        customerRepository.save(customer("C1", "Ali", "Ahmadi", "ali@mail.ir", "09121110000"));
+        customerRepository.save(customer("C2", "Sara", "Karimi", "sara@pos.co", "09351110000"));
+
+        customerRepository.deleteAll();
+
+        assertAll(
+            () -> assertTrue(customerRepository.searchByName("").isEmpty()),
+            () -> assertTrue(customerRepository.searchByName("ali").isEmpty()),
+            () -> assertTrue(customerRepository.findByEmail("ali@mail.ir").isEmpty()),
+            () -> assertTrue(customerRepository.countByEmailDomain().isEmpty()),
+            () -> assertTrue(customerRepository.findByPhonePrefix("09").isEmpty()),
+            () -> assertTrue(customerRepository.findByPhonePrefix("0912").isEmpty()),
+            () -> assertTrue(customerRepository.groupByPhonePrefix(4).isEmpty())
+        );
+    }
+
+    @Test
+    @DisplayName("Concurrent saves and deletes for shared addresses and domains never lose index entries")
+    void testSearchIndexes_underContention() throws Exception {
+        runConcurrently(THREADS, thread -> {
+            for (int i = 0; i < CUSTOMERS_PER_THREAD; i++) {
+                // Every thread registers the same fresh address and domain in step; even threads
+                // delete their customer right away, so the buckets empty while odd threads insert
+                String customerId = "T" + thread + "-" + i;
+                customerRepository.save(customer(customerId, "Ali", "Ahmadi", "shared" + i + "@d" + i + ".ir",
+                        String.format("09%04d%02d", i, thread)));
+                if (thread % 2 == 0) customerRepository.deleteById(customerId);
+            }
+        });
+
+        assertEquals(THREADS * CUSTOMERS_PER_THREAD / 2, customerRepository.count());
+        assertEquals(CUSTOMERS_PER_THREAD, customerRepository.countByEmailDomain().size());
+        for (int i = 0; i < CUSTOMERS_PER_THREAD; i++) {
+            Set<String> expected = new HashSet<>();
+            for (int t = 1; t < THREADS; t += 2) expected.add("T" + t + "-" + i);
+            String domain = "d" + i + ".ir";
+            assertEquals(expected, ids(customerRepository.findByEmailDomain(domain)), domain);
+            assertEquals(expected, ids(customerRepository.findByEmail("shared" + i + "@" + domain)), domain);
+            assertEquals(expected, ids(customerRepository.findByPhonePrefix(String.format("09%04d", i))), domain);
+        }
+    }
+
+    @Test
+    @DisplayName("Substring index handles short queries, repeated trigrams and replaced entries")
+    void testSubstringIndex() {
+        SubstringIndex<String> index = new SubstringIndex<>();
+        index.put("1", "aaaa", "one");
+        index.put("2", "baaab", "two");
+        index.put("3", "ab", "three");
+
+        assertAll(
+            () -> assertEquals(Set.of("one", "two", "three"), new HashSet<>(index.search(""))),
+            () -> assertEquals(Set.of("two", "three"), new HashSet<>(index.search("ab"))),
+            () -> assertEquals(Set.of("one", "two"), new HashSet<>(index.search("aaa"))),
+            () -> assertEquals(List.of("one"), index.search("aaaa")),
+            () -> assertTrue(index.search("abc").isEmpty())
+        );
+
+        index.put("1", "xyz", "uno");
+        index.remove("2");
+
+        assertAll(
+            () -> assertTrue(index.search("aaa").isEmpty()),
+            () -> assertEquals(List.of("uno"), index.search("xyz")),
+            () -> assertEquals(2, index.size())
+        );
+    }
+
+    @Test
+    @DisplayName("Substring index matches a full scan through heavy churn of entries sharing trigrams")
+    void testSubstringIndex_churnMatchesScan() {
+        Random random = new Random(25);
+        SubstringIndex<String> index = new SubstringIndex<>();
+        Map<String, String> texts = new HashMap<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            String key = "K" + random.nextInt(300);
+            if (random.nextInt(3) == 0) {
+                index.remove(key);
+                texts.remove(key);
+            } else {
+                // A three-letter alphabet keeps every posting list long and shared
+                StringBuilder text = new StringBuilder();
+                for (int c = random.nextInt(12); c > 0; c--) text.append((char) ('a' + random.nextInt(3)));
+                index.put(key, text.toString(), key);
+                texts.put(key, text.toString());
+            }
+            if (i % 500 == 0) {
+                for (String query : List.of("", "a", "ab", "abc", "aaa", "cba", "abcab")) {
+                    Set<String> expected = texts.entrySet().stream()
+                            .filter(entry -> entry.getValue().contains(query))
+                            .map(Map.Entry::getKey)
+                            .collect(Collectors.toSet());
+                    assertEquals(expected, new HashSet<>(index.search(query)), query + " after " + i);
+                }
+            }
+        }
+        assertEquals(texts.size(), index.size());
+    }
+
+    // --- Helpers ---
+
+    private static Customer customer(String customerId, String firstName, String lastName, String email, String phone) {
+        Customer customer = mock(Customer.class);
+        when(customer.getCustomerId()).thenReturn(customerId);
+        when(customer.getFirstName()).thenReturn(firstName);
+        when(customer.getLastName()).thenReturn(lastName);
+        when(customer.getEmail()).thenReturn(email);
+        when(customer.getPhone()).thenReturn(phone);
+        return customer;
+    }
+
+    private static Set<String> ids(List<Customer> customers) {
+        return customers.stream().map(Customer::getCustomerId).collect(Collectors.toSet());
+    }
+
+    private static List<String> idList(List<Customer> customers) {
+        return customers.stream().map(Customer::getCustomerId).collect(Collectors.toList());
+    }
+}
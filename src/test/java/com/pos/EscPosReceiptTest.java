@@ -0,0 +1,134 @@
+package com.pos.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit Tests for ESC/POS receipt output")
+class EscPosReceiptTest {
+
+    private static final List<String> ITEMS = List.of("Coffee x2", "Cake x1");
+
+    @Test
+    @DisplayName("Commands and text are encoded as ESC/POS bytes")
+    void testWriterBytes() {
+        EscPosWriter writer = new EscPosWriter();
+        writer.initialize().align(EscPosWriter.Alignment.CENTER).bold(true).line("Hi").size(2, 2).feed(3).cut();
+
+        assertArrayEquals(new byte[] {
+                0x1B, '@', 0x1B, 'a', 1, 0x1B, 'E', 1, 'H', 'i', 0x0A, 0x1D, '!', 0x11, 0x1B, 'd', 3, 0x1D, 'V', 66, 0
+        }, writer.toByteArray());
+
+        writer.reset().text("Tea ☕ é");
+        assertEquals("Tea ? ?", new String(writer.toByteArray(), StandardCharsets.US_ASCII));
+        assertThrows(IllegalArgumentException.class, () -> writer.size(9, 1));
+    }
+
+    @Test
+    @DisplayName("The buffer grows and non-ASCII code pages encode text")
+    void testGrowthAndCodePage() {
+        EscPosWriter writer = new EscPosWriter(StandardCharsets.ISO_8859_1, 4);
+        writer.text("Café ").text("x".repeat(100));
+
+        assertEquals(105, writer.size());
+        assertEquals((byte) 0xE9, writer.toByteArray()[3]);
+    }
+
+    @Test
+    @DisplayName("Receipts reach the loopback sink fully rendered")
+    void testLoopbackSink() {
+        LoopbackReceiptSink sink = ReceiptSink.loopback();
+
+        assertTrue(ReceiptPrinter.printReceipt("My Shop", ITEMS, 1234.5, "Sara", sink));
+
+        byte[] receipt = sink.getLastReceipt();
+        String text = new String(receipt, StandardCharsets.US_ASCII);
+        assertEquals(1, sink.getReceiptCount());
+        assertTrue(text.startsWith("\u001B@"));
+        assertTrue(text.contains("MY SHOP\n"));
+        assertTrue(text.contains("Cashier: Sara\n"));
+        assertTrue(text.contains("- Cake x1\n"));
+        assertTrue(text.contains("Total: 1,234.50 IRR\n"));
+        assertEquals(0, receipt[receipt.length - 1]);
+        assertEquals('V', receipt[receipt.length - 3]);
+    }
+
+    @Test
+    @DisplayName("File and socket sinks deliver the same bytes")
+    void testFileAndSocketSinks() throws Exception {
+        EscPosWriter writer = new EscPosWriter();
+        writer.text("receipt").newLine();
+
+        Path file = Files.createTempFile("receipt", ".bin");
+        try {
+            FileReceiptSink fileSink = ReceiptSink.file(file);
+            fileSink.write(writer.toByteBuffer());
+            fileSink.write(writer.toByteBuffer());
+            assertEquals("receipt\nreceipt\n", Files.readString(file, StandardCharsets.US_ASCII));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        try (ServerSocket server = new ServerSocket(0)) {
+            CompletableFuture<byte[]> received = CompletableFuture.supplyAsync(() -> {
+                try (Socket socket = server.accept(); InputStream in = socket.getInputStream()) {
+                    return in.readAllBytes();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            try (SocketReceiptSink socketSink = ReceiptSink.socket("localhost", server.getLocalPort(), 1000)) {
+                socketSink.write(writer.toByteBuffer());
+            }
+            assertArrayEquals(writer.toByteArray(), received.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("A connection the printer closed is replaced before the next receipt")
+    void testSocketSink_reconnectsAfterPeerClose() throws Exception {
+        EscPosWriter writer = new EscPosWriter();
+        writer.text("receipt").newLine();
+        int length = writer.size();
+
+        try (ServerSocket server = new ServerSocket(0)) {
+            CompletableFuture<byte[]> received = CompletableFuture.supplyAsync(() -> {
+                try {
+                    byte[] first;
+                    // The printer reads one receipt, then drops the idle connection
+                    try (Socket socket = server.accept(); InputStream in = socket.getInputStream()) {
+                        first = in.readNBytes(length);
+                    }
+                    try (Socket socket = server.accept(); InputStream in = socket.getInputStream()) {
+                        byte[] second = in.readAllBytes();
+                        byte[] both = new byte[first.length + second.length];
+                        System.arraycopy(first, 0, both, 0, first.length);
+                        System.arraycopy(second, 0, both, first.length, second.length);
+                        return both;
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            try (SocketReceiptSink socketSink = ReceiptSink.socket("localhost", server.getLocalPort(), 1000)) {
+                socketSink.write(writer.toByteBuffer());
+                // Give the printer's close time to arrive
+                Thread.sleep(200);
+                socketSink.write(writer.toByteBuffer());
+            }
+            assertEquals("receipt\nreceipt\n",
+                    new String(received.get(5, TimeUnit.SECONDS), StandardCharsets.US_ASCII));
+        }
+    }
+}
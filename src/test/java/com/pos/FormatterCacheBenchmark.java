@@ -0,0 +1,82 @@
+package util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formats a price the way the callers did before, building a {@link NumberFormat} per
+ * call, and through {@link FormatterCache}, for a currency and a grouped decimal format.
+ * Run after {@code mvn test-compile} with
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main FormatterCacheBenchmark -prof gc
+ * </pre>
+ * {@code -prof gc} reports the allocation per formatted price as {@code gc.alloc.rate.norm}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FormatterCacheBenchmark {
+
+    private static final int AMOUNTS = 1_024;
+
+    @Param({"en_US", "fa_IR"})
+    private String localeTag;
+
+    private Locale locale;
+    private double[] amounts;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        String[] parts = localeTag.split("_");
+        locale = new Locale(parts[0], parts[1]);
+        Random random = new Random(10);
+        amounts = new double[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            amounts[i] = random.nextInt(100_000_000) / 100.0;
+        }
+    }
+
+    @Benchmark
+    public String perCallCurrency() {
+        NumberFormat format = NumberFormat.getCurrencyInstance(locale);
+        format.setCurrency(Currency.getInstance("USD"));
+        format.setMinimumFractionDigits(2);
+        format.setMaximumFractionDigits(2);
+        return format.format(nextAmount());
+    }
+
+    @Benchmark
+    public String cachedCurrency() {
+        return FormatterCache.currency(locale, "USD", 2).format(nextAmount());
+    }
+
+    @Benchmark
+    public String perCallGrouped() {
+        DecimalFormat format = new DecimalFormat();
+        format.setDecimalFormatSymbols(new DecimalFormatSymbols(locale));
+        format.setGroupingUsed(true);
+        format.setMinimumFractionDigits(2);
+        format.setMaximumFractionDigits(2);
+        return format.format(nextAmount());
+    }
+
+    @Benchmark
+    public String cachedGrouped() {
+        return FormatterCache.grouped(locale, 2).format(nextAmount());
+    }
+
+    private double nextAmount() {
+        return amounts[next++ & (AMOUNTS - 1)];
+    }
+}
@@ -0,0 +1,56 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit Tests for FormatterCache")
+class FormatterCacheTest {
+
+    private static final Locale[] LOCALES = {
+        Locale.US, Locale.UK, Locale.GERMANY, Locale.FRANCE, Locale.JAPAN, new Locale("fa", "IR"), new Locale("ar", "SA")
+    };
+
+    @Test
+    @DisplayName("Cached formats produce the same text as freshly built ones")
+    void testCurrency_matchesFreshFormat() {
+        BigDecimal amount = new BigDecimal("1234567.891");
+        for (Locale locale : LOCALES) {
+            for (int digits = 0; digits <= 3; digits++) {
+                NumberFormat fresh = NumberFormat.getCurrencyInstance(locale);
+                fresh.setCurrency(Currency.getInstance("EUR"));
+                fresh.setMinimumFractionDigits(digits);
+                fresh.setMaximumFractionDigits(digits);
+
+                assertEquals(fresh.format(amount), FormatterCache.currency(locale, "EUR", digits).format(amount));
+            }
+            assertEquals(NumberFormat.getCurrencyInstance(locale).format(amount),
+                    FormatterCache.currency(locale, null, FormatterCache.DEFAULT_DIGITS).format(amount));
+        }
+    }
+
+    @Test
+    @DisplayName("Each thread gets its own instance and repeated calls reuse it")
+    void testFormats_areThreadConfined() throws Exception {
+        NumberFormat mine = FormatterCache.number(Locale.US, 2);
+        NumberFormat other = CompletableFuture.supplyAsync(() -> FormatterCache.number(Locale.US, 2)).get();
+
+        assertSame(mine, FormatterCache.number(Locale.US, 2));
+        assertNotSame(mine, other);
+        assertNotSame(mine, FormatterCache.number(Locale.US, 3));
+    }
+
+    @Test
+    @DisplayName("An invalid currency code is rejected and not cached")
+    void testCurrency_invalidCode() {
+        assertThrows(IllegalArgumentException.class, () -> FormatterCache.currency(Locale.US, "XXXX", 2));
+        assertThrows(IllegalArgumentException.class, () -> FormatterCache.currency(Locale.US, "XXXX", 2));
+    }
+}
@@ -0,0 +1,168 @@
+package com.pos.gateway;
+
+import com.pos.config.PaymentConfig;
+import com.pos.model.PaymentResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Unit Tests for gateway resilience")
+class GatewayResilienceTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    @DisplayName("Breaker opens on failure rate, half-opens after the open duration and closes on trial successes")
+    void testCircuitBreaker_stateTransitions() {
+        long[] now = {0};
+        CircuitBreaker breaker = new CircuitBreaker(10_000, 10, 4, 0.5, 1_000, 2, () -> now[0]);
+
+        for (int i = 0; i < 3; i++) breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "below the minimum number of calls");
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+
+        now[0] += 1_000 * MS;
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission(), "only two trial calls are allowed");
+
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(1, breaker.getTimesOpened());
+
+        // Failures that have rolled out of the window no longer count
+        for (int i = 0; i < 3; i++) breaker.onFailure();
+        now[0] += 11_000 * MS;
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("Retries failures, caps concurrent calls and reports rejections")
+    void testResilience_retriesAndBulkhead() throws Exception {
+        GatewayResilience resilience = new GatewayResilience("TEST",
+                new CircuitBreaker(10_000, 10, 100, 0.5, 1_000, 1), 2, new RetryBudget(0.1, 5), 3, 1, 5, 1_000);
+
+        AtomicInteger attempts = new AtomicInteger();
+        String result = resilience.<String>execute(() -> attempts.incrementAndGet() < 3
+                ? CompletableFuture.failedFuture(new RuntimeException("Gateway error"))
+                : CompletableFuture.completedFuture("OK")).toCompletableFuture().get();
+        assertEquals("OK", result);
+        assertEquals(3, attempts.get());
+
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        resilience.executeOnce(() -> first);
+        resilience.executeOnce(() -> second);
+        assertFalse(resilience.isAvailable());
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> resilience
+                .executeOnce(() -> CompletableFuture.completedFuture("OK")).toCompletableFuture().get());
+        assertInstanceOf(GatewayUnavailableException.class, rejected.getCause());
+
+        first.complete("OK");
+        second.complete("OK");
+        GatewayMetrics metrics = resilience.metrics();
+        assertAll(
+            () -> assertTrue(resilience.isAvailable()),
+            () -> assertEquals(0, metrics.getActiveCalls()),
+            () -> assertEquals(5, metrics.getCalls()),
+            () -> assertEquals(2, metrics.getFailures()),
+            () -> assertEquals(2, metrics.getRetries()),
+            () -> assertEquals(1, metrics.getBulkheadRejections()),
+            () -> assertEquals(0, metrics.getBreakerRejections())
+        );
+    }
+
+    @Test
+    @DisplayName("Payment initiation is attempted once; status checks are retried")
+    void testWithResilience_initiationNotRetried() throws Exception {
+        GatewayResilience resilience = new GatewayResilience("SADAD",
+                new CircuitBreaker(10_000, 10, 100, 0.5, 1_000, 1), 4, new RetryBudget(1, 10), 3, 1, 5, 1_000);
+        AtomicInteger initiations = new AtomicInteger();
+        AtomicInteger statusChecks = new AtomicInteger();
+        SadadService.AsyncSadadClient failing = mock(SadadService.AsyncSadadClient.class);
+        when(failing.initiatePayment(anyDouble(), anyString())).thenAnswer(invocation -> {
+            initiations.incrementAndGet();
+            return CompletableFuture.failedFuture(new RuntimeException("Read timed out"));
+        });
+        when(failing.checkStatus(anyString())).thenAnswer(invocation -> {
+            statusChecks.incrementAndGet();
+            return CompletableFuture.failedFuture(new RuntimeException("Read timed out"));
+        });
+        when(failing.withResilience(any())).thenCallRealMethod();
+        SadadService.AsyncSadadClient guarded = failing.withResilience(resilience);
+
+        // A timed-out initiation may have reached the bank, so repeating it could charge twice
+        assertThrows(ExecutionException.class, () -> guarded.initiatePayment(1_000, "ORD1").toCompletableFuture().get());
+        assertThrows(ExecutionException.class, () -> guarded.checkStatus("ORD1").toCompletableFuture().get());
+
+        assertEquals(1, initiations.get());
+        assertEquals(3, statusChecks.get());
+    }
+
+    @Test
+    @DisplayName("New payments fail over to the next provider while the first circuit is open")
+    void testFailover_routesAroundOpenCircuit() throws Exception {
+        GatewayResilience sadad = new GatewayResilience("SADAD",
+                new CircuitBreaker(10_000, 10, 2, 0.5, 60_000, 1), 4, new RetryBudget(0, 0), 1, 0, 0, 1_000);
+        GatewayResilience sep = new GatewayResilience("SEP",
+                new CircuitBreaker(10_000, 10, 2, 0.5, 60_000, 1), 4, new RetryBudget(0, 0), 1, 0, 0, 1_000);
+        AtomicInteger sadadPayments = new AtomicInteger();
+        AtomicInteger sepPayments = new AtomicInteger();
+        PaymentFailover failover = new PaymentFailover(List.of(
+                PaymentFailover.route(PaymentConfig.Provider.SADAD, sadad, orderId -> {
+                    sadadPayments.incrementAndGet();
+                    return CompletableFuture.completedFuture(PaymentResult.success("Sadad"));
+                }),
+                PaymentFailover.route(PaymentConfig.Provider.SEP, sep, orderId -> {
+                    sepPayments.incrementAndGet();
+                    return CompletableFuture.completedFuture(PaymentResult.success("Sep"));
+                })));
+
+        assertEquals(PaymentConfig.Provider.SADAD, failover.selectProvider().orElseThrow());
+        assertTrue(failover.processPayment("ORD1").toCompletableFuture().get().isSuccess());
+
+        for (int i = 0; i < 2; i++) {
+            sadad.executeOnce(() -> CompletableFuture.failedFuture(new RuntimeException("Gateway error")));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, sadad.getBreakerState());
+        assertEquals(PaymentConfig.Provider.SEP, failover.selectProvider().orElseThrow());
+        assertTrue(failover.processPayment("ORD2").toCompletableFuture().get().isSuccess());
+        assertEquals(1, sadadPayments.get());
+        assertEquals(1, sepPayments.get());
+        assertEquals(List.of("SADAD", "SEP"), failover.metrics().stream().map(GatewayMetrics::getProvider).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("A payment is refused without calling a provider when every circuit is open")
+    void testFailover_noProviderAvailable() throws Exception {
+        GatewayResilience sadad = new GatewayResilience("SADAD",
+                new CircuitBreaker(10_000, 10, 1, 0.5, 60_000, 1), 4, new RetryBudget(0, 0), 1, 0, 0, 1_000);
+        sadad.executeOnce(() -> CompletableFuture.failedFuture(new RuntimeException("Gateway error")));
+        AtomicInteger payments = new AtomicInteger();
+        PaymentFailover failover = new PaymentFailover(List.of(
+                PaymentFailover.route(PaymentConfig.Provider.SADAD, sadad, orderId -> {
+                    payments.incrementAndGet();
+                    return CompletableFuture.completedFuture(PaymentResult.success("Sadad"));
+                })));
+
+        assertTrue(failover.selectProvider().isEmpty());
+        assertFalse(failover.processPayment("ORD1").toCompletableFuture().get().isSuccess());
+        assertEquals(0, payments.get());
+    }
+}
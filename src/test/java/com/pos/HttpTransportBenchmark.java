@@ -0,0 +1,94 @@
+package com.pos.util;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request latency of a 32-byte JSON POST against a loopback keep-alive {@link HttpServer},
+ * the same stub HttpTransportTest uses: {@link HttpClientUtil}'s blocking
+ * HttpURLConnection path, {@link HttpTransport} blocking, and {@link HttpTransport}
+ * with {@value #IN_FLIGHT} requests in flight from one thread (timed per batch).
+ * Sample-time mode reports p50 and p99 as {@code p0.50} and {@code p0.99}.
+ * Run after {@code mvn test-compile} once per thread count:
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main HttpTransportBenchmark -t 1
+ * </pre>
+ * and again with {@code -t 16}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HttpTransportBenchmark {
+
+    private static final int IN_FLIGHT = 16;
+    private static final String BODY = "{\"order\":\"ORD-000123\",\"ok\":1234}";
+    private static final Map<String, String> HEADERS = Map.of("Content-Type", "application/json");
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private HttpTransport transport;
+    private String url;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/pay", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                in.readAllBytes();
+            }
+            byte[] bytes = BODY.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/pay";
+        transport = new HttpTransport(Duration.ofSeconds(2), Duration.ofSeconds(5));
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public Optional<String> httpUrlConnection() {
+        return HttpClientUtil.post(url, BODY, HEADERS);
+    }
+
+    @Benchmark
+    public Optional<String> transportSync() {
+        return transport.post(url, BODY, HEADERS);
+    }
+
+    @Benchmark
+    public int transportAsync() {
+        CompletableFuture<?>[] batch = new CompletableFuture<?>[IN_FLIGHT];
+        for (int i = 0; i < IN_FLIGHT; i++) {
+            batch[i] = transport.postAsync(url, BODY, HEADERS);
+        }
+        CompletableFuture.allOf(batch).join();
+        return batch.length;
+    }
+}
@@ -0,0 +1,136 @@
+package com.pos.util;
+
+import com.pos.config.PaymentConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit Tests for HttpTransport")
+class HttpTransportTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        // Echoes the request headers the server received, one "name=value" per line
+        server.createContext("/echo", exchange -> {
+            StringBuilder body = new StringBuilder();
+            exchange.getRequestHeaders().forEach((name, values) ->
+                    body.append(name.toLowerCase(Locale.ROOT)).append('=').append(String.join(",", values)).append('\n'));
+            respond(exchange, body.toString());
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, "late");
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Headers managed by HttpClient are dropped; others are sent")
+    void testRestrictedHeaders_dropped() {
+        HttpTransport transport = new HttpTransport(Duration.ofSeconds(2), Duration.ofSeconds(5));
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Connection", "close");
+        headers.put("Content-Length", "999");
+        headers.put("Host", "example.com");
+        headers.put("X-Request-Id", "abc-123");
+
+        Optional<String> response = transport.post(baseUrl + "/echo", "{}", headers);
+
+        assertTrue(response.isPresent());
+        assertTrue(response.get().contains("x-request-id=abc-123"));
+        assertFalse(response.get().contains("example.com"));
+        assertFalse(response.get().contains("999"));
+    }
+
+    @Test
+    @DisplayName("Restricted header names are recognised regardless of the default locale")
+    void testRestrictedHeaders_turkishLocale() {
+        Locale original = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            HttpTransport transport = new HttpTransport(Duration.ofSeconds(2), Duration.ofSeconds(5));
+            // "CONNECTION" lower-cases to "connectıon" (dotless i) under the Turkish locale
+            Optional<String> response = transport.get(baseUrl + "/echo", Map.of("CONNECTION", "close", "X-Trace", "1"));
+
+            assertTrue(response.isPresent());
+            assertTrue(response.get().contains("x-trace=1"));
+        } finally {
+            Locale.setDefault(original);
+        }
+    }
+
+    @Test
+    @DisplayName("A response slower than the request timeout is reported as empty")
+    void testRequestTimeout_returnsEmpty() {
+        HttpTransport transport = new HttpTransport(Duration.ofSeconds(2), Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        Optional<String> response = transport.getAsync(baseUrl + "/slow", Map.of()).join();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(response.isEmpty());
+        assertTrue(elapsedMs < 5_000, "Timed out after " + elapsedMs + " ms");
+    }
+
+    @Test
+    @DisplayName("An unreachable host is reported as empty")
+    void testConnectFailure_returnsEmpty() {
+        HttpTransport transport = new HttpTransport(Duration.ofMillis(500), Duration.ofSeconds(2));
+        server.stop(0);
+
+        assertTrue(transport.get(baseUrl + "/echo", null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Every provider has a shared transport")
+    void testForProvider_shared() {
+        for (PaymentConfig.Provider provider : PaymentConfig.Provider.values()) {
+            assertNotNull(HttpTransport.forProvider(provider));
+            assertSame(HttpTransport.forProvider(provider), HttpTransport.forProvider(provider));
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.phoenix.pos.validation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit Tests for IdentifierChecks")
+class IdentifierChecksTest {
+
+    /** The BigInteger checksum the IBAN validator used before. */
+    private static boolean bigIntegerChecksum(String iban) {
+        String rearranged = iban.substring(4) + iban.substring(0, 4);
+        StringBuilder numeric = new StringBuilder();
+        for (char ch : rearranged.toCharArray()) {
+            numeric.append(Character.isDigit(ch) ? String.valueOf(ch) : String.valueOf(ch - 'A' + 10));
+        }
+        return new BigInteger(numeric.toString()).mod(BigInteger.valueOf(97)).intValue() == 1;
+    }
+
+    @Test
+    @DisplayName("Format failures are reported in the same order as the former patterns")
+    void testFormatChecks() {
+        assertEquals(CardNumberValidator.Result.EMPTY, IdentifierChecks.validateCardNumber(" \n"));
+        assertEquals(CardNumberValidator.Result.INVALID_FORMAT, IdentifierChecks.validateCardNumber("\u2003"));
+        assertEquals(CardNumberValidator.Result.INVALID_FORMAT, IdentifierChecks.validateCardNumber("603799759999999\u0663"));
+        assertEquals(CardNumberValidator.Result.INVALID_FORMAT, IdentifierChecks.validateCardNumber("6037997599999993\n"));
+        assertEquals(IbanValidator.Result.BLANK, IdentifierChecks.validateIban("\u2003"));
+        assertEquals(IbanValidator.Result.INVALID_FORMAT, IdentifierChecks.validateIban("ir062960000000100324200001"));
+        assertEquals(NationalIdValidator.Result.DISALLOWED, IdentifierChecks.validateNationalId("9876543210"));
+        assertEquals(NationalIdValidator.Result.DISALLOWED, IdentifierChecks.validateNationalId("0000000000"));
+        assertEquals(NationalIdValidator.Result.INVALID_FORMAT, IdentifierChecks.validateNationalId("00845713650"));
+        assertEquals(CellphoneNumberValidator.Result.INVALID_FORMAT, IdentifierChecks.validateCellphoneNumber("+98912123456"));
+        assertEquals(CellphoneNumberValidator.Result.VALID, IdentifierChecks.validateCellphoneNumber(new StringBuilder("00989121234567")));
+        assertTrue(IdentifierChecks.isNumeric("0123"));
+        assertFalse(IdentifierChecks.isNumeric(""));
+        assertFalse(IdentifierChecks.isNumeric("12a"));
+    }
+
+    @Test
+    @DisplayName("The int mod-97 agrees with BigInteger on random IBANs")
+    void testIbanMod97_matchesBigInteger() {
+        Random random = new Random(97);
+        int valid = 0;
+        for (int n = 0; n < 50_000; n++) {
+            StringBuilder iban = new StringBuilder("IR");
+            for (int i = 0; i < 24; i++) {
+                iban.append((char) ('0' + random.nextInt(10)));
+            }
+            boolean expected = bigIntegerChecksum(iban.toString());
+            assertEquals(expected, IdentifierChecks.validateIban(iban) == IbanValidator.Result.VALID, iban.toString());
+            valid += expected ? 1 : 0;
+        }
+        assertTrue(valid > 0);
+        assertEquals(1, IdentifierChecks.ibanMod97("GB82WEST12345698765432"));
+        assertEquals(-1, IdentifierChecks.ibanMod97("IR06 2960"));
+    }
+
+    @Test
+    @DisplayName("Luhn and the national ID check digit accept exactly one final digit")
+    void testCheckDigits() {
+        int luhnValid = 0;
+        int nationalIdValid = 0;
+        for (char d = '0'; d <= '9'; d++) {
+            luhnValid += IdentifierChecks.validateCardNumber("603799759999999" + d) == CardNumberValidator.Result.VALID ? 1 : 0;
+            nationalIdValid += IdentifierChecks.validateNationalId("008457136" + d) == NationalIdValidator.Result.VALID ? 1 : 0;
+        }
+        assertEquals(1, luhnValid);
+        assertEquals(1, nationalIdValid);
+        assertTrue(IdentifierChecks.isLuhnValid("79927398713"));
+        assertFalse(IdentifierChecks.isLuhnValid("7992739871x"));
+    }
+}
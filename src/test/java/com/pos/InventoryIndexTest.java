@@ -0,0 +1,106 @@
+package com.pos.repository;
+
+import com.pos.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.pos.ConcurrentTestSupport.runConcurrently;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Secondary index tests for InventoryRepository")
+class InventoryIndexTest {
+
+    private static final int THREADS = 16;
+    private static final int PRODUCTS_PER_THREAD = 2_000;
+
+    private InventoryRepository inventoryRepository;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository = new InventoryRepository();
+    }
+
+    @Test
+    @DisplayName("findByName matches names exactly as equalsIgnoreCase does")
+    void testFindByName_matchesEqualsIgnoreCase() {
+        inventoryRepository.save(new Product("P001", "Mouse", "Wireless mouse", 20000, 10));
+        inventoryRepository.save(new Product("P002", "MOUSE", "Wired mouse", 15000, 5));
+        inventoryRepository.save(new Product("P003", "Mouse pad", "Cloth pad", 5000, 30));
+        inventoryRepository.save(new Product("P004", "Straße", "Street sign", 1000, 1));
+        inventoryRepository.save(new Product("P005", "ΣΟΦΟΣ", "Greek label", 1000, 1));
+
+        assertEquals(List.of("P001", "P002"), ids(inventoryRepository.findByName("mouse")));
+        assertEquals(ids(inventoryRepository.scanByName("mOuSe")), ids(inventoryRepository.findByName("mOuSe")));
+        assertEquals(ids(inventoryRepository.scanByName("STRASSE")), ids(inventoryRepository.findByName("STRASSE")));
+        assertEquals(ids(inventoryRepository.scanByName("σοφος")), ids(inventoryRepository.findByName("σοφος")));
+        assertEquals(ids(inventoryRepository.scanByName("σοφοσ")), ids(inventoryRepository.findByName("σοφοσ")));
+        assertTrue(inventoryRepository.findByName("Mouse ").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Concurrent saves and deletes sharing names and stock levels never lose index entries")
+    void testSaveDelete_underContention() throws Exception {
+        runConcurrently(THREADS, thread -> {
+            for (int i = 0; i < PRODUCTS_PER_THREAD; i++) {
+                // Every thread adds a product under the same fresh name and stock level in step; even
+                // threads delete theirs right away, so buckets empty while odd threads insert into them
+                String id = "T" + thread + "-" + i;
+                inventoryRepository.save(new Product(id, "Item " + i, "", 1000, 1 + i));
+                if (thread % 2 == 0) inventoryRepository.deleteById(id);
+            }
+        });
+
+        assertEquals(THREADS * PRODUCTS_PER_THREAD / 2, inventoryRepository.count());
+        assertEquals(inventoryRepository.count(), inventoryRepository.getSortedByStockDesc().size());
+        assertEquals(ids(inventoryRepository.scanLowStock(PRODUCTS_PER_THREAD)),
+                ids(inventoryRepository.findLowStock(PRODUCTS_PER_THREAD)));
+        for (int i = 0; i < PRODUCTS_PER_THREAD; i++) {
+            List<String> expected = new ArrayList<>();
+            for (int t = 1; t < THREADS; t += 2) expected.add("T" + t + "-" + i);
+            expected.sort(Comparator.naturalOrder());
+            assertEquals(expected, ids(inventoryRepository.findByName("item " + i)));
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent saves and deletes within shared categories keep category counts and stock totals exact")
+    void testCategoryTotals_underContention() throws Exception {
+        runConcurrently(THREADS, thread -> {
+            for (int i = 0; i < PRODUCTS_PER_THREAD; i++) {
+                // Every thread stocks the same fresh category in step; even threads delete their
+                // product right away, so the category empties and refills while odd threads add to it
+                String id = "T" + thread + "-" + i;
+                Product product = new Product(id, "Item", "", 1000, thread + 1);
+                product.setCategory("Cat" + i);
+                inventoryRepository.save(product);
+                if (thread % 2 == 0) inventoryRepository.deleteById(id);
+            }
+        });
+
+        int expectedStock = 0;
+        for (int t = 1; t < THREADS; t += 2) expectedStock += t + 1;
+        Map<String, Integer> totals = inventoryRepository.totalStockByCategory();
+        Map<String, Long> counts = inventoryRepository.countByCategory();
+        assertEquals(inventoryRepository.scanTotalStockByCategory(), totals);
+        assertEquals(inventoryRepository.scanCountByCategory(), counts);
+        assertEquals(PRODUCTS_PER_THREAD, totals.size());
+        for (int i = 0; i < PRODUCTS_PER_THREAD; i++) {
+            assertEquals(expectedStock, (int) totals.get("Cat" + i), "Cat" + i);
+            assertEquals(THREADS / 2, (long) counts.get("Cat" + i), "Cat" + i);
+        }
+    }
+
+    private static List<String> ids(List<Product> products) {
+        return products.stream()
+                .map(Product::getProductId)
+                .sorted(Comparator.naturalOrder())
+                .collect(Collectors.toList());
+    }
+}
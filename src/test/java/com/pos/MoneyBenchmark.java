@@ -0,0 +1,84 @@
+package com.pos.model;
+
+import model.Amount;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Totals a basket of order lines at 10% discount and 9% tax three ways: on {@code double},
+ * on {@link Amount} (BigDecimal) and through {@link OrderItem}'s {@link Money} line totals.
+ * Run after {@code mvn test-compile} with
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main MoneyBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyBenchmark {
+
+    private static final BigDecimal DISCOUNT = new BigDecimal("0.10");
+    private static final BigDecimal TAX = new BigDecimal("0.09");
+
+    @Param({"300"})
+    private int lines;
+
+    private double[] prices;
+    private int[] quantities;
+    private Amount[] amountPrices;
+    private OrderItem[] items;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        prices = new double[lines];
+        quantities = new int[lines];
+        amountPrices = new Amount[lines];
+        items = new OrderItem[lines];
+        for (int i = 0; i < lines; i++) {
+            prices[i] = random.nextInt(1_000_000) / 100.0;
+            quantities[i] = 1 + random.nextInt(5);
+            amountPrices[i] = Amount.fromDouble(prices[i]);
+            items[i] = new OrderItem("P" + i, "Product " + i, quantities[i], Money.ofMajor(prices[i]));
+            items[i].setDiscount(10);
+            items[i].setTaxRate(9);
+        }
+    }
+
+    @Benchmark
+    public double doubles() {
+        double total = 0;
+        for (int i = 0; i < lines; i++) {
+            double subtotal = prices[i] * quantities[i];
+            double discounted = subtotal - subtotal * 0.10;
+            total += discounted + discounted * 0.09;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Amount amount() {
+        Amount total = Amount.fromDouble(0);
+        for (int i = 0; i < lines; i++) {
+            Amount subtotal = amountPrices[i].multiply(BigDecimal.valueOf(quantities[i]));
+            Amount discounted = subtotal.subtract(subtotal.multiply(DISCOUNT));
+            total = total.add(discounted.add(discounted.multiply(TAX)));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money money() {
+        Money total = Money.ZERO;
+        for (OrderItem item : items) {
+            total = total.plus(item.getTotalMoney());
+        }
+        return total;
+    }
+}
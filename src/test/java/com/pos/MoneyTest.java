@@ -0,0 +1,74 @@
+package com.pos.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit Tests for Money")
+class MoneyTest {
+
+    @Test
+    @DisplayName("Conversions and arithmetic are exact in minor units")
+    void testArithmetic() {
+        assertEquals(Money.parse("0.30"), Money.ofMajor(0.1).plus(Money.ofMajor(0.2)));
+        assertEquals(Money.ofMinor(3_597), Money.parse("11.99").times(3));
+        assertEquals(Money.ofMinor(-5), Money.parse("0.10").minus(Money.parse("0.15")));
+        assertEquals(new BigDecimal("-12.05"), Money.ofMinor(-1_205).toBigDecimal());
+        assertEquals("-0.05", Money.ofMinor(-5).toString());
+        assertEquals("-12.05", Money.ofMinor(-1_205).toString());
+        assertEquals("7.00", Money.ofMinor(700).toString());
+        assertSame(Money.ZERO, Money.parse("0.004"));
+    }
+
+    @Test
+    @DisplayName("Half-way results round to the even minor unit")
+    void testBankersRounding() {
+        assertEquals(Money.ofMinor(2), Money.parse("0.025"));
+        assertEquals(Money.ofMinor(4), Money.parse("0.035"));
+        assertEquals(Money.ofMinor(-2), Money.parse("-0.025"));
+        // 12.5% of 0.20 is 0.025, and of 0.28 is 0.035
+        assertEquals(Money.ofMinor(2), Money.ofMinor(20).percent(1_250));
+        assertEquals(Money.ofMinor(4), Money.ofMinor(28).percent(1_250));
+        assertEquals(Money.ofMinor(-4), Money.ofMinor(-28).percent(1_250));
+        assertEquals(Money.ofMinor(33), Money.ofMinor(100).times(1, 3));
+        assertEquals(Money.ofMinor(67), Money.ofMinor(100).times(2, 3));
+    }
+
+    @Test
+    @DisplayName("Overflow throws instead of wrapping")
+    void testOverflow() {
+        Money max = Money.ofMinor(Long.MAX_VALUE);
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> max.times(2));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).negate());
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1e30")));
+        assertThrows(ArithmeticException.class, () -> Money.ofMajor(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> Money.ofMinor(1).times(1, 0));
+    }
+
+    @Test
+    @DisplayName("Order totals are the exact sum of rounded line totals")
+    void testOrderTotals() {
+        OrderItem item = new OrderItem("P1", "Tea", 3, 0.10);
+        item.setDiscount(12.5);
+        item.setTaxRate(9);
+        // 0.30 - 0.04 (0.0375) + 0.02 (0.0234)
+        assertEquals(Money.ofMinor(30), item.getSubtotalMoney());
+        assertEquals(Money.ofMinor(4), item.getDiscountMoney());
+        assertEquals(Money.ofMinor(2), item.getTaxMoney());
+        assertEquals(Money.ofMinor(28), item.getTotalMoney());
+        assertEquals(12.5, item.getDiscount());
+
+        Order order = new Order("C1");
+        for (int i = 0; i < 10; i++) {
+            order.addItem(new OrderItem("P" + i, "Item", 1, 0.10));
+        }
+        assertEquals(Money.parse("1.00"), order.getTotal());
+        assertEquals(1.0, order.getTotalAmount());
+
+        assertSame(Money.ZERO, new OrderItem("P2", "Refund", 1, Money.ofMinor(-1)).getUnitPriceMoney());
+    }
+}
@@ -0,0 +1,65 @@
+package converter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit Tests for Persian and Arabic number-to-words")
+class NumberToWordsLocalesTest {
+
+    private static final Locale PERSIAN = new Locale("fa", "IR");
+    private static final Locale ARABIC = new Locale("ar");
+
+    @Test
+    @DisplayName("Persian joins groups and parts with va")
+    void testPersian_convert() {
+        NumberToWordsConverter converter = NumberToWordsConverter.getInstance(PERSIAN);
+
+        assertEquals("صفر", converter.convert(0, PERSIAN));
+        assertEquals("دویست و سی و چهار", converter.convert(234, PERSIAN));
+        assertEquals("یک هزار و دویست و سی و چهار", converter.convert(1234, PERSIAN));
+        assertEquals("دو میلیون و پانصد هزار", converter.convert(2_500_000, PERSIAN));
+        assertEquals("منفی دوازده ممیز صفر پنج", converter.convert(new BigDecimal("-12.05"), PERSIAN));
+    }
+
+    @Test
+    @DisplayName("Rial amounts can be written in Rial or Toman")
+    void testPersian_rialAndToman() {
+        PersianNumberToWordsConverter converter = PersianNumberToWordsConverter.INSTANCE;
+
+        assertEquals("دوازده هزار ریال",
+                converter.convertCurrency(new BigDecimal("12000"), PersianNumberToWordsConverter.IranianCurrency.RIAL));
+        assertEquals("یک هزار و دویست تومان",
+                converter.convertCurrency(new BigDecimal("12000"), PersianNumberToWordsConverter.IranianCurrency.TOMAN));
+        assertEquals("یک هزار و دویست و سی و چهار ممیز پنج تومان",
+                converter.convertCurrency(new BigDecimal("12345"), PersianNumberToWordsConverter.IranianCurrency.TOMAN));
+    }
+
+    @Test
+    @DisplayName("Arabic scale words agree with their count")
+    void testArabic_convert() {
+        NumberToWordsConverter converter = NumberToWordsConverter.getInstance(ARABIC);
+
+        assertEquals("واحد وعشرون", converter.convert(21, ARABIC));
+        assertEquals("ألف ومائتان وأربعة وثلاثون", converter.convert(1234, ARABIC));
+        assertEquals("ألفان", converter.convert(2000, ARABIC));
+        assertEquals("ثلاثة آلاف", converter.convert(3000, ARABIC));
+        assertEquals("أحد عشر ألفًا", converter.convert(11_000, ARABIC));
+        assertEquals("مائة ألف", converter.convert(100_000, ARABIC));
+        assertEquals("مائتا ألف", converter.convert(200_000, ARABIC));
+        assertEquals("مائتا مليون ومائتان", converter.convert(200_000_200, ARABIC));
+        assertEquals("مائتان وثلاثة آلاف", converter.convert(203_000, ARABIC));
+        assertEquals("مليونان وخمسمائة ألف", converter.convert(2_500_000, ARABIC));
+    }
+
+    @Test
+    @DisplayName("Each converter rejects locales of other languages")
+    void testUnsupportedLocale() {
+        assertThrows(IllegalArgumentException.class, () -> PersianNumberToWordsConverter.INSTANCE.convert(1, Locale.US));
+        assertThrows(IllegalArgumentException.class, () -> NumberToWordsConverter.getInstance(Locale.CHINESE));
+    }
+}
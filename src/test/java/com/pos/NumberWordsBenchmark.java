@@ -0,0 +1,140 @@
+package converter;
+
+import converter.PersianNumberToWordsConverter.IranianCurrency;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts random amounts to words three ways: the recursive string concatenation the
+ * English converter used before {@link NumberWords}, {@code convert} to a String, and
+ * {@code appendWords} into a reused StringBuilder. The last two run for English, Persian
+ * and Arabic, and for Rial amounts read in Toman ({@code toman}), so the table-driven
+ * languages can be compared with English and with the recursive baseline.
+ * Run after {@code mvn test-compile} with
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main NumberWordsBenchmark -prof gc
+ * </pre>
+ * {@code -prof gc} reports the allocation per amount as {@code gc.alloc.rate.norm}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NumberWordsBenchmark {
+
+    private static final int AMOUNTS = 1_024;
+
+    private static final String[] ONES = {
+        "zero", "one", "two", "three", "four", "five", "six", "seven", "eight", "nine",
+        "ten", "eleven", "twelve", "thirteen", "fourteen", "fifteen", "sixteen", "seventeen", "eighteen", "nineteen"
+    };
+
+    private static final String[] TENS = {
+        "", "", "twenty", "thirty", "forty", "fifty", "sixty", "seventy", "eighty", "ninety"
+    };
+
+    private static final String[] SCALES = {
+        "", "thousand", "million", "billion", "trillion", "quadrillion", "quintillion"
+    };
+
+    private final StringBuilder buffer = new StringBuilder(128);
+    private BigDecimal[] amounts;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(11);
+        amounts = new BigDecimal[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            // Mostly 2-dp prices below 10^7, with some negatives and longer fractions
+            long unscaled = (long) (random.nextDouble() * 1_000_000_000L);
+            int scale = random.nextInt(10) == 0 ? 1 + random.nextInt(6) : 2;
+            amounts[i] = BigDecimal.valueOf(random.nextInt(10) == 0 ? -unscaled : unscaled, scale);
+        }
+    }
+
+    @Benchmark
+    public String recursiveConcat() {
+        return recursiveAmount(nextAmount());
+    }
+
+    @Benchmark
+    public String convert(Language language) {
+        if (language.toman) {
+            return PersianNumberToWordsConverter.INSTANCE.convertCurrency(nextAmount(), IranianCurrency.TOMAN);
+        }
+        return language.converter.convert(nextAmount(), language.locale);
+    }
+
+    @Benchmark
+    public int appendWords(Language language) {
+        buffer.setLength(0);
+        if (language.toman) {
+            PersianNumberToWordsConverter.INSTANCE.appendCurrencyWords(nextAmount(), IranianCurrency.TOMAN, buffer);
+        } else {
+            language.converter.appendWords(nextAmount(), language.locale, buffer);
+        }
+        return buffer.length();
+    }
+
+    private BigDecimal nextAmount() {
+        return amounts[next++ & (AMOUNTS - 1)];
+    }
+
+    // --- Recursive reference (the pre-table implementation, same output) ---
+
+    private static String recursiveAmount(BigDecimal amount) {
+        BigDecimal abs = amount.abs().stripTrailingZeros();
+        String words = (amount.signum() < 0 ? "minus " : "") + recursiveWhole(abs.toBigInteger().longValue());
+        if (abs.scale() > 0) {
+            String digits = abs.remainder(BigDecimal.ONE).movePointRight(abs.scale()).toBigInteger().toString();
+            words += " point";
+            for (int zeros = abs.scale() - digits.length(); zeros > 0; zeros--) {
+                words += " zero";
+            }
+            words += " " + recursiveWhole(Long.parseLong(digits));
+        }
+        return words;
+    }
+
+    private static String recursiveWhole(long number) {
+        if (number < 20) return ONES[(int) number];
+        if (number < 100) return TENS[(int) (number / 10)] + (number % 10 != 0 ? "-" + ONES[(int) (number % 10)] : "");
+        if (number < 1000) {
+            return ONES[(int) (number / 100)] + " hundred" + (number % 100 != 0 ? " " + recursiveWhole(number % 100) : "");
+        }
+        int group = 1;
+        long unit = 1000;
+        while (group < SCALES.length - 1 && number / unit >= 1000) {
+            group++;
+            unit *= 1000;
+        }
+        return recursiveWhole(number / unit) + " " + SCALES[group]
+                + (number % unit != 0 ? " " + recursiveWhole(number % unit) : "");
+    }
+
+    /** The converter under test; the recursive baseline is English only and ignores it. */
+    @State(Scope.Benchmark)
+    public static class Language {
+
+        @Param({"en", "fa", "ar", "toman"})
+        private String language;
+
+        private boolean toman;
+        private Locale locale;
+        private NumberToWordsConverter converter;
+
+        @Setup
+        public void setUp() {
+            toman = language.equals("toman");
+            locale = new Locale(toman ? "fa" : language);
+            converter = NumberToWordsConverter.getInstance(locale);
+        }
+    }
+}
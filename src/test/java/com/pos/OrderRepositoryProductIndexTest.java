@@ -0,0 +1,161 @@
+package com.pos.repository;
+
+import com.pos.model.Order;
+import com.pos.model.OrderItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.pos.ConcurrentTestSupport.runConcurrently;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Unit Tests for OrderRepository product index")
+class OrderRepositoryProductIndexTest {
+
+    private static final int THREADS = 16;
+    private static final int ORDERS_PER_THREAD = 1_000;
+
+    private OrderRepository orderRepository;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = new OrderRepository();
+    }
+
+    @Test
+    @DisplayName("Quantities are summed across lines and orders, and lines without a product ID are skipped")
+    void testQuantitySold_summedAcrossOrders() {
+        Order first = order("ORD1", item("P1", 2), item("P1", 3), item(null, 7));
+        Order second = order("ORD2", item("P1", 1), item("P2", 4));
+        orderRepository.save(first);
+        orderRepository.save(second);
+
+        assertAll(
+            () -> assertEquals(6, orderRepository.quantitySold("P1")),
+            () -> assertEquals(4, orderRepository.quantitySold("P2")),
+            () -> assertEquals(0, orderRepository.quantitySold("P3")),
+            () -> assertEquals(Map.of("P1", 6, "P2", 4), orderRepository.totalProductQuantitiesSold()),
+            () -> assertEquals(Set.of("P1", "P2"), orderRepository.findOrderedProductIds()),
+            () -> assertEquals(Set.of(first, second), new HashSet<>(orderRepository.findOrdersContainingProduct("P1"))),
+            () -> assertEquals(List.of(second), orderRepository.findOrdersContainingProduct("P2")),
+            () -> assertTrue(orderRepository.findOrdersContainingProduct("P3").isEmpty())
+        );
+    }
+
+    @Test
+    @DisplayName("Orders without items are stored but not indexed")
+    void testOrderWithoutItems_notIndexed() {
+        Order order = mock(Order.class);
+        when(order.getOrderId()).thenReturn("ORD1");
+        when(order.getOrderItems()).thenReturn(null);
+        orderRepository.save(order);
+
+        assertEquals(1, orderRepository.count());
+        assertTrue(orderRepository.findOrderedProductIds().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deleting an order subtracts its quantities and drops products no other order contains")
+    void testDelete_removesContribution() {
+        Order first = order("ORD1", item("P1", 2), item("P2", 5));
+        Order second = order("ORD2", item("P1", 3));
+        orderRepository.save(first);
+        orderRepository.save(second);
+
+        orderRepository.deleteById("ORD1");
+
+        assertAll(
+            () -> assertEquals(3, orderRepository.quantitySold("P1")),
+            () -> assertEquals(List.of(second), orderRepository.findOrdersContainingProduct("P1")),
+            () -> assertEquals(0, orderRepository.quantitySold("P2")),
+            () -> assertTrue(orderRepository.findOrdersContainingProduct("P2").isEmpty()),
+            () -> assertEquals(Set.of("P1"), orderRepository.findOrderedProductIds())
+        );
+    }
+
+    @Test
+    @DisplayName("Re-saving an order edited in place moves its quantities to the new products")
+    void testProductIndex_inPlaceUpdate() {
+        Order order = order("ORD1", item("P1", 2), item("P1", 3), item(null, 7));
+        orderRepository.save(order);
+
+        assertEquals(5, orderRepository.quantitySold("P1"));
+        assertEquals(Set.of("P1"), orderRepository.findOrderedProductIds());
+
+        List<OrderItem> edited = List.of(item("P2", 4));
+        when(order.getOrderItems()).thenReturn(edited);
+        orderRepository.save(order);
+
+        assertAll(
+            () -> assertEquals(0, orderRepository.quantitySold("P1")),
+            () -> assertTrue(orderRepository.findOrdersContainingProduct("P1").isEmpty()),
+            () -> assertEquals(4, orderRepository.quantitySold("P2")),
+            () -> assertEquals(List.of(order), orderRepository.findOrdersContainingProduct("P2"))
+        );
+    }
+
+    @Test
+    @DisplayName("Deleting all orders empties the product index")
+    void testProductIndex_resetOnDeleteAll() {
+        orderRepository.save(order("ORD1", item("P1", 2)));
+        orderRepository.save(order("ORD2", item("P1", 1), item("P2", 3)));
+
+        orderRepository.deleteAll();
+
+        assertAll(
+            () -> assertTrue(orderRepository.totalProductQuantitiesSold().isEmpty()),
+            () -> assertTrue(orderRepository.findOrderedProductIds().isEmpty()),
+            () -> assertTrue(orderRepository.findOrdersContainingProduct("P1").isEmpty()),
+            () -> assertEquals(0, orderRepository.quantitySold("P1"))
+        );
+    }
+
+    @Test
+    @DisplayName("Concurrent saves and deletes for shared products never lose orders or quantities")
+    void testProductIndex_underContention() throws Exception {
+        runConcurrently(THREADS, thread -> {
+            for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                // Every thread orders the same fresh product in step; even threads delete
+                // their order right away, so the product's entry empties while odd threads add to it
+                Order order = order("T" + thread + "-" + i, item("P" + i, thread + 1));
+                orderRepository.save(order);
+                if (thread % 2 == 0) orderRepository.deleteById(order.getOrderId());
+            }
+        });
+
+        int expectedQuantity = 0;
+        for (int t = 1; t < THREADS; t += 2) expectedQuantity += t + 1;
+        assertEquals(THREADS * ORDERS_PER_THREAD / 2, orderRepository.count());
+        assertEquals(ORDERS_PER_THREAD, orderRepository.findOrderedProductIds().size());
+        for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+            String productId = "P" + i;
+            Set<String> expected = new HashSet<>();
+            for (int t = 1; t < THREADS; t += 2) expected.add("T" + t + "-" + i);
+            Set<String> indexed = orderRepository.findOrdersContainingProduct(productId).stream()
+                    .map(Order::getOrderId)
+                    .collect(Collectors.toSet());
+            assertEquals(expected, indexed, productId);
+            assertEquals(expectedQuantity, orderRepository.quantitySold(productId), productId);
+        }
+    }
+
+    // --- Helpers ---
+
+    private static Order order(String orderId, OrderItem... items) {
+        Order order = mock(Order.class);
+        when(order.getOrderId()).thenReturn(orderId);
+        when(order.getOrderItems()).thenReturn(List.of(items));
+        return order;
+    }
+
+    private static OrderItem item(String productId, int quantity) {
+        OrderItem item = mock(OrderItem.class);
+        when(item.getProductId()).thenReturn(productId);
+        when(item.getQuantity()).thenReturn(quantity);
+        return item;
+    }
+}
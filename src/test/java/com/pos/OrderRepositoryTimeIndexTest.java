@@ -0,0 +1,82 @@
+package com.pos.repository;
+
+import com.pos.model.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.pos.ConcurrentTestSupport.runConcurrently;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Concurrency Tests for OrderRepository time indexes")
+class OrderRepositoryTimeIndexTest {
+
+    private static final int THREADS = 16;
+    private static final int ORDERS_PER_THREAD = 1_000;
+
+    private OrderRepository orderRepository;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = new OrderRepository();
+    }
+
+    @Test
+    @DisplayName("Concurrent saves and deletes for shared customers never lose customer/time entries")
+    void testCustomerTimeIndex_underContention() throws Exception {
+        runConcurrently(THREADS, thread -> {
+            for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                // Every thread orders for the same fresh customer in step; even threads delete
+                // their order right away, so the bucket empties while odd threads insert into it
+                Order order = order("T" + thread + "-" + i, "C" + i, i);
+                orderRepository.save(order);
+                if (thread % 2 == 0) orderRepository.deleteById(order.getOrderId());
+            }
+        });
+
+        Date from = new Date(0);
+        Date to = new Date(Long.MAX_VALUE);
+        assertEquals(THREADS * ORDERS_PER_THREAD / 2, orderRepository.count());
+        assertEquals(orderRepository.count(), orderRepository.findOrdersBetween(from, to).size());
+        for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+            String customerId = "C" + i;
+            Set<String> expected = new HashSet<>();
+            for (int t = 1; t < THREADS; t += 2) expected.add("T" + t + "-" + i);
+            Set<String> indexed = orderRepository.findByCustomerAndDateRange(customerId, from, to).stream()
+                    .map(Order::getOrderId)
+                    .collect(Collectors.toSet());
+            assertEquals(expected, indexed, customerId);
+        }
+    }
+
+    @Test
+    @DisplayName("Customer date-range queries are inclusive at both ends")
+    void testFindByCustomerAndDateRange_inclusiveBounds() {
+        Order first = order("ORD1", "C1", 1_000);
+        Order second = order("ORD2", "C1", 2_000);
+        Order other = order("ORD3", "C2", 1_500);
+        orderRepository.save(first);
+        orderRepository.save(second);
+        orderRepository.save(other);
+
+        assertEquals(List.of(first, second),
+                orderRepository.findByCustomerAndDateRange("C1", new Date(1_000), new Date(2_000)));
+        assertEquals(List.of(second),
+                orderRepository.findByCustomerAndDateRange("C1", new Date(1_001), new Date(5_000)));
+        assertTrue(orderRepository.findByCustomerAndDateRange("C3", new Date(0), new Date(5_000)).isEmpty());
+    }
+
+    // --- Helpers ---
+
+    private static Order order(String orderId, String customerId, long epochMillis) {
+        Order order = mock(Order.class);
+        when(order.getOrderId()).thenReturn(orderId);
+        when(order.getCustomerId()).thenReturn(customerId);
+        when(order.getOrderDate()).thenReturn(new Date(epochMillis));
+        return order;
+    }
+}
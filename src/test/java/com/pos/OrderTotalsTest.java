@@ -0,0 +1,150 @@
+package com.pos.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit Tests for Order totals")
+class OrderTotalsTest {
+
+    private static Money sum(List<OrderItem> items) {
+        Money total = Money.ZERO;
+        for (OrderItem item : items) {
+            total = total.plus(item.getTotalMoney());
+        }
+        return total;
+    }
+
+    @Test
+    @DisplayName("Running totals match a full recomputation through adds, removes and item edits")
+    void testIncrementalTotals_matchRecomputation() {
+        Random random = new Random(23);
+        Order order = new Order("C1");
+        for (int step = 0; step < 5_000; step++) {
+            List<OrderItem> items = order.getItems();
+            int action = random.nextInt(10);
+            if (action < 5 || items.isEmpty()) {
+                OrderItem item = new OrderItem("P" + random.nextInt(50), "Item", 1 + random.nextInt(20),
+                        Money.ofMinor(random.nextInt(100_000)));
+                item.setDiscount(random.nextInt(3) * 12.5);
+                item.setTaxRate(9);
+                order.addItem(item);
+            } else if (action < 7) {
+                order.removeItem(items.get(random.nextInt(items.size())));
+            } else if (action < 9) {
+                OrderItem item = items.get(random.nextInt(items.size()));
+                item.setQuantity(1 + random.nextInt(20));
+                item.setUnitPrice(Money.ofMinor(random.nextInt(100_000)));
+            } else {
+                items.get(random.nextInt(items.size())).setDiscount(random.nextInt(101));
+            }
+
+            items = order.getItems();
+            assertEquals(sum(items), order.getTotal(), "step " + step);
+        }
+        order.clearItems();
+        assertEquals(Money.ZERO, order.getTotal());
+        assertEquals(Money.ZERO, order.getSubtotal());
+    }
+
+    @Test
+    @DisplayName("Subtotal, discount and tax are tracked separately")
+    void testComponents() {
+        Order order = new Order("C1");
+        OrderItem tea = new OrderItem("P1", "Tea", 2, Money.parse("5.00"));
+        tea.setDiscount(10);
+        tea.setTaxRate(9);
+        order.addItem(tea);
+        order.addItem(tea);
+
+        assertEquals(Money.parse("20.00"), order.getSubtotal());
+        assertEquals(Money.parse("2.00"), order.getDiscountTotal());
+        assertEquals(Money.parse("1.62"), order.getTaxTotal());
+        assertEquals(Money.parse("19.62"), order.getTotal());
+
+        tea.setQuantity(1);
+        assertEquals(Money.parse("9.80"), order.getTotal());
+
+        order.removeItem(tea);
+        assertEquals(Money.parse("4.90"), order.getTotal());
+        order.removeItem(tea);
+        assertTrue(order.isEmpty());
+
+        tea.setQuantity(5);
+        assertEquals(Money.ZERO, order.getTotal());
+    }
+
+    @Test
+    @DisplayName("Adding an item owned by another order adds a copy, and edits stay with the owner")
+    void testItemOwnership() {
+        Order first = new Order("C1");
+        Order second = new Order("C2");
+        OrderItem item = new OrderItem("P1", "Tea", 1, Money.parse("3.00"));
+        first.addItem(item);
+
+        second.addItem(item);
+        item.setQuantity(2);
+
+        OrderItem added = second.getItems().get(0);
+        assertAll(
+            () -> assertNotSame(item, added),
+            () -> assertSame(first, item.getOrder()),
+            () -> assertSame(second, added.getOrder()),
+            () -> assertEquals(1, added.getQuantity()),
+            () -> assertEquals(Money.parse("6.00"), first.getTotal()),
+            () -> assertEquals(Money.parse("3.00"), second.getTotal())
+        );
+    }
+
+    @Test
+    @DisplayName("Items moved from one order into another, as an order update does, keep both totals right")
+    void testItemsMovedBetweenOrders() {
+        Order updated = new Order("C1");
+        updated.addItem(new OrderItem("P1", "Tea", 2, Money.parse("3.00")));
+        updated.addItem(new OrderItem("P2", "Cake", 1, Money.parse("4.50")));
+        Order existing = new Order("C1");
+        existing.addItem(new OrderItem("P3", "Coffee", 1, Money.parse("5.00")));
+
+        existing.clearItems();
+        for (OrderItem item : updated.getItems()) {
+            existing.addItem(item);
+        }
+        updated.getItems().get(0).setQuantity(5);
+
+        assertAll(
+            () -> assertEquals(Money.parse("10.50"), existing.getTotal()),
+            () -> assertEquals(Money.parse("19.50"), updated.getTotal()),
+            () -> assertEquals(2, existing.getItems().size())
+        );
+    }
+
+    @Test
+    @DisplayName("An edit that overflows leaves the item and the order totals unchanged")
+    void testOverflowingEdit_leavesStateUnchanged() {
+        Money half = Money.ofMinor(Long.MAX_VALUE / 2);
+        Order order = new Order("C1");
+        OrderItem first = new OrderItem("P1", "Bulk", 1, half);
+        OrderItem second = new OrderItem("P2", "Bulk", 1, half);
+        order.addItem(first);
+        order.addItem(second);
+        Money total = order.getTotal();
+
+        // The line itself overflows
+        assertThrows(ArithmeticException.class, () -> first.setQuantity(3));
+        // The line fits, but the order subtotal would not
+        assertThrows(ArithmeticException.class, () -> second.setUnitPrice(half.plus(Money.ofMinor(10))));
+
+        assertEquals(1, first.getQuantity());
+        assertEquals(half, second.getUnitPriceMoney());
+        assertEquals(total, order.getTotal());
+        assertEquals(sum(order.getItems()), order.getTotal());
+
+        second.setQuantity(1);
+        first.setUnitPrice(Money.ofMinor(100));
+        assertEquals(sum(order.getItems()), order.getTotal());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.posqr.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit Tests for QrBatchService")
+class QrBatchServiceTest {
+
+    private final QrBatchService batchService = new QrBatchService(new QrCodeService(null, 1 << 20), null, 2);
+
+    @AfterEach
+    void tearDown() {
+        batchService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Every label becomes a stored PNG entry and missing products are reported")
+    void testWriteZip() throws Exception {
+        List<QrBatchService.Label> labels = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            labels.add(new QrBatchService.Label(id, "Product ID: " + id));
+        }
+        labels.add(new QrBatchService.Label(99L, null));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        batchService.writeZip(labels, out);
+
+        List<String> names = new ArrayList<>();
+        String errors = null;
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                byte[] bytes = zip.readAllBytes();
+                if (entry.getName().equals(QrBatchService.ERRORS_ENTRY)) {
+                    errors = new String(bytes, StandardCharsets.UTF_8);
+                } else {
+                    names.add(entry.getName());
+                    assertEquals(ZipEntry.STORED, entry.getMethod());
+                    assertEquals((byte) 0x89, bytes[0]);
+                    assertEquals('P', bytes[1]);
+                }
+            }
+        }
+
+        assertEquals(20, names.size());
+        assertTrue(names.contains("product-qr-7.png"));
+        assertEquals("99: product not found\n", errors);
+    }
+}
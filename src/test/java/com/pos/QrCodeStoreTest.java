@@ -0,0 +1,148 @@
+package com.example.posqr.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit Tests for QrCodeStore")
+class QrCodeStoreTest {
+
+    private Path root;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("qr-store");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static byte[] png(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Identical images share one sharded file until the last name is deleted")
+    void testContentAddressing() throws IOException {
+        try (QrCodeStore store = new QrCodeStore(root)) {
+            QrCodeStore.Entry a = store.put("a.png", png("same"));
+            QrCodeStore.Entry b = store.put("b.png", png("same"));
+
+            assertEquals(a.getPath(), b.getPath());
+            assertEquals(root.resolve("objects").resolve(a.getHash().substring(0, 2)).resolve(a.getHash().substring(2, 4)),
+                    a.getPath().getParent());
+
+            assertTrue(store.delete("a.png"));
+            assertTrue(Files.exists(b.getPath()));
+            assertTrue(store.delete("b.png"));
+            assertFalse(Files.exists(b.getPath()));
+            assertFalse(store.delete("b.png"));
+        }
+    }
+
+    @Test
+    @DisplayName("The index survives reopening, renames and replacements")
+    void testPersistence() throws IOException {
+        try (QrCodeStore store = new QrCodeStore(root)) {
+            store.put("a.png", png("one"));
+            store.put("b.png", png("two"));
+            store.put("b.png", png("three"));
+            assertTrue(store.rename("a.png", "c.png"));
+            assertFalse(store.rename("missing.png", "d.png"));
+        }
+
+        try (QrCodeStore store = new QrCodeStore(root)) {
+            assertEquals(2, store.size());
+            assertFalse(store.contains("a.png"));
+            assertArrayEquals(png("one"), store.read("c.png"));
+            assertArrayEquals(png("three"), store.read("b.png"));
+            assertEquals(5, store.find("b.png").orElseThrow().getSize());
+            assertEquals("c.png", store.entries().get(1).getName());
+        }
+    }
+
+    @Test
+    @DisplayName("Flat PNGs are copied in on first open and clear removes everything stored")
+    void testLegacyImportAndClear() throws IOException {
+        Path legacy = Files.write(root.resolve("product-qr-1.png"), png("legacy"));
+        Files.setLastModifiedTime(legacy, FileTime.fromMillis(1_000_000L));
+
+        try (QrCodeStore store = new QrCodeStore(root)) {
+            QrCodeStore.Entry entry = store.find("product-qr-1.png").orElseThrow();
+            assertEquals(1_000_000L, entry.getLastModified());
+            assertArrayEquals(png("legacy"), store.read("product-qr-1.png"));
+            assertArrayEquals(png("legacy"), Files.readAllBytes(legacy));
+
+            store.clear();
+            assertEquals(0, store.size());
+            assertFalse(Files.exists(entry.getPath()));
+            assertTrue(Files.exists(legacy));
+            store.put("x.png", png("after clear"));
+            assertTrue(store.contains("x.png"));
+        }
+    }
+
+    @Test
+    @DisplayName("A replacement interrupted before the old record was cleared resolves to the new image")
+    void testInterruptedReplacement() throws IOException {
+        QrCodeStore.Entry first;
+        QrCodeStore.Entry second;
+        try (QrCodeStore store = new QrCodeStore(root)) {
+            first = store.put("a.png", png("v1"));
+            second = store.put("a.png", png("v2"));
+        }
+        // Set the first record's live flag again, as if the crash hit before it was cleared:
+        // header (16) + name length (2) + "a.png" (5) + hash (32) + size (8) + mtime (8)
+        try (FileChannel index = FileChannel.open(root.resolve(QrCodeStore.INDEX_FILE), StandardOpenOption.WRITE)) {
+            index.write(ByteBuffer.wrap(new byte[] {1}), 16 + 2 + 5 + 32 + 8 + 8);
+        }
+
+        try (QrCodeStore store = new QrCodeStore(root)) {
+            assertEquals(1, store.size());
+            assertArrayEquals(png("v2"), store.read("a.png"));
+            assertFalse(Files.exists(first.getPath()));
+
+            assertTrue(store.delete("a.png"));
+            assertFalse(Files.exists(second.getPath()));
+        }
+    }
+
+    @Test
+    @DisplayName("Compaction drops dead records and keeps live ones")
+    void testCompaction() throws IOException {
+        try (QrCodeStore store = new QrCodeStore(root)) {
+            for (int i = 0; i < 200; i++) {
+                store.put("label.png", png("version " + i));
+            }
+            store.put("other.png", png("other"));
+            long before = Files.size(root.resolve(QrCodeStore.INDEX_FILE));
+
+            store.compact();
+
+            assertEquals(2, store.size());
+            assertArrayEquals(png("version 199"), store.read("label.png"));
+            assertTrue(Files.size(root.resolve(QrCodeStore.INDEX_FILE)) <= before);
+        }
+        try (QrCodeStore store = new QrCodeStore(root)) {
+            assertArrayEquals(png("other"), store.read("other.png"));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.posqr.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit Tests for QrImageCache")
+class QrImageCacheTest {
+
+    private static QrImage image(int size, int seed) {
+        byte[] bytes = new byte[size];
+        bytes[0] = (byte) seed;
+        return new QrImage(bytes);
+    }
+
+    @Test
+    @DisplayName("Least recently used images are evicted by weight")
+    void testLruEvictionByWeight() {
+        QrImageCache cache = new QrImageCache(3 * 1200);
+        cache.put("a", 300, 300, image(1000, 1));
+        cache.put("b", 300, 300, image(1000, 2));
+        cache.put("c", 300, 300, image(1000, 3));
+        assertNotNull(cache.get("a", 300, 300));
+
+        cache.put("d", 300, 300, image(1000, 4));
+
+        assertNull(cache.get("b", 300, 300));
+        assertNotNull(cache.get("a", 300, 300));
+        assertNotNull(cache.get("d", 300, 300));
+        assertNull(cache.get("a", 200, 200));
+        assertEquals(1, cache.getEvictions());
+        assertTrue(cache.getWeightBytes() <= cache.getMaxBytes());
+
+        cache.put("huge", 300, 300, image(10_000, 5));
+        assertNull(cache.get("huge", 300, 300));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    @DisplayName("Clearing and invalidating evict entries")
+    void testClearAndInvalidate() {
+        QrImageCache cache = new QrImageCache(1 << 20);
+        cache.put("a", 300, 300, image(100, 1));
+        cache.put("a", 600, 600, image(100, 2));
+        cache.put("b", 300, 300, image(100, 3));
+
+        assertEquals(2, cache.invalidate("a"));
+        assertEquals(1, cache.clear());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getWeightBytes());
+    }
+
+    @Test
+    @DisplayName("ETags are strong, content-derived and match If-None-Match lists")
+    void testETag() {
+        QrImage first = image(64, 7);
+        QrImage same = image(64, 7);
+        QrImage other = image(64, 8);
+
+        assertEquals(first.getETag(), same.getETag());
+        assertNotEquals(first.getETag(), other.getETag());
+        assertTrue(first.getETag().startsWith("\"") && first.getETag().endsWith("\""));
+        assertTrue(first.matches(other.getETag() + ", W/" + first.getETag()));
+        assertTrue(first.matches("*"));
+        assertFalse(first.matches(other.getETag()));
+        assertFalse(first.matches(null));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.posqr.service;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ImageIO path QrCodeService used before ({@link MatrixToImageWriter}) with
+ * {@link QrPngEncoder} for a 300x300 label. Run after {@code mvn test-compile} with
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main QrPngEncoderBenchmark -prof gc
+ * </pre>
+ * {@code -prof gc} reports the allocation per image as {@code gc.alloc.rate.norm}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QrPngEncoderBenchmark {
+
+    @Param({"300"})
+    private int size;
+
+    private BitMatrix matrix;
+
+    @Setup
+    public void setUp() throws Exception {
+        matrix = new QRCodeWriter().encode("https://pos.example.com/pay?order=ORD-000123&amount=1250000",
+                BarcodeFormat.QR_CODE, size, size, Map.of(EncodeHintType.CHARACTER_SET, "UTF-8"));
+    }
+
+    @Benchmark
+    public byte[] imageIo() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MatrixToImageWriter.writeToStream(matrix, "PNG", out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] directEncoder() {
+        return QrPngEncoder.encode(matrix);
+    }
+}
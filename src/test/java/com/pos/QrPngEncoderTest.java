@@ -0,0 +1,57 @@
+package com.example.posqr.service;
+
+import com.google.zxing.common.BitMatrix;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit Tests for QrPngEncoder")
+class QrPngEncoderTest {
+
+    private static BitMatrix randomMatrix(int width, int height, long seed) {
+        BitMatrix matrix = new BitMatrix(width, height);
+        Random random = new Random(seed);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (random.nextBoolean()) matrix.set(x, y);
+            }
+        }
+        return matrix;
+    }
+
+    @Test
+    @DisplayName("Decoded pixels match the matrix for any width")
+    void testEncode_roundTrip() throws Exception {
+        for (int width : new int[] {1, 8, 31, 33, 37, 300}) {
+            BitMatrix matrix = randomMatrix(width, 23, width);
+
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(QrPngEncoder.encode(matrix)));
+
+            assertEquals(width, image.getWidth());
+            assertEquals(23, image.getHeight());
+            for (int y = 0; y < image.getHeight(); y++) {
+                for (int x = 0; x < width; x++) {
+                    int expected = matrix.get(x, y) ? 0x000000 : 0xFFFFFF;
+                    assertEquals(expected, image.getRGB(x, y) & 0xFFFFFF, "pixel " + x + "," + y);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Output is a 1-bit grayscale PNG")
+    void testEncode_header() {
+        byte[] png = QrPngEncoder.encode(randomMatrix(300, 300, 1));
+
+        assertEquals((byte) 0x89, png[0]);
+        assertEquals('P', png[1]);
+        assertEquals(1, png[24]);
+        assertEquals(0, png[25]);
+    }
+}
@@ -0,0 +1,47 @@
+package service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit Tests for ReceiptTemplate")
+class ReceiptTemplateTest {
+
+    private static final ReceiptTemplate<String[]> NOTE = ReceiptTemplate.<String[]>builder()
+            .text("Note: ").value(fields -> fields[1]).text("\n")
+            .compile();
+
+    private static final ReceiptTemplate<String[]> TEMPLATE = ReceiptTemplate.<String[]>builder()
+            .line("=====")
+            .centered("HI", 6)
+            .text("\n")
+            .text("Item: ").value(fields -> fields[0]).text("\n")
+            .when(fields -> fields[1] != null, NOTE)
+            .line("=====")
+            .compile();
+
+    @Test
+    @DisplayName("Static text and slots render in order")
+    void testRender() {
+        assertEquals("=====\n  HI\nItem: tea\nNote: hot\n=====\n", TEMPLATE.render(new String[] {"tea", "hot"}));
+        assertEquals("=====\n  HI\nItem: cake\n=====\n", TEMPLATE.render(new String[] {"cake", null}));
+    }
+
+    @Test
+    @DisplayName("Included templates and date slots render into the caller's buffer")
+    void testIncludeAndDateTime() {
+        ReceiptTemplate<LocalDateTime> template = ReceiptTemplate.<LocalDateTime>builder()
+                .include(ReceiptTemplate.<Object>builder().text("Date: ").compile())
+                .dateTime(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"), time -> time)
+                .compile();
+
+        StringBuilder out = new StringBuilder("> ");
+        template.renderTo(LocalDateTime.of(2024, 3, 1, 9, 30), out);
+
+        assertEquals("> Date: 2024-03-01 09:30", out.toString());
+    }
+}
@@ -0,0 +1,193 @@
+package com.pos.service;
+
+import com.pos.model.Customer;
+import com.pos.model.Money;
+import com.pos.model.Order;
+import com.pos.model.OrderItem;
+import com.pos.model.Product;
+import com.pos.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.pos.ConcurrentTestSupport.runConcurrently;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Unit Tests for ReportService incremental aggregates")
+class ReportServiceAggregatesTest {
+
+    private static final double DELTA = 1e-6;
+    private static final int THREADS = 16;
+    private static final int ORDERS_PER_THREAD = 1_000;
+    private static final int CUSTOMERS = 8;
+    private static final int PRODUCTS = 5;
+
+    private OrderRepository orderRepository;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = new OrderRepository();
+    }
+
+    @Test
+    @DisplayName("Re-saving an order edited in place replaces its previous contribution")
+    void testAggregates_inPlaceUpdate() {
+        ReportService reportService = new ReportService(orderRepository);
+        Order order = mock(Order.class);
+        when(order.getOrderId()).thenReturn("ORD1");
+        stub(order, "C1", 10.0, new Date(1_600_000_000_000L), item("P1", 2));
+        orderRepository.save(order);
+
+        stub(order, "C2", 30.0, new Date(1_600_000_000_000L), item("P2", 3));
+        orderRepository.save(order);
+
+        assertAll(
+            () -> assertEquals(30.0, reportService.getTotalRevenue(), DELTA),
+            () -> assertEquals(Map.of("C2", 30.0), reportService.getRevenueByCustomer()),
+            () -> assertEquals(Map.of("P2", 3), reportService.getTotalQuantitySoldByProduct()),
+            () -> assertEquals(1, reportService.getTotalOrderCount()),
+            () -> assertEquals(List.of("C2"), reportService.getTopCustomersByRevenue(5))
+        );
+    }
+
+    @Test
+    @DisplayName("Orders saved before the service was created are included")
+    void testAggregates_includeExistingOrders() {
+        orderRepository.save(order("ORD1", "C1", 10.0, item("P1", 1)));
+        orderRepository.save(order("ORD2", "C1", 20.0, item("P1", 4)));
+
+        ReportService reportService = new ReportService(orderRepository);
+
+        assertEquals(30.0, reportService.getTotalRevenue(), DELTA);
+        assertEquals(Map.of("P1", 5), reportService.getTotalQuantitySoldByProduct());
+        assertEquals(15.0, reportService.getAverageRevenuePerOrder(), DELTA);
+    }
+
+    @Test
+    @DisplayName("Deleting all orders resets every aggregate")
+    void testAggregates_resetOnDeleteAll() {
+        ReportService reportService = new ReportService(orderRepository);
+        orderRepository.save(order("ORD1", "C1", 10.0, item("P1", 1)));
+        orderRepository.save(order("ORD2", "C2", 20.0, item("P2", 2)));
+
+        orderRepository.deleteAll();
+
+        assertAll(
+            () -> assertEquals(0.0, reportService.getTotalRevenue()),
+            () -> assertEquals(0.0, reportService.getAverageRevenuePerOrder()),
+            () -> assertTrue(reportService.getRevenueByCustomer().isEmpty()),
+            () -> assertTrue(reportService.getTotalQuantitySoldByProduct().isEmpty()),
+            () -> assertTrue(reportService.getMonthlyRevenue().isEmpty()),
+            () -> assertFalse(reportService.getLargestOrder().isPresent())
+        );
+    }
+
+    @Test
+    @DisplayName("A closed service stops receiving order changes; other services keep theirs")
+    void testClose_unregistersListener() {
+        ReportService closed = new ReportService(orderRepository);
+        ReportService open = new ReportService(orderRepository);
+        orderRepository.save(order("ORD1", "C1", 10.0, item("P1", 1)));
+
+        closed.close();
+        orderRepository.save(order("ORD2", "C1", 20.0, item("P1", 2)));
+        orderRepository.deleteById("ORD1");
+
+        assertEquals(10.0, closed.getTotalRevenue(), DELTA);
+        assertEquals(Map.of("P1", 1), closed.getTotalQuantitySoldByProduct());
+        assertEquals(20.0, open.getTotalRevenue(), DELTA);
+        assertEquals(Map.of("P1", 2), open.getTotalQuantitySoldByProduct());
+    }
+
+    @Test
+    @DisplayName("Revenue is restored exactly after many update and delete cycles")
+    void testAggregates_noDriftAcrossUpdates() {
+        ReportService reportService = new ReportService(orderRepository);
+        orderRepository.save(order("ORD1", "C1", 0.10, item("P1", 1)));
+        orderRepository.save(order("ORD2", "C1", 0.20, item("P1", 1)));
+        Order churned = mock(Order.class);
+        when(churned.getOrderId()).thenReturn("ORD3");
+
+        for (int i = 0; i < 10_000; i++) {
+            stub(churned, "C1", 0.01 * (i % 97) + 1234.57, new Date(1_600_000_000_000L), item("P1", 1));
+            orderRepository.save(churned);
+            stub(churned, "C2", 0.10, new Date(1_600_000_000_000L), item("P2", 1));
+            orderRepository.save(churned);
+            if (i % 3 == 0) orderRepository.deleteById("ORD3");
+        }
+        orderRepository.deleteById("ORD3");
+
+        // Summed as doubles, 0.1 + 0.2 is not 0.3; no tolerance is needed here
+        assertEquals(0.3, reportService.getTotalRevenue());
+        assertEquals(Map.of("C1", 0.3), reportService.getRevenueByCustomer());
+        assertEquals(0.15, reportService.getAverageRevenuePerOrder());
+        assertTrue(reportService.getDailyRevenue().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Concurrent saves, updates and deletes on shared customers and products stay exact")
+    void testAggregates_underContention() throws Exception {
+        ReportService reportService = new ReportService(orderRepository);
+
+        runConcurrently(THREADS, thread -> {
+            for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                String customerId = "C" + (i % CUSTOMERS);
+                String productId = "P" + (i % PRODUCTS);
+                Order order = order("T" + thread + "-" + i, customerId, 1.0, item(productId, 1));
+                orderRepository.save(order);
+                if (i % 2 == 0) {
+                    orderRepository.deleteById(order.getOrderId());
+                } else {
+                    // Edit in place and save again: the first contribution must be retracted
+                    stub(order, customerId, 2.0, null, item(productId, 3));
+                    orderRepository.save(order);
+                }
+            }
+        });
+
+        int kept = THREADS * ORDERS_PER_THREAD / 2;
+        Map<String, Double> revenueByCustomer = new HashMap<>();
+        Map<String, Integer> quantityByProduct = new HashMap<>();
+        for (int i = 1; i < ORDERS_PER_THREAD; i += 2) {
+            revenueByCustomer.merge("C" + (i % CUSTOMERS), 2.0 * THREADS, Double::sum);
+            quantityByProduct.merge("P" + (i % PRODUCTS), 3 * THREADS, Integer::sum);
+        }
+
+        assertEquals(kept, reportService.getTotalOrderCount());
+        assertEquals(2.0 * kept, reportService.getTotalRevenue(), DELTA);
+        assertEquals(revenueByCustomer, reportService.getRevenueByCustomer());
+        assertEquals(quantityByProduct, reportService.getTotalQuantitySoldByProduct());
+    }
+
+    // --- Helpers ---
+
+    private static Order order(String orderId, String customerId, double total, OrderItem... items) {
+        Order order = mock(Order.class);
+        when(order.getOrderId()).thenReturn(orderId);
+        stub(order, customerId, total, null, items);
+        return order;
+    }
+
+    /** Re-stubs an order in place, as if it had been edited before being saved again. */
+    private static void stub(Order order, String customerId, double total, Date date, OrderItem... items) {
+        Customer customer = mock(Customer.class);
+        when(customer.getId()).thenReturn(customerId);
+        when(order.getCustomer()).thenReturn(customer);
+        when(order.getTotal()).thenReturn(Money.ofMajor(total));
+        when(order.getTotalAmount()).thenReturn(total);
+        when(order.getOrderDate()).thenReturn(date);
+        when(order.getOrderItems()).thenReturn(List.of(items));
+    }
+
+    private static OrderItem item(String productId, int quantity) {
+        Product product = mock(Product.class);
+        when(product.getId()).thenReturn(productId);
+        OrderItem item = mock(OrderItem.class);
+        when(item.getProduct()).thenReturn(product);
+        when(item.getQuantity()).thenReturn(quantity);
+        return item;
+    }
+}
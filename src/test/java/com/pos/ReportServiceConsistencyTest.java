@@ -0,0 +1,371 @@
+package com.pos.service;
+
+import com.pos.model.Customer;
+import com.pos.model.Money;
+import com.pos.model.Order;
+import com.pos.model.OrderItem;
+import com.pos.model.Product;
+import com.pos.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks every {@link ReportService} figure against the full-scan implementation it
+ * replaced, kept below as {@link FullScanReports}, after saves, in-place updates and
+ * deletes. Rankings are compared by the values they rank, since ties may be broken
+ * differently.
+ */
+@DisplayName("Consistency Tests for ReportService against the full-scan implementation")
+class ReportServiceConsistencyTest {
+
+    private static final double DELTA = 1e-6;
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final long START = 1_600_000_000_000L;
+
+    private final Random random = new Random(5);
+    private OrderRepository orderRepository;
+    private FullScanReports oracle;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = new OrderRepository();
+        oracle = new FullScanReports(orderRepository);
+    }
+
+    @Test
+    @DisplayName("Every figure matches the full scan after saves, in-place updates and deletes")
+    void testReports_matchFullScan() {
+        ReportService reportService = new ReportService(orderRepository);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Order order = mock(Order.class);
+            when(order.getOrderId()).thenReturn("ORD" + i);
+            restub(order);
+            orders.add(order);
+            orderRepository.save(order);
+        }
+        assertMatches(reportService, "after saves");
+
+        for (int i = 0; i < 500; i++) {
+            Order order = orders.get(random.nextInt(orders.size()));
+            restub(order);
+            orderRepository.save(order);
+        }
+        assertMatches(reportService, "after in-place updates");
+
+        for (int i = 0; i < 200; i++) {
+            orderRepository.deleteById(orders.get(random.nextInt(orders.size())).getOrderId());
+        }
+        assertMatches(reportService, "after deletes");
+
+        for (int i = 0; i < 1_000; i++) {
+            Order order = orders.get(random.nextInt(orders.size()));
+            if (random.nextInt(4) == 0) {
+                orderRepository.deleteById(order.getOrderId());
+            } else {
+                restub(order);
+                orderRepository.save(order);
+            }
+        }
+        assertMatches(reportService, "after mixed changes");
+    }
+
+    @Test
+    @DisplayName("A service created over existing orders matches the full scan")
+    void testReports_matchFullScanForExistingOrders() {
+        for (int i = 0; i < 200; i++) {
+            Order order = mock(Order.class);
+            when(order.getOrderId()).thenReturn("ORD" + i);
+            restub(order);
+            orderRepository.save(order);
+        }
+
+        assertMatches(new ReportService(orderRepository), "existing orders");
+    }
+
+    // --- Helpers ---
+
+    /** Stubs an order with new contents, as if it had been edited before being saved again. */
+    private void restub(Order order) {
+        Customer customer = null;
+        if (random.nextInt(10) > 0) {
+            customer = mock(Customer.class);
+            when(customer.getId()).thenReturn("C" + random.nextInt(40));
+        }
+        Date date = random.nextInt(10) > 0 ? new Date(START + random.nextInt(900) * DAY / 3) : null;
+        Money total = Money.ofMinor(random.nextInt(10_000_000));
+
+        List<OrderItem> items = new ArrayList<>();
+        int lines = random.nextInt(4);
+        for (int i = 0; i < lines; i++) {
+            Product product = mock(Product.class);
+            when(product.getId()).thenReturn(random.nextInt(20) > 0 ? "P" + random.nextInt(30) : null);
+            OrderItem item = mock(OrderItem.class);
+            when(item.getProduct()).thenReturn(product);
+            when(item.getQuantity()).thenReturn(1 + random.nextInt(5));
+            items.add(item);
+        }
+
+        when(order.getCustomer()).thenReturn(customer);
+        when(order.getOrderDate()).thenReturn(date);
+        when(order.getTotal()).thenReturn(total);
+        when(order.getTotalAmount()).thenReturn(total.toDouble());
+        when(order.getOrderItems()).thenReturn(items);
+    }
+
+    private void assertMatches(ReportService reports, String stage) {
+        assertEquals(oracle.getTotalOrderCount(), reports.getTotalOrderCount(), stage);
+        assertEquals(oracle.getTotalRevenue(), reports.getTotalRevenue(), DELTA, stage);
+        assertEquals(oracle.getAverageRevenuePerOrder(), reports.getAverageRevenuePerOrder(), DELTA, stage);
+        assertEquals(oracle.getAverageItemsPerOrder(), reports.getAverageItemsPerOrder(), DELTA, stage);
+        assertEquals(oracle.getLargestOrder().map(Order::getTotal), reports.getLargestOrder().map(Order::getTotal), stage);
+        assertEquals(oracle.getEarliestOrder().map(Order::getOrderDate), reports.getEarliestOrder().map(Order::getOrderDate), stage);
+        assertEquals(oracle.getLatestOrder().map(Order::getOrderDate), reports.getLatestOrder().map(Order::getOrderDate), stage);
+
+        assertMapsClose(oracle.getRevenueByCustomer(), reports.getRevenueByCustomer(), stage);
+        assertMapsClose(oracle.getAverageSpendingPerCustomer(), reports.getAverageSpendingPerCustomer(), stage);
+        assertMapsClose(oracle.getDailyRevenue(), reports.getDailyRevenue(), stage);
+        assertMapsClose(oracle.getMonthlyRevenue(), reports.getMonthlyRevenue(), stage);
+        assertEquals(oracle.getTotalQuantitySoldByProduct(), reports.getTotalQuantitySoldByProduct(), stage);
+
+        Map<String, Double> revenues = oracle.getRevenueByCustomer();
+        Map<String, Long> orderCounts = oracle.orderCountByCustomer();
+        Map<String, Integer> quantities = oracle.getTotalQuantitySoldByProduct();
+        for (int n : new int[] {1, 5, 50}) {
+            assertRankedValuesClose(oracle.getTopCustomersByRevenue(n), reports.getTopCustomersByRevenue(n), revenues::get, stage);
+            assertEquals(ranked(oracle.getTopCustomersByOrderCount(n), orderCounts::get),
+                    ranked(reports.getTopCustomersByOrderCount(n), orderCounts::get), stage);
+            assertEquals(ranked(oracle.getTopSellingProducts(n), quantities::get),
+                    ranked(reports.getTopSellingProducts(n), quantities::get), stage);
+        }
+        for (int threshold : new int[] {0, 10, 40, 1_000}) {
+            assertEquals(new HashSet<>(oracle.getLowVolumeProducts(threshold)),
+                    new HashSet<>(reports.getLowVolumeProducts(threshold)), stage);
+        }
+
+        assertEquals(dates(oracle.getFirstOrderPerCustomer()), dates(reports.getFirstOrderPerCustomer()), stage);
+        for (int months = 0; months < 100; months += 12) {
+            assertEquals(new HashSet<>(oracle.getInactiveCustomers(months)),
+                    new HashSet<>(reports.getInactiveCustomers(months)), stage);
+        }
+        Date from = new Date(START + 50 * DAY);
+        Date to = new Date(START + 200 * DAY);
+        assertEquals(new HashSet<>(oracle.getOrdersWithinDateRange(from, to)),
+                new HashSet<>(reports.getOrdersWithinDateRange(from, to)), stage);
+    }
+
+    private static void assertMapsClose(Map<String, Double> expected, Map<String, Double> actual, String stage) {
+        assertEquals(expected.keySet(), actual.keySet(), stage);
+        expected.forEach((key, value) -> assertEquals(value, actual.get(key), DELTA, stage + ": " + key));
+    }
+
+    private static void assertRankedValuesClose(List<String> expected, List<String> actual,
+                                                Function<String, Double> value, String stage) {
+        assertEquals(expected.size(), actual.size(), stage);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(value.apply(expected.get(i)), value.apply(actual.get(i)), DELTA, stage + ": rank " + i);
+        }
+    }
+
+    private static <V> List<V> ranked(List<String> keys, Function<String, V> value) {
+        return keys.stream().map(value).collect(Collectors.toList());
+    }
+
+    private static Map<String, Date> dates(Map<String, Order> orders) {
+        Map<String, Date> result = new HashMap<>();
+        orders.forEach((id, order) -> result.put(id, order.getOrderDate()));
+        return result;
+    }
+
+    /**
+     * The report implementations that scanned every stored order on each call, as they
+     * were before the incremental aggregates, reading {@code getTotalAmount()} where they
+     * read {@code getTotalPrice()}.
+     */
+    private static final class FullScanReports {
+
+        private final OrderRepository orderRepository;
+
+        private FullScanReports(OrderRepository orderRepository) {
+            this.orderRepository = orderRepository;
+        }
+
+        double getTotalRevenue() {
+            return orderRepository.findAll().stream()
+                    .mapToDouble(Order::getTotalAmount)
+                    .sum();
+        }
+
+        Map<String, Double> getRevenueByCustomer() {
+            return orderRepository.findAll().stream()
+                    .filter(order -> order.getCustomer() != null && order.getCustomer().getId() != null)
+                    .collect(Collectors.groupingBy(
+                            order -> order.getCustomer().getId(),
+                            Collectors.summingDouble(Order::getTotalAmount)
+                    ));
+        }
+
+        List<Order> getOrdersWithinDateRange(Date start, Date end) {
+            if (start == null || end == null || start.after(end)) return Collections.emptyList();
+            return orderRepository.findAll().stream()
+                    .filter(o -> o.getOrderDate() != null && !o.getOrderDate().before(start) && !o.getOrderDate().after(end))
+                    .collect(Collectors.toList());
+        }
+
+        List<String> getTopCustomersByRevenue(int topN) {
+            return getRevenueByCustomer().entrySet().stream()
+                    .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                    .limit(topN)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        }
+
+        double getAverageRevenuePerOrder() {
+            List<Order> orders = orderRepository.findAll();
+            return orders.isEmpty() ? 0.0 : orders.stream().mapToDouble(Order::getTotalAmount).average().orElse(0.0);
+        }
+
+        Optional<Order> getLargestOrder() {
+            return orderRepository.findAll().stream()
+                    .max(Comparator.comparingDouble(Order::getTotalAmount));
+        }
+
+        long getTotalOrderCount() {
+            return orderRepository.count();
+        }
+
+        double getAverageItemsPerOrder() {
+            List<Order> orders = orderRepository.findAll();
+            return orders.isEmpty() ? 0.0 : orders.stream()
+                    .mapToInt(order -> order.getOrderItems().size())
+                    .average().orElse(0.0);
+        }
+
+        List<String> getTopSellingProducts(int topN) {
+            return getTotalQuantitySoldByProduct().entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .limit(topN)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        }
+
+        Map<String, Long> orderCountByCustomer() {
+            return orderRepository.findAll().stream()
+                    .filter(order -> order.getCustomer() != null && order.getCustomer().getId() != null)
+                    .collect(Collectors.groupingBy(
+                            order -> order.getCustomer().getId(),
+                            Collectors.counting()
+                    ));
+        }
+
+        List<String> getTopCustomersByOrderCount(int topN) {
+            return orderCountByCustomer().entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .limit(topN)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        }
+
+        Map<String, Double> getDailyRevenue() {
+            return orderRepository.findAll().stream()
+                    .filter(order -> order.getOrderDate() != null)
+                    .collect(Collectors.groupingBy(
+                            order -> order.getOrderDate().toString(),
+                            Collectors.summingDouble(Order::getTotalAmount)
+                    ));
+        }
+
+        List<String> getLowVolumeProducts(int threshold) {
+            return getTotalQuantitySoldByProduct().entrySet().stream()
+                    .filter(entry -> entry.getValue() < threshold)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        }
+
+        Map<String, Order> getFirstOrderPerCustomer() {
+            return orderRepository.findAll().stream()
+                    .filter(order -> order.getCustomer() != null && order.getCustomer().getId() != null && order.getOrderDate() != null)
+                    .collect(Collectors.groupingBy(
+                            order -> order.getCustomer().getId(),
+                            Collectors.collectingAndThen(
+                                    Collectors.minBy(Comparator.comparing(Order::getOrderDate)),
+                                    optional -> optional.orElse(null)
+                            )
+                    ));
+        }
+
+        Map<String, Double> getAverageSpendingPerCustomer() {
+            Map<String, Double> revenue = getRevenueByCustomer();
+            Map<String, Long> count = orderCountByCustomer();
+            return revenue.entrySet().stream()
+                    .filter(entry -> count.containsKey(entry.getKey()) && count.get(entry.getKey()) > 0)
+                    .collect(Collectors.toMap(
+                            Map.Entry::getKey,
+                            entry -> entry.getValue() / count.get(entry.getKey())
+                    ));
+        }
+
+        Map<String, Integer> getTotalQuantitySoldByProduct() {
+            return orderRepository.findAll().stream()
+                    .flatMap(order -> order.getOrderItems().stream())
+                    .filter(item -> item.getProduct() != null && item.getProduct().getId() != null)
+                    .collect(Collectors.groupingBy(
+                            item -> item.getProduct().getId(),
+                            Collectors.summingInt(OrderItem::getQuantity)
+                    ));
+        }
+
+        Optional<Order> getEarliestOrder() {
+            return orderRepository.findAll().stream()
+                    .filter(order -> order.getOrderDate() != null)
+                    .min(Comparator.comparing(Order::getOrderDate));
+        }
+
+        Optional<Order> getLatestOrder() {
+            return orderRepository.findAll().stream()
+                    .filter(order -> order.getOrderDate() != null)
+                    .max(Comparator.comparing(Order::getOrderDate));
+        }
+
+        Map<String, Double> getMonthlyRevenue() {
+            return orderRepository.findAll().stream()
+                    .filter(order -> order.getOrderDate() != null)
+                    .collect(Collectors.groupingBy(
+                            order -> {
+                                Calendar cal = Calendar.getInstance();
+                                cal.setTime(order.getOrderDate());
+                                return cal.get(Calendar.YEAR) + "-" + String.format("%02d", cal.get(Calendar.MONTH) + 1);
+                            },
+                            Collectors.summingDouble(Order::getTotalAmount)
+                    ));
+        }
+
+        List<String> getInactiveCustomers(int monthsThreshold) {
+            Calendar cal = Calendar.getInstance();
+            cal.add(Calendar.MONTH, -monthsThreshold);
+            Date thresholdDate = cal.getTime();
+
+            return orderRepository.findAll().stream()
+                    .filter(order -> order.getCustomer() != null && order.getCustomer().getId() != null && order.getOrderDate() != null)
+                    .collect(Collectors.groupingBy(
+                            order -> order.getCustomer().getId(),
+                            Collectors.collectingAndThen(
+                                    Collectors.maxBy(Comparator.comparing(Order::getOrderDate)),
+                                    optional -> optional.map(Order::getOrderDate).orElse(null)
+                            )
+                    ))
+                    .entrySet().stream()
+                    .filter(entry -> entry.getValue() != null && entry.getValue().before(thresholdDate))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        }
+    }
+}
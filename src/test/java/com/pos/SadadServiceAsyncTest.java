@@ -0,0 +1,132 @@
+package com.pos.gateway;
+
+import com.pos.model.Order;
+import com.pos.model.PaymentResult;
+import com.pos.repository.OrderRepository;
+import com.pos.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Unit Tests for SadadService asynchronous payments")
+class SadadServiceAsyncTest {
+
+    private static final String ORDER_ID = "ORD1";
+
+    private PaymentRepository paymentRepository;
+    private OrderRepository orderRepository;
+    private SadadService.AsyncSadadClient asyncClient;
+    private SadadService sadadService;
+    private Order order;
+    private final AtomicBoolean paid = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository = mock(PaymentRepository.class);
+        orderRepository = mock(OrderRepository.class);
+        asyncClient = mock(SadadService.AsyncSadadClient.class);
+        sadadService = new SadadService(paymentRepository, orderRepository, asyncClient);
+
+        order = mock(Order.class);
+        when(order.getOrderId()).thenReturn(ORDER_ID);
+        when(order.getTotalAmount()).thenReturn(250_000.0);
+        when(order.isPaid()).thenAnswer(invocation -> paid.get());
+        doAnswer(invocation -> {
+            paid.set(invocation.getArgument(0));
+            return null;
+        }).when(order).setPaid(anyBoolean());
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order));
+    }
+
+    @Test
+    @DisplayName("A second submission while the first waits on the gateway is rejected without calling it")
+    void testDuplicateSubmission_whileInFlight() {
+        CompletableFuture<Boolean> gateway = new CompletableFuture<>();
+        when(asyncClient.initiatePayment(250_000.0, ORDER_ID)).thenReturn(gateway);
+
+        CompletableFuture<PaymentResult> first = sadadService.processPaymentAsync(ORDER_ID).toCompletableFuture();
+        PaymentResult second = sadadService.processPaymentAsync(ORDER_ID).toCompletableFuture().join();
+
+        assertFalse(second.isSuccess());
+        assertFalse(first.isDone());
+        verify(asyncClient, times(1)).initiatePayment(anyDouble(), anyString());
+
+        gateway.complete(true);
+
+        assertTrue(first.join().isSuccess());
+        assertTrue(paid.get());
+        verify(paymentRepository, times(1)).save(any());
+    }
+
+    @Test
+    @DisplayName("A submission after the payment completed is rejected as already paid")
+    void testResubmission_afterCompletion() {
+        when(asyncClient.initiatePayment(250_000.0, ORDER_ID)).thenReturn(CompletableFuture.completedFuture(true));
+
+        assertTrue(sadadService.processPaymentAsync(ORDER_ID).toCompletableFuture().join().isSuccess());
+        PaymentResult again = sadadService.processPaymentAsync(ORDER_ID).toCompletableFuture().join();
+
+        assertFalse(again.isSuccess());
+        verify(asyncClient, times(1)).initiatePayment(anyDouble(), anyString());
+    }
+
+    @Test
+    @DisplayName("A payment completing between the paid check and the claim is not charged twice")
+    void testPaidCheck_repeatedOnceClaimed() {
+        // The first lookup still sees the order unpaid; by the time the claim is taken the
+        // competing payment has recorded it and released its claim
+        when(order.isPaid()).thenReturn(false, true);
+
+        PaymentResult result = sadadService.processPaymentAsync(ORDER_ID).toCompletableFuture().join();
+
+        assertFalse(result.isSuccess());
+        verifyNoInteractions(asyncClient, paymentRepository);
+    }
+
+    @Test
+    @DisplayName("The order and payment are recorded before the result completes")
+    void testCompletionOrdering() {
+        CompletableFuture<Boolean> gateway = new CompletableFuture<>();
+        when(asyncClient.initiatePayment(250_000.0, ORDER_ID)).thenReturn(gateway);
+        AtomicReference<CompletableFuture<PaymentResult>> result = new AtomicReference<>();
+        AtomicBoolean completedBeforeRecorded = new AtomicBoolean();
+        doAnswer(invocation -> {
+            completedBeforeRecorded.set(result.get().isDone());
+            return null;
+        }).when(paymentRepository).save(any());
+
+        result.set(sadadService.processPaymentAsync(ORDER_ID).toCompletableFuture());
+        assertFalse(paid.get());
+        gateway.complete(true);
+
+        assertTrue(result.get().join().isSuccess());
+        assertFalse(completedBeforeRecorded.get());
+        InOrder inOrder = inOrder(order, orderRepository, paymentRepository);
+        inOrder.verify(order).setPaid(true);
+        inOrder.verify(orderRepository).save(order);
+        inOrder.verify(paymentRepository).save(any());
+    }
+
+    @Test
+    @DisplayName("A failed initiation releases the claim so the payment can be retried")
+    void testFailedInitiation_releasesClaim() {
+        when(asyncClient.initiatePayment(250_000.0, ORDER_ID))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("gateway down")))
+                .thenReturn(CompletableFuture.completedFuture(true));
+
+        assertFalse(sadadService.processPaymentAsync(ORDER_ID).toCompletableFuture().join().isSuccess());
+        assertFalse(paid.get());
+        assertTrue(sadadService.processPaymentAsync(ORDER_ID).toCompletableFuture().join().isSuccess());
+        verify(asyncClient, times(2)).initiatePayment(anyDouble(), anyString());
+    }
+}
@@ -0,0 +1,93 @@
+package com.pos.gateway;
+
+import com.pos.model.Order;
+import com.pos.model.PaymentResult;
+import com.pos.repository.OrderRepository;
+import com.pos.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Unit Tests for SepService asynchronous payments")
+class SepServiceAsyncTest {
+
+    private static final String ORDER_ID = "ORD-SEP-1";
+
+    private PaymentRepository paymentRepository;
+    private OrderRepository orderRepository;
+    private SepService.AsyncSepClient asyncClient;
+    private SepService sepService;
+    private Order order;
+    private final AtomicBoolean paid = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository = mock(PaymentRepository.class);
+        orderRepository = mock(OrderRepository.class);
+        asyncClient = mock(SepService.AsyncSepClient.class);
+        sepService = new SepService(paymentRepository, orderRepository, asyncClient);
+
+        order = mock(Order.class);
+        when(order.getOrderId()).thenReturn(ORDER_ID);
+        when(order.getTotalAmount()).thenReturn(120_000.0);
+        when(order.isPaid()).thenAnswer(invocation -> paid.get());
+        doAnswer(invocation -> {
+            paid.set(invocation.getArgument(0));
+            return null;
+        }).when(order).setPaid(anyBoolean());
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order));
+    }
+
+    @Test
+    @DisplayName("A second submission while the first waits on the gateway is rejected without calling it")
+    void testDuplicateSubmission_whileInFlight() {
+        CompletableFuture<Boolean> gateway = new CompletableFuture<>();
+        when(asyncClient.initiatePayment(120_000.0, ORDER_ID)).thenReturn(gateway);
+
+        CompletableFuture<PaymentResult> first = sepService.processPaymentAsync(ORDER_ID).toCompletableFuture();
+        PaymentResult second = sepService.processPaymentAsync(ORDER_ID).toCompletableFuture().join();
+
+        assertFalse(second.isSuccess());
+        assertFalse(first.isDone());
+        verify(asyncClient, times(1)).initiatePayment(anyDouble(), anyString());
+
+        gateway.complete(true);
+
+        assertTrue(first.join().isSuccess());
+        assertTrue(paid.get());
+        verify(paymentRepository, times(1)).save(any());
+    }
+
+    @Test
+    @DisplayName("A submission after the payment completed is rejected as already paid")
+    void testResubmission_afterCompletion() {
+        when(asyncClient.initiatePayment(120_000.0, ORDER_ID)).thenReturn(CompletableFuture.completedFuture(true));
+
+        assertTrue(sepService.processPaymentAsync(ORDER_ID).toCompletableFuture().join().isSuccess());
+        PaymentResult again = sepService.processPaymentAsync(ORDER_ID).toCompletableFuture().join();
+
+        assertFalse(again.isSuccess());
+        verify(asyncClient, times(1)).initiatePayment(anyDouble(), anyString());
+    }
+
+    @Test
+    @DisplayName("A payment completing between the paid check and the claim is not charged twice")
+    void testPaidCheck_repeatedOnceClaimed() {
+        // The first lookup still sees the order unpaid; by the time the claim is taken the
+        // competing payment has recorded it and released its claim
+        when(order.isPaid()).thenReturn(false, true);
+
+        PaymentResult result = sepService.processPaymentAsync(ORDER_ID).toCompletableFuture().join();
+
+        assertFalse(result.isSuccess());
+        verifyNoInteractions(asyncClient, paymentRepository);
+    }
+}
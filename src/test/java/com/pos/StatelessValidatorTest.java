@@ -0,0 +1,81 @@
+package com.phoenix.pos.validation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit Tests for StatelessValidator")
+class StatelessValidatorTest {
+
+    private static final String VALID_CARD = "6037997599999993";
+    private static final String VALID_IBAN = "IR062960000000100324200001";
+    private static final String VALID_NATIONAL_ID = "0084571365";
+
+    @Test
+    @DisplayName("Each outcome is a cached constant carrying the legacy reason")
+    void testValidate_results() {
+        assertSame(CardNumberValidator.Result.VALID, CardNumberValidator.INSTANCE.validate(VALID_CARD));
+        assertSame(CardNumberValidator.Result.EMPTY, CardNumberValidator.INSTANCE.validate(" "));
+        assertSame(CardNumberValidator.Result.INVALID_FORMAT, CardNumberValidator.INSTANCE.validate("1234567890123456"));
+        assertSame(CardNumberValidator.Result.INVALID_CHECKSUM, CardNumberValidator.INSTANCE.validate("6037997599999999"));
+
+        assertSame(IbanValidator.Result.VALID, IbanValidator.INSTANCE.validate(VALID_IBAN));
+        assertSame(IbanValidator.Result.INVALID_CHECKSUM, IbanValidator.INSTANCE.validate("IR000000000000000000000000"));
+        assertSame(IbanValidator.Result.INVALID_FORMAT, IbanValidator.INSTANCE.validate("XYZ123"));
+
+        assertSame(NationalIdValidator.Result.VALID, NationalIdValidator.INSTANCE.validate(VALID_NATIONAL_ID));
+        assertSame(NationalIdValidator.Result.DISALLOWED, NationalIdValidator.INSTANCE.validate("1111111111"));
+        assertSame(NationalIdValidator.Result.INVALID_FORMAT, NationalIdValidator.INSTANCE.validate("222222232"));
+
+        assertTrue(CellphoneNumberValidator.INSTANCE.test("+989121234567"));
+        assertFalse(CellphoneNumberValidator.INSTANCE.test("09121234567"));
+        assertEquals("Valid Iranian cellphone number.", CellphoneNumberValidator.INSTANCE.validate("00989121234567").getReason());
+    }
+
+    @Test
+    @DisplayName("The legacy isValid/getReason pair reports the same outcome")
+    void testLegacyApi_matchesResult() {
+        NationalIdValidator validator = new NationalIdValidator();
+        for (String input : new String[] {null, "", "12345", "0123456789", "0084571368", VALID_NATIONAL_ID}) {
+            ValidationResult result = validator.validate(input);
+            assertEquals(result.isValid(), validator.isValid(input));
+            assertEquals(result.getReason(), validator.getReason());
+        }
+    }
+
+    @Test
+    @DisplayName("A shared instance gives every thread its own outcome")
+    void testSharedInstance_concurrent() throws Exception {
+        StatelessValidator validator = CardNumberValidator.INSTANCE;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                String input = t % 2 == 0 ? VALID_CARD : "6037997599999999";
+                ValidationResult expected = t % 2 == 0
+                        ? CardNumberValidator.Result.VALID : CardNumberValidator.Result.INVALID_CHECKSUM;
+                tasks.add(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        if (validator.validate(input) != expected) {
+                            return false;
+                        }
+                    }
+                    return true;
+                });
+            }
+            for (Future<Boolean> future : executor.invokeAll(tasks)) {
+                assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.pos.repository;
+
+import com.pos.model.Product;
+import com.pos.repository.persistence.DurabilityLayer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.pos.ConcurrentTestSupport.runConcurrently;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Concurrency Tests for InventoryRepository stock reservations")
+class StockReservationConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 5_000;
+
+    private InventoryRepository inventoryRepository;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository = new InventoryRepository();
+        inventoryRepository.save(new Product("P001", "Mouse", "Wireless mouse", 20000, 100));
+        inventoryRepository.save(new Product("P002", "Keyboard", "Mechanical keyboard", 30000, 50));
+    }
+
+    @Test
+    @DisplayName("Concurrent sales of the last units never drive stock negative")
+    void testDecreaseStock_underContention() throws Exception {
+        AtomicInteger sold = new AtomicInteger();
+        AtomicBoolean wentNegative = new AtomicBoolean(false);
+
+        runConcurrently(THREADS, thread -> {
+            for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                if (inventoryRepository.decreaseStock("P001", 1)) {
+                    sold.incrementAndGet();
+                }
+                if (inventoryRepository.getAvailableStock("P001") < 0) {
+                    wentNegative.set(true);
+                }
+            }
+        });
+
+        assertFalse(wentNegative.get());
+        assertEquals(100, sold.get());
+        assertEquals(0, inventoryRepository.getAvailableStock("P001"));
+        assertEquals(0, inventoryRepository.findById("P001").get().getStock());
+        assertEquals(1, inventoryRepository.findOutOfStock().size());
+    }
+
+    @Test
+    @DisplayName("Concurrent baskets reserve, commit and release without overselling")
+    void testReserveCommitRelease_underContention() throws Exception {
+        AtomicInteger committedMice = new AtomicInteger();
+        AtomicInteger committedKeyboards = new AtomicInteger();
+        AtomicBoolean wentNegative = new AtomicBoolean(false);
+
+        runConcurrently(THREADS, thread -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                Map<String, Integer> basket = new LinkedHashMap<>();
+                basket.put("P001", 1 + random.nextInt(3));
+                basket.put("P002", 1 + random.nextInt(2));
+
+                Optional<StockReservation> reservation = inventoryRepository.reserve(basket);
+                if (inventoryRepository.getAvailableStock("P001") < 0 || inventoryRepository.getAvailableStock("P002") < 0) {
+                    wentNegative.set(true);
+                }
+                if (reservation.isEmpty()) continue;
+
+                if (random.nextInt(4) == 0) {
+                    assertTrue(inventoryRepository.commit(reservation.get()));
+                    committedMice.addAndGet(basket.get("P001"));
+                    committedKeyboards.addAndGet(basket.get("P002"));
+                } else {
+                    assertTrue(inventoryRepository.release(reservation.get()));
+                }
+                assertFalse(inventoryRepository.release(reservation.get()));
+            }
+        });
+
+        assertFalse(wentNegative.get());
+        assertEquals(100 - committedMice.get(), inventoryRepository.getAvailableStock("P001"));
+        assertEquals(50 - committedKeyboards.get(), inventoryRepository.getAvailableStock("P002"));
+        assertEquals(0, inventoryRepository.getReservedStock("P001"));
+        assertEquals(0, inventoryRepository.getReservedStock("P002"));
+    }
+
+    @Test
+    @DisplayName("A basket that cannot be fully satisfied reserves nothing")
+    void testReserve_allOrNothing() {
+        Map<String, Integer> basket = new LinkedHashMap<>();
+        basket.put("P001", 10);
+        basket.put("P002", 51);
+
+        assertTrue(inventoryRepository.reserve(basket).isEmpty());
+        assertEquals(100, inventoryRepository.getAvailableStock("P001"));
+        assertEquals(0, inventoryRepository.getReservedStock("P001"));
+    }
+
+    @Test
+    @DisplayName("Rolling back a basket whose product is deleted concurrently still returns the other lines")
+    void testReserveRollback_withConcurrentDelete() throws Exception {
+        inventoryRepository.save(new Product("P003", "Cable", "USB cable", 5000, 1_000));
+
+        runConcurrently(THREADS, thread -> {
+            boolean deleter = thread % 4 == 0;
+            for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                if (deleter) {
+                    inventoryRepository.deleteById("P003");
+                    inventoryRepository.save(new Product("P003", "Cable", "USB cable", 5000, 1_000));
+                } else {
+                    // The keyboard line is always short, so the cable and mouse lines are rolled back
+                    Map<String, Integer> basket = new LinkedHashMap<>();
+                    basket.put("P003", 1);
+                    basket.put("P001", 1);
+                    basket.put("P002", 51);
+                    assertTrue(inventoryRepository.reserve(basket).isEmpty());
+                }
+            }
+        });
+
+        assertEquals(100, inventoryRepository.getAvailableStock("P001"));
+        assertEquals(0, inventoryRepository.getReservedStock("P001"));
+        assertEquals(50, inventoryRepository.getAvailableStock("P002"));
+    }
+
+    @Test
+    @DisplayName("Recovery returns units held by pending reservations and keeps committed sales")
+    void testRecovery_returnsPendingReservations() {
+        RecordingDurability durability = new RecordingDurability();
+        InventoryRepository repository = new InventoryRepository(durability);
+        repository.save(new Product("P001", "Mouse", "Wireless mouse", 20000, 100));
+
+        StockReservation pending = repository.reserve(Map.of("P001", 30)).orElseThrow();
+        StockReservation sold = repository.reserve(Map.of("P001", 10)).orElseThrow();
+        assertTrue(repository.commit(sold));
+
+        assertEquals(60, repository.getAvailableStock("P001"));
+        assertEquals(30, repository.getReservedStock("P001"));
+        assertEquals(60, repository.findById("P001").get().getStock());
+        assertTrue(pending.isPending());
+
+        // A restart loses the pending reservation; its units are on hand again
+        InventoryRepository recovered = new InventoryRepository(durability);
+        assertEquals(90, recovered.getAvailableStock("P001"));
+        assertEquals(0, recovered.getReservedStock("P001"));
+    }
+
+    /** Keeps the last logged copy of each product, as a write-ahead log would replay it. */
+    private static final class RecordingDurability implements DurabilityLayer<Product> {
+        private final Map<String, Product> state = new ConcurrentHashMap<>();
+
+        @Override
+        public long logPut(String key, Product value) {
+            state.put(key, new Product(value));
+            return 0;
+        }
+
+        @Override
+        public long logDelete(String key) {
+            state.remove(key);
+            return 0;
+        }
+
+        @Override
+        public long logClear() {
+            state.clear();
+            return 0;
+        }
+
+        @Override
+        public void awaitDurable(long ticket) {
+            // Every change is recorded synchronously
+        }
+
+        @Override
+        public Map<String, Product> recover() {
+            Map<String, Product> copies = new HashMap<>();
+            state.forEach((key, product) -> copies.put(key, new Product(product)));
+            return copies;
+        }
+
+        @Override
+        public void close() {
+            // Nothing to release
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.pos.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keystroke latency of the cashier's find-customer box: each prefix of a name as it is
+ * typed is looked up through {@link SubstringIndex}, the way CustomerRepository.searchByName
+ * does, and by the full scan it replaced, which lower-cases every full name per query.
+ * {@code replace} re-puts one customer under a new name, the cost an edit pays under the
+ * write lock. Run after {@code mvn test-compile} with
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main SubstringIndexBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SubstringIndexBenchmark {
+
+    private static final String TYPED = "mohammad tabrizi-k";
+
+    private static final String[] FIRST_NAMES = {
+        "Mohammad", "Ali", "Reza", "Hossein", "Mahdi", "Amir", "Sara", "Fatemeh", "Zahra", "Maryam", "Neda", "Leila"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Ahmadi", "Karimi", "Moradi", "Rezaei", "Hosseini", "Tabrizi", "Mohammadi", "Jafari", "Rahimi", "Sadeghi"
+    };
+
+    @Param({"100000", "1000000"})
+    private int customers;
+
+    private SubstringIndex<String> index;
+    private String[] firstNames;
+    private String[] lastNames;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(25);
+        index = new SubstringIndex<>();
+        firstNames = new String[customers];
+        lastNames = new String[customers];
+        for (int i = 0; i < customers; i++) {
+            // A suffixed last name spreads trigrams the way real surnames do
+            firstNames[i] = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            lastNames[i] = LAST_NAMES[random.nextInt(LAST_NAMES.length)] + "-" + Integer.toString(random.nextInt(50_000), 36);
+            index.put("C" + i, (firstNames[i] + " " + lastNames[i]).toLowerCase(), "C" + i);
+        }
+    }
+
+    @Benchmark
+    public int indexed(Keystroke keystroke) {
+        return index.search(keystroke.query.toLowerCase()).size();
+    }
+
+    @Benchmark
+    public int scan(Keystroke keystroke) {
+        String query = keystroke.query.toLowerCase();
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < customers; i++) {
+            String fullName = (firstNames[i] + " " + lastNames[i]).toLowerCase();
+            if (fullName.contains(query)) result.add("C" + i);
+        }
+        return result.size();
+    }
+
+    @Benchmark
+    public void replace() {
+        int i = next++ % customers;
+        String name = (next & 1) == 0 ? firstNames[i] + " " + lastNames[i] : lastNames[i] + " " + firstNames[i];
+        index.put("C" + i, name.toLowerCase(), "C" + i);
+    }
+
+    /** The text in the search box after some number of keystrokes. */
+    @State(Scope.Benchmark)
+    public static class Keystroke {
+
+        @Param({"1", "2", "3", "8", "12", "18"})
+        private int typed;
+
+        private String query;
+
+        @Setup
+        public void setUp() {
+            query = TYPED.substring(0, typed);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.pos.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Best-seller ranking over order lines whose SKUs follow a log-uniform distribution,
+ * three ways: a plain map of totals grouped and sorted on every query ({@code fullSort}),
+ * {@link TopK#exact()} and {@link TopK#approximate(int)} with 10k counters. {@code update}
+ * is the cost of one order line and {@code top10} the cost of one query, both after
+ * {@code lines} lines have been loaded. The heap retained by each structure after loading
+ * is printed once per fork. Run after {@code mvn test-compile} with
+ * <pre>
+ * java -Xmx4g -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main TopKBenchmark -prof gc
+ * </pre>
+ * and add {@code -p lines=10000000} for the full ten-million-line workload.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TopKBenchmark {
+
+    private static final int SKUS = 1_000_000;
+    private static final int STREAM = 1 << 16;
+
+    @Param({"fullSort", "exact", "approximate"})
+    private String ranking;
+
+    @Param({"1000000"})
+    private int lines;
+
+    private Map<String, Double> totals;
+    private TopK<String> topK;
+    private String[] skus;
+    private double[] quantities;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(6);
+        skus = new String[STREAM];
+        quantities = new double[STREAM];
+        for (int i = 0; i < STREAM; i++) {
+            skus[i] = "SKU" + (long) Math.exp(random.nextDouble() * Math.log(SKUS));
+            quantities[i] = 1 + random.nextInt(5);
+        }
+
+        long before = usedHeap();
+        if (ranking.equals("fullSort")) {
+            totals = new HashMap<>();
+        } else {
+            topK = ranking.equals("exact") ? TopK.exact() : TopK.approximate(10_000);
+        }
+        for (int i = 0; i < lines; i++) {
+            String sku = "SKU" + (long) Math.exp(random.nextDouble() * Math.log(SKUS));
+            record(sku, 1 + random.nextInt(5));
+        }
+        System.out.printf("%n%s retains ~%d MB after %d lines%n", ranking, (usedHeap() - before) >> 20, lines);
+    }
+
+    @Benchmark
+    public void update() {
+        int i = next++ & (STREAM - 1);
+        record(skus[i], quantities[i]);
+    }
+
+    @Benchmark
+    public List<String> top10() {
+        if (totals != null) {
+            return totals.entrySet().stream()
+                    .sorted(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(10)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        }
+        return topK.top(10);
+    }
+
+    private void record(String sku, double quantity) {
+        if (totals != null) {
+            totals.merge(sku, quantity, Double::sum);
+        } else {
+            topK.increment(sku, quantity);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
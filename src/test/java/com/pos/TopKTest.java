@@ -0,0 +1,80 @@
+package com.pos.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit Tests for TopK")
+class TopKTest {
+
+    @Test
+    @DisplayName("Exact mode matches sorting every counter, including retractions")
+    void testExact_matchesFullSort() {
+        TopK<String> topK = TopK.exact();
+        Map<String, Double> counters = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 50_000; i++) {
+            String key = "K" + random.nextInt(500);
+            double delta = random.nextInt(4) == 0 && counters.containsKey(key) ? -1 : 1 + random.nextInt(5);
+            topK.increment(key, delta);
+            counters.merge(key, delta, Double::sum);
+            if (random.nextInt(1_000) == 0) {
+                topK.remove(key);
+                counters.remove(key);
+            }
+        }
+
+        List<String> expected = counters.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(20)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        assertEquals(expected, topK.top(20));
+        assertEquals(counters.size(), topK.size());
+        assertEquals(counters.get(expected.get(0)), topK.estimate(expected.get(0)), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Approximate mode keeps every heavy hitter within its error bound")
+    void testApproximate_findsHeavyHitters() {
+        int capacity = 200;
+        TopK<String> topK = TopK.approximate(capacity);
+        Map<String, Integer> counters = new HashMap<>();
+        Random random = new Random(11);
+        int total = 200_000;
+
+        for (int i = 0; i < total; i++) {
+            // Roughly Zipfian: a few keys are very frequent, most are rare
+            String key = "SKU" + (int) Math.floor(Math.pow(100_000, random.nextDouble()));
+            topK.increment(key, 1);
+            counters.merge(key, 1, Integer::sum);
+        }
+
+        assertEquals(capacity, topK.size());
+        List<String> top = topK.top(capacity);
+        counters.forEach((key, count) -> {
+            if (count > total / capacity) {
+                assertTrue(top.contains(key), key + " should be tracked");
+                assertTrue(topK.estimate(key) >= count, key + " estimate should not underestimate");
+            }
+        });
+        List<String> expectedTop5 = counters.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(5)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        assertEquals(expectedTop5, topK.top(5));
+    }
+
+    @Test
+    @DisplayName("Rejects a negative result size")
+    void testTop_negativeSize() {
+        assertThrows(IllegalArgumentException.class, () -> TopK.<String>exact().top(-1));
+        assertThrows(IllegalArgumentException.class, () -> TopK.<String>approximate(10).top(-1));
+    }
+}
@@ -0,0 +1,56 @@
+package com.phoenix.pos.validation;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a validator allocated per call (new instance, {@code isValid}, {@code getReason})
+ * with the shared {@code INSTANCE.validate()}, on mixed card and national-ID inputs.
+ * Run after {@code mvn test-compile} once per thread count:
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main ValidatorBenchmark -prof gc -t 1
+ * </pre>
+ * and again with {@code -t 4} and {@code -t 16}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidatorBenchmark {
+
+    private static final String[] CARDS = {
+        "6037997599999993", "6037997599999999", "1234567890123456", "60379975", "603799759999999a"
+    };
+
+    private static final String[] NATIONAL_IDS = {
+        "0084571365", "1111111111", "0084571366", "12345", "008457136x"
+    };
+
+    private int next;
+
+    @Benchmark
+    public void perCallInstance(Blackhole blackhole) {
+        int i = next++ % CARDS.length;
+        CardNumberValidator card = new CardNumberValidator();
+        blackhole.consume(card.isValid(CARDS[i]));
+        blackhole.consume(card.getReason());
+        NationalIdValidator nationalId = new NationalIdValidator();
+        blackhole.consume(nationalId.isValid(NATIONAL_IDS[i]));
+        blackhole.consume(nationalId.getReason());
+    }
+
+    @Benchmark
+    public void sharedInstance(Blackhole blackhole) {
+        int i = next++ % CARDS.length;
+        ValidationResult card = CardNumberValidator.INSTANCE.validate(CARDS[i]);
+        blackhole.consume(card.isValid());
+        blackhole.consume(card.getReason());
+        ValidationResult nationalId = NationalIdValidator.INSTANCE.validate(NATIONAL_IDS[i]);
+        blackhole.consume(nationalId.isValid());
+        blackhole.consume(nationalId.getReason());
+    }
+}
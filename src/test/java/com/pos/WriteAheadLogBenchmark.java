@@ -0,0 +1,78 @@
+package com.pos.repository.persistence;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Durable write throughput of {@link WriteAheadLog}: each operation logs a 300-byte record
+ * and waits until it is on disk, with group commit (one fsync per batch) and with an
+ * fsync per record. Group commit only pays off when writers overlap, so run after
+ * {@code mvn test-compile} once per thread count:
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main WriteAheadLogBenchmark -t 1
+ * </pre>
+ * and again with {@code -t 16}. Results depend on the disk under {@code java.io.tmpdir}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WriteAheadLogBenchmark {
+
+    private static final RecordCodec<String> CODEC = new RecordCodec<>() {
+        @Override
+        public byte[] encode(String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    private static final int KEYS = 10_000;
+
+    @Param({"true", "false"})
+    private boolean groupCommit;
+
+    private final AtomicLong next = new AtomicLong();
+    private Path directory;
+    private WriteAheadLog<String> wal;
+    private String record;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("wal-benchmark");
+        // Snapshots are off so every operation measures the append and its fsync alone
+        wal = new WriteAheadLog<>(directory, CODEC, groupCommit, 0);
+        char[] chars = new char[300];
+        Arrays.fill(chars, 'x');
+        record = new String(chars);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        wal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void durablePut() {
+        String key = "K" + next.getAndIncrement() % KEYS;
+        wal.awaitDurable(wal.logPut(key, record));
+    }
+}
@@ -0,0 +1,103 @@
+package com.pos.repository.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit Tests for WriteAheadLog")
+class WriteAheadLogTest {
+
+    private static final RecordCodec<String> CODEC = new RecordCodec<>() {
+        @Override
+        public byte[] encode(String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("wal-test");
+    }
+
+    @Test
+    @DisplayName("Replays puts, deletes and clears after a restart")
+    void testRecover_replaysLog() throws IOException {
+        try (WriteAheadLog<String> wal = new WriteAheadLog<>(directory, CODEC, true, 0)) {
+            wal.awaitDurable(wal.logPut("A", "1"));
+            wal.awaitDurable(wal.logPut("B", "2"));
+            wal.awaitDurable(wal.logClear());
+            wal.awaitDurable(wal.logPut("C", "3"));
+            wal.awaitDurable(wal.logPut("D", "4"));
+            wal.awaitDurable(wal.logPut("C", "5"));
+            wal.awaitDurable(wal.logDelete("D"));
+        }
+
+        try (WriteAheadLog<String> wal = new WriteAheadLog<>(directory, CODEC, true, 0)) {
+            assertEquals(Map.of("C", "5"), wal.recover());
+        }
+    }
+
+    @Test
+    @DisplayName("Recovers from a compacted snapshot plus the log tail")
+    void testRecover_fromSnapshotAndTail() throws IOException {
+        Map<String, String> expected = new HashMap<>();
+        try (WriteAheadLog<String> wal = new WriteAheadLog<>(directory, CODEC, false, 0)) {
+            for (int i = 0; i < 1_000; i++) {
+                wal.logPut("K" + (i % 100), "V" + i);
+                expected.put("K" + (i % 100), "V" + i);
+            }
+            wal.compact();
+            wal.logDelete("K1");
+            expected.remove("K1");
+            wal.logPut("K2", "tail");
+            expected.put("K2", "tail");
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.filter(p -> p.getFileName().toString().endsWith(".snap")).count());
+        }
+        try (WriteAheadLog<String> wal = new WriteAheadLog<>(directory, CODEC, false, 0)) {
+            assertEquals(expected, wal.recover());
+        }
+    }
+
+    @Test
+    @DisplayName("Ignores a torn record at the end of the log")
+    void testRecover_ignoresTornTail() throws IOException {
+        try (WriteAheadLog<String> wal = new WriteAheadLog<>(directory, CODEC, false, 0)) {
+            wal.logPut("A", "1");
+            wal.logPut("B", "2");
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(p -> p.getFileName().toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 40, 1, 2, 3}));
+        }
+
+        try (WriteAheadLog<String> wal = new WriteAheadLog<>(directory, CODEC, false, 0)) {
+            assertEquals(Map.of("A", "1", "B", "2"), wal.recover());
+        }
+    }
+}